@@ -41,8 +41,11 @@ import fr.free.nrw.commons.contributions.ContributionDao;
 import fr.free.nrw.commons.data.DBOpenHelper;
 import fr.free.nrw.commons.di.ApplicationlessInjection;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
+import fr.free.nrw.commons.kvstore.KvStoreFlusher;
 import fr.free.nrw.commons.logging.FileLoggingTree;
 import fr.free.nrw.commons.logging.LogUtils;
+import fr.free.nrw.commons.startup.DeferredInitializer;
+import fr.free.nrw.commons.startup.StartupTrace;
 import fr.free.nrw.commons.upload.FileUtils;
 import fr.free.nrw.commons.utils.ConfigUtils;
 import io.reactivex.android.schedulers.AndroidSchedulers;
@@ -98,6 +101,8 @@ public class CommonsApplication extends Application {
 
     public static final String FEEDBACK_EMAIL_TEMPLATE_HEADER = "-- Technical information --";
 
+    public static final String STARTUP_TRACE_FILE_NAME = "startup_trace.txt";
+
     /**
      * Constants End
      */
@@ -110,61 +115,79 @@ public class CommonsApplication extends Application {
     }
 
     private AppLanguageLookUpTable languageLookUpTable;
-    public AppLanguageLookUpTable getLanguageLookUpTable() {
+
+    /**
+     * @return the table of languages, created on first use unless it was already created in the
+     * background after the start of the app
+     */
+    public synchronized AppLanguageLookUpTable getLanguageLookUpTable() {
+        if (languageLookUpTable == null) {
+            languageLookUpTable = new AppLanguageLookUpTable(this);
+        }
         return languageLookUpTable;
     }
 
     /**
-     * Used to declare and initialize various components and dependencies
+     * Used to declare and initialize various components and dependencies.
+     *
+     * Only what the first screen needs is initialised here. The rest is initialised once it is
+     * shown, by a {@link DeferredInitializer}. The timings of each step are written to
+     * {@link #STARTUP_TRACE_FILE_NAME} in the files directory.
      */
     @Override
     public void onCreate() {
         super.onCreate();
+        StartupTrace startupTrace = new StartupTrace();
 
         INSTANCE = this;
-        ACRA.init(this);
+        startupTrace.step("ACRA", () -> ACRA.init(this));
 
-        ApplicationlessInjection
+        startupTrace.step("Injection", () -> ApplicationlessInjection
                 .getInstance(this)
                 .getCommonsApplicationComponent()
-                .inject(this);
+                .inject(this));
 
         AppAdapter.set(new CommonsAppAdapter(sessionManager, defaultPrefs));
+        registerActivityLifecycleCallbacks(new KvStoreFlusher());
 
-        initTimber();
-
-//        Set DownsampleEnabled to True to downsample the image in case it's heavy
-        ImagePipelineConfig config = ImagePipelineConfig.newBuilder(this)
-                .setDownsampleEnabled(true)
-                .build();
-        try {
-            Fresco.initialize(this, config);
-        } catch (Exception e) {
-            Timber.e(e);
-            // TODO: Remove when we're able to initialize Fresco in test builds.
-        }
-
-        createNotificationChannel(this);
+        // Files are only logged to once the first screen is shown
+        Timber.plant(new Timber.DebugTree());
 
-        languageLookUpTable = new AppLanguageLookUpTable(this);
+        startupTrace.step("Fresco", () -> {
+//            Set DownsampleEnabled to True to downsample the image in case it's heavy
+            ImagePipelineConfig config = ImagePipelineConfig.newBuilder(this)
+                    .setDownsampleEnabled(true)
+                    .build();
+            try {
+                Fresco.initialize(this, config);
+            } catch (Exception e) {
+                Timber.e(e);
+                // TODO: Remove when we're able to initialize Fresco in test builds.
+            }
+        });
 
         // This handler will catch exceptions thrown from Observables after they are disposed,
         // or from Observables that are (deliberately or not) missing an onError handler.
         RxJavaPlugins.setErrorHandler(Functions.emptyConsumer());
 
-        if (setupLeakCanary() == RefWatcher.DISABLED) {
-            return;
-        }
         // Fire progress callbacks for every 3% of uploaded content
         System.setProperty("in.yuvi.http.fluent.PROGRESS_TRIGGER_THRESHOLD", "3.0");
+
+        new DeferredInitializer(startupTrace, getStartupThreadPool())
+                .inBackground("File logging", this::initFileLogging)
+                .inBackground("Notification channel", () -> createNotificationChannel(this))
+                .inBackground("Language table", this::getLanguageLookUpTable)
+                .inBackground("Obsolete HTTP cache", this::deleteObsoleteHttpCache)
+                .onMainThread("LeakCanary", () -> refWatcher = setupLeakCanary())
+                .start(() -> startupTrace.write(new File(getFilesDir(), STARTUP_TRACE_FILE_NAME)));
     }
 
     /**
-     * Plants debug and file logging tree.
+     * Plants file logging tree.
      * Timber lets you plant your own logging trees.
      *
      */
-    private void initTimber() {
+    private void initFileLogging() {
         boolean isBeta = ConfigUtils.isBetaFlavour();
         String logFileName = isBeta ? "CommonsBetaAppLogs" : "CommonsAppLogs";
         String logDirectory = LogUtils.getLogDirectory();
@@ -176,13 +199,30 @@ public class CommonsApplication extends Application {
                 getFileLoggingThreadPool());
 
         Timber.plant(tree);
-        Timber.plant(new Timber.DebugTree());
+    }
+
+    /**
+     * Deletes the cache of the second OkHttp client the app used to have, now that all the
+     * requests share one cache
+     */
+    private void deleteObsoleteHttpCache() {
+        File directory = new File(getCacheDir(), OkHttpConnectionFactory.OBSOLETE_CACHE_DIR_NAME);
+        if (directory.exists() && FileUtils.deleteFile(directory) && !directory.delete()) {
+            Timber.w("Could not delete %s", directory);
+        }
     }
 
     public static boolean isRoboUnitTest() {
         return "robolectric".equals(Build.FINGERPRINT);
     }
 
+    private ThreadPoolService getStartupThreadPool() {
+        return new ThreadPoolService.Builder("deferred-startup-thread")
+                .setPoolSize(1)
+                .setExceptionHandler(new BackgroundPoolExceptionHandler())
+                .build();
+    }
+
     private ThreadPoolService getFileLoggingThreadPool() {
         return new ThreadPoolService.Builder("file-logging-thread")
                 .setPriority(Process.THREAD_PRIORITY_LOWEST)
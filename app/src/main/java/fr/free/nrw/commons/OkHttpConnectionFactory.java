@@ -13,25 +13,77 @@ import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import fr.free.nrw.commons.network.CachePolicyInterceptor;
+import fr.free.nrw.commons.network.NetworkMetrics;
+import fr.free.nrw.commons.network.NetworkMetricsInterceptor;
+import fr.free.nrw.commons.network.ResilienceInterceptor;
 import okhttp3.logging.HttpLoggingInterceptor;
 
+/**
+ * Owns the OkHttp client of the app. Clients for particular purposes are derived from the base
+ * client with newBuilder(), so all of them share one connection pool, dispatcher and disk cache,
+ * and reuse the connections, including HTTP/2 ones, opened by the others.
+ */
 public final class OkHttpConnectionFactory {
     private static final String CACHE_DIR_NAME = "okhttp-cache";
+    /**
+     * Cache directory of the separate client which the app used to have
+     */
+    public static final String OBSOLETE_CACHE_DIR_NAME = "okHttpCache";
     private static final long NET_CACHE_SIZE = 64 * 1024 * 1024;
     @NonNull private static final Cache NET_CACHE = new Cache(new File(CommonsApplication.getInstance().getCacheDir(),
             CACHE_DIR_NAME), NET_CACHE_SIZE);
 
+    private static final int NETWORK_METRICS_CAPACITY = 100;
+    @NonNull private static final NetworkMetrics NETWORK_METRICS = new NetworkMetrics(NETWORK_METRICS_CAPACITY);
+
+    /**
+     * Hosts which are known to be overloaded, and fail or answer slowly at times
+     */
+    private static final String WIKIDATA_QUERY_HOST = "query.wikidata.org";
+    private static final String TOOLS_FORGE_HOST = "tools.wmflabs.org";
+
+    @NonNull private static final OkHttpClient BASE_CLIENT = new OkHttpClient.Builder()
+            .cache(NET_CACHE)
+            .addInterceptor(new CachePolicyInterceptor(CommonsApplication.getInstance()))
+            .addInterceptor(new ResilienceInterceptor.Builder()
+                    .setTimeouts(WIKIDATA_QUERY_HOST, 10, 45, 15)
+                    .setCircuitBreaker(WIKIDATA_QUERY_HOST, 3, 60)
+                    .setTimeouts(TOOLS_FORGE_HOST, 10, 20, 20)
+                    .setCircuitBreaker(TOOLS_FORGE_HOST, 3, 60)
+                    .build())
+            .addNetworkInterceptor(new NetworkMetricsInterceptor(NETWORK_METRICS, 1))
+            .addNetworkInterceptor(new CachePolicyInterceptor.ResponseHeaderInterceptor())
+            .build();
+
     @NonNull private static OkHttpClient CLIENT = createClient();
 
+    /**
+     * @return the client to derive other clients from with newBuilder(), without the
+     * interceptors of any particular API
+     */
+    @NonNull public static OkHttpClient getBaseClient() {
+        return BASE_CLIENT;
+    }
+
+    /**
+     * @return the metrics of the latest requests made by any of the clients
+     */
+    @NonNull public static NetworkMetrics getNetworkMetrics() {
+        return NETWORK_METRICS;
+    }
+
+    /**
+     * @return the client of the Wikipedia data client services
+     */
     @NonNull public static OkHttpClient getClient() {
         return CLIENT;
     }
 
     @NonNull
     private static OkHttpClient createClient() {
-        return new OkHttpClient.Builder()
+        return BASE_CLIENT.newBuilder()
                 .cookieJar(SharedPreferenceCookieManager.getInstance())
-                .cache(NET_CACHE)
                 .addInterceptor(getLoggingInterceptor())
                 .addInterceptor(new UnsuccessfulResponseInterceptor())
                 .addInterceptor(new CommonHeaderRequestInterceptor())
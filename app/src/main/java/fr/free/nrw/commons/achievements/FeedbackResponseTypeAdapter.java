@@ -0,0 +1,132 @@
+package fr.free.nrw.commons.achievements;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming adapter of the achievements of a user, reading the same fields as the reflective
+ * adapter. Missing fields are 0 or null.
+ */
+public class FeedbackResponseTypeAdapter extends TypeAdapter<FeedbackResponse> {
+
+    @Override
+    public void write(JsonWriter out, FeedbackResponse response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("status").value(response.getStatus());
+        out.name("uniqueUsedImages").value(response.getUniqueUsedImages());
+        out.name("articlesUsingImages").value(response.getArticlesUsingImages());
+        out.name("deletedUploads").value(response.getDeletedUploads());
+        FeaturedImages featuredImages = response.getFeaturedImages();
+        if (featuredImages != null) {
+            out.name("featuredImages").beginObject()
+                    .name("Quality_images").value(featuredImages.getQualityImages())
+                    .name("Featured_pictures_on_Wikimedia_Commons")
+                    .value(featuredImages.getFeaturedPicturesOnWikimediaCommons())
+                    .endObject();
+        }
+        out.name("thanksReceived").value(response.getThanksReceived());
+        out.name("user").value(response.getUser());
+        out.name("imagesEditedBySomeoneElse").value(response.getImagesEditedBySomeoneElse());
+        out.endObject();
+    }
+
+    @Override
+    public FeedbackResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String status = null;
+        int uniqueUsedImages = 0;
+        int articlesUsingImages = 0;
+        int deletedUploads = 0;
+        FeaturedImages featuredImages = null;
+        int thanksReceived = 0;
+        String user = null;
+        int imagesEditedBySomeoneElse = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "status":
+                    status = nextString(in);
+                    break;
+                case "uniqueUsedImages":
+                    uniqueUsedImages = nextInt(in);
+                    break;
+                case "articlesUsingImages":
+                    articlesUsingImages = nextInt(in);
+                    break;
+                case "deletedUploads":
+                    deletedUploads = nextInt(in);
+                    break;
+                case "featuredImages":
+                    featuredImages = readFeaturedImages(in);
+                    break;
+                case "thanksReceived":
+                    thanksReceived = nextInt(in);
+                    break;
+                case "user":
+                    user = nextString(in);
+                    break;
+                case "imagesEditedBySomeoneElse":
+                    imagesEditedBySomeoneElse = nextInt(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return new FeedbackResponse(status, uniqueUsedImages, articlesUsingImages, deletedUploads,
+                featuredImages, thanksReceived, user, imagesEditedBySomeoneElse);
+    }
+
+    private FeaturedImages readFeaturedImages(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int qualityImages = 0;
+        int featuredPictures = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "Quality_images":
+                    qualityImages = nextInt(in);
+                    break;
+                case "Featured_pictures_on_Wikimedia_Commons":
+                    featuredPictures = nextInt(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return new FeaturedImages(qualityImages, featuredPictures);
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+}
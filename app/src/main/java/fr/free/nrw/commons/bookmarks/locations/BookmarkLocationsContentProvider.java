@@ -8,10 +8,7 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 import android.text.TextUtils;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
 import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
 import timber.log.Timber;
 
@@ -27,8 +24,6 @@ public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvid
         return Uri.parse(BASE_URI.toString() + "/" + name);
     }
 
-    @Inject DBOpenHelper dbOpenHelper;
-
     @Override
     public String getType(@NonNull Uri uri) {
         return null;
@@ -64,7 +59,7 @@ public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvid
             throw new IllegalArgumentException(
                     "Parameter `selection` should be empty when updating an ID");
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 
@@ -73,7 +68,7 @@ public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvid
     public Uri insert(@NonNull Uri uri, ContentValues contentValues) {
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         long id = sqlDB.insert(BookmarkLocationsDao.Table.TABLE_NAME, null, contentValues);
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
@@ -87,7 +82,7 @@ public class BookmarkLocationsContentProvider extends CommonsDaggerContentProvid
                 "location_name = ?",
                 new String[]{uri.getLastPathSegment()}
         );
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rows;
     }
 }
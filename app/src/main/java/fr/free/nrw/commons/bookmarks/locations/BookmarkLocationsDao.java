@@ -14,6 +14,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
 
+import fr.free.nrw.commons.data.RowDecoder;
 import fr.free.nrw.commons.location.LatLng;
 import fr.free.nrw.commons.nearby.Label;
 import fr.free.nrw.commons.nearby.Place;
@@ -47,8 +48,8 @@ public class BookmarkLocationsDao {
                     null,
                     new String[]{},
                     null);
-            while (cursor != null && cursor.moveToNext()) {
-                items.add(fromCursor(cursor));
+            if (cursor != null) {
+                items = DECODER.decodeAll(cursor);
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -142,23 +143,33 @@ public class BookmarkLocationsDao {
 
     @NonNull
     Place fromCursor(Cursor cursor) {
-        LatLng location = new LatLng(cursor.getDouble(cursor.getColumnIndex(Table.COLUMN_LAT)),
-                cursor.getDouble(cursor.getColumnIndex(Table.COLUMN_LONG)), 1F);
+        return DECODER.decode(cursor);
+    }
 
-        Sitelinks.Builder builder = new Sitelinks.Builder();
-        builder.setWikipediaLink(cursor.getString(cursor.getColumnIndex(Table.COLUMN_WIKIPEDIA_LINK)));
-        builder.setWikidataLink(cursor.getString(cursor.getColumnIndex(Table.COLUMN_WIKIDATA_LINK)));
-        builder.setCommonsLink(cursor.getString(cursor.getColumnIndex(Table.COLUMN_COMMONS_LINK)));
+    /**
+     * Indices follow the order of {@link Table#ALL_FIELDS}
+     */
+    private static final RowDecoder<Place> DECODER = new RowDecoder<Place>(Table.ALL_FIELDS) {
+        @Override
+        protected Place decode(@NonNull Cursor cursor, @NonNull int[] indices) {
+            LatLng location = new LatLng(cursor.getDouble(indices[5]),
+                    cursor.getDouble(indices[6]), 1F);
 
-        return new Place(
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_NAME)),
-                Label.fromText((cursor.getString(cursor.getColumnIndex(Table.COLUMN_LABEL_TEXT)))),
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_DESCRIPTION)),
-                location,
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_CATEGORY)),
-                builder.build()
-        );
-    }
+            Sitelinks.Builder builder = new Sitelinks.Builder();
+            builder.setWikipediaLink(cursor.getString(indices[8]));
+            builder.setWikidataLink(cursor.getString(indices[9]));
+            builder.setCommonsLink(cursor.getString(indices[10]));
+
+            return new Place(
+                    cursor.getString(indices[0]),
+                    Label.fromText((cursor.getString(indices[3]))),
+                    cursor.getString(indices[1]),
+                    location,
+                    cursor.getString(indices[2]),
+                    builder.build()
+            );
+        }
+    };
 
     private ContentValues toContentValues(Place bookmarkLocation) {
         ContentValues cv = new ContentValues();
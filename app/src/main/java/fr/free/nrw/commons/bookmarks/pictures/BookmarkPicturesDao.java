@@ -7,6 +7,7 @@ import android.database.sqlite.SQLiteDatabase;
 import android.os.RemoteException;
 import androidx.annotation.NonNull;
 import fr.free.nrw.commons.bookmarks.Bookmark;
+import fr.free.nrw.commons.data.RowDecoder;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -45,8 +46,8 @@ public class BookmarkPicturesDao {
                     null,
                     new String[]{},
                     null);
-            while (cursor != null && cursor.moveToNext()) {
-                items.add(fromCursor(cursor));
+            if (cursor != null) {
+                items = DECODER.decodeAll(cursor);
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -149,14 +150,21 @@ public class BookmarkPicturesDao {
 
     @NonNull
     Bookmark fromCursor(Cursor cursor) {
-        String fileName = cursor.getString(cursor.getColumnIndex(Table.COLUMN_MEDIA_NAME));
-        return new Bookmark(
-                fileName,
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_CREATOR)),
-                BookmarkPicturesContentProvider.uriForName(fileName)
-        );
+        return DECODER.decode(cursor);
     }
 
+    private static final RowDecoder<Bookmark> DECODER = new RowDecoder<Bookmark>(Table.ALL_FIELDS) {
+        @Override
+        protected Bookmark decode(@NonNull Cursor cursor, @NonNull int[] indices) {
+            String fileName = cursor.getString(indices[0]);
+            return new Bookmark(
+                    fileName,
+                    cursor.getString(indices[1]),
+                    BookmarkPicturesContentProvider.uriForName(fileName)
+            );
+        }
+    };
+
     private ContentValues toContentValues(Bookmark bookmark) {
         ContentValues cv = new ContentValues();
         cv.put(BookmarkPicturesDao.Table.COLUMN_MEDIA_NAME, bookmark.getMediaName());
@@ -9,4 +9,17 @@ class CampaignConfig {
 
     @SerializedName("showOnlyLiveCampaigns") private boolean showOnlyLiveCampaigns;
     @SerializedName("sortBy") private String sortBy;
+
+    CampaignConfig(boolean showOnlyLiveCampaigns, String sortBy) {
+        this.showOnlyLiveCampaigns = showOnlyLiveCampaigns;
+        this.sortBy = sortBy;
+    }
+
+    boolean isShowOnlyLiveCampaigns() {
+        return showOnlyLiveCampaigns;
+    }
+
+    String getSortBy() {
+        return sortBy;
+    }
 }
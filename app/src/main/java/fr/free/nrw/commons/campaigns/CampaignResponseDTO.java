@@ -14,6 +14,11 @@ public class CampaignResponseDTO {
     @SerializedName("campaigns")
     private List<Campaign> campaigns;
 
+    CampaignResponseDTO(CampaignConfig campaignConfig, List<Campaign> campaigns) {
+        this.campaignConfig = campaignConfig;
+        this.campaigns = campaigns;
+    }
+
     public CampaignConfig getCampaignConfig() {
         return campaignConfig;
     }
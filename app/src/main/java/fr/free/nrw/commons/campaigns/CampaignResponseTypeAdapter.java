@@ -0,0 +1,144 @@
+package fr.free.nrw.commons.campaigns;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming adapter of the response of the campaigns api, reading the same fields as the
+ * reflective adapter
+ */
+public class CampaignResponseTypeAdapter extends TypeAdapter<CampaignResponseDTO> {
+
+    @Override
+    public void write(JsonWriter out, CampaignResponseDTO response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        CampaignConfig config = response.getCampaignConfig();
+        if (config != null) {
+            out.name("config").beginObject()
+                    .name("showOnlyLiveCampaigns").value(config.isShowOnlyLiveCampaigns())
+                    .name("sortBy").value(config.getSortBy())
+                    .endObject();
+        }
+        List<Campaign> campaigns = response.getCampaigns();
+        if (campaigns != null) {
+            out.name("campaigns").beginArray();
+            for (Campaign campaign : campaigns) {
+                writeCampaign(out, campaign);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    private void writeCampaign(JsonWriter out, Campaign campaign) throws IOException {
+        if (campaign == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject()
+                .name("title").value(campaign.getTitle())
+                .name("description").value(campaign.getDescription())
+                .name("startDate").value(campaign.getStartDate())
+                .name("endDate").value(campaign.getEndDate())
+                .name("link").value(campaign.getLink())
+                .endObject();
+    }
+
+    @Override
+    public CampaignResponseDTO read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        CampaignConfig config = null;
+        List<Campaign> campaigns = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            } else if ("config".equals(name)) {
+                config = readConfig(in);
+            } else if ("campaigns".equals(name)) {
+                campaigns = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    campaigns.add(readCampaign(in));
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new CampaignResponseDTO(config, campaigns);
+    }
+
+    private CampaignConfig readConfig(JsonReader in) throws IOException {
+        boolean showOnlyLiveCampaigns = false;
+        String sortBy = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            } else if ("showOnlyLiveCampaigns".equals(name)) {
+                showOnlyLiveCampaigns = in.nextBoolean();
+            } else if ("sortBy".equals(name)) {
+                sortBy = in.nextString();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new CampaignConfig(showOnlyLiveCampaigns, sortBy);
+    }
+
+    private Campaign readCampaign(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Campaign campaign = new Campaign();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "title":
+                    campaign.setTitle(in.nextString());
+                    break;
+                case "description":
+                    campaign.setDescription(in.nextString());
+                    break;
+                case "startDate":
+                    campaign.setStartDate(in.nextString());
+                    break;
+                case "endDate":
+                    campaign.setEndDate(in.nextString());
+                    break;
+                case "link":
+                    campaign.setLink(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return campaign;
+    }
+}
@@ -9,10 +9,7 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 import android.text.TextUtils;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
 import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
 import timber.log.Timber;
 
@@ -41,8 +38,6 @@ public class CategoryContentProvider extends CommonsDaggerContentProvider {
         return Uri.parse(BASE_URI.toString() + "/" + id);
     }
 
-    @Inject DBOpenHelper dbOpenHelper;
-
     @SuppressWarnings("ConstantConditions")
     @Override
     public Cursor query(@NonNull Uri uri, String[] projection, String selection,
@@ -97,7 +92,7 @@ public class CategoryContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
@@ -113,19 +108,22 @@ public class CategoryContentProvider extends CommonsDaggerContentProvider {
         int uriType = uriMatcher.match(uri);
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         sqlDB.beginTransaction();
-        switch (uriType) {
-            case CATEGORIES:
-                for (ContentValues value : values) {
-                    Timber.d("Inserting! %s", value);
-                    sqlDB.insert(TABLE_NAME, null, value);
-                }
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown URI: " + uri);
+        try {
+            switch (uriType) {
+                case CATEGORIES:
+                    for (ContentValues value : values) {
+                        Timber.d("Inserting! %s", value);
+                        sqlDB.insert(TABLE_NAME, null, value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown URI: " + uri);
+            }
+            sqlDB.setTransactionSuccessful();
+        } finally {
+            sqlDB.endTransaction();
         }
-        sqlDB.setTransactionSuccessful();
-        sqlDB.endTransaction();
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return values.length;
     }
 
@@ -161,7 +159,7 @@ public class CategoryContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri + " with type " + uriType);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 }
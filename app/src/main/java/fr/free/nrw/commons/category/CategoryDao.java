@@ -1,13 +1,18 @@
 package fr.free.nrw.commons.category;
 
 import android.content.ContentProviderClient;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentValues;
+import android.content.OperationApplicationException;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.os.RemoteException;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import fr.free.nrw.commons.data.RowDecoder;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -40,6 +45,40 @@ public class CategoryDao {
         }
     }
 
+    /**
+     * Saves the categories in a single transaction
+     */
+    public void saveAll(List<Category> categories) {
+        if (categories.isEmpty()) {
+            return;
+        }
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            if (category.getContentUri() == null) {
+                operations.add(ContentProviderOperation.newInsert(CategoryContentProvider.BASE_URI)
+                        .withValues(toContentValues(category))
+                        .build());
+            } else {
+                operations.add(ContentProviderOperation.newUpdate(category.getContentUri())
+                        .withValues(toContentValues(category))
+                        .build());
+            }
+        }
+        ContentProviderClient db = clientProvider.get();
+        try {
+            ContentProviderResult[] results = db.applyBatch(operations);
+            for (int i = 0; i < categories.size(); i++) {
+                if (categories.get(i).getContentUri() == null) {
+                    categories.get(i).setContentUri(results[i].uri);
+                }
+            }
+        } catch (RemoteException | OperationApplicationException e) {
+            throw new RuntimeException(e);
+        } finally {
+            db.release();
+        }
+    }
+
     /**
      * Find persisted category in database, based on its name.
      *
@@ -85,14 +124,13 @@ public class CategoryDao {
         try {
             cursor = db.query(
                     CategoryContentProvider.BASE_URI,
-                    Table.ALL_FIELDS,
+                    NAME_DECODER.getColumns(),
                     null,
                     new String[]{},
                     Table.COLUMN_LAST_USED + " DESC");
             // fixme add a limit on the original query instead of falling out of the loop?
-            while (cursor != null && cursor.moveToNext()
-                    && cursor.getPosition() < limit) {
-                items.add(fromCursor(cursor).getName());
+            if (cursor != null) {
+                items = NAME_DECODER.decodeAll(cursor, limit);
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -107,15 +145,31 @@ public class CategoryDao {
 
     @NonNull
     Category fromCursor(Cursor cursor) {
-        // Hardcoding column positions!
-        return new Category(
-                CategoryContentProvider.uriForId(cursor.getInt(cursor.getColumnIndex(Table.COLUMN_ID))),
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_NAME)),
-                new Date(cursor.getLong(cursor.getColumnIndex(Table.COLUMN_LAST_USED))),
-                cursor.getInt(cursor.getColumnIndex(Table.COLUMN_TIMES_USED))
-        );
+        return DECODER.decode(cursor);
     }
 
+    private static final RowDecoder<Category> DECODER = new RowDecoder<Category>(Table.ALL_FIELDS) {
+        @Override
+        protected Category decode(@NonNull Cursor cursor, @NonNull int[] indices) {
+            return new Category(
+                    CategoryContentProvider.uriForId(cursor.getInt(indices[0])),
+                    cursor.getString(indices[1]),
+                    new Date(cursor.getLong(indices[2])),
+                    cursor.getInt(indices[3])
+            );
+        }
+    };
+
+    /**
+     * Reads only the names, for lists of recent categories
+     */
+    private static final RowDecoder<String> NAME_DECODER = new RowDecoder<String>(Table.COLUMN_NAME) {
+        @Override
+        protected String decode(@NonNull Cursor cursor, @NonNull int[] indices) {
+            return cursor.getString(indices[0]);
+        }
+    };
+
     private ContentValues toContentValues(Category category) {
         ContentValues cv = new ContentValues();
         cv.put(CategoryDao.Table.COLUMN_NAME, category.getName());
@@ -149,8 +203,12 @@ public class CategoryDao {
                 + COLUMN_TIMES_USED + " INTEGER"
                 + ");";
 
+        static final String CREATE_NAME_INDEX_STATEMENT = "CREATE INDEX IF NOT EXISTS "
+                + "categories_name ON " + TABLE_NAME + " (" + COLUMN_NAME + ");";
+
         public static void onCreate(SQLiteDatabase db) {
             db.execSQL(CREATE_TABLE_STATEMENT);
+            db.execSQL(CREATE_NAME_INDEX_STATEMENT);
         }
 
         public static void onDelete(SQLiteDatabase db) {
@@ -180,6 +238,19 @@ public class CategoryDao {
                 onUpdate(db, from, to);
                 return;
             }
+            if (from > 5 && from < 11) {
+                // Table didn't change
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from == 11) {
+                // Index for find() added in version 12
+                db.execSQL(CREATE_NAME_INDEX_STATEMENT);
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
         }
     }
 }
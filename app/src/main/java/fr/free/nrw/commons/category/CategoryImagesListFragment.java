@@ -27,6 +27,7 @@ import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.explore.categories.ExploreActivity;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
+import fr.free.nrw.commons.media.AdaptivePaging;
 import fr.free.nrw.commons.media.MediaClient;
 import fr.free.nrw.commons.utils.NetworkUtils;
 import fr.free.nrw.commons.utils.ViewUtil;
@@ -56,6 +57,7 @@ public class CategoryImagesListFragment extends DaggerFragment {
     private boolean hasMoreImages = true;
     private boolean isLoading = true;
     private String categoryName = null;
+    private final AdaptivePaging paging = new AdaptivePaging();
 
     @Inject MediaClient mediaClient;
     @Inject
@@ -106,7 +108,7 @@ public class CategoryImagesListFragment extends DaggerFragment {
     }
 
     /**
-     * Checks for internet connection and then initializes the grid view with first 10 images of that category
+     * Checks for internet connection and then initializes the grid view with the first page of images of that category
      */
     @SuppressLint("CheckResult")
     private void initList() {
@@ -117,7 +119,8 @@ public class CategoryImagesListFragment extends DaggerFragment {
 
         isLoading = true;
         progressBar.setVisibility(VISIBLE);
-        compositeDisposable.add(mediaClient.getMediaListFromCategory(categoryName)
+        mediaClient.resetMediaListFromCategory(categoryName);
+        compositeDisposable.add(mediaClient.getMediaListFromCategory(categoryName, paging.nextPageSize(getContext()))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
@@ -175,7 +178,8 @@ public class CategoryImagesListFragment extends DaggerFragment {
     }
 
     /**
-     * Sets the scroll listener for the grid view so that more images are fetched when the user scrolls down
+     * Sets the scroll listener for the grid view so that more images are fetched when the user scrolls down,
+     * before the end is reached
      * Checks if the category has more images before loading
      * Also checks whether images are currently being fetched before triggering another request
      */
@@ -187,7 +191,8 @@ public class CategoryImagesListFragment extends DaggerFragment {
 
             @Override
             public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
-                if (hasMoreImages && !isLoading && (firstVisibleItem + visibleItemCount + 1 >= totalItemCount)) {
+                if (paging.shouldLoadMore(firstVisibleItem, visibleItemCount, totalItemCount)
+                        && hasMoreImages && !isLoading) {
                     isLoading = true;
                     fetchMoreImages();
                 }
@@ -223,7 +228,7 @@ public class CategoryImagesListFragment extends DaggerFragment {
         }
 
         progressBar.setVisibility(VISIBLE);
-        compositeDisposable.add(mediaClient.getMediaListFromCategory(categoryName)
+        compositeDisposable.add(mediaClient.getMediaListFromCategory(categoryName, paging.nextPageSize(getContext()))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
@@ -242,6 +247,7 @@ public class CategoryImagesListFragment extends DaggerFragment {
             return;
         }
 
+        paging.prefetchThumbnails(getContext(), getItemImageView(), collection);
         if (gridAdapter == null) {
             setAdapter(collection);
         } else {
@@ -271,6 +277,15 @@ public class CategoryImagesListFragment extends DaggerFragment {
         statusTextView.setVisibility(GONE);
     }
 
+    /**
+     * @return the image of the first item of the grid, or null if it has none
+     */
+    @Nullable
+    private View getItemImageView() {
+        return gridView.getChildCount() == 0 ? null
+                : gridView.getChildAt(0).findViewById(R.id.categoryImageView);
+    }
+
     /**
      * It return an instance of gridView adapter which helps in extracting media details
      * used by the gridView
@@ -2,8 +2,10 @@ package fr.free.nrw.commons.category;
 
 import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 
+import fr.free.nrw.commons.network.CachePolicy;
 import io.reactivex.Observable;
 import retrofit2.http.GET;
+import retrofit2.http.Headers;
 import retrofit2.http.Query;
 
 /**
@@ -35,11 +37,13 @@ public interface CategoryInterface {
     Observable<MwQueryResponse> searchCategoriesForPrefix(@Query("gacprefix") String prefix,
                                                           @Query("gaclimit") int itemLimit, @Query("gacoffset") int offset);
 
+    @Headers(CachePolicy.CATEGORIES)
     @GET("w/api.php?action=query&format=json&formatversion=2"
             + "&generator=categorymembers&gcmtype=subcat"
             + "&prop=info&gcmlimit=500")
     Observable<MwQueryResponse> getSubCategoryList(@Query("gcmtitle") String categoryName);
 
+    @Headers(CachePolicy.CATEGORIES)
     @GET("w/api.php?action=query&format=json&formatversion=2"
             + "&generator=categories&prop=info&gcllimit=500")
     Observable<MwQueryResponse> getParentCategoryList(@Query("titles") String categoryName);
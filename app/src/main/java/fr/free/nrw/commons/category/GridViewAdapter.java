@@ -16,6 +16,7 @@ import java.util.Locale;
 
 import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.R;
+import fr.free.nrw.commons.media.ThumbnailResolver;
 
 /**
  * This is created to only display UI implementation. Needs to be changed in real implementation
@@ -88,7 +89,7 @@ public class GridViewAdapter extends ArrayAdapter {
         TextView author = convertView.findViewById(R.id.categoryImageAuthor);
         fileName.setText(item.getDisplayTitle());
         setAuthorView(item, author);
-        imageView.setImageURI(item.getThumbUrl());
+        imageView.setImageURI(ThumbnailResolver.resolve(getContext(), imageView, item.getThumbUrl()));
         return convertView;
     }
 
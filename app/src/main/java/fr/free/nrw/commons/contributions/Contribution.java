@@ -49,6 +49,10 @@ public class  Contribution extends Media {
     public static final int STATE_QUEUED = 2;
     public static final int STATE_IN_PROGRESS = 3;
 
+    // Upload queue priorities, higher values are uploaded first
+    public static final int PRIORITY_NORMAL = 0;
+    public static final int PRIORITY_HIGH = 1;
+
     @Retention(SOURCE)
     @StringDef({SOURCE_CAMERA, SOURCE_GALLERY, SOURCE_EXTERNAL})
     public @interface FileSource {}
@@ -67,6 +71,7 @@ public class  Contribution extends Media {
     private String wikiDataEntityId;
     private Uri contentProviderUri;
     private String dateCreatedSource;
+    private int priority = PRIORITY_NORMAL;
 
     public Contribution(Uri contentUri, String filename, Uri localUri, String imageUrl, Date dateCreated,
                         int state, long dataLength, Date dateUploaded, long transferred,
@@ -245,10 +250,27 @@ public class  Contribution extends Media {
         this.localUri = localUri;
     }
 
+    public String getDecimalCoords() {
+        return decimalCoords;
+    }
+
     public void setDecimalCoords(String decimalCoords) {
         this.decimalCoords = decimalCoords;
     }
 
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the position of the contribution in the upload queue, uploads with a higher priority
+     * are started first
+     * @param priority PRIORITY_NORMAL or PRIORITY_HIGH
+     */
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
     @NonNull
     private String licenseTemplateFor(String license) {
         switch (license) {
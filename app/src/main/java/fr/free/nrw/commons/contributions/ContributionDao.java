@@ -1,18 +1,29 @@
 package fr.free.nrw.commons.contributions;
 
 import android.content.ContentProviderClient;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentValues;
+import android.content.OperationApplicationException;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
 import android.net.Uri;
 import android.os.RemoteException;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import android.text.TextUtils;
+import fr.free.nrw.commons.data.RowDecoder;
 import fr.free.nrw.commons.settings.Prefs;
 
 import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Provider;
@@ -32,11 +43,28 @@ public class ContributionDao {
         Completed (Sorted in descending order of time added)
 
         This is why Contribution.STATE_COMPLETED is -1.
+
+        The sort key column holds timestamp * state, so the whole order is served by an index.
      */
     static final String CONTRIBUTION_SORT = Table.COLUMN_STATE + " DESC, "
-            + Table.COLUMN_UPLOADED + " DESC , ("
-            + Table.COLUMN_TIMESTAMP + " * "
-            + Table.COLUMN_STATE + ")";
+            + Table.COLUMN_UPLOADED + " DESC, "
+            + Table.COLUMN_SORT_KEY;
+
+    /*
+        Order of the upload queue: higher priority first, then in the order the uploads were added
+     */
+    static final String UPLOAD_QUEUE_SORT = Table.COLUMN_PRIORITY + " DESC, "
+            + Table.COLUMN_ID + " ASC";
+
+    /*
+        Order of the completed contributions within the list, with the id to break ties so every
+        row has a distinct key to page from
+     */
+    static final String COMPLETED_PAGE_SORT = Table.COLUMN_UPLOADED + " DESC, "
+            + Table.COLUMN_SORT_KEY + ", "
+            + Table.COLUMN_ID;
+
+    private static final String CATEGORY_SEPARATOR = "|";
 
     private final Provider<ContentProviderClient> clientProvider;
 
@@ -56,6 +84,57 @@ public class ContributionDao {
         }
     }
 
+    /**
+     * Loads the contributions which are not completed, i.e. queued, failed or being uploaded, in
+     * the order of the contributions list. These come before the completed contributions.
+     */
+    Cursor loadUnfinishedContributions() {
+        ContentProviderClient db = clientProvider.get();
+        try {
+            return db.query(BASE_URI, ALL_FIELDS, Table.COLUMN_STATE + " != ?",
+                    new String[]{String.valueOf(Contribution.STATE_COMPLETED)}, CONTRIBUTION_SORT);
+        } catch (RemoteException e) {
+            return null;
+        } finally {
+            db.release();
+        }
+    }
+
+    /**
+     * Loads a page of completed contributions in the order of the contributions list. Pages are
+     * found by their key through the sort index rather than by offset, so a page deep into the
+     * history costs as much as the first one.
+     *
+     * @param after key of the last row of the previous page, or null to start at the beginning
+     * @param until key of the last row to include, or null to include rows up to the limit
+     * @param limit maximum number of rows, or 0 for no limit
+     */
+    Cursor loadCompletedPage(@Nullable PageKey after, @Nullable PageKey until, int limit) {
+        StringBuilder selection = new StringBuilder(Table.COLUMN_STATE + " = ?");
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(Contribution.STATE_COMPLETED));
+        if (after != null) {
+            selection.append(" AND (");
+            after.appendAfterSelection(selection, args);
+            selection.append(")");
+        }
+        if (until != null) {
+            selection.append(" AND NOT (");
+            until.appendAfterSelection(selection, args);
+            selection.append(")");
+        }
+        String sortOrder = limit > 0 ? COMPLETED_PAGE_SORT + " LIMIT " + limit : COMPLETED_PAGE_SORT;
+        ContentProviderClient db = clientProvider.get();
+        try {
+            return db.query(BASE_URI, ALL_FIELDS, selection.toString(),
+                    args.toArray(new String[0]), sortOrder);
+        } catch (RemoteException e) {
+            return null;
+        } finally {
+            db.release();
+        }
+    }
+
     public void save(Contribution contribution) {
         ContentProviderClient db = clientProvider.get();
         try {
@@ -71,6 +150,128 @@ public class ContributionDao {
         }
     }
 
+    /**
+     * Saves the contributions in a single transaction
+     */
+    public void saveAll(List<Contribution> contributions) {
+        if (contributions.isEmpty()) {
+            return;
+        }
+        ArrayList<ContentProviderOperation> operations = new ArrayList<>(contributions.size());
+        for (Contribution contribution : contributions) {
+            if (contribution.getContentUri() == null) {
+                operations.add(ContentProviderOperation.newInsert(BASE_URI)
+                        .withValues(toContentValues(contribution))
+                        .build());
+            } else {
+                operations.add(ContentProviderOperation.newUpdate(contribution.getContentUri())
+                        .withValues(toContentValues(contribution))
+                        .build());
+            }
+        }
+        ContentProviderClient db = clientProvider.get();
+        try {
+            ContentProviderResult[] results = db.applyBatch(operations);
+            for (int i = 0; i < contributions.size(); i++) {
+                if (contributions.get(i).getContentUri() == null) {
+                    contributions.get(i).setContentUri(results[i].uri);
+                }
+            }
+        } catch (RemoteException | OperationApplicationException e) {
+            throw new RuntimeException(e);
+        } finally {
+            db.release();
+        }
+    }
+
+    /**
+     * Loads the file names of all the contributions in one query, so callers can check for
+     * existing files without a query per file
+     */
+    public Set<String> getFilenames() {
+        Set<String> filenames = new HashSet<>();
+        ContentProviderClient db = clientProvider.get();
+        try (Cursor cursor = db.query(BASE_URI, FILENAME_DECODER.getColumns(),
+                Table.COLUMN_FILENAME + " IS NOT NULL", null, null)) {
+            if (cursor != null) {
+                filenames.addAll(FILENAME_DECODER.decodeAll(cursor));
+            }
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        } finally {
+            db.release();
+        }
+        return filenames;
+    }
+
+    /**
+     * Loads the contributions waiting in the upload queue, in the order they should be uploaded
+     */
+    public List<Contribution> getPendingUploads() {
+        ContentProviderClient db = clientProvider.get();
+        try (Cursor cursor = db.query(BASE_URI, ALL_FIELDS,
+                Table.COLUMN_STATE + " = ? OR " + Table.COLUMN_STATE + " = ?",
+                new String[]{String.valueOf(Contribution.STATE_QUEUED),
+                        String.valueOf(Contribution.STATE_IN_PROGRESS)},
+                UPLOAD_QUEUE_SORT)) {
+            return cursor == null ? new ArrayList<>() : DECODER.decodeAll(cursor);
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        } finally {
+            db.release();
+        }
+    }
+
+    /**
+     * Loads only the queued contribution to upload next, in the order of the upload queue
+     *
+     * @param excludedUris content URIs of the contributions to skip, e.g. those being uploaded
+     */
+    @Nullable
+    public Contribution getNextQueuedUpload(Set<Uri> excludedUris) {
+        StringBuilder selection = new StringBuilder(Table.COLUMN_STATE + " = ?");
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(Contribution.STATE_QUEUED));
+        if (!excludedUris.isEmpty()) {
+            selection.append(" AND " + Table.COLUMN_ID + " NOT IN (");
+            for (Uri uri : excludedUris) {
+                selection.append(args.size() > 1 ? ", ?" : "?");
+                args.add(uri.getLastPathSegment());
+            }
+            selection.append(")");
+        }
+        ContentProviderClient db = clientProvider.get();
+        try (Cursor cursor = db.query(BASE_URI, ALL_FIELDS, selection.toString(),
+                args.toArray(new String[0]), UPLOAD_QUEUE_SORT + " LIMIT 1")) {
+            return cursor != null && cursor.moveToFirst() ? DECODER.decode(cursor) : null;
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        } finally {
+            db.release();
+        }
+    }
+
+    /**
+     * Puts uploads which were interrupted, e.g. by the upload service being killed, back into the
+     * queue so they start over
+     *
+     * @return the number of uploads put back into the queue
+     */
+    public int requeueInterruptedUploads() {
+        ContentValues cv = new ContentValues();
+        cv.put(Table.COLUMN_STATE, Contribution.STATE_QUEUED);
+        cv.put(Table.COLUMN_TRANSFERRED, 0);
+        ContentProviderClient db = clientProvider.get();
+        try {
+            return db.update(BASE_URI, cv, Table.COLUMN_STATE + " = ?",
+                    new String[]{String.valueOf(Contribution.STATE_IN_PROGRESS)});
+        } catch (RemoteException e) {
+            throw new RuntimeException(e);
+        } finally {
+            db.release();
+        }
+    }
+
     public void delete(Contribution contribution) {
         ContentProviderClient db = clientProvider.get();
         try {
@@ -101,8 +302,10 @@ public class ContributionDao {
         }
         cv.put(Table.COLUMN_LENGTH, contribution.getDataLength());
         //This was always meant to store the date created..If somehow date created is not fetched while actually saving the contribution, lets saveValue today's date
-        cv.put(Table.COLUMN_TIMESTAMP, contribution.getDateCreated()==null?System.currentTimeMillis():contribution.getDateCreated().getTime());
+        long timestamp = contribution.getDateCreated() == null ? System.currentTimeMillis() : contribution.getDateCreated().getTime();
+        cv.put(Table.COLUMN_TIMESTAMP, timestamp);
         cv.put(Table.COLUMN_STATE, contribution.getState());
+        cv.put(Table.COLUMN_SORT_KEY, timestamp * contribution.getState());
         cv.put(Table.COLUMN_TRANSFERRED, contribution.getTransferred());
         cv.put(Table.COLUMN_SOURCE, contribution.getSource());
         cv.put(Table.COLUMN_DESCRIPTION, contribution.getDescription());
@@ -112,48 +315,83 @@ public class ContributionDao {
         cv.put(Table.COLUMN_HEIGHT, contribution.getHeight());
         cv.put(Table.COLUMN_LICENSE, contribution.getLicense());
         cv.put(Table.COLUMN_WIKI_DATA_ENTITY_ID, contribution.getWikiDataEntityId());
+        cv.put(Table.COLUMN_PRIORITY, contribution.getPriority());
+        cv.put(Table.COLUMN_CATEGORIES, StringUtils.join(contribution.getCategories(), CATEGORY_SEPARATOR));
+        cv.put(Table.COLUMN_DECIMAL_COORDS, contribution.getDecimalCoords());
         return cv;
     }
 
     public Contribution fromCursor(Cursor cursor) {
-        // Hardcoding column positions!
         //Check that cursor has a value to avoid CursorIndexOutOfBoundsException
         if (cursor.getCount() > 0) {
-            int index;
-            if (cursor.getColumnIndex(Table.COLUMN_LICENSE) == -1){
-                index = 15;
-            } else {
-                index = cursor.getColumnIndex(Table.COLUMN_LICENSE);
-            }
+            return DECODER.decode(cursor);
+        }
+        return null;
+    }
+
+    /**
+     * Decodes all the rows of the cursor, looking up the columns once
+     */
+    public List<Contribution> listFromCursor(Cursor cursor) {
+        return DECODER.decodeAll(cursor);
+    }
+
+    /**
+     * Decodes contributions from rows of {@link Table#ALL_FIELDS}, or projections with fewer of
+     * the trailing columns
+     */
+    private static final RowDecoder<Contribution> DECODER = new RowDecoder<Contribution>(ALL_FIELDS) {
+        @Override
+        protected Contribution decode(@NonNull Cursor cursor, @NonNull int[] indices) {
+            // Indices follow the order of ALL_FIELDS. Hardcoding the license column position
+            // for projections which name it differently.
+            int licenseIndex = indices[15] == -1 ? 15 : indices[15];
             Contribution contribution = new Contribution(
-                    uriForId(cursor.getInt(cursor.getColumnIndex(Table.COLUMN_ID))),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_FILENAME)),
-                    parseUri(cursor.getString(cursor.getColumnIndex(Table.COLUMN_LOCAL_URI))),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_IMAGE_URL)),
-                    parseTimestamp(cursor.getLong(cursor.getColumnIndex(Table.COLUMN_TIMESTAMP))),
-                    cursor.getInt(cursor.getColumnIndex(Table.COLUMN_STATE)),
-                    cursor.getLong(cursor.getColumnIndex(Table.COLUMN_LENGTH)),
-                    parseTimestamp(cursor.getLong(cursor.getColumnIndex(Table.COLUMN_UPLOADED))),
-                    cursor.getLong(cursor.getColumnIndex(Table.COLUMN_TRANSFERRED)),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_SOURCE)),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_DESCRIPTION)),
-                    cursor.getString(cursor.getColumnIndex(Table.COLUMN_CREATOR)),
-                    cursor.getInt(cursor.getColumnIndex(Table.COLUMN_MULTIPLE)) == 1,
-                    cursor.getInt(cursor.getColumnIndex(Table.COLUMN_WIDTH)),
-                    cursor.getInt(cursor.getColumnIndex(Table.COLUMN_HEIGHT)),
-                    cursor.getString(index)
+                    uriForId(cursor.getInt(indices[0])),
+                    cursor.getString(indices[1]),
+                    parseUri(cursor.getString(indices[2])),
+                    cursor.getString(indices[3]),
+                    parseTimestamp(cursor.getLong(indices[4])),
+                    cursor.getInt(indices[5]),
+                    cursor.getLong(indices[6]),
+                    parseTimestamp(cursor.getLong(indices[7])),
+                    cursor.getLong(indices[8]),
+                    cursor.getString(indices[9]),
+                    cursor.getString(indices[10]),
+                    cursor.getString(indices[11]),
+                    cursor.getInt(indices[12]) == 1,
+                    cursor.getInt(indices[13]),
+                    cursor.getInt(indices[14]),
+                    cursor.getString(licenseIndex)
             );
 
-            String wikidataEntityId = cursor.getString(cursor.getColumnIndex(COLUMN_WIKI_DATA_ENTITY_ID));
+            String wikidataEntityId = cursor.getString(indices[16]);
             if (!StringUtils.isBlank(wikidataEntityId)) {
                 contribution.setWikiDataEntityId(wikidataEntityId);
             }
 
+            // Needed to resume queued uploads, absent in projections of older callers
+            if (indices[17] != -1) {
+                contribution.setPriority(cursor.getInt(indices[17]));
+            }
+            if (indices[18] != -1 && !StringUtils.isBlank(cursor.getString(indices[18]))) {
+                contribution.setCategories(Arrays.asList(
+                        StringUtils.split(cursor.getString(indices[18]), CATEGORY_SEPARATOR)));
+            }
+            if (indices[19] != -1) {
+                contribution.setDecimalCoords(cursor.getString(indices[19]));
+            }
+
             return contribution;
         }
+    };
 
-        return null;
-    }
+    private static final RowDecoder<String> FILENAME_DECODER = new RowDecoder<String>(Table.COLUMN_FILENAME) {
+        @Override
+        protected String decode(@NonNull Cursor cursor, @NonNull int[] indices) {
+            return cursor.getString(indices[0]);
+        }
+    };
 
     @Nullable
     private static Date parseTimestamp(long timestamp) {
@@ -165,6 +403,56 @@ public class ContributionDao {
         return TextUtils.isEmpty(uriString) ? null : Uri.parse(uriString);
     }
 
+    /**
+     * Position of a completed contribution in the list order, to load the pages before or after it
+     */
+    static class PageKey {
+        @Nullable
+        private final Long uploaded;
+        private final long sortKey;
+        private final long id;
+
+        PageKey(@Nullable Long uploaded, long sortKey, long id) {
+            this.uploaded = uploaded;
+            this.sortKey = sortKey;
+            this.id = id;
+        }
+
+        /**
+         * @return the key of the row the cursor is on
+         */
+        static PageKey fromCursor(Cursor cursor) {
+            int uploadedIndex = cursor.getColumnIndex(Table.COLUMN_UPLOADED);
+            // The sort key column is kept at timestamp * state by triggers
+            long sortKey = cursor.getLong(cursor.getColumnIndex(Table.COLUMN_TIMESTAMP))
+                    * cursor.getInt(cursor.getColumnIndex(Table.COLUMN_STATE));
+            return new PageKey(cursor.isNull(uploadedIndex) ? null : cursor.getLong(uploadedIndex),
+                    sortKey, cursor.getLong(cursor.getColumnIndex(Table.COLUMN_ID)));
+        }
+
+        /**
+         * Appends the selection of the rows after this key in COMPLETED_PAGE_SORT, where rows
+         * without an upload date come last
+         */
+        void appendAfterSelection(StringBuilder selection, List<String> args) {
+            if (uploaded != null) {
+                selection.append(Table.COLUMN_UPLOADED + " < ? OR "
+                        + Table.COLUMN_UPLOADED + " IS NULL OR ("
+                        + Table.COLUMN_UPLOADED + " = ? AND (");
+                args.add(String.valueOf(uploaded));
+                args.add(String.valueOf(uploaded));
+            } else {
+                selection.append(Table.COLUMN_UPLOADED + " IS NULL AND ((");
+            }
+            selection.append(Table.COLUMN_SORT_KEY + " > ? OR ("
+                    + Table.COLUMN_SORT_KEY + " = ? AND "
+                    + Table.COLUMN_ID + " > ?)))");
+            args.add(String.valueOf(sortKey));
+            args.add(String.valueOf(sortKey));
+            args.add(String.valueOf(id));
+        }
+    }
+
     public static class Table {
         public static final String TABLE_NAME = "contributions";
 
@@ -185,6 +473,10 @@ public class ContributionDao {
         public static final String COLUMN_HEIGHT = "height";
         public static final String COLUMN_LICENSE = "license";
         public static final String COLUMN_WIKI_DATA_ENTITY_ID = "wikidataEntityID";
+        public static final String COLUMN_PRIORITY = "priority";
+        public static final String COLUMN_CATEGORIES = "categories";
+        public static final String COLUMN_DECIMAL_COORDS = "decimal_coords";
+        public static final String COLUMN_SORT_KEY = "sort_key"; // timestamp * state, see CONTRIBUTION_SORT
 
         // NOTE! KEEP IN SAME ORDER AS THEY ARE DEFINED UP THERE. HELPS HARD CODE COLUMN INDICES.
         public static final String[] ALL_FIELDS = {
@@ -204,7 +496,10 @@ public class ContributionDao {
                 COLUMN_WIDTH,
                 COLUMN_HEIGHT,
                 COLUMN_LICENSE,
-                COLUMN_WIKI_DATA_ENTITY_ID
+                COLUMN_WIKI_DATA_ENTITY_ID,
+                COLUMN_PRIORITY,
+                COLUMN_CATEGORIES,
+                COLUMN_DECIMAL_COORDS
         };
 
         public static final String DROP_TABLE_STATEMENT = "DROP TABLE IF EXISTS " + TABLE_NAME;
@@ -226,9 +521,29 @@ public class ContributionDao {
                 + "width INTEGER,"
                 + "height INTEGER,"
                 + "LICENSE STRING,"
-                + "wikidataEntityID STRING"
+                + "wikidataEntityID STRING,"
+                + "priority INTEGER DEFAULT 0,"
+                + "categories STRING,"
+                + "decimal_coords STRING,"
+                + "sort_key INTEGER"
                 + ");";
 
+        static final String CREATE_FILENAME_INDEX_STATEMENT = "CREATE INDEX IF NOT EXISTS "
+                + "contributions_filename ON " + TABLE_NAME + " (filename);";
+        static final String CREATE_SORT_INDEX_STATEMENT = "CREATE INDEX IF NOT EXISTS "
+                + "contributions_sort ON " + TABLE_NAME + " (state DESC, uploaded DESC, sort_key);";
+
+        // Keep the sort key in sync for updates which do not go through toContentValues,
+        // e.g. requeueing interrupted uploads
+        static final String CREATE_SORT_KEY_INSERT_TRIGGER = "CREATE TRIGGER IF NOT EXISTS "
+                + "contributions_sort_key_insert AFTER INSERT ON " + TABLE_NAME
+                + " WHEN NEW.sort_key IS NOT NEW.timestamp * NEW.state BEGIN "
+                + "UPDATE " + TABLE_NAME + " SET sort_key = NEW.timestamp * NEW.state WHERE _id = NEW._id; END;";
+        static final String CREATE_SORT_KEY_UPDATE_TRIGGER = "CREATE TRIGGER IF NOT EXISTS "
+                + "contributions_sort_key_update AFTER UPDATE OF timestamp, state ON " + TABLE_NAME
+                + " WHEN NEW.sort_key IS NOT NEW.timestamp * NEW.state BEGIN "
+                + "UPDATE " + TABLE_NAME + " SET sort_key = NEW.timestamp * NEW.state WHERE _id = NEW._id; END;";
+
         // Upgrade from version 1 ->
         static final String ADD_CREATOR_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN creator STRING;";
         static final String ADD_DESCRIPTION_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN description STRING;";
@@ -248,9 +563,19 @@ public class ContributionDao {
         // Upgrade from version 8 ->
         static final String ADD_WIKI_DATA_ENTITY_ID_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN wikidataEntityID STRING;";
 
+        // Upgrade from version 10 ->
+        static final String ADD_PRIORITY_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN priority INTEGER DEFAULT 0;";
+        static final String ADD_CATEGORIES_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN categories STRING;";
+        static final String ADD_DECIMAL_COORDS_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN decimal_coords STRING;";
+
+        // Upgrade from version 11 ->
+        static final String ADD_SORT_KEY_FIELD = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN sort_key INTEGER;";
+        static final String SET_DEFAULT_SORT_KEY = "UPDATE " + TABLE_NAME + " SET sort_key = timestamp * state;";
+
 
         public static void onCreate(SQLiteDatabase db) {
             db.execSQL(CREATE_TABLE_STATEMENT);
+            createIndices(db);
         }
 
         public static void onDelete(SQLiteDatabase db) {
@@ -258,6 +583,13 @@ public class ContributionDao {
             onCreate(db);
         }
 
+        private static void createIndices(SQLiteDatabase db) {
+            db.execSQL(CREATE_FILENAME_INDEX_STATEMENT);
+            db.execSQL(CREATE_SORT_INDEX_STATEMENT);
+            db.execSQL(CREATE_SORT_KEY_INSERT_TRIGGER);
+            db.execSQL(CREATE_SORT_KEY_UPDATE_TRIGGER);
+        }
+
         public static void onUpdate(SQLiteDatabase db, int from, int to) {
             if (from == to) {
                 return;
@@ -304,9 +636,27 @@ public class ContributionDao {
                 onUpdate(db, from, to);
                 return;
             }
-            if (from > 5) {
+            if (from > 5 && from < 10) {
                 // Added place field
-                from=to;
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from == 10) {
+                // Added upload queue fields
+                runQuery(db, ADD_PRIORITY_FIELD);
+                runQuery(db, ADD_CATEGORIES_FIELD);
+                runQuery(db, ADD_DECIMAL_COORDS_FIELD);
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from == 11) {
+                // Added the sort key and indices
+                runQuery(db, ADD_SORT_KEY_FIELD);
+                runQuery(db, SET_DEFAULT_SORT_KEY);
+                createIndices(db);
+                from++;
                 onUpdate(db, from, to);
                 return;
             }
@@ -16,6 +16,7 @@ import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.contributions.ContributionsListAdapter.Callback;
 import fr.free.nrw.commons.contributions.model.DisplayableContribution;
 import fr.free.nrw.commons.di.ApplicationlessInjection;
+import fr.free.nrw.commons.media.ThumbnailResolver;
 import fr.free.nrw.commons.upload.FileUtils;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
@@ -82,13 +83,7 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
                 stateView.setVisibility(View.GONE);
                 progressView.setVisibility(View.VISIBLE);
                 failedImageOptions.setVisibility(View.GONE);
-                long total = contribution.getDataLength();
-                long transferred = contribution.getTransferred();
-                if (transferred == 0 || transferred >= total) {
-                    progressView.setIndeterminate(true);
-                } else {
-                    progressView.setProgress((int)(((double)transferred / (double)total) * 100));
-                }
+                displayProgress(contribution);
                 break;
             case Contribution.STATE_FAILED:
                 stateView.setVisibility(View.VISIBLE);
@@ -99,6 +94,56 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
         }
     }
 
+    /**
+     * Shows only the sequence number of a row whose contribution is not loaded
+     */
+    void initEmpty(int position) {
+        this.position = position;
+        this.contribution = null;
+        compositeDisposable.clear();
+        imageView.setImageURI((Uri) null);
+        titleView.setText("");
+        seqNumView.setText(String.valueOf(position + 1));
+        seqNumView.setVisibility(View.VISIBLE);
+        stateView.setVisibility(View.GONE);
+        progressView.setVisibility(View.GONE);
+        failedImageOptions.setVisibility(View.GONE);
+    }
+
+    /**
+     * Updates the upload progress of the row, when it is all that changed
+     */
+    void updateProgress(Contribution contribution) {
+        if (contribution == null || this.contribution == null) {
+            return;
+        }
+        this.contribution.setTransferred(contribution.getTransferred());
+        this.contribution.setDataLength(contribution.getDataLength());
+        displayProgress(contribution);
+    }
+
+    /**
+     * Updates the sequence number of the row, when it moved
+     */
+    void updatePosition(int position) {
+        this.position = position;
+        if (contribution != null) {
+            contribution.setPosition(position);
+        }
+        seqNumView.setText(String.valueOf(position + 1));
+    }
+
+    private void displayProgress(Contribution contribution) {
+        long total = contribution.getDataLength();
+        long transferred = contribution.getTransferred();
+        if (transferred == 0 || transferred >= total) {
+            progressView.setIndeterminate(true);
+        } else {
+            progressView.setIndeterminate(false);
+            progressView.setProgress((int)(((double)transferred / (double)total) * 100));
+        }
+    }
+
     /**
      * This method fetches the thumbnail url from file name
      * If the thumbnail url is present in cache, then it is used otherwise API call is made to fetch the thumbnail
@@ -109,7 +154,7 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
         String keyForLRUCache = contribution.getFilename();
         String cacheUrl = thumbnailCache.get(keyForLRUCache);
         if (!StringUtils.isBlank(cacheUrl)) {
-            imageView.setImageURI(cacheUrl);
+            imageView.setImageURI(ThumbnailResolver.resolve(imageView.getContext(), imageView, cacheUrl));
             return;
         }
 
@@ -125,7 +170,7 @@ public class ContributionViewHolder extends RecyclerView.ViewHolder {
                     .observeOn(AndroidSchedulers.mainThread())
                     .subscribe(media -> {
                         thumbnailCache.put(keyForLRUCache, media.getThumbUrl());
-                        imageView.setImageURI(media.getThumbUrl());
+                        imageView.setImageURI(ThumbnailResolver.resolve(imageView.getContext(), imageView, media.getThumbUrl()));
                     });
             compositeDisposable.add(disposable);
         }
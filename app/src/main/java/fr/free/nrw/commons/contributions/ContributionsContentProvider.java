@@ -9,10 +9,7 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 import android.text.TextUtils;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
 import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
 import timber.log.Timber;
 
@@ -38,8 +35,6 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
         return Uri.parse(BASE_URI.toString() + "/" + id);
     }
 
-    @Inject DBOpenHelper dbOpenHelper;
-
     @SuppressWarnings("ConstantConditions")
     @Override
     public Cursor query(@NonNull Uri uri, String[] projection, String selection,
@@ -94,7 +89,7 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
@@ -117,7 +112,7 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI" + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rows;
     }
 
@@ -128,19 +123,22 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
         int uriType = uriMatcher.match(uri);
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         sqlDB.beginTransaction();
-        switch (uriType) {
-            case CONTRIBUTIONS:
-                for (ContentValues value : values) {
-                    Timber.d("Inserting! %s", value);
-                    sqlDB.insert(TABLE_NAME, null, value);
-                }
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown URI: " + uri);
+        try {
+            switch (uriType) {
+                case CONTRIBUTIONS:
+                    for (ContentValues value : values) {
+                        Timber.d("Inserting! %s", value);
+                        sqlDB.insert(TABLE_NAME, null, value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown URI: " + uri);
+            }
+            sqlDB.setTransactionSuccessful();
+        } finally {
+            sqlDB.endTransaction();
         }
-        sqlDB.setTransactionSuccessful();
-        sqlDB.endTransaction();
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return values.length;
     }
 
@@ -179,7 +177,7 @@ public class ContributionsContentProvider extends CommonsDaggerContentProvider {
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri + " with type " + uriType);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 }
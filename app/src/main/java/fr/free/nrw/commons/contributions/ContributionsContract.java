@@ -2,6 +2,7 @@ package fr.free.nrw.commons.contributions;
 
 import android.database.Cursor;
 import androidx.loader.app.LoaderManager;
+import androidx.recyclerview.widget.DiffUtil;
 import fr.free.nrw.commons.BasePresenter;
 import fr.free.nrw.commons.Media;
 
@@ -21,6 +22,11 @@ public class ContributionsContract {
         void setUploadCount(int count);
 
         void onDataSetChanged();
+
+        /**
+         * Shows the new contributions, updating only the rows which changed
+         */
+        void onContributionsChanged(DiffUtil.DiffResult diff);
     }
 
     public interface UserActionListener extends BasePresenter<ContributionsContract.View>,
@@ -31,5 +37,7 @@ public class ContributionsContract {
         void deleteUpload(Contribution contribution);
 
         Media getItemAtPosition(int i);
+
+        void onItemShown(int position);
     }
 }
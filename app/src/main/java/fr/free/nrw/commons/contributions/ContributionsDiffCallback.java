@@ -0,0 +1,80 @@
+package fr.free.nrw.commons.contributions;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.List;
+import java.util.Objects;
+
+import static fr.free.nrw.commons.contributions.ContributionsListAdapter.PAYLOAD_PROGRESS;
+
+/**
+ * Finds the changes between two versions of the contributions list, so only the rows which
+ * changed are bound again. A row of an upload whose progress is all that changed only has its
+ * progress updated. The rows of dropped pages, null in the new list, keep what they show, and are
+ * bound again once their pages are loaded.
+ */
+class ContributionsDiffCallback extends DiffUtil.Callback {
+
+    private final List<Contribution> oldContributions;
+    private final List<Contribution> newContributions;
+
+    ContributionsDiffCallback(List<Contribution> oldContributions,
+                              List<Contribution> newContributions) {
+        this.oldContributions = oldContributions;
+        this.newContributions = newContributions;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return oldContributions.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return newContributions.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        Contribution oldContribution = oldContributions.get(oldItemPosition);
+        Contribution newContribution = newContributions.get(newItemPosition);
+        return oldContribution == null || newContribution == null
+                || Objects.equals(oldContribution.getContentUri(), newContribution.getContentUri());
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        Contribution oldContribution = oldContributions.get(oldItemPosition);
+        Contribution newContribution = newContributions.get(newItemPosition);
+        if (newContribution == null || oldContribution == null) {
+            return newContribution == null;
+        }
+        return isDisplayedTheSame(oldContribution, newContribution)
+                && oldContribution.getTransferred() == newContribution.getTransferred()
+                && oldContribution.getDataLength() == newContribution.getDataLength();
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+        Contribution oldContribution = oldContributions.get(oldItemPosition);
+        Contribution newContribution = newContributions.get(newItemPosition);
+        if (oldContribution != null && newContribution != null
+                && newContribution.getState() == Contribution.STATE_IN_PROGRESS
+                && isDisplayedTheSame(oldContribution, newContribution)) {
+            return PAYLOAD_PROGRESS;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the row shows the same contribution, apart from the upload progress
+     */
+    private static boolean isDisplayedTheSame(Contribution oldContribution,
+                                              Contribution newContribution) {
+        return oldContribution.getState() == newContribution.getState()
+                && Objects.equals(oldContribution.getFilename(), newContribution.getFilename())
+                && Objects.equals(oldContribution.getLocalUri(), newContribution.getLocalUri());
+    }
+}
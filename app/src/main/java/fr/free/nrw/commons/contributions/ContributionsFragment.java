@@ -23,6 +23,7 @@ import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentManager.OnBackStackChangedListener;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.recyclerview.widget.DiffUtil;
 import butterknife.BindView;
 import butterknife.ButterKnife;
 import fr.free.nrw.commons.HandlerService;
@@ -220,6 +221,11 @@ public class ContributionsFragment
                 return (Contribution) contributionsPresenter.getItemAtPosition(position);
             }
 
+            @Override
+            public void onItemShown(int position) {
+                contributionsPresenter.onItemShown(position);
+            }
+
             @Override
             public int findItemPositionWithId(String id) {
                 return contributionsPresenter.getChildPositionWithId(id);
@@ -331,9 +337,17 @@ public class ContributionsFragment
             mediaDetailPagerFragment = new MediaDetailPagerFragment();
             showMediaDetailPagerFragment();
         }
+        contributionsPresenter.onItemShown(i);
         mediaDetailPagerFragment.showImage(i);
     }
 
+    /**
+     * Lets the contributions around the media swiped to in the details be loaded
+     */
+    public void onMediaShown(int i) {
+        contributionsPresenter.onItemShown(i);
+    }
+
     @Override
     public void refreshSource() {
         getActivity().getSupportLoaderManager().restartLoader(0, null, contributionsPresenter);
@@ -587,6 +601,12 @@ public class ContributionsFragment
         mediaDetailPagerFragment.onDataSetChanged();
     }
 
+    @Override
+    public void onContributionsChanged(DiffUtil.DiffResult diff) {
+        contributionsListFragment.onContributionsChanged(diff);
+        mediaDetailPagerFragment.onDataSetChanged();
+    }
+
     /**
      * Retry upload when it is failed
      *
@@ -595,6 +615,8 @@ public class ContributionsFragment
     private void retryUpload(Contribution contribution) {
         if (NetworkUtils.isInternetConnectionEstablished(getContext())) {
             if (contribution.getState() == STATE_FAILED && null != uploadService) {
+                // Retries the user asked for go ahead of the rest of the queue
+                contribution.setPriority(Contribution.PRIORITY_HIGH);
                 uploadService.queue(UploadService.ACTION_UPLOAD_FILE, contribution);
                 Timber.d("Restarting for %s", contribution.toString());
             } else {
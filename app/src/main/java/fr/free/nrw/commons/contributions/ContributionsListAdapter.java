@@ -1,15 +1,29 @@
 package fr.free.nrw.commons.contributions;
 
-import android.database.DataSetObserver;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
+
+import java.util.List;
+
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.contributions.model.DisplayableContribution;
 
 public class ContributionsListAdapter extends RecyclerView.Adapter<ContributionViewHolder> {
 
+    /**
+     * Payload of a row whose upload progress is all that changed
+     */
+    static final Object PAYLOAD_PROGRESS = new Object();
+    /**
+     * Payload of a row which moved, so its sequence number changed
+     */
+    static final Object PAYLOAD_POSITION = new Object();
+
     private Callback callback;
 
     public ContributionsListAdapter(Callback callback) {
@@ -28,11 +42,85 @@ public class ContributionsListAdapter extends RecyclerView.Adapter<ContributionV
     @Override
     public void onBindViewHolder(@NonNull ContributionViewHolder holder, int position) {
         final Contribution contribution = callback.getContributionForPosition(position);
+        if (contribution == null) {
+            // The page of the row is being loaded again, it is bound once loaded
+            holder.initEmpty(position);
+            return;
+        }
         DisplayableContribution displayableContribution = new DisplayableContribution(contribution,
                 position);
         holder.init(position, displayableContribution);
     }
 
+    /**
+     * Updates only the views the payloads name, e.g. the progress of an upload, instead of
+     * binding the whole row again
+     */
+    @Override
+    public void onBindViewHolder(@NonNull ContributionViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (payload == PAYLOAD_PROGRESS) {
+                holder.updateProgress(callback.getContributionForPosition(position));
+            } else if (payload == PAYLOAD_POSITION) {
+                holder.updatePosition(position);
+            }
+        }
+    }
+
+    /**
+     * Tells the callback which item is shown, once when its row is scrolled into view instead of
+     * each time a row is bound
+     */
+    @Override
+    public void onViewAttachedToWindow(@NonNull ContributionViewHolder holder) {
+        super.onViewAttachedToWindow(holder);
+        int position = holder.getAdapterPosition();
+        if (position != RecyclerView.NO_POSITION) {
+            callback.onItemShown(position);
+        }
+    }
+
+    /**
+     * Applies the changes between two versions of the list. Rows which were inserted or changed
+     * are bound, and when rows were inserted, removed or moved the other visible rows only have
+     * their sequence numbers updated.
+     */
+    public void dispatchUpdates(DiffUtil.DiffResult diff) {
+        boolean[] isMoved = {false};
+        diff.dispatchUpdatesTo(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                isMoved[0] = true;
+                notifyItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                isMoved[0] = true;
+                notifyItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                isMoved[0] = true;
+                notifyItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, @Nullable Object payload) {
+                notifyItemRangeChanged(position, count, payload);
+            }
+        });
+        if (isMoved[0]) {
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_POSITION);
+        }
+    }
+
     @Override
     public int getItemCount() {
         return callback.getNumberOfContributions();
@@ -50,6 +138,8 @@ public class ContributionsListAdapter extends RecyclerView.Adapter<ContributionV
 
         Contribution getContributionForPosition(int position);
 
+        void onItemShown(int position);
+
         int findItemPositionWithId(String lastVisibleItemID);
     }
 }
@@ -13,6 +13,7 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -181,12 +182,28 @@ public class ContributionsListFragment extends CommonsDaggerSupportFragment {
     public void onDataSetChanged() {
         if (null != adapter) {
             adapter.notifyDataSetChanged();
-            //Restoring last visible item position in cases of orientation change
-            if (null != lastVisibleItemID) {
-                int itemPositionWithId = callback.findItemPositionWithId(lastVisibleItemID);
-                rvContributionsList.scrollToPosition(itemPositionWithId);
-                lastVisibleItemID = null;//Reset the lastVisibleItemID once we have used it
-            }
+            restoreLastVisibleItem();
+        }
+    }
+
+    /**
+     * Updates only the rows of the list which changed
+     */
+    public void onContributionsChanged(DiffUtil.DiffResult diff) {
+        if (null != adapter) {
+            adapter.dispatchUpdates(diff);
+            restoreLastVisibleItem();
+        }
+    }
+
+    /**
+     * Restores the last visible item position in cases of orientation change
+     */
+    private void restoreLastVisibleItem() {
+        if (null != lastVisibleItemID) {
+            int itemPositionWithId = callback.findItemPositionWithId(lastVisibleItemID);
+            rvContributionsList.scrollToPosition(itemPositionWithId);
+            lastVisibleItemID = null;//Reset the lastVisibleItemID once we have used it
         }
     }
 
@@ -1,7 +1,9 @@
 package fr.free.nrw.commons.contributions;
 
 import android.database.Cursor;
+import androidx.annotation.Nullable;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
+import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -37,6 +39,28 @@ class ContributionsLocalDataSource {
         return contributionsDao.fromCursor(cursor);
     }
 
+    /**
+     * Get the contributions of all the rows of the cursor
+     */
+    public List<Contribution> getContributionsFromCursor(Cursor cursor) {
+        return contributionsDao.listFromCursor(cursor);
+    }
+
+    /**
+     * Load the contributions which are not completed yet
+     */
+    public Cursor loadUnfinishedContributions() {
+        return contributionsDao.loadUnfinishedContributions();
+    }
+
+    /**
+     * Load a page of completed contributions
+     */
+    public Cursor loadCompletedPage(@Nullable ContributionDao.PageKey after,
+                                    @Nullable ContributionDao.PageKey until, int limit) {
+        return contributionsDao.loadCompletedPage(after, until, limit);
+    }
+
     /**
      * Remove a contribution from the contributions table
      * @param contribution
@@ -0,0 +1,429 @@
+package fr.free.nrw.commons.contributions;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.loader.content.Loader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import fr.free.nrw.commons.contributions.ContributionDao.PageKey;
+import io.reactivex.Single;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+import static fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI;
+
+/**
+ * Loads the contributions list a page at a time as the user scrolls, so the first page shows up
+ * quickly however long the upload history is.
+ *
+ * The unfinished contributions, which change while uploading, are loaded in full and come first.
+ * The completed ones are paged by key. When the contributions change, only the unfinished ones,
+ * the first page and the last page are loaded again: completed contributions are only added at
+ * the start of the history, by uploads and syncs, or at its end, by backfilling older uploads.
+ *
+ * Each page is decoded into contributions once, in the background, so binding the list does not
+ * read the database or decode rows on the main thread. Only the pages around the item shown are
+ * kept: the pages further away have their rows closed and their contributions dropped, and are
+ * loaded again, by key, when the item shown comes close to them.
+ */
+class ContributionsPageLoader extends Loader<Cursor> {
+
+    /**
+     * Number of completed pages on each side of the one shown which stay loaded
+     */
+    private static final int LOADED_PAGES_AROUND_SHOWN = 1;
+    private static final int NO_PAGE = Integer.MIN_VALUE;
+
+    private final ContributionsRepository repository;
+    private final int pageSize;
+    private final ForceLoadContentObserver observer = new ForceLoadContentObserver();
+
+    private Page unfinished;
+    private final List<Page> pages = new ArrayList<>();
+    private boolean hasMore = true;
+    private PagedCursor cursor;
+
+    private boolean isObserving;
+    private Disposable loading;
+    private Disposable reloading;
+    private boolean isRefreshPending;
+    private int lastShownPosition;
+    /**
+     * Index of the completed page with the item shown, -1 for the unfinished contributions
+     */
+    private int shownPage = NO_PAGE;
+    /**
+     * Position of the end of the unfinished contributions and of each completed page
+     */
+    private int[] pageEnds = new int[0];
+
+    ContributionsPageLoader(@NonNull Context context, ContributionsRepository repository,
+                            int pageSize) {
+        super(context);
+        this.repository = repository;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Drops the pages away from the item and loads those close to it, when it is on another page
+     * than the last item shown, then loads the next page in the background when the item is close
+     * to the end of the loaded ones
+     */
+    void onItemShown(int position) {
+        lastShownPosition = position;
+        if (cursor == null) {
+            return;
+        }
+        int page = getPageIndex(position);
+        if (page != shownPage) {
+            shownPage = page;
+            if (keepPagesAroundShown()) {
+                publish(Collections.emptyList());
+                return;
+            }
+        }
+        loadNextPageIfShown(position);
+    }
+
+    private void loadNextPageIfShown(int position) {
+        if (cursor.hasMore() && loading == null && position >= cursor.getCount() - pageSize / 2) {
+            loadNextPage();
+        }
+    }
+
+    /**
+     * @return the index of the completed page with the item, -1 for the unfinished contributions
+     */
+    private int getPageIndex(int position) {
+        int index = Arrays.binarySearch(pageEnds, position);
+        index = index < 0 ? -index - 1 : index + 1;
+        return Math.min(index, pages.size()) - 1;
+    }
+
+    /**
+     * Drops the completed pages more than {@link #LOADED_PAGES_AROUND_SHOWN} pages away from the
+     * shown one, and loads again the dropped pages closer to it
+     *
+     * @return true if pages were dropped, so the list must no longer show them
+     */
+    private boolean keepPagesAroundShown() {
+        boolean isDropped = false;
+        List<Page> dropped = new ArrayList<>();
+        List<PageKey> starts = new ArrayList<>();
+        for (int i = 0; i < pages.size(); i++) {
+            Page page = pages.get(i);
+            if (Math.abs(i - shownPage) > LOADED_PAGES_AROUND_SHOWN) {
+                if (!page.isDropped() && page.end != null) {
+                    page.drop();
+                    isDropped = true;
+                }
+            } else if (page.isDropped()) {
+                dropped.add(page);
+                starts.add(i > 0 ? pages.get(i - 1).end : null);
+            }
+        }
+        if (!dropped.isEmpty() && reloading == null) {
+            reloadPages(dropped, starts);
+        }
+        return isDropped;
+    }
+
+    /**
+     * Loads the dropped pages again in the background, from the end of the page before each
+     */
+    private void reloadPages(List<Page> dropped, List<PageKey> starts) {
+        List<PageKey> ends = new ArrayList<>();
+        for (Page page : dropped) {
+            ends.add(page.end);
+        }
+        reloading = Single.fromCallable(() -> {
+            List<Page> loaded = new ArrayList<>();
+            try {
+                for (int i = 0; i < dropped.size(); i++) {
+                    loaded.add(decode(repository.loadCompletedPage(starts.get(i), ends.get(i), 0)));
+                }
+            } catch (RuntimeException e) {
+                closeAll(loaded);
+                throw e;
+            }
+            return loaded;
+        })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(loaded -> onReloaded(dropped, loaded), this::onReloadFailed);
+    }
+
+    @Override
+    protected void onStartLoading() {
+        if (cursor != null) {
+            deliverResult(cursor);
+        }
+        if (takeContentChanged() || cursor == null) {
+            forceLoad();
+        }
+    }
+
+    @Override
+    protected void onForceLoad() {
+        if (loading != null) {
+            isRefreshPending = true;
+            return;
+        }
+        if (!isObserving) {
+            getContext().getContentResolver().registerContentObserver(BASE_URI, true, observer);
+            isObserving = true;
+        }
+        int count = pages.size();
+        // Keep the end of the first page, so the pages after it stay valid, unless it is the last
+        PageKey firstPageEnd = count > 0 && (count > 1 || hasMore) ? pages.get(0).end : null;
+        // Reload the last page if it is the end of the history, to pick up backfilled uploads
+        PageKey lastPageStart = count > 1 && !hasMore ? pages.get(count - 2).end : null;
+        loading = Single.fromCallable(() -> {
+            List<Page> loaded = new ArrayList<>();
+            loaded.add(decode(repository.loadUnfinishedContributions()));
+            loaded.add(decode(firstPageEnd == null
+                    ? repository.loadCompletedPage(null, null, pageSize)
+                    : repository.loadCompletedPage(null, firstPageEnd, 0)));
+            if (lastPageStart != null) {
+                loaded.add(decode(repository.loadCompletedPage(lastPageStart, null, pageSize)));
+            }
+            return loaded;
+        })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(loaded -> onRefreshed(loaded, firstPageEnd != null),
+                        this::onLoadFailed);
+    }
+
+    private void loadNextPage() {
+        PageKey after = pages.get(pages.size() - 1).end;
+        loading = Single.fromCallable(() ->
+                decode(repository.loadCompletedPage(after, null, pageSize)))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::onNextPage, this::onLoadFailed);
+    }
+
+    /**
+     * Reads the page in the background, so it is not read from the database on the main thread
+     */
+    private Page decode(Cursor cursor) {
+        if (cursor == null) {
+            throw new IllegalStateException("Could not query the contributions");
+        }
+        List<Contribution> contributions = repository.getContributionsFromCursor(cursor);
+        PageKey end = null;
+        if (cursor.moveToLast()) {
+            end = PageKey.fromCursor(cursor);
+        }
+        return new Page(cursor, contributions, end);
+    }
+
+    private void onRefreshed(List<Page> loaded, boolean isFirstPageBounded) {
+        loading = null;
+        if (isReset()) {
+            closeAll(loaded);
+            return;
+        }
+        List<Page> replaced = new ArrayList<>();
+        if (unfinished != null) {
+            replaced.add(unfinished);
+        }
+        unfinished = loaded.get(0);
+        setPage(0, loaded.get(1), isFirstPageBounded, replaced);
+        if (!isFirstPageBounded) {
+            hasMore = loaded.get(1).size() == pageSize;
+        }
+        if (loaded.size() > 2) {
+            setPage(pages.size() - 1, loaded.get(2), false, replaced);
+            hasMore = loaded.get(2).size() == pageSize;
+        }
+        shownPage = NO_PAGE;
+        publish(replaced);
+    }
+
+    private void onReloaded(List<Page> dropped, List<Page> loaded) {
+        reloading = null;
+        boolean isReloaded = false;
+        for (int i = 0; i < dropped.size(); i++) {
+            Page page = dropped.get(i);
+            // Pages replaced by a refresh meanwhile were loaded again with it
+            if (!isReset() && page.isDropped() && pages.contains(page)) {
+                page.reload(loaded.get(i));
+                isReloaded = true;
+            } else {
+                loaded.get(i).cursor.close();
+            }
+        }
+        if (isReloaded) {
+            shownPage = NO_PAGE;
+            publish(Collections.emptyList());
+        }
+    }
+
+    private void onReloadFailed(Throwable throwable) {
+        reloading = null;
+        Timber.e(throwable, "Could not load the contributions again");
+    }
+
+    private void onNextPage(Page page) {
+        loading = null;
+        if (isReset()) {
+            page.cursor.close();
+            return;
+        }
+        pages.add(page);
+        hasMore = page.size() == pageSize;
+        Timber.d("Loaded page %d of the contributions", pages.size());
+        shownPage = NO_PAGE;
+        publish(Collections.emptyList());
+    }
+
+    private void onLoadFailed(Throwable throwable) {
+        loading = null;
+        Timber.e(throwable, "Could not load the contributions");
+        if (cursor == null && !isReset()) {
+            deliverResult(null);
+        }
+    }
+
+    /**
+     * Replaces the page, or adds it after the last one
+     *
+     * @param isBounded true if the page was loaded up to its previous end, which then stays its
+     *                  end even if the rows before it were removed
+     */
+    private void setPage(int index, Page page, boolean isBounded, List<Page> replaced) {
+        if (index < pages.size()) {
+            Page previous = pages.set(index, page);
+            replaced.add(previous);
+            if (page.end == null && isBounded) {
+                page.end = previous.end;
+            }
+        } else {
+            pages.add(page);
+        }
+    }
+
+    /**
+     * Delivers a view of the pages around the item shown, then closes the pages it no longer
+     * includes
+     */
+    private void publish(List<Page> replaced) {
+        pageEnds = new int[pages.size() + 1];
+        pageEnds[0] = unfinished.size();
+        for (int i = 0; i < pages.size(); i++) {
+            pageEnds[i + 1] = pageEnds[i] + pages.get(i).size();
+        }
+        if (shownPage == NO_PAGE) {
+            shownPage = getPageIndex(lastShownPosition);
+            keepPagesAroundShown();
+        }
+        List<Cursor> cursors = new ArrayList<>(pages.size() + 1);
+        int[] counts = new int[pages.size() + 1];
+        List<List<Contribution>> contributions = new ArrayList<>(pages.size() + 1);
+        cursors.add(unfinished.cursor);
+        counts[0] = unfinished.size();
+        contributions.add(unfinished.contributions);
+        for (Page page : pages) {
+            counts[cursors.size()] = page.size();
+            cursors.add(page.cursor);
+            contributions.add(page.contributions);
+        }
+        cursor = new PagedCursor(cursors, counts, contributions, hasMore);
+        if (isStarted()) {
+            deliverResult(cursor);
+        }
+        closeAll(replaced);
+        if (isRefreshPending) {
+            isRefreshPending = false;
+            onContentChanged();
+        } else {
+            loadNextPageIfShown(lastShownPosition);
+        }
+    }
+
+    @Override
+    protected void onReset() {
+        if (loading != null) {
+            loading.dispose();
+            loading = null;
+        }
+        if (reloading != null) {
+            reloading.dispose();
+            reloading = null;
+        }
+        getContext().getContentResolver().unregisterContentObserver(observer);
+        isObserving = false;
+        if (unfinished != null) {
+            unfinished.cursor.close();
+            unfinished = null;
+        }
+        closeAll(pages);
+        pages.clear();
+        cursor = null;
+        shownPage = NO_PAGE;
+    }
+
+    private static void closeAll(List<Page> pages) {
+        for (Page page : pages) {
+            page.cursor.close();
+        }
+    }
+
+    /**
+     * A page of rows with the contributions decoded from them
+     */
+    private static class Page {
+        Cursor cursor;
+        /**
+         * The decoded contributions, or null once the page is dropped
+         */
+        List<Contribution> contributions;
+        private int size;
+        /**
+         * Key of the last row, or null if the page is empty
+         */
+        PageKey end;
+
+        Page(Cursor cursor, List<Contribution> contributions, PageKey end) {
+            this.cursor = cursor;
+            this.contributions = contributions;
+            this.end = end;
+            size = contributions.size();
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isDropped() {
+            return contributions == null;
+        }
+
+        /**
+         * Closes the rows and drops the contributions, keeping the size and end of the page
+         */
+        void drop() {
+            cursor.close();
+            contributions = null;
+        }
+
+        /**
+         * Takes the rows and contributions of the page loaded again up to the same end
+         */
+        void reload(Page page) {
+            cursor = page.cursor;
+            contributions = page.contributions;
+            size = page.size;
+        }
+    }
+}
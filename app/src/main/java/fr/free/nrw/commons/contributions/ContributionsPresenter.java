@@ -1,7 +1,7 @@
 package fr.free.nrw.commons.contributions;
 
-import static fr.free.nrw.commons.contributions.ContributionDao.Table.ALL_FIELDS;
-import static fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI;
+import static fr.free.nrw.commons.di.CommonsApplicationModule.IO_THREAD;
+import static fr.free.nrw.commons.di.CommonsApplicationModule.MAIN_THREAD;
 import static fr.free.nrw.commons.settings.Prefs.UPLOADS_SHOWING;
 
 import android.content.Context;
@@ -10,11 +10,17 @@ import android.database.DataSetObserver;
 import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.loader.content.CursorLoader;
 import androidx.loader.content.Loader;
+import androidx.recyclerview.widget.DiffUtil;
 import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.contributions.ContributionsContract.UserActionListener;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import java.util.Collections;
+import java.util.List;
 import javax.inject.Inject;
+import javax.inject.Named;
 import timber.log.Timber;
 
 /**
@@ -23,15 +29,27 @@ import timber.log.Timber;
 public class ContributionsPresenter extends DataSetObserver implements UserActionListener {
 
     private final ContributionsRepository repository;
+    private final Scheduler ioScheduler;
+    private final Scheduler mainThreadScheduler;
     private ContributionsContract.View view;
     private Cursor cursor;
+    private ContributionsPageLoader pageLoader;
+    /**
+     * The contributions the list shows, replaced once the changes to the list are found
+     */
+    private List<Contribution> contributions = Collections.emptyList();
+    private Disposable diffing;
 
     @Inject
     Context context;
 
     @Inject
-    ContributionsPresenter(ContributionsRepository repository) {
+    ContributionsPresenter(ContributionsRepository repository,
+                           @Named(IO_THREAD) Scheduler ioScheduler,
+                           @Named(MAIN_THREAD) Scheduler mainThreadScheduler) {
         this.repository = repository;
+        this.ioScheduler = ioScheduler;
+        this.mainThreadScheduler = mainThreadScheduler;
     }
 
     @Override
@@ -49,6 +67,10 @@ public class ContributionsPresenter extends DataSetObserver implements UserActio
     @Override
     public void onDetachView() {
         this.view = null;
+        if (null != diffing) {
+            diffing.dispose();
+            diffing = null;
+        }
         if (null != cursor) {
             try {
                 cursor.unregisterDataSetObserver(this);
@@ -58,14 +80,17 @@ public class ContributionsPresenter extends DataSetObserver implements UserActio
         }
     }
 
+    /**
+     * Creates the loader of the contributions list, which loads the number of uploads the user
+     * chose to show at a time as they scroll
+     */
     @NonNull
     @Override
     public Loader<Cursor> onCreateLoader(int id, @Nullable Bundle args) {
         int preferredNumberOfUploads = repository.get(UPLOADS_SHOWING);
-        return new CursorLoader(context, BASE_URI,
-                ALL_FIELDS, "", null,
-                ContributionDao.CONTRIBUTION_SORT + "LIMIT "
-                        + (preferredNumberOfUploads>0?preferredNumberOfUploads:100));
+        pageLoader = new ContributionsPageLoader(context, repository,
+                preferredNumberOfUploads > 0 ? preferredNumberOfUploads : 100);
+        return pageLoader;
     }
 
     @Override
@@ -74,7 +99,6 @@ public class ContributionsPresenter extends DataSetObserver implements UserActio
         if (null != cursor && cursor.getCount() > 0) {
             view.showWelcomeTip(false);
             view.showNoContributionsUI(false);
-            view.setUploadCount(cursor.getCount());
         } else {
             view.showWelcomeTip(true);
             view.showNoContributionsUI(true);
@@ -117,26 +141,35 @@ public class ContributionsPresenter extends DataSetObserver implements UserActio
     @Nullable
     @Override
     public Media getItemAtPosition(int i) {
-        if (null != cursor && cursor.moveToPosition(i)) {
-            return getContributionsFromCursor(cursor);
+        if (i >= 0 && i < contributions.size()) {
+            return contributions.get(i);
         }
         return null;
     }
 
+    /**
+     * Lets the loader load the pages around the item, and the next page when it is close to the end
+     */
+    @Override
+    public void onItemShown(int position) {
+        if (null != pageLoader) {
+            pageLoader.onItemShown(position);
+        }
+    }
+
     /**
      * Get contribution position  with id
      */
     public int getChildPositionWithId(String id) {
-        int position = 0;
-        cursor.moveToFirst();
-        while (null != cursor && cursor.moveToNext()) {
-            if (getContributionsFromCursor(cursor).getContentUri().getLastPathSegment()
-                    .equals(id)) {
-                position = cursor.getPosition();
-                break;
+        // Compares the ids of the contributions already shown, instead of decoding every row again
+        for (int i = 0; i < contributions.size(); i++) {
+            Contribution contribution = contributions.get(i);
+            if (null != contribution
+                    && id.equals(contribution.getContentUri().getLastPathSegment())) {
+                return i;
             }
         }
-        return position;
+        return 0;
     }
 
     @Override
@@ -172,9 +205,33 @@ public class ContributionsPresenter extends DataSetObserver implements UserActio
             if (newCursor != null) {
                 newCursor.registerDataSetObserver(this);
             }
-            view.onDataSetChanged();
+            updateContributions(newCursor instanceof PagedCursor
+                    ? ((PagedCursor) newCursor).getContributions()
+                    : Collections.emptyList());
         } catch (IllegalStateException e) {//Cursor might [not] be already registered/unregistered
             Timber.e(e);
         }
     }
+
+    /**
+     * Finds the changes to the list in the background, then shows the new contributions and
+     * updates only the rows which changed
+     */
+    private void updateContributions(List<Contribution> newContributions) {
+        if (null != diffing) {
+            diffing.dispose();
+        }
+        List<Contribution> oldContributions = contributions;
+        diffing = Single.fromCallable(() -> DiffUtil.calculateDiff(
+                new ContributionsDiffCallback(oldContributions, newContributions)))
+                .subscribeOn(ioScheduler)
+                .observeOn(mainThreadScheduler)
+                .subscribe(diff -> {
+                    contributions = newContributions;
+                    if (null != view) {
+                        view.setUploadCount(newContributions.size());
+                        view.onContributionsChanged(diff);
+                    }
+                }, Timber::e);
+    }
 }
@@ -1,6 +1,9 @@
 package fr.free.nrw.commons.contributions;
 
 import android.database.Cursor;
+import androidx.annotation.Nullable;
+import java.util.List;
+
 import javax.inject.Inject;
 
 /**
@@ -32,6 +35,31 @@ public class ContributionsRepository {
         return localDataSource.getContributionFromCursor(cursor);
     }
 
+    /**
+     * Get the contributions of all the rows of the cursor from LocalDataSource
+     */
+    public List<Contribution> getContributionsFromCursor(Cursor cursor) {
+        return localDataSource.getContributionsFromCursor(cursor);
+    }
+
+    /**
+     * Get the contributions which are not completed yet from LocalDataSource
+     */
+    public Cursor loadUnfinishedContributions() {
+        return localDataSource.loadUnfinishedContributions();
+    }
+
+    /**
+     * Get a page of completed contributions from LocalDataSource
+     * @param after key of the last row of the previous page, or null for the first page
+     * @param until key of the last row to include, or null to load up to the limit
+     * @param limit maximum number of rows, or 0 for no limit
+     */
+    public Cursor loadCompletedPage(@Nullable ContributionDao.PageKey after,
+                                    @Nullable ContributionDao.PageKey until, int limit) {
+        return localDataSource.loadCompletedPage(after, until, limit);
+    }
+
     /**
      * Deletes a failed upload from DB
      * @param contribution
@@ -1,15 +1,16 @@
 package fr.free.nrw.commons.contributions;
 
 import android.accounts.Account;
-import android.annotation.SuppressLint;
 import android.content.AbstractThreadedSyncAdapter;
 import android.content.ContentProviderClient;
-import android.content.ContentValues;
 import android.content.Context;
 import android.content.SyncResult;
-import android.database.Cursor;
 import android.os.Bundle;
-import android.os.RemoteException;
+
+import androidx.annotation.Nullable;
+
+import java.util.Date;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -17,51 +18,53 @@ import javax.inject.Named;
 import fr.free.nrw.commons.di.ApplicationlessInjection;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.mwapi.UserClient;
+import io.reactivex.functions.Consumer;
 import timber.log.Timber;
 
 import static fr.free.nrw.commons.contributions.Contribution.STATE_COMPLETED;
-import static fr.free.nrw.commons.contributions.ContributionDao.Table.COLUMN_FILENAME;
-import static fr.free.nrw.commons.contributions.ContributionsContentProvider.BASE_URI;
 
 @SuppressWarnings("WeakerAccess")
 public class ContributionsSyncAdapter extends AbstractThreadedSyncAdapter {
 
-    private static final String[] existsQuery = {COLUMN_FILENAME};
-    private static final String existsSelection = COLUMN_FILENAME + " = ?";
-    private static final ContentValues[] EMPTY = {};
-    private static int COMMIT_THRESHOLD = 10;
+    /**
+     * Number of contributions saved per transaction. History of any length is synced in batches
+     * of this size, so memory use does not grow with the number of uploads.
+     */
+    static final int SYNC_BATCH_SIZE = 500;
 
-    // Arbitrary limit to cap the number of contributions to ever load. This is a maximum built
-    // into the app, rather than the user's setting. Also see Github issue #52.
-    public static final int ABSOLUTE_CONTRIBUTIONS_LOAD_LIMIT = 500;
+    /**
+     * Prefix of the key storing the timestamp of the newest upload synced for a user
+     */
+    private static final String LAST_SYNCED_TIMESTAMP = "lastSyncedContributionTimestamp_";
+    /**
+     * Prefix of the key storing the timestamp of the oldest upload synced for a user, while the
+     * older history is still being synced
+     */
+    private static final String OLDEST_SYNCED_TIMESTAMP = "oldestSyncedContributionTimestamp_";
+    /**
+     * Prefix of the key set once the whole upload history of a user is synced
+     */
+    private static final String IS_HISTORY_SYNCED = "isContributionHistorySynced_";
 
     @Inject
     UserClient userClient;
+    /**
+     * Only used in the sync process, see CommonsApplicationModule
+     */
     @Inject
-    @Named("default_preferences")
-    JsonKvStore defaultKvStore;
+    @Named("contributions_sync")
+    JsonKvStore syncKvStore;
 
     public ContributionsSyncAdapter(Context context, boolean autoInitialize) {
         super(context, autoInitialize);
     }
 
-    private boolean fileExists(ContentProviderClient client, String filename) {
-        if (filename == null) {
-            return false;
-        }
-        try (Cursor cursor = client.query(BASE_URI,
-                existsQuery,
-                existsSelection,
-                new String[]{filename},
-                ""
-        )) {
-            return cursor != null && cursor.getCount() != 0;
-        } catch (RemoteException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    @SuppressLint("CheckResult")
+    /**
+     * Syncs the uploads made since the last sync, then the older history which earlier syncs
+     * did not reach. The known file names are loaded once up front and the new contributions are
+     * inserted in batches of one transaction each, so a sync costs in proportion to the number
+     * of new uploads rather than the whole upload history.
+     */
     @Override
     public void onPerformSync(Account account, Bundle bundle, String authority,
                               ContentProviderClient contentProviderClient, SyncResult syncResult) {
@@ -70,20 +73,94 @@ public class ContributionsSyncAdapter extends AbstractThreadedSyncAdapter {
                         .getApplicationContext())
                 .getCommonsApplicationComponent()
                 .inject(this);
-        // This code is(was?) fraught with possibilities of race conditions, but lalalalala I can't hear you!
         String user = account.name;
+        String lastSyncedKey = LAST_SYNCED_TIMESTAMP + user;
+        String oldestSyncedKey = OLDEST_SYNCED_TIMESTAMP + user;
+        String isHistorySyncedKey = IS_HISTORY_SYNCED + user;
         ContributionDao contributionDao = new ContributionDao(() -> contentProviderClient);
-        userClient.logEvents(user)
-                .doOnNext(mwQueryLogEvent->Timber.d("Received image %s", mwQueryLogEvent.title() ))
-                .filter(mwQueryLogEvent -> !mwQueryLogEvent.isDeleted())
-                .filter(mwQueryLogEvent -> !fileExists(contentProviderClient, mwQueryLogEvent.title()))
-                .doOnNext(mwQueryLogEvent->Timber.d("Image %s passed filters", mwQueryLogEvent.title() ))
+        Set<String> knownFilenames = contributionDao.getFilenames();
+        long lastSynced = syncKvStore.getLong(lastSyncedKey, 0);
+        Timber.d("Syncing contributions of %s, %d known", user, knownFilenames.size());
+
+        try {
+            if (lastSynced == 0 || knownFilenames.isEmpty()) {
+                // Sync the whole history, again if the contributions were cleared. It is synced
+                // newest first, so an interrupted sync is resumed from the oldest upload synced.
+                syncKvStore.putBoolean(isHistorySyncedKey, false);
+                Date newest = syncUploads(user, null, null, knownFilenames, contributionDao,
+                        syncResult, oldest -> {
+                            // Everything newer than the first batch is synced, so an interrupted
+                            // sync can resume from there until the newest upload is stored
+                            if (syncKvStore.getLong(lastSyncedKey, 0) == 0) {
+                                syncKvStore.putLong(lastSyncedKey, oldest.getTime());
+                            }
+                            syncKvStore.putLong(oldestSyncedKey, oldest.getTime());
+                        });
+                if (newest != null) {
+                    syncKvStore.putLong(lastSyncedKey, newest.getTime());
+                }
+                syncKvStore.putBoolean(isHistorySyncedKey, true);
+                return;
+            }
+
+            // There may be a gap between the new uploads and the last ones synced until this
+            // completes, so the newest timestamp is only stored at the end
+            Date newest = syncUploads(user, null, new Date(lastSynced), knownFilenames,
+                    contributionDao, syncResult, oldest -> { });
+            if (newest != null) {
+                syncKvStore.putLong(lastSyncedKey, newest.getTime());
+            }
+
+            if (!syncKvStore.getBoolean(isHistorySyncedKey, false)) {
+                long oldestSynced = syncKvStore.getLong(oldestSyncedKey, lastSynced);
+                syncUploads(user, new Date(oldestSynced), null, knownFilenames, contributionDao,
+                        syncResult, oldest -> syncKvStore.putLong(oldestSyncedKey,
+                                oldest.getTime()));
+                syncKvStore.putBoolean(isHistorySyncedKey, true);
+            }
+        } catch (RuntimeException e) {
+            Timber.e(e, "Failed to sync the contributions of %s", user);
+            syncResult.stats.numIoExceptions++;
+        } finally {
+            // The sync process may be stopped once the sync is done, before a delayed commit
+            syncKvStore.flush();
+        }
+    }
+
+    /**
+     * Saves the contributions for the uploads in the log of the user which are not known yet,
+     * newest first, in batches of one transaction each
+     *
+     * @param start timestamp of the newest upload to sync, or null to start with the latest one
+     * @param end timestamp of the oldest upload to sync, or null to sync the whole history
+     * @param onBatchSaved called with the upload date of the oldest contribution of each batch
+     * @return the date of the newest upload in the log, or null if there was none
+     */
+    @Nullable
+    private Date syncUploads(String user, @Nullable Date start, @Nullable Date end,
+                             Set<String> knownFilenames, ContributionDao contributionDao,
+                             SyncResult syncResult, Consumer<Date> onBatchSaved) {
+        Date[] newest = {null};
+        userClient.logEvents(user, start, end)
+                .doOnNext(logEvent -> {
+                    if (newest[0] == null) {
+                        newest[0] = logEvent.date();
+                    }
+                })
+                .filter(logEvent -> !logEvent.isDeleted())
+                .filter(logEvent -> logEvent.title() != null
+                        && knownFilenames.add(logEvent.title()))
                 .map(image -> new Contribution(null, null, image.title(),
                         "", -1, image.date(), image.date(), user,
                         "", "", STATE_COMPLETED))
-                .map(contributionDao::toContentValues)
-                .buffer(10)
-                .subscribe(imageValues->contentProviderClient.bulkInsert(BASE_URI, imageValues.toArray(EMPTY)));
-        Timber.d("Oh hai, everyone! Look, a kitty!");
+                .buffer(SYNC_BATCH_SIZE)
+                .blockingForEach(contributions -> {
+                    contributionDao.saveAll(contributions);
+                    syncResult.stats.numInserts += contributions.size();
+                    Timber.d("Synced %d contributions of %s", contributions.size(), user);
+                    onBatchSaved.accept(contributions.get(contributions.size() - 1)
+                            .getDateUploaded());
+                });
+        return newest[0];
     }
 }
@@ -0,0 +1,149 @@
+package fr.free.nrw.commons.contributions;
+
+import android.database.AbstractCursor;
+import android.database.Cursor;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only view of pages of rows as one cursor. Unlike MergeCursor it does not register with or
+ * close the pages, so consecutive views can share the pages loaded so far. The rows of pages closed
+ * by their owner can no longer be moved to, only the decoded contributions of the pages still
+ * loaded are kept.
+ */
+class PagedCursor extends AbstractCursor {
+
+    private final List<Cursor> pages;
+    private final List<List<Contribution>> contributions;
+    /**
+     * Position of the first row of each page, and the total count at the end
+     */
+    private final int[] starts;
+    private final boolean hasMore;
+    private Cursor page;
+
+    /**
+     * @param pages the pages, all with the same columns, with at least one page, the first of
+     *              which stays open
+     * @param counts the number of rows of each page, which closed pages no longer tell
+     * @param contributions the contributions decoded from the rows of each page, or null for the
+     *                      pages whose contributions were dropped
+     * @param hasMore true if there are rows after the last page which are not loaded yet
+     */
+    PagedCursor(List<Cursor> pages, int[] counts, List<List<Contribution>> contributions,
+                boolean hasMore) {
+        this.pages = pages;
+        this.contributions = contributions;
+        this.hasMore = hasMore;
+        starts = new int[pages.size() + 1];
+        for (int i = 0; i < pages.size(); i++) {
+            starts[i + 1] = starts[i] + counts[i];
+        }
+    }
+
+    /**
+     * @return the contributions of all the rows, decoded when the pages were loaded, with null for
+     * the rows of the pages whose contributions were dropped
+     */
+    List<Contribution> getContributions() {
+        return new AbstractList<Contribution>() {
+            @Override
+            public Contribution get(int position) {
+                int index = getPageIndex(position);
+                List<Contribution> page = contributions.get(index);
+                return page == null ? null : page.get(position - starts[index]);
+            }
+
+            @Override
+            public int size() {
+                return getCount();
+            }
+        };
+    }
+
+    /**
+     * @return true if there are rows after the last one which are not loaded yet
+     */
+    boolean hasMore() {
+        return hasMore;
+    }
+
+    @Override
+    public int getCount() {
+        return starts[pages.size()];
+    }
+
+    @Override
+    public boolean onMove(int oldPosition, int newPosition) {
+        int index = getPageIndex(newPosition);
+        page = pages.get(index);
+        return !page.isClosed() && page.moveToPosition(newPosition - starts[index]);
+    }
+
+    /**
+     * @return the index of the page with the row, skipping the empty pages before it
+     */
+    private int getPageIndex(int position) {
+        int index = Arrays.binarySearch(starts, 0, pages.size(), position);
+        if (index < 0) {
+            return Math.max(0, -index - 2);
+        }
+        // Skip empty pages starting at the same position
+        while (index + 1 < pages.size() && starts[index + 1] == position) {
+            index++;
+        }
+        return index;
+    }
+
+    @Override
+    public String[] getColumnNames() {
+        return pages.get(0).getColumnNames();
+    }
+
+    @Override
+    public String getString(int column) {
+        return page.getString(column);
+    }
+
+    @Override
+    public short getShort(int column) {
+        return page.getShort(column);
+    }
+
+    @Override
+    public int getInt(int column) {
+        return page.getInt(column);
+    }
+
+    @Override
+    public long getLong(int column) {
+        return page.getLong(column);
+    }
+
+    @Override
+    public float getFloat(int column) {
+        return page.getFloat(column);
+    }
+
+    @Override
+    public double getDouble(int column) {
+        return page.getDouble(column);
+    }
+
+    @Override
+    public byte[] getBlob(int column) {
+        return page.getBlob(column);
+    }
+
+    @Override
+    public int getType(int column) {
+        return page.getType(column);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return page.isNull(column);
+    }
+}
@@ -0,0 +1,89 @@
+package fr.free.nrw.commons.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Scheduler;
+import timber.log.Timber;
+
+/**
+ * Coalesces frequent saves of the same objects into batched writes.
+ *
+ * Objects passed to {@link #save(Object)} are collected for a short delay and then written
+ * together in one batch. An object saved several times during the delay is written once, with
+ * its latest state, since it is only read when the batch is written. If a batch cannot be
+ * written, its objects are written one by one, so one bad object does not lose the others.
+ */
+public class CoalescingWriter<T> {
+
+    /**
+     * Writes a batch of objects, typically in a single transaction
+     */
+    public interface BatchWriter<T> {
+        void write(List<T> items);
+    }
+
+    private final BatchWriter<T> batchWriter;
+    private final Scheduler scheduler;
+    private final long delayMillis;
+
+    private final Map<T, Boolean> pending = new IdentityHashMap<>();
+    private final List<T> order = new ArrayList<>();
+    private boolean isFlushScheduled;
+
+    public CoalescingWriter(BatchWriter<T> batchWriter, Scheduler scheduler, long delayMillis) {
+        this.batchWriter = batchWriter;
+        this.scheduler = scheduler;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Queues the object to be written with the next batch
+     */
+    public synchronized void save(T item) {
+        if (pending.put(item, Boolean.TRUE) == null) {
+            order.add(item);
+        }
+        if (!isFlushScheduled) {
+            isFlushScheduled = true;
+            scheduler.scheduleDirect(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the queued objects now
+     */
+    public void flush() {
+        List<T> items;
+        synchronized (this) {
+            items = new ArrayList<>(order);
+            order.clear();
+            pending.clear();
+            isFlushScheduled = false;
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+        Timber.d("Writing %d coalesced items", items.size());
+        try {
+            batchWriter.write(items);
+        } catch (RuntimeException e) {
+            Timber.e(e, "Could not write %d coalesced items, writing them one by one", items.size());
+            writeOneByOne(items);
+        }
+    }
+
+    private void writeOneByOne(List<T> items) {
+        for (T item : items) {
+            try {
+                batchWriter.write(Collections.singletonList(item));
+            } catch (RuntimeException e) {
+                Timber.e(e, "Could not write %s", item);
+            }
+        }
+    }
+}
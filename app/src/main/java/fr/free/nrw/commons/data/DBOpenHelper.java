@@ -13,7 +13,7 @@ import fr.free.nrw.commons.explore.recentsearches.RecentSearchesDao;
 public class DBOpenHelper  extends SQLiteOpenHelper {
 
     private static final String DATABASE_NAME = "commons.db";
-    private static final int DATABASE_VERSION = 10;
+    private static final int DATABASE_VERSION = 12;
 
     /**
      * Do not use directly - @Inject an instance where it's needed and let
@@ -21,6 +21,8 @@ public class DBOpenHelper  extends SQLiteOpenHelper {
      */
     public DBOpenHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        // Readers no longer wait for writers, e.g. the contributions list during a sync
+        setWriteAheadLoggingEnabled(true);
     }
 
     @Override
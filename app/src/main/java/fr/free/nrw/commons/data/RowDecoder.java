@@ -0,0 +1,76 @@
+package fr.free.nrw.commons.data;
+
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the rows of a cursor into objects. The indices of the columns are looked up once per
+ * cursor instead of once per column of every row.
+ *
+ * A decoder names the columns it reads, which are also the projection to query with, so a scan
+ * that needs only a few columns, e.g. names or ids, does not read or decode the rest of the row.
+ */
+public abstract class RowDecoder<T> {
+
+    private final String[] columns;
+
+    protected RowDecoder(String... columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * @return the columns the decoder reads, to use as the projection of the query
+     */
+    public String[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Decodes the row the cursor is on
+     */
+    public T decode(@NonNull Cursor cursor) {
+        return decode(cursor, resolve(cursor));
+    }
+
+    /**
+     * Decodes every row of the cursor, from the first one
+     */
+    @NonNull
+    public List<T> decodeAll(@NonNull Cursor cursor) {
+        return decodeAll(cursor, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Decodes the rows of the cursor, from the first one, up to the limit
+     */
+    @NonNull
+    public List<T> decodeAll(@NonNull Cursor cursor, int limit) {
+        List<T> items = new ArrayList<>(Math.min(cursor.getCount(), limit));
+        int[] indices = resolve(cursor);
+        cursor.moveToPosition(-1);
+        while (items.size() < limit && cursor.moveToNext()) {
+            items.add(decode(cursor, indices));
+        }
+        return items;
+    }
+
+    /**
+     * Decodes the row the cursor is on
+     *
+     * @param indices the index in the cursor of each of the decoder's columns, in the order they
+     *                were given, or -1 for a column the cursor does not have
+     */
+    protected abstract T decode(@NonNull Cursor cursor, @NonNull int[] indices);
+
+    private int[] resolve(Cursor cursor) {
+        int[] indices = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indices[i] = cursor.getColumnIndex(columns[i]);
+        }
+        return indices;
+    }
+}
@@ -5,6 +5,7 @@ import android.content.ContentProviderClient;
 import android.content.Context;
 import android.view.inputmethod.InputMethodManager;
 
+import androidx.annotation.Nullable;
 import androidx.collection.LruCache;
 
 import com.google.gson.Gson;
@@ -12,6 +13,7 @@ import com.google.gson.Gson;
 import org.wikipedia.AppAdapter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +30,8 @@ import fr.free.nrw.commons.auth.AccountUtil;
 import fr.free.nrw.commons.auth.SessionManager;
 import fr.free.nrw.commons.data.DBOpenHelper;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
+import fr.free.nrw.commons.kvstore.KeyValueStore;
+import fr.free.nrw.commons.kvstore.MappedKvStore;
 import fr.free.nrw.commons.location.LocationServiceManager;
 import fr.free.nrw.commons.settings.Prefs;
 import fr.free.nrw.commons.upload.UploadController;
@@ -137,6 +141,31 @@ public class CommonsApplicationModule {
         return new JsonKvStore(context, storeName, gson);
     }
 
+    /**
+     * Provides the store of the contributions sync state. It is only used by the sync adapter,
+     * which runs in its own process, as a preferences file must not be written by two processes.
+     */
+    @Provides
+    @Named("contributions_sync")
+    public JsonKvStore providesContributionsSyncKvStore(Context context, Gson gson) {
+        return new JsonKvStore(context, "contributions_sync", gson);
+    }
+
+    /**
+     * Provides the store of the media list continuations, which is written each time a page of a
+     * category or search is loaded. The continuations are moved to it from the default
+     * preferences, which no longer rewrite them on every page. It is memory-mapped, so it is null
+     * outside the main process and the continuations are then kept in memory only.
+     */
+    @Provides
+    @Nullable
+    @Named("media_lists")
+    public KeyValueStore providesMediaListsKvStore(Context context) {
+        return MappedKvStore.getInstance(context, "media_lists",
+                context.getPackageName() + "_preferences",
+                Collections.singleton("media_list_continuations"));
+    }
+
     @Provides
     public UploadController providesUploadController(SessionManager sessionManager,
                                                      @Named("default_preferences") JsonKvStore kvStore,
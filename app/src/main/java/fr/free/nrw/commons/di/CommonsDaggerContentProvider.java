@@ -1,12 +1,33 @@
 package fr.free.nrw.commons.di;
 
 import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
+import android.content.OperationApplicationException;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.inject.Inject;
 
 import dagger.android.AndroidInjector;
+import fr.free.nrw.commons.data.DBOpenHelper;
 
 
 public abstract class CommonsDaggerContentProvider extends ContentProvider {
 
+    @Inject protected DBOpenHelper dbOpenHelper;
+
+    /**
+     * URIs changed by the batch running on the current thread, notified once it is committed
+     */
+    private final ThreadLocal<Set<Uri>> batchChanges = new ThreadLocal<>();
+
     public CommonsDaggerContentProvider() {
         super();
     }
@@ -17,6 +38,46 @@ public abstract class CommonsDaggerContentProvider extends ContentProvider {
         return true;
     }
 
+    /**
+     * Applies all the operations in a single transaction, so a batch costs one commit instead of
+     * one per row. Observers are notified once per changed URI after the batch is committed.
+     */
+    @NonNull
+    @Override
+    public ContentProviderResult[] applyBatch(@NonNull ArrayList<ContentProviderOperation> operations)
+            throws OperationApplicationException {
+        Set<Uri> changes = new LinkedHashSet<>();
+        SQLiteDatabase db = dbOpenHelper.getWritableDatabase();
+        batchChanges.set(changes);
+        db.beginTransaction();
+        ContentProviderResult[] results;
+        try {
+            results = super.applyBatch(operations);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            batchChanges.remove();
+        }
+        for (Uri uri : changes) {
+            notifyChange(uri);
+        }
+        return results;
+    }
+
+    /**
+     * Notifies observers of a change, or defers the notification to the end of the batch when
+     * called from within {@link #applyBatch(ArrayList)}
+     */
+    @SuppressWarnings("ConstantConditions")
+    protected void notifyChange(Uri uri) {
+        Set<Uri> changes = batchChanges.get();
+        if (changes != null) {
+            changes.add(uri);
+        } else {
+            getContext().getContentResolver().notifyChange(uri, null);
+        }
+    }
+
     private void inject() {
         ApplicationlessInjection injection = ApplicationlessInjection.getInstance(getContext());
 
@@ -1,7 +1,5 @@
 package fr.free.nrw.commons.di;
 
-import android.content.Context;
-
 import androidx.annotation.NonNull;
 
 import com.google.gson.Gson;
@@ -13,7 +11,6 @@ import org.wikipedia.dataclient.WikiSite;
 import org.wikipedia.json.GsonUtil;
 import org.wikipedia.login.LoginClient;
 
-import java.io.File;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Named;
@@ -22,17 +19,26 @@ import javax.inject.Singleton;
 import dagger.Module;
 import dagger.Provides;
 import fr.free.nrw.commons.BuildConfig;
+import fr.free.nrw.commons.OkHttpConnectionFactory;
+import fr.free.nrw.commons.achievements.FeedbackResponse;
+import fr.free.nrw.commons.achievements.FeedbackResponseTypeAdapter;
 import fr.free.nrw.commons.actions.PageEditClient;
 import fr.free.nrw.commons.actions.PageEditInterface;
+import fr.free.nrw.commons.campaigns.CampaignResponseDTO;
+import fr.free.nrw.commons.campaigns.CampaignResponseTypeAdapter;
 import fr.free.nrw.commons.category.CategoryInterface;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.media.MediaInterface;
 import fr.free.nrw.commons.mwapi.OkHttpJsonApiClient;
 import fr.free.nrw.commons.mwapi.UserInterface;
+import fr.free.nrw.commons.nearby.model.NearbyResponse;
+import fr.free.nrw.commons.nearby.model.NearbyResponseTypeAdapter;
+import fr.free.nrw.commons.network.NetworkMetrics;
 import fr.free.nrw.commons.review.ReviewInterface;
 import fr.free.nrw.commons.upload.UploadInterface;
 import fr.free.nrw.commons.wikidata.WikidataInterface;
-import okhttp3.Cache;
+import fr.free.nrw.commons.wikidata.model.GetWikidataEditCountResponse;
+import fr.free.nrw.commons.wikidata.model.GetWikidataEditCountResponseTypeAdapter;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
@@ -46,36 +52,48 @@ public class NetworkingModule {
 
     private static final String TEST_TOOLS_FORGE_URL = "https://tools.wmflabs.org/commons-android-app/tool-commons-android-app";
 
-    public static final long OK_HTTP_CACHE_SIZE = 10 * 1024 * 1024;
-
     public static final String NAMED_COMMONS_WIKI_SITE = "commons-wikisite";
     private static final String NAMED_WIKI_DATA_WIKI_SITE = "wikidata-wikisite";
 
     public static final String NAMED_COMMONS_CSRF = "commons-csrf";
 
+    /**
+     * Derived from the client of the data client services, to share its connections and cache.
+     * Slow hosts get longer timeouts from the ResilienceInterceptor of the base client.
+     */
     @Provides
     @Singleton
-    public OkHttpClient provideOkHttpClient(Context context,
-                                            HttpLoggingInterceptor httpLoggingInterceptor) {
-        File dir = new File(context.getCacheDir(), "okHttpCache");
-        return new OkHttpClient.Builder().connectTimeout(60, TimeUnit.SECONDS)
-            .writeTimeout(60, TimeUnit.SECONDS)
+    public OkHttpClient provideOkHttpClient(HttpLoggingInterceptor httpLoggingInterceptor) {
+        return OkHttpConnectionFactory.getBaseClient().newBuilder()
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
                 .addInterceptor(httpLoggingInterceptor)
-            .readTimeout(60, TimeUnit.SECONDS)
-            .cache(new Cache(dir, OK_HTTP_CACHE_SIZE))
-            .build();
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build();
     }
 
+    /**
+     * Bodies are only logged in debug builds. Release builds rely on the {@link NetworkMetrics},
+     * which do not buffer the bodies.
+     */
     @Provides
     @Singleton
     public HttpLoggingInterceptor provideHttpLoggingInterceptor() {
         HttpLoggingInterceptor httpLoggingInterceptor = new HttpLoggingInterceptor(message -> {
             Timber.tag("OkHttp").v(message);
         });
-        httpLoggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+        httpLoggingInterceptor.setLevel(BuildConfig.DEBUG
+                ? HttpLoggingInterceptor.Level.BODY : HttpLoggingInterceptor.Level.NONE);
+        httpLoggingInterceptor.redactHeader("Authorization");
+        httpLoggingInterceptor.redactHeader("Cookie");
         return httpLoggingInterceptor;
     }
 
+    @Provides
+    public NetworkMetrics provideNetworkMetrics() {
+        return OkHttpConnectionFactory.getNetworkMetrics();
+    }
+
     @Provides
     @Singleton
     public OkHttpJsonApiClient provideOkHttpJsonApiClient(OkHttpClient okHttpClient,
@@ -135,12 +153,20 @@ public class NetworkingModule {
 
     /**
      * Gson objects are very heavy. The app should ideally be using just one instance of it instead of creating new instances everywhere.
+     * The largest and most frequent responses are read with streaming adapters instead of
+     * reflection.
      * @return returns a singleton Gson instance
      */
     @Provides
     @Singleton
     public Gson provideGson() {
-        return GsonUtil.getDefaultGson();
+        return GsonUtil.getDefaultGson().newBuilder()
+                .registerTypeAdapter(NearbyResponse.class, new NearbyResponseTypeAdapter().nullSafe())
+                .registerTypeAdapter(FeedbackResponse.class, new FeedbackResponseTypeAdapter().nullSafe())
+                .registerTypeAdapter(CampaignResponseDTO.class, new CampaignResponseTypeAdapter().nullSafe())
+                .registerTypeAdapter(GetWikidataEditCountResponse.class,
+                        new GetWikidataEditCountResponseTypeAdapter().nullSafe())
+                .create();
     }
 
     @Provides
@@ -24,11 +24,11 @@ import fr.free.nrw.commons.explore.recentsearches.RecentSearchesFragment;
 import fr.free.nrw.commons.media.MediaDetailPagerFragment;
 import fr.free.nrw.commons.theme.NavigationBaseActivity;
 import fr.free.nrw.commons.utils.FragmentUtils;
+import fr.free.nrw.commons.utils.TypeaheadSearch;
 import fr.free.nrw.commons.utils.ViewUtil;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Represents search screen of this app
@@ -98,21 +98,21 @@ public class SearchActivity extends NavigationBaseActivity implements MediaDetai
         viewPagerAdapter.notifyDataSetChanged();
         compositeDisposable.add(RxSearchView.queryTextChanges(searchView)
                 .takeUntil(RxView.detaches(searchView))
-                .debounce(500, TimeUnit.MILLISECONDS)
+                .compose(TypeaheadSearch.queries())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe( query -> {
-                    this.query = query.toString();
+                    this.query = query;
                             //update image list
                             if (!TextUtils.isEmpty(query)) {
                                 viewPager.setVisibility(View.VISIBLE);
                                 tabLayout.setVisibility(View.VISIBLE);
                                 searchHistoryContainer.setVisibility(View.GONE);
                                 if (FragmentUtils.isFragmentUIActive(searchImageFragment)) {
-                                    searchImageFragment.updateImageList(query.toString());
+                                    searchImageFragment.updateImageList(query);
                                 }
 
                                 if (FragmentUtils.isFragmentUIActive(searchCategoryFragment)) {
-                                    searchCategoryFragment.updateCategoryList(query.toString());
+                                    searchCategoryFragment.updateCategoryList(query);
                                 }
                             }else {
                                 //Open RecentSearchesFragment
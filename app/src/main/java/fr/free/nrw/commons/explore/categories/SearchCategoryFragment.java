@@ -3,6 +3,7 @@ package fr.free.nrw.commons.explore.categories;
 
 import android.content.res.Configuration;
 import android.os.Bundle;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -33,6 +34,7 @@ import fr.free.nrw.commons.explore.recentsearches.RecentSearch;
 import fr.free.nrw.commons.explore.recentsearches.RecentSearchesDao;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.utils.NetworkUtils;
+import fr.free.nrw.commons.utils.TypeaheadSearch;
 import fr.free.nrw.commons.utils.ViewUtil;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.schedulers.Schedulers;
@@ -69,6 +71,12 @@ public class SearchCategoryFragment extends CommonsDaggerSupportFragment {
 
     private RVRendererAdapter<String> categoriesAdapter;
     private List<String> queryList = new ArrayList<>();
+    private final TypeaheadSearch<List<String>> categorySearch = new TypeaheadSearch<>(query ->
+            categoryClient.searchCategories(query, 25)
+                    .subscribeOn(Schedulers.io())
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .collect(ArrayList::new, List::add));
 
     private final SearchCategoriesAdapterFactory adapterFactory = new SearchCategoriesAdapterFactory(item -> {
         // Called on Click of a individual category Item
@@ -119,12 +127,15 @@ public class SearchCategoryFragment extends CommonsDaggerSupportFragment {
                 }
             }
         });
+        // subscribed with the view, as the results are shown in it
+        compositeDisposable.add(categorySearch.subscribe(this::handleSuccess, this::handleError));
         return rootView;
     }
 
     /**
      * Checks for internet connection and then initializes the recycler view with 25 categories of the searched query
      * Clearing categoryAdapter every time new keyword is searched so that user can see only new results
+     * The categories of a recent query are shown again without a request
      */
     public void updateCategoryList(String query) {
         this.query = query;
@@ -137,13 +148,8 @@ public class SearchCategoryFragment extends CommonsDaggerSupportFragment {
         progressBar.setVisibility(GONE);
         queryList.clear();
         categoriesAdapter.clear();
-        compositeDisposable.add(categoryClient.searchCategories(query,25)
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .doOnSubscribe(disposable -> saveQuery(query))
-                .collect(ArrayList<String>::new, ArrayList::add)
-                .subscribe(this::handleSuccess, this::handleError));
+        saveQuery(query);
+        categorySearch.search(query);
     }
 
 
@@ -161,14 +167,19 @@ public class SearchCategoryFragment extends CommonsDaggerSupportFragment {
                 .observeOn(AndroidSchedulers.mainThread())
                 .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
                 .collect(ArrayList<String>::new, ArrayList::add)
-                .subscribe(this::handlePaginationSuccess, this::handleError));
+                .subscribe(mediaList -> handlePaginationSuccess(query, mediaList), this::handleError));
     }
 
     /**
      * Handles the success scenario
      * it initializes the recycler view by adding items to the adapter
+     * The page is dropped if another query was searched since it was requested
      */
-    private void handlePaginationSuccess(List<String> mediaList) {
+    private void handlePaginationSuccess(String query, List<String> mediaList) {
+        if (!TextUtils.equals(query, this.query)) {
+            isLoadingCategories = false;
+            return;
+        }
         queryList.addAll(mediaList);
         progressBar.setVisibility(View.GONE);
         bottomProgressBar.setVisibility(GONE);
@@ -184,7 +195,7 @@ public class SearchCategoryFragment extends CommonsDaggerSupportFragment {
      * it initializes the recycler view by adding items to the adapter
      */
     private void handleSuccess(List<String> mediaList) {
-        queryList = mediaList;
+        queryList = new ArrayList<>(mediaList);
         if (mediaList == null || mediaList.isEmpty()) {
             initErrorView();
         }
@@ -227,4 +238,9 @@ public class SearchCategoryFragment extends CommonsDaggerSupportFragment {
         progressBar.setVisibility(GONE);
         ViewUtil.showShortSnackbar(categoriesRecyclerView, R.string.no_internet);
     }
+
+    @Override public void onDestroyView() {
+        super.onDestroyView();
+        compositeDisposable.clear();
+    }
 }
@@ -3,6 +3,7 @@ package fr.free.nrw.commons.explore.images;
 import android.annotation.SuppressLint;
 import android.content.res.Configuration;
 import android.os.Bundle;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -19,6 +20,7 @@ import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -31,8 +33,10 @@ import fr.free.nrw.commons.explore.SearchActivity;
 import fr.free.nrw.commons.explore.recentsearches.RecentSearch;
 import fr.free.nrw.commons.explore.recentsearches.RecentSearchesDao;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
+import fr.free.nrw.commons.media.AdaptivePaging;
 import fr.free.nrw.commons.media.MediaClient;
 import fr.free.nrw.commons.utils.NetworkUtils;
+import fr.free.nrw.commons.utils.TypeaheadSearch;
 import fr.free.nrw.commons.utils.ViewUtil;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.schedulers.Schedulers;
@@ -68,6 +72,17 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
 
     private RVRendererAdapter<Media> imagesAdapter;
     private List<Media> queryList = new ArrayList<>();
+    private boolean isLoadingMore;
+    private boolean hasMoreImages = true;
+    private final AdaptivePaging paging = new AdaptivePaging();
+    private final TypeaheadSearch<List<Media>> imageSearch = new TypeaheadSearch<>(query -> {
+        // a query which is not cached starts again from its first page
+        mediaClient.resetMediaListFromSearch(query);
+        return mediaClient.getMediaListFromSearch(query, paging.getPageSize())
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    });
 
     private final SearchImagesAdapterFactory adapterFactory = new SearchImagesAdapterFactory(item -> {
         // Called on Click of a individual media Item
@@ -111,20 +126,27 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
         imagesRecyclerView.setAdapter(imagesAdapter);
         imagesRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
-            public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
-                super.onScrollStateChanged(recyclerView, newState);
-                // check if end of recycler view is reached, if yes then add more results to existing results
-                if (!recyclerView.canScrollVertically(1)) {
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                super.onScrolled(recyclerView, dx, dy);
+                // load the next page before the end is reached, so scrolling does not stall
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                int firstVisible = layoutManager.findFirstVisibleItemPosition();
+                int visibleCount = layoutManager.findLastVisibleItemPosition() - firstVisible + 1;
+                if (paging.shouldLoadMore(firstVisible, visibleCount, layoutManager.getItemCount())
+                        && dy > 0 && hasMoreImages && !isLoadingMore && !queryList.isEmpty()) {
                     addImagesToList(query);
                 }
             }
         });
+        // subscribed with the view, as the results are shown in it
+        compositeDisposable.add(imageSearch.subscribe(this::handleSuccess, this::handleError));
         return rootView;
     }
 
     /**
-     * Checks for internet connection and then initializes the recycler view with 25 images of the searched query
+     * Checks for internet connection and then initializes the recycler view with the first page of images of the searched query
      * Clearing imageAdapter every time new keyword is searched so that user can see only new results
+     * The images already loaded for a recent query are shown again without a request
      */
     @SuppressLint("CheckResult")
     public void updateImageList(String query) {
@@ -140,12 +162,10 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
         bottomProgressBar.setVisibility(GONE);
         queryList.clear();
         imagesAdapter.clear();
-        compositeDisposable.add(mediaClient.getMediaListFromSearch(query)
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .doOnSubscribe(disposable -> saveQuery(query))
-                .subscribe(this::handleSuccess, this::handleError));
+        hasMoreImages = true;
+        saveQuery(query);
+        paging.nextPageSize(getContext());
+        imageSearch.search(query);
     }
 
 
@@ -155,28 +175,38 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
     @SuppressLint("CheckResult")
     public void addImagesToList(String query) {
         this.query = query;
+        isLoadingMore = true;
         bottomProgressBar.setVisibility(View.VISIBLE);
         progressBar.setVisibility(GONE);
-        compositeDisposable.add(mediaClient.getMediaListFromSearch(query)
+        compositeDisposable.add(mediaClient.getMediaListFromSearch(query, paging.nextPageSize(getContext()))
                 .subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .subscribe(this::handlePaginationSuccess, this::handleError));
+                .subscribe(mediaList -> handlePaginationSuccess(query, mediaList), this::handleError));
     }
 
     /**
      * Handles the success scenario
      * it initializes the recycler view by adding items to the adapter
+     * @param query the query the media were loaded for, the page is dropped if another one was searched since
      * @param mediaList List of media to be added
      */
-    private void handlePaginationSuccess(List<Media> mediaList) {
+    private void handlePaginationSuccess(String query, List<Media> mediaList) {
+        isLoadingMore = false;
+        if (!TextUtils.equals(query, this.query)) {
+            return;
+        }
         progressBar.setVisibility(View.GONE);
         bottomProgressBar.setVisibility(GONE);
         if (mediaList.size() != 0 && !queryList.get(queryList.size() - 1).getFilename().equals(mediaList.get(mediaList.size() - 1).getFilename())) {
+            paging.prefetchThumbnails(getContext(), getItemImageView(), mediaList);
             queryList.addAll(mediaList);
+            imageSearch.updateCache(query, new ArrayList<>(queryList));
             imagesAdapter.addAll(mediaList);
             imagesAdapter.notifyDataSetChanged();
             ((SearchActivity) getContext()).viewPagerNotifyDataSetChanged();
+        } else {
+            hasMoreImages = false;
         }
     }
 
@@ -188,11 +218,12 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
      * @param mediaList List of media to be shown
      */
     private void handleSuccess(List<Media> mediaList) {
-        queryList = mediaList;
+        queryList = new ArrayList<>(mediaList);
         if (mediaList == null || mediaList.isEmpty()) {
             initErrorView();
         }
         else {
+            paging.prefetchThumbnails(getContext(), getItemImageView(), mediaList);
             bottomProgressBar.setVisibility(View.GONE);
             progressBar.setVisibility(GONE);
             imagesAdapter.addAll(mediaList);
@@ -201,12 +232,22 @@ public class SearchImageFragment extends CommonsDaggerSupportFragment {
         }
     }
 
+    /**
+     * @return the image of the first item of the list, or null if it has none
+     */
+    @Nullable
+    private View getItemImageView() {
+        return imagesRecyclerView.getChildCount() == 0 ? null
+                : imagesRecyclerView.getChildAt(0).findViewById(R.id.categoryImageView);
+    }
+
     /**
      * Logs and handles API error scenario
      * @param throwable
      */
     private void handleError(Throwable throwable) {
         Timber.e(throwable, "Error occurred while loading queried images");
+        isLoadingMore = false;
         try {
             ViewUtil.showShortSnackbar(imagesRecyclerView, R.string.error_loading_images);
         }catch (Exception e){
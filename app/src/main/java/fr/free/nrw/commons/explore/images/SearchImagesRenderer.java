@@ -12,6 +12,7 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.R;
+import fr.free.nrw.commons.media.ThumbnailResolver;
 
 /**
  * presentation logic of individual image in search is handled here
@@ -51,7 +52,7 @@ class SearchImagesRenderer extends Renderer<Media> {
     public void render() {
         Media item = getContent();
         tvImageName.setText(item.getDisplayTitle());
-        browseImage.setImageURI(item.getThumbUrl());
+        browseImage.setImageURI(ThumbnailResolver.resolve(getContext(), browseImage, item.getThumbUrl()));
         setAuthorView(item, categoryImageAuthor);
     }
 
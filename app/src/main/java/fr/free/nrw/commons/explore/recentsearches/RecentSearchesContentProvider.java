@@ -9,10 +9,7 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 import android.text.TextUtils;
 
-import javax.inject.Inject;
-
 import fr.free.nrw.commons.BuildConfig;
-import fr.free.nrw.commons.data.DBOpenHelper;
 import fr.free.nrw.commons.di.CommonsDaggerContentProvider;
 import timber.log.Timber;
 
@@ -44,7 +41,6 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
         return Uri.parse(BASE_URI.toString() + "/" + id);
     }
 
-    @Inject DBOpenHelper dbOpenHelper;
 
     /**
      * This functions executes query for searching recent searches in SqLite DB
@@ -106,7 +102,7 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return Uri.parse(BASE_URI + "/" + id);
     }
 
@@ -129,7 +125,7 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
             default:
                 throw new IllegalArgumentException("Unknown URI" + uri);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rows;
     }
 
@@ -143,19 +139,22 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
         int uriType = uriMatcher.match(uri);
         SQLiteDatabase sqlDB = dbOpenHelper.getWritableDatabase();
         sqlDB.beginTransaction();
-        switch (uriType) {
-            case RECENT_SEARCHES:
-                for (ContentValues value : values) {
-                    Timber.d("Inserting! %s", value);
-                    sqlDB.insert(TABLE_NAME, null, value);
-                }
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown URI: " + uri);
+        try {
+            switch (uriType) {
+                case RECENT_SEARCHES:
+                    for (ContentValues value : values) {
+                        Timber.d("Inserting! %s", value);
+                        sqlDB.insert(TABLE_NAME, null, value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown URI: " + uri);
+            }
+            sqlDB.setTransactionSuccessful();
+        } finally {
+            sqlDB.endTransaction();
         }
-        sqlDB.setTransactionSuccessful();
-        sqlDB.endTransaction();
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return values.length;
     }
 
@@ -194,7 +193,7 @@ public class RecentSearchesContentProvider extends CommonsDaggerContentProvider
             default:
                 throw new IllegalArgumentException("Unknown URI: " + uri + " with type " + uriType);
         }
-        getContext().getContentResolver().notifyChange(uri, null);
+        notifyChange(uri);
         return rowsUpdated;
     }
 }
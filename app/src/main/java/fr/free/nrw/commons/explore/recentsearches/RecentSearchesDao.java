@@ -1,13 +1,17 @@
 package fr.free.nrw.commons.explore.recentsearches;
 
 import android.content.ContentProviderClient;
+import android.content.ContentProviderOperation;
 import android.content.ContentValues;
+import android.content.OperationApplicationException;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.os.RemoteException;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import fr.free.nrw.commons.data.RowDecoder;
+
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -55,39 +59,25 @@ public class RecentSearchesDao {
      * It deletes all recent searches from the database
      */
     public void deleteAll() {
-        Cursor cursor = null;
         ContentProviderClient db = clientProvider.get();
-        try {
-            cursor = db.query(
-                    RecentSearchesContentProvider.BASE_URI,
-                    Table.ALL_FIELDS,
-                    null,
-                    new String[]{},
-                    Table.COLUMN_LAST_USED + " DESC"
-            );
+        try (Cursor cursor = db.query(
+                RecentSearchesContentProvider.BASE_URI,
+                new String[]{Table.COLUMN_ID},
+                null,
+                new String[]{},
+                null)) {
+            ArrayList<ContentProviderOperation> operations = new ArrayList<>();
             while (cursor != null && cursor.moveToNext()) {
-                try {
-                    RecentSearch recentSearch = find(fromCursor(cursor).getQuery());
-                    if (recentSearch.getContentUri() == null) {
-                        throw new RuntimeException("tried to delete item with no content URI");
-                    } else {
-                        Timber.d("QUERY_NAME %s - delete tried", recentSearch.getContentUri());
-                        db.delete(recentSearch.getContentUri(), null, null);
-                        Timber.d("QUERY_NAME %s - query deleted", recentSearch.getQuery());
-                    }
-                } catch (RemoteException e) {
-                    Timber.e(e, "query deleted");
-                    throw new RuntimeException(e);
-                } finally {
-                    db.release();
-                }
+                operations.add(ContentProviderOperation.newDelete(
+                        RecentSearchesContentProvider.uriForId(cursor.getInt(0))).build());
             }
-        } catch (RemoteException e) {
+            // All the rows are deleted in a single transaction
+            db.applyBatch(operations);
+            Timber.d("Deleted %d recent searches", operations.size());
+        } catch (RemoteException | OperationApplicationException e) {
             throw new RuntimeException(e);
         } finally {
-            if (cursor != null) {
-                cursor.close();
-            }
+            db.release();
         }
     }
 
@@ -152,11 +142,11 @@ public class RecentSearchesDao {
         Cursor cursor = null;
         ContentProviderClient db = clientProvider.get();
         try {
-            cursor = db.query( RecentSearchesContentProvider.BASE_URI, Table.ALL_FIELDS,
+            cursor = db.query( RecentSearchesContentProvider.BASE_URI, QUERY_DECODER.getColumns(),
                     null, new String[]{}, Table.COLUMN_LAST_USED + " DESC");
             // fixme add a limit on the original query instead of falling out of the loop?
-            while (cursor != null && cursor.moveToNext() && cursor.getPosition() < limit) {
-                items.add(fromCursor(cursor).getQuery());
+            if (cursor != null) {
+                items = QUERY_DECODER.decodeAll(cursor, limit);
             }
         } catch (RemoteException e) {
             throw new RuntimeException(e);
@@ -177,14 +167,30 @@ public class RecentSearchesDao {
      */
     @NonNull
     RecentSearch fromCursor(Cursor cursor) {
-        // Hardcoding column positions!
-        return new RecentSearch(
-                RecentSearchesContentProvider.uriForId(cursor.getInt(cursor.getColumnIndex(Table.COLUMN_ID))),
-                cursor.getString(cursor.getColumnIndex(Table.COLUMN_NAME)),
-                new Date(cursor.getLong(cursor.getColumnIndex(Table.COLUMN_LAST_USED)))
-        );
+        return DECODER.decode(cursor);
     }
 
+    private static final RowDecoder<RecentSearch> DECODER = new RowDecoder<RecentSearch>(Table.ALL_FIELDS) {
+        @Override
+        protected RecentSearch decode(@NonNull Cursor cursor, @NonNull int[] indices) {
+            return new RecentSearch(
+                    RecentSearchesContentProvider.uriForId(cursor.getInt(indices[0])),
+                    cursor.getString(indices[1]),
+                    new Date(cursor.getLong(indices[2]))
+            );
+        }
+    };
+
+    /**
+     * Reads only the search queries, for the list of recent searches
+     */
+    private static final RowDecoder<String> QUERY_DECODER = new RowDecoder<String>(Table.COLUMN_NAME) {
+        @Override
+        protected String decode(@NonNull Cursor cursor, @NonNull int[] indices) {
+            return cursor.getString(indices[0]);
+        }
+    };
+
     /**
      * This class contains the database table architechture for recent searches,
      * It also contains queries and logic necessary to the create, update, delete this table.
@@ -221,12 +227,16 @@ public class RecentSearchesDao {
                 + COLUMN_LAST_USED + " INTEGER"
                 + ");";
 
+        static final String CREATE_NAME_INDEX_STATEMENT = "CREATE INDEX IF NOT EXISTS "
+                + "recent_searches_name ON " + TABLE_NAME + " (" + COLUMN_NAME + ");";
+
         /**
          * This method creates a RecentSearchesTable in SQLiteDatabase
          * @param db SQLiteDatabase
          */
         public static void onCreate(SQLiteDatabase db) {
             db.execSQL(CREATE_TABLE_STATEMENT);
+            db.execSQL(CREATE_NAME_INDEX_STATEMENT);
         }
 
         /**
@@ -266,6 +276,19 @@ public class RecentSearchesDao {
                 onUpdate(db, from, to);
                 return;
             }
+            if (from > 7 && from < 11) {
+                // Table didn't change
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
+            if (from == 11) {
+                // Index for find() added in version 12
+                db.execSQL(CREATE_NAME_INDEX_STATEMENT);
+                from++;
+                onUpdate(db, from, to);
+                return;
+            }
         }
     }
 }
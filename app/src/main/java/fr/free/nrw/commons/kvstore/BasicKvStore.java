@@ -3,24 +3,53 @@ package fr.free.nrw.commons.kvstore;
 import android.content.Context;
 import android.content.SharedPreferences;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
 import timber.log.Timber;
 
 public class BasicKvStore implements KeyValueStore {
     private static final String KEY_VERSION = "__version__";
+    /**
+     * Writes made within this delay are committed together
+     */
+    private static final long COMMIT_DELAY_MILLIS = 100;
+    /**
+     * Pending writes of each preferences file, shared by all the instances of a store so they all
+     * read the values written by the others
+     */
+    private static final Map<SharedPreferences, PendingWrites> PENDING_WRITES = new HashMap<>();
     /*
     This class only performs puts, sets and clears.
     A commit returns a boolean indicating whether it has succeeded, we are not throwing an exception as it will
     require the dev to handle it in every usage - instead we will pass on this boolean so it can be evaluated if needed.
     */
     private final SharedPreferences _store;
+    private final PendingWrites pendingWrites;
 
     public BasicKvStore(Context context, String storeName) {
+        this(context, storeName, Schedulers.io());
+    }
+
+    /**
+     * @param commitScheduler commits the writes after the delay, unless another store of the same
+     *                        file was created before
+     */
+    @VisibleForTesting
+    BasicKvStore(Context context, String storeName, Scheduler commitScheduler) {
         _store = context.getSharedPreferences(storeName, Context.MODE_PRIVATE);
+        // The settings screen and the libraries reading the default preferences do not see the
+        // pending writes, and their own writes could be overwritten by a delayed commit
+        boolean isDefault = storeName.equals(context.getPackageName() + "_preferences");
+        pendingWrites = pendingWrites(_store, commitScheduler, isDefault ? 0 : COMMIT_DELAY_MILLIS);
     }
 
     /**
@@ -31,7 +60,13 @@ public class BasicKvStore implements KeyValueStore {
     }
 
     public BasicKvStore(Context context, String storeName, int version, boolean clearAllOnUpgrade) {
-        _store = context.getSharedPreferences(storeName, Context.MODE_PRIVATE);
+        this(context, storeName, version, clearAllOnUpgrade, Schedulers.io());
+    }
+
+    @VisibleForTesting
+    BasicKvStore(Context context, String storeName, int version, boolean clearAllOnUpgrade,
+                 Scheduler commitScheduler) {
+        this(context, storeName, commitScheduler);
         int oldVersion = getInt(KEY_VERSION);
 
         if (version > oldVersion) {
@@ -45,7 +80,36 @@ public class BasicKvStore implements KeyValueStore {
                             version);
         }
         //Keep this statement at the end so that clearing of store does not cause version also to get removed.
-        putIntInternal(KEY_VERSION, version);
+        if (version != getInt(KEY_VERSION)) {
+            putIntInternal(KEY_VERSION, version);
+        }
+    }
+
+    private static PendingWrites pendingWrites(SharedPreferences store, Scheduler scheduler,
+                                               long delayMillis) {
+        synchronized (PENDING_WRITES) {
+            PendingWrites pendingWrites = PENDING_WRITES.get(store);
+            if (pendingWrites == null) {
+                pendingWrites = new PendingWrites(store, scheduler, delayMillis);
+                PENDING_WRITES.put(store, pendingWrites);
+            }
+            return pendingWrites;
+        }
+    }
+
+    /**
+     * Applies the pending writes of all the stores now. Called when an activity is paused, as the
+     * process may be killed from then on before the delayed commits run. The writes reach the disk
+     * in the background, without blocking the main thread, and are waited for when it stops.
+     */
+    public static void flushAll() {
+        List<PendingWrites> allPendingWrites;
+        synchronized (PENDING_WRITES) {
+            allPendingWrites = new ArrayList<>(PENDING_WRITES.values());
+        }
+        for (PendingWrites pendingWrites : allPendingWrites) {
+            pendingWrites.apply();
+        }
     }
 
     public void onVersionUpdate(int oldVersion, int version, boolean clearAllFlag) {
@@ -54,20 +118,32 @@ public class BasicKvStore implements KeyValueStore {
         }
     }
 
+    /**
+     * @return the keys of the store, as an unmodifiable view of a copy taken once
+     */
     public Set<String> getKeySet() {
-        Map<String, ?> allContents = new HashMap<>(_store.getAll());
-        allContents.remove(KEY_VERSION);
-        return allContents.keySet();
+        return Collections.unmodifiableSet(getContents().keySet());
     }
 
+    /**
+     * @return the contents of the store, as an unmodifiable view of a copy taken once, or null if
+     * the store is empty
+     */
     @Nullable
     public Map<String, ?> getAll() {
-        Map<String, ?> allContents = _store.getAll();
-        if (allContents == null || allContents.size() == 0) {
+        Map<String, Object> allContents = getContents();
+        if (allContents.size() == 0) {
             return null;
         }
+        return Collections.unmodifiableMap(allContents);
+    }
+
+    private Map<String, Object> getContents() {
+        Map<String, ?> stored = _store.getAll();
+        Map<String, Object> allContents = stored == null ? new HashMap<>() : new HashMap<>(stored);
+        pendingWrites.applyTo(allContents);
         allContents.remove(KEY_VERSION);
-        return new HashMap<>(allContents);
+        return allContents;
     }
 
     @Override
@@ -92,61 +168,83 @@ public class BasicKvStore implements KeyValueStore {
 
     @Override
     public String getString(String key, String defaultValue) {
-        return _store.getString(key, defaultValue);
+        Object pending = pendingWrites.get(key);
+        if (pending == PendingWrites.NOT_PENDING) {
+            return _store.getString(key, defaultValue);
+        }
+        return pending == PendingWrites.REMOVED ? defaultValue : (String) pending;
     }
 
     @Override
     public boolean getBoolean(String key, boolean defaultValue) {
-        return _store.getBoolean(key, defaultValue);
+        Object pending = pendingWrites.get(key);
+        if (pending == PendingWrites.NOT_PENDING) {
+            return _store.getBoolean(key, defaultValue);
+        }
+        return pending == PendingWrites.REMOVED ? defaultValue : (Boolean) pending;
     }
 
     @Override
     public long getLong(String key, long defaultValue) {
-        return _store.getLong(key, defaultValue);
+        Object pending = pendingWrites.get(key);
+        if (pending == PendingWrites.NOT_PENDING) {
+            return _store.getLong(key, defaultValue);
+        }
+        return pending == PendingWrites.REMOVED ? defaultValue : (Long) pending;
     }
 
     @Override
     public int getInt(String key, int defaultValue) {
-        return _store.getInt(key, defaultValue);
+        Object pending = pendingWrites.get(key);
+        if (pending == PendingWrites.NOT_PENDING) {
+            return _store.getInt(key, defaultValue);
+        }
+        return pending == PendingWrites.REMOVED ? defaultValue : (Integer) pending;
     }
 
     public void putAllStrings(Map<String, String> keyValuePairs) {
-        SharedPreferences.Editor editor = _store.edit();
+        Map<String, Object> writes = new HashMap<>(keyValuePairs.size());
         for (Map.Entry<String, String> keyValuePair : keyValuePairs.entrySet()) {
-            putString(editor, keyValuePair.getKey(), keyValuePair.getValue(), false);
+            assertKeyNotReserved(keyValuePair.getKey());
+            writes.put(keyValuePair.getKey(), valueOrRemoved(keyValuePair.getValue()));
         }
-        editor.apply();
+        pendingWrites.putAll(writes);
     }
 
-    @Override
-    public void putString(String key, String value) {
-        SharedPreferences.Editor editor = _store.edit();
-        putString(editor, key, value, true);
+    /**
+     * Writes several values together, so they are committed in a single disk write, e.g.
+     * kvStore.edit(editor -> editor.putInt(KEY_COUNT, count).putLong(KEY_TIME, time));
+     */
+    public void edit(Edits edits) {
+        Editor editor = new Editor();
+        edits.write(editor);
+        pendingWrites.putAll(editor.writes);
     }
 
-    private void putString(SharedPreferences.Editor editor, String key, String value,
-                           boolean commit) {
+    /**
+     * Commits the pending writes now, on the calling thread. Writes are otherwise committed in
+     * the background shortly after they are made.
+     */
+    public void flush() {
+        pendingWrites.commit();
+    }
+
+    @Override
+    public void putString(String key, String value) {
         assertKeyNotReserved(key);
-        editor.putString(key, value);
-        if(commit) {
-            editor.apply();
-        }
+        pendingWrites.put(key, valueOrRemoved(value));
     }
 
     @Override
     public void putBoolean(String key, boolean value) {
         assertKeyNotReserved(key);
-        SharedPreferences.Editor editor = _store.edit();
-        editor.putBoolean(key, value);
-        editor.apply();
+        pendingWrites.put(key, value);
     }
 
     @Override
     public void putLong(String key, long value) {
         assertKeyNotReserved(key);
-        SharedPreferences.Editor editor = _store.edit();
-        editor.putLong(key, value);
-        editor.apply();
+        pendingWrites.put(key, value);
     }
 
     @Override
@@ -157,44 +255,48 @@ public class BasicKvStore implements KeyValueStore {
 
     @Override
     public boolean contains(String key) {
-        return _store.contains(key);
+        Object pending = pendingWrites.get(key);
+        if (pending == PendingWrites.NOT_PENDING) {
+            return _store.contains(key);
+        }
+        return pending != PendingWrites.REMOVED;
     }
 
     @Override
     public void remove(String key) {
-        SharedPreferences.Editor editor = _store.edit();
-        editor.remove(key);
-        editor.apply();
+        pendingWrites.put(key, PendingWrites.REMOVED);
     }
 
     @Override
     public void clearAll() {
         int version = getInt(KEY_VERSION);
-        SharedPreferences.Editor editor = _store.edit();
-        editor.clear();
-        editor.apply();
+        pendingWrites.clear();
         putIntInternal(KEY_VERSION, version);
     }
 
     @Override
     public void clearAllWithVersion() {
-        SharedPreferences.Editor editor = _store.edit();
-        editor.clear();
-        editor.apply();
+        pendingWrites.clear();
     }
 
     private void putIntInternal(String key, int value) {
-        SharedPreferences.Editor editor = _store.edit();
-        editor.putInt(key, value);
-        editor.apply();
+        pendingWrites.put(key, value);
+    }
+
+    private static Object valueOrRemoved(@Nullable String value) {
+        // Putting null removes the key, as it does in SharedPreferences
+        return value == null ? PendingWrites.REMOVED : value;
     }
 
-    private void assertKeyNotReserved(String key) {
+    private static void assertKeyNotReserved(String key) {
         if (key.equals(KEY_VERSION)) {
             throw new IllegalArgumentException(key + "is a reserved key");
         }
     }
 
+    /**
+     * Listeners are called when the writes are committed, not when they are made
+     */
     public void registerChangeListener(SharedPreferences.OnSharedPreferenceChangeListener l) {
         _store.registerOnSharedPreferenceChangeListener(l);
     }
@@ -203,4 +305,49 @@ public class BasicKvStore implements KeyValueStore {
         _store.unregisterOnSharedPreferenceChangeListener(l);
     }
 
-}
\ No newline at end of file
+    /**
+     * Writes a batch of values with the editor
+     */
+    public interface Edits {
+        void write(Editor editor);
+    }
+
+    /**
+     * Collects the values of a batch, to be committed together
+     */
+    public static class Editor {
+        private final Map<String, Object> writes = new HashMap<>();
+
+        private Editor() {
+        }
+
+        public Editor putString(String key, String value) {
+            assertKeyNotReserved(key);
+            writes.put(key, valueOrRemoved(value));
+            return this;
+        }
+
+        public Editor putBoolean(String key, boolean value) {
+            assertKeyNotReserved(key);
+            writes.put(key, value);
+            return this;
+        }
+
+        public Editor putLong(String key, long value) {
+            assertKeyNotReserved(key);
+            writes.put(key, value);
+            return this;
+        }
+
+        public Editor putInt(String key, int value) {
+            assertKeyNotReserved(key);
+            writes.put(key, value);
+            return this;
+        }
+
+        public Editor remove(String key) {
+            writes.put(key, PendingWrites.REMOVED);
+            return this;
+        }
+    }
+}
@@ -1,32 +1,61 @@
 package fr.free.nrw.commons.kvstore;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 
 import androidx.annotation.Nullable;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
 
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Stores objects as JSON strings. Deserialised objects are cached per key, so reading a value
+ * which has not changed does not parse it again.
+ *
+ * Objects returned by getJson are shared by all the readers of the key and must not be modified.
+ * Lists, sets and maps are returned as unmodifiable views.
+ */
 public class JsonKvStore extends BasicKvStore {
     private final Gson gson;
+    private final Map<String, CachedJson> cache = new ConcurrentHashMap<>();
+    /**
+     * Drops cached objects when their key changes, including through other stores of the same
+     * name. Kept in a field as SharedPreferences only holds listeners weakly.
+     */
+    private final SharedPreferences.OnSharedPreferenceChangeListener invalidator =
+            (sharedPreferences, key) -> {
+                if (key == null) {
+                    cache.clear();
+                } else {
+                    cache.remove(key);
+                }
+            };
 
     public JsonKvStore(Context context, String storeName, Gson gson) {
         super(context, storeName);
         this.gson = gson;
+        registerChangeListener(invalidator);
     }
 
     public JsonKvStore(Context context, String storeName, int version, Gson gson) {
         super(context, storeName, version);
         this.gson = gson;
+        registerChangeListener(invalidator);
     }
 
     public JsonKvStore(Context context, String storeName, int version, boolean clearAllOnUpgrade, Gson gson) {
         super(context, storeName, version, clearAllOnUpgrade);
         this.gson = gson;
+        registerChangeListener(invalidator);
     }
 
     public <T> void putAllJsons(Map<String, T> jsonMap) {
@@ -48,21 +77,81 @@ public class JsonKvStore extends BasicKvStore {
 
     @Nullable
     public <T> T getJson(String key, Class<T> clazz) {
-        String jsonString = getString(key);
-        try {
-            return gson.fromJson(jsonString, clazz);
-        } catch (JsonSyntaxException e) {
-            return null;
-        }
+        return getJson(key, (Type) clazz);
     }
 
     @Nullable
+    @SuppressWarnings("unchecked")
     public <T> T getJson(String key, Type type) {
         String jsonString = getString(key);
+        if (jsonString == null) {
+            return null;
+        }
+        // The change listener runs after the write, so the cached object is only used if it was
+        // parsed from the string which is stored now
+        CachedJson cached = cache.get(key);
+        if (cached != null && cached.type.equals(type) && jsonString.equals(cached.json)) {
+            return (T) cached.value;
+        }
+        T value;
         try {
-            return gson.fromJson(jsonString, type);
+            value = immutable(gson.fromJson(jsonString, type), type);
         } catch (JsonSyntaxException e) {
             return null;
         }
+        cache.put(key, new CachedJson(jsonString, type, value));
+        return value;
+    }
+
+    @Override
+    public void remove(String key) {
+        super.remove(key);
+        cache.remove(key);
+    }
+
+    @Override
+    public void clearAll() {
+        super.clearAll();
+        // Also called by the super constructor on upgrades, before the cache is created
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void clearAllWithVersion() {
+        super.clearAllWithVersion();
+        cache.clear();
+    }
+
+    /**
+     * Wraps collections in unmodifiable views, unless the type asks for a concrete class
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T immutable(T value, Type type) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> rawType = TypeToken.get(type).getRawType();
+        if (rawType == List.class) {
+            return (T) Collections.unmodifiableList((List<?>) value);
+        } else if (rawType == Set.class) {
+            return (T) Collections.unmodifiableSet((Set<?>) value);
+        } else if (rawType == Map.class) {
+            return (T) Collections.unmodifiableMap((Map<?, ?>) value);
+        }
+        return value;
+    }
+
+    private static class CachedJson {
+        private final String json;
+        private final Type type;
+        private final Object value;
+
+        private CachedJson(String json, Type type, Object value) {
+            this.json = json;
+            this.type = type;
+            this.value = value;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package fr.free.nrw.commons.kvstore;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+/**
+ * Applies the writes the stores delay when an activity is paused, after which the process may be
+ * killed at any time, so SharedPreferences waits for them when the activity stops
+ */
+public class KvStoreFlusher implements Application.ActivityLifecycleCallbacks {
+
+    @Override
+    public void onActivityPaused(Activity activity) {
+        BasicKvStore.flushAll();
+    }
+
+    @Override
+    public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityStarted(Activity activity) {
+    }
+
+    @Override
+    public void onActivityResumed(Activity activity) {
+    }
+
+    @Override
+    public void onActivityStopped(Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+    }
+
+    @Override
+    public void onActivityDestroyed(Activity activity) {
+    }
+}
@@ -0,0 +1,556 @@
+package fr.free.nrw.commons.kvstore;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import timber.log.Timber;
+
+/**
+ * Key value store kept in an append-only log file, which is memory-mapped. A write appends one
+ * record to the mapping instead of rewriting the whole file as SharedPreferences does, and opening
+ * the store reads the file sequentially with no parsing of XML.
+ *
+ * The log is compacted, rewriting only the latest value of each key, once it is mostly made of
+ * overwritten values. Each record has a checksum, so a record torn by a crash is ignored along
+ * with anything written after it.
+ *
+ * The first time a store is opened, the values of the SharedPreferences store of the same name are
+ * copied into it, or only given keys of another store, which are then removed from it.
+ *
+ * Each file is mapped by a single instance, see {@link #getInstance(Context, String)}, and only in
+ * the main process: instances mapping the same file would overwrite each other's records.
+ */
+public class MappedKvStore implements KeyValueStore {
+    private static final String KEY_VERSION = "__version__";
+    private static final String DIRECTORY = "kvstore";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int MAGIC = 0x4b564c31;
+    private static final int HEADER_SIZE = 4;
+    /**
+     * Size of the length and checksum of a record
+     */
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int INITIAL_SIZE = 16 * 1024;
+    /**
+     * Logs smaller than this are not compacted
+     */
+    private static final int MIN_COMPACTION_SIZE = 64 * 1024;
+
+    private static final byte TYPE_REMOVE = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_INT = 4;
+
+    /**
+     * Instances of the opened stores, by file
+     */
+    private static final Map<String, MappedKvStore> INSTANCES = new HashMap<>();
+    @Nullable
+    private static Boolean mainProcess;
+
+    private final File file;
+    private final Map<String, Object> values = new HashMap<>();
+    /**
+     * Size of the latest record of each key, to find how much of the log is still live
+     */
+    private final Map<String, Integer> recordSizes = new HashMap<>();
+    private int liveSize;
+
+    @Nullable
+    private RandomAccessFile randomAccessFile;
+    @Nullable
+    private MappedByteBuffer buffer;
+
+    /**
+     * @return the store of the name, which first copies the values of the SharedPreferences store
+     * of the same name, or null outside the main process
+     */
+    @Nullable
+    public static MappedKvStore getInstance(Context context, String storeName) {
+        return openInstance(context, storeName, storeName, null);
+    }
+
+    /**
+     * @param legacyStoreName name of the SharedPreferences store the keys are moved from, the
+     *                        first time the store is opened
+     * @return the store of the name, or null outside the main process
+     */
+    @Nullable
+    public static MappedKvStore getInstance(Context context, String storeName,
+                                            String legacyStoreName, Set<String> legacyKeys) {
+        return openInstance(context, storeName, legacyStoreName, legacyKeys);
+    }
+
+    @Nullable
+    private static MappedKvStore openInstance(Context context, String storeName,
+                                              String legacyStoreName,
+                                              @Nullable Collection<String> legacyKeys) {
+        if (!isMainProcess(context)) {
+            Timber.w("Not opening %s outside the main process", storeName);
+            return null;
+        }
+        File file = new File(new File(context.getFilesDir(), DIRECTORY), storeName);
+        synchronized (INSTANCES) {
+            MappedKvStore store = INSTANCES.get(file.getPath());
+            if (store == null) {
+                store = new MappedKvStore(file,
+                        context.getSharedPreferences(legacyStoreName, Context.MODE_PRIVATE),
+                        legacyKeys);
+                INSTANCES.put(file.getPath(), store);
+            }
+            return store;
+        }
+    }
+
+    private static synchronized boolean isMainProcess(Context context) {
+        if (mainProcess == null) {
+            mainProcess = false;
+            ActivityManager activityManager =
+                    (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+            List<ActivityManager.RunningAppProcessInfo> processes =
+                    activityManager == null ? null : activityManager.getRunningAppProcesses();
+            if (processes != null) {
+                for (ActivityManager.RunningAppProcessInfo process : processes) {
+                    if (process.pid == Process.myPid()) {
+                        mainProcess = context.getPackageName().equals(process.processName);
+                    }
+                }
+            }
+        }
+        return mainProcess;
+    }
+
+    /**
+     * @param legacyStore store to copy the values from if the log does not exist yet
+     * @param legacyKeys the keys to move from the legacy store, or null to copy all its values
+     *                   and keep them
+     */
+    @VisibleForTesting
+    MappedKvStore(File file, @Nullable SharedPreferences legacyStore,
+                  @Nullable Collection<String> legacyKeys) {
+        this.file = file;
+        try {
+            if (!file.exists()) {
+                File directory = file.getParentFile();
+                if (directory != null && !directory.exists() && !directory.mkdirs()) {
+                    throw new IOException("Could not create " + directory);
+                }
+                writeSnapshot(legacyValues(legacyStore, legacyKeys));
+                removeLegacyKeys(legacyStore, legacyKeys);
+            }
+            open();
+        } catch (IOException e) {
+            // Keep working from memory, as SharedPreferences does when it can not write
+            Timber.e(e, "Could not open %s, values will not be saved", file);
+            close();
+        }
+    }
+
+    @Override
+    public String getString(String key) {
+        return getString(key, null);
+    }
+
+    @Override
+    public boolean getBoolean(String key) {
+        return getBoolean(key, false);
+    }
+
+    @Override
+    public long getLong(String key) {
+        return getLong(key, 0);
+    }
+
+    @Override
+    public int getInt(String key) {
+        return getInt(key, 0);
+    }
+
+    @Override
+    public synchronized String getString(String key, String defaultValue) {
+        Object value = values.get(key);
+        return value == null ? defaultValue : (String) value;
+    }
+
+    @Override
+    public synchronized boolean getBoolean(String key, boolean defaultValue) {
+        Object value = values.get(key);
+        return value == null ? defaultValue : (Boolean) value;
+    }
+
+    @Override
+    public synchronized long getLong(String key, long defaultValue) {
+        Object value = values.get(key);
+        return value == null ? defaultValue : (Long) value;
+    }
+
+    @Override
+    public synchronized int getInt(String key, int defaultValue) {
+        Object value = values.get(key);
+        return value == null ? defaultValue : (Integer) value;
+    }
+
+    @Override
+    public void putString(String key, String value) {
+        assertKeyNotReserved(key);
+        write(key, value);
+    }
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+        assertKeyNotReserved(key);
+        write(key, value);
+    }
+
+    @Override
+    public void putLong(String key, long value) {
+        assertKeyNotReserved(key);
+        write(key, value);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        assertKeyNotReserved(key);
+        write(key, value);
+    }
+
+    @Override
+    public synchronized boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public void remove(String key) {
+        write(key, null);
+    }
+
+    @Override
+    public synchronized void clearAll() {
+        Object version = values.get(KEY_VERSION);
+        values.clear();
+        if (version != null) {
+            values.put(KEY_VERSION, version);
+        }
+        rewrite();
+    }
+
+    @Override
+    public synchronized void clearAllWithVersion() {
+        values.clear();
+        rewrite();
+    }
+
+    /**
+     * Sets the value of the key, or removes it for a null value, and appends it to the log
+     */
+    private synchronized void write(String key, @Nullable Object value) {
+        if (value == null ? !values.containsKey(key) : value.equals(values.get(key))) {
+            return;
+        }
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+        if (buffer == null) {
+            return;
+        }
+
+        byte[] record = encode(key, value);
+        try {
+            if (buffer.remaining() < record.length) {
+                if (buffer.position() > 2 * liveSize && buffer.position() > MIN_COMPACTION_SIZE) {
+                    // Most of the log is overwritten values, the value is in the snapshot
+                    compact();
+                    return;
+                }
+                remap(Math.max(buffer.capacity() * 2, buffer.position() + record.length));
+            }
+            buffer.put(record);
+            track(key, value, record.length);
+        } catch (IOException e) {
+            Timber.e(e, "Could not write %s to %s", key, file);
+        }
+    }
+
+    private void rewrite() {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            Timber.e(e, "Could not rewrite %s", file);
+        }
+    }
+
+    /**
+     * Replaces the log with the latest value of each key
+     */
+    private void compact() throws IOException {
+        Timber.d("Compacting %s, %d of %d bytes live", file, liveSize, buffer.position());
+        close();
+        writeSnapshot(values);
+        open();
+    }
+
+    /**
+     * Writes the values to a new log, which replaces the current one once it is complete
+     */
+    private void writeSnapshot(Map<String, ?> snapshot) throws IOException {
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        FileOutputStream fileOutputStream = new FileOutputStream(temporaryFile);
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(fileOutputStream))) {
+            output.writeInt(MAGIC);
+            for (Map.Entry<String, ?> entry : snapshot.entrySet()) {
+                output.write(encode(entry.getKey(), entry.getValue()));
+            }
+            output.flush();
+            fileOutputStream.getFD().sync();
+        }
+        if (!temporaryFile.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Maps the log and reads its values
+     */
+    private void open() throws IOException {
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        long fileLength = randomAccessFile.length();
+        map(Math.max(INITIAL_SIZE, fileLength));
+        if (fileLength < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            Timber.w("%s is not a key value log, starting a new one", file);
+            zeroFrom(0);
+            buffer.putInt(0, MAGIC);
+        }
+
+        values.clear();
+        recordSizes.clear();
+        liveSize = 0;
+        buffer.position(HEADER_SIZE);
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length == 0) {
+                buffer.position(start);
+                return;
+            }
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                discardFrom(start);
+                return;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (checksum(payload) != checksum) {
+                discardFrom(start);
+                return;
+            }
+            decode(payload, RECORD_HEADER_SIZE + length);
+        }
+    }
+
+    private void close() {
+        buffer = null;
+        if (randomAccessFile != null) {
+            try {
+                randomAccessFile.close();
+            } catch (IOException e) {
+                Timber.w(e, "Could not close %s", file);
+            }
+            randomAccessFile = null;
+        }
+    }
+
+    private void remap(long size) throws IOException {
+        int position = buffer.position();
+        map(size);
+        buffer.position(position);
+    }
+
+    private void map(long size) throws IOException {
+        buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * Drops a torn or corrupted record and anything written after it, which can only have been
+     * written after a crash during the write of the record
+     */
+    private void discardFrom(int position) {
+        Timber.w("Discarding the end of %s from %d", file, position);
+        zeroFrom(position);
+        buffer.position(position);
+    }
+
+    private void zeroFrom(int position) {
+        for (int i = position; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private void track(String key, @Nullable Object value, int recordSize) {
+        Integer previousSize = value == null ? recordSizes.remove(key) : recordSizes.put(key, recordSize);
+        if (previousSize != null) {
+            liveSize -= previousSize;
+        }
+        if (value != null) {
+            liveSize += recordSize;
+        }
+    }
+
+    private void decode(byte[] payload, int recordSize) {
+        ByteBuffer record = ByteBuffer.wrap(payload);
+        byte type = record.get();
+        byte[] keyBytes = new byte[record.getInt()];
+        record.get(keyBytes);
+        String key = new String(keyBytes, UTF_8);
+        Object value;
+        switch (type) {
+            case TYPE_STRING:
+                byte[] valueBytes = new byte[record.remaining()];
+                record.get(valueBytes);
+                value = new String(valueBytes, UTF_8);
+                break;
+            case TYPE_BOOLEAN:
+                value = record.get() != 0;
+                break;
+            case TYPE_LONG:
+                value = record.getLong();
+                break;
+            case TYPE_INT:
+                value = record.getInt();
+                break;
+            default:
+                value = null;
+                break;
+        }
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+        track(key, value, recordSize);
+    }
+
+    /**
+     * @return the record of the value, with its length and checksum
+     */
+    @NonNull
+    private static byte[] encode(String key, @Nullable Object value) {
+        byte[] keyBytes = key.getBytes(UTF_8);
+        byte type;
+        byte[] valueBytes;
+        if (value == null) {
+            type = TYPE_REMOVE;
+            valueBytes = new byte[0];
+        } else if (value instanceof String) {
+            type = TYPE_STRING;
+            valueBytes = ((String) value).getBytes(UTF_8);
+        } else if (value instanceof Boolean) {
+            type = TYPE_BOOLEAN;
+            valueBytes = new byte[]{(byte) ((Boolean) value ? 1 : 0)};
+        } else if (value instanceof Long) {
+            type = TYPE_LONG;
+            valueBytes = ByteBuffer.allocate(8).putLong((Long) value).array();
+        } else if (value instanceof Integer) {
+            type = TYPE_INT;
+            valueBytes = ByteBuffer.allocate(4).putInt((Integer) value).array();
+        } else {
+            throw new IllegalArgumentException("Unsupported value type " + value.getClass());
+        }
+
+        int payloadLength = 1 + 4 + keyBytes.length + valueBytes.length;
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength)
+                .put(type)
+                .putInt(keyBytes.length)
+                .put(keyBytes)
+                .put(valueBytes);
+        return ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadLength)
+                .putInt(payloadLength)
+                .putInt(checksum(payload.array()))
+                .put(payload.array())
+                .array();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return the values of the keys of the store which the log can hold
+     */
+    private static Map<String, Object> legacyValues(@Nullable SharedPreferences legacyStore,
+                                                    @Nullable Collection<String> legacyKeys) {
+        Map<String, Object> legacyValues = new HashMap<>();
+        if (legacyStore == null) {
+            return legacyValues;
+        }
+        for (Map.Entry<String, ?> entry : legacyStore.getAll().entrySet()) {
+            if (legacyKeys != null && !legacyKeys.contains(entry.getKey())) {
+                continue;
+            }
+            Object value = entry.getValue();
+            if (value instanceof String || value instanceof Boolean
+                    || value instanceof Long || value instanceof Integer) {
+                legacyValues.put(entry.getKey(), value);
+            } else {
+                Timber.w("Not migrating %s of type %s", entry.getKey(),
+                        value == null ? null : value.getClass());
+            }
+        }
+        Timber.i("Migrating %d values to the key value log", legacyValues.size());
+        return legacyValues;
+    }
+
+    /**
+     * Removes the moved keys once the log holding them is written, so they are no longer loaded
+     * with the legacy store
+     */
+    private static void removeLegacyKeys(@Nullable SharedPreferences legacyStore,
+                                         @Nullable Collection<String> legacyKeys) {
+        if (legacyStore == null || legacyKeys == null) {
+            return;
+        }
+        SharedPreferences.Editor editor = legacyStore.edit();
+        for (String key : legacyKeys) {
+            editor.remove(key);
+        }
+        editor.apply();
+    }
+
+    private static void assertKeyNotReserved(String key) {
+        if (key.equals(KEY_VERSION)) {
+            throw new IllegalArgumentException(key + "is a reserved key");
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package fr.free.nrw.commons.kvstore;
+
+import android.content.SharedPreferences;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Scheduler;
+import timber.log.Timber;
+
+/**
+ * Writes to a SharedPreferences file which are not committed yet. Writes made during a short delay
+ * are merged and committed together on a background thread, so a burst of writes costs one disk
+ * write. Unlike apply(), the commit is not waited for by onStop, so the app applies the pending
+ * writes itself when an activity is paused, see {@link BasicKvStore#flushAll()}.
+ *
+ * Reads check the pending writes first, so they see the values as soon as they are written. With
+ * no delay, each write is applied at once instead, for files also read without the store.
+ */
+class PendingWrites {
+
+    /**
+     * Returned by {@link #get(String)} for a key without pending writes
+     */
+    static final Object NOT_PENDING = new Object();
+    /**
+     * Pending value of a removed key
+     */
+    static final Object REMOVED = new Object();
+
+    private final SharedPreferences preferences;
+    private final Scheduler scheduler;
+    private final long delayMillis;
+    private final Object commitLock = new Object();
+
+    private Map<String, Object> values = new HashMap<>();
+    private boolean isClearPending;
+    /**
+     * The writes being committed, still read from here until the commit has updated the
+     * preferences
+     */
+    private Map<String, Object> committing = Collections.emptyMap();
+    private boolean isClearCommitting;
+    private boolean isCommitScheduled;
+
+    PendingWrites(SharedPreferences preferences, Scheduler scheduler, long delayMillis) {
+        this.preferences = preferences;
+        this.scheduler = scheduler;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * @return the pending value of the key, {@link #REMOVED} if the key is removed, or
+     * {@link #NOT_PENDING} if it should be read from the preferences
+     */
+    synchronized Object get(String key) {
+        if (values.containsKey(key)) {
+            return values.get(key);
+        }
+        if (isClearPending) {
+            return REMOVED;
+        }
+        if (committing.containsKey(key)) {
+            return committing.get(key);
+        }
+        return isClearCommitting ? REMOVED : NOT_PENDING;
+    }
+
+    /**
+     * Applies the pending writes to a copy of the contents of the preferences
+     */
+    synchronized void applyTo(Map<String, Object> contents) {
+        apply(contents, isClearCommitting, committing);
+        apply(contents, isClearPending, values);
+    }
+
+    /**
+     * Queues the values to be committed together, {@link #REMOVED} for keys to remove
+     */
+    void putAll(Map<String, Object> writes) {
+        synchronized (this) {
+            values.putAll(writes);
+        }
+        onWritten();
+    }
+
+    void put(String key, Object value) {
+        synchronized (this) {
+            values.put(key, value);
+        }
+        onWritten();
+    }
+
+    void clear() {
+        synchronized (this) {
+            values.clear();
+            isClearPending = true;
+        }
+        onWritten();
+    }
+
+    /**
+     * Commits the pending writes now, on the calling thread
+     */
+    void commit() {
+        write(false);
+    }
+
+    /**
+     * Applies the pending writes now: the preferences are updated at once, and written to disk in
+     * the background, which SharedPreferences waits for when an activity stops
+     */
+    void apply() {
+        write(true);
+    }
+
+    private void write(boolean isApplied) {
+        synchronized (commitLock) {
+            Map<String, Object> batch;
+            boolean clear;
+            synchronized (this) {
+                isCommitScheduled = false;
+                if (values.isEmpty() && !isClearPending) {
+                    return;
+                }
+                batch = values;
+                clear = isClearPending;
+                committing = batch;
+                isClearCommitting = clear;
+                values = new HashMap<>();
+                isClearPending = false;
+            }
+
+            SharedPreferences.Editor editor = preferences.edit();
+            if (clear) {
+                editor.clear();
+            }
+            for (Map.Entry<String, Object> entry : batch.entrySet()) {
+                put(editor, entry.getKey(), entry.getValue());
+            }
+            if (isApplied) {
+                editor.apply();
+            } else if (!editor.commit()) {
+                Timber.e("Could not commit %d preferences", batch.size());
+            }
+
+            synchronized (this) {
+                committing = Collections.emptyMap();
+                isClearCommitting = false;
+            }
+        }
+    }
+
+    private void onWritten() {
+        if (delayMillis == 0) {
+            apply();
+            return;
+        }
+        synchronized (this) {
+            scheduleCommit();
+        }
+    }
+
+    private void scheduleCommit() {
+        if (!isCommitScheduled) {
+            isCommitScheduled = true;
+            scheduler.scheduleDirect(this::commit, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void apply(Map<String, Object> contents, boolean clear,
+                              Map<String, Object> writes) {
+        if (clear) {
+            contents.clear();
+        }
+        for (Map.Entry<String, Object> entry : writes.entrySet()) {
+            if (entry.getValue() == REMOVED) {
+                contents.remove(entry.getKey());
+            } else {
+                contents.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static void put(SharedPreferences.Editor editor, String key, Object value) {
+        if (value == REMOVED || value == null) {
+            editor.remove(key);
+        } else if (value instanceof String) {
+            editor.putString(key, (String) value);
+        } else if (value instanceof Boolean) {
+            editor.putBoolean(key, (Boolean) value);
+        } else if (value instanceof Long) {
+            editor.putLong(key, (Long) value);
+        } else if (value instanceof Integer) {
+            editor.putInt(key, (Integer) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported preference type " + value.getClass());
+        }
+    }
+}
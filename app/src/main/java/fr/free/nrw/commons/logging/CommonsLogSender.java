@@ -6,6 +6,7 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import fr.free.nrw.commons.auth.SessionManager;
+import fr.free.nrw.commons.network.NetworkMetrics;
 import fr.free.nrw.commons.utils.ConfigUtils;
 import fr.free.nrw.commons.utils.DeviceInfoUtil;
 
@@ -20,14 +21,17 @@ public class CommonsLogSender extends LogsSender {
 
     private SessionManager sessionManager;
     private Context context;
+    private NetworkMetrics networkMetrics;
 
     @Inject
     public CommonsLogSender(SessionManager sessionManager,
-                            Context context) {
+                            Context context,
+                            NetworkMetrics networkMetrics) {
         super(sessionManager);
 
         this.sessionManager = sessionManager;
         this.context = context;
+        this.networkMetrics = networkMetrics;
         boolean isBeta = ConfigUtils.isBetaFlavour();
         this.logFileName = isBeta ? "CommonsBetaAppLogs.zip" : "CommonsAppLogs.zip";
         String emailSubjectFormat = isBeta ? BETA_LOGS_PRIVATE_EMAIL_SUBJECT : LOGS_PRIVATE_EMAIL_SUBJECT;
@@ -84,6 +88,9 @@ public class CommonsLogSender extends LogsSender {
                 .append(sessionManager.getUserName())
                 .append("\n");
 
+        // Getting the metrics of the latest requests
+        builder.append("Recent requests:\n")
+                .append(networkMetrics.summary());
 
         return builder.toString();
     }
@@ -0,0 +1,110 @@
+package fr.free.nrw.commons.media;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.imagepipeline.request.ImageRequest;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+
+import fr.free.nrw.commons.Media;
+import fr.free.nrw.commons.utils.DeviceInfoUtil;
+import fr.free.nrw.commons.utils.model.ConnectionType;
+
+/**
+ * Pages of a grid of media which load ahead of the scroll position.
+ *
+ * A page holds a few screens of images, more on faster networks, so fewer requests are made
+ * while scrolling. The next page is requested once less than a page is left below the visible
+ * images, which keeps one to two pages loaded ahead. The thumbnails of the loaded pages are
+ * downloaded to the disk cache in advance, except on slow networks.
+ */
+public class AdaptivePaging {
+
+    static final int MIN_PAGE_SIZE = 10;
+    static final int MAX_PAGE_SIZE = 50;
+
+    private int visibleItemCount;
+    private int pageSize = MIN_PAGE_SIZE;
+    private ConnectionType connectionType = ConnectionType.CELLULAR;
+
+    /**
+     * Updates the page size from the network and the number of images on screen
+     *
+     * @return the number of images to request in the next page
+     */
+    public int nextPageSize(Context context) {
+        connectionType = DeviceInfoUtil.getConnectionType(context);
+        pageSize = getPageSize(connectionType, visibleItemCount);
+        return pageSize;
+    }
+
+    /**
+     * @return the number of images to request, as last updated by {@link #nextPageSize(Context)}
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @param firstVisiblePosition position of the first image on screen
+     * @param visibleItemCount     number of images on screen
+     * @param itemCount            number of images loaded
+     * @return whether the next page should be requested
+     */
+    public boolean shouldLoadMore(int firstVisiblePosition, int visibleItemCount, int itemCount) {
+        if (visibleItemCount > 0) {
+            this.visibleItemCount = visibleItemCount;
+        }
+        int itemsBelow = itemCount - firstVisiblePosition - visibleItemCount;
+        return itemCount > 0 && itemsBelow < pageSize;
+    }
+
+    /**
+     * Downloads the thumbnails of the media to the disk cache, so they show up straight away
+     * when they are scrolled to
+     *
+     * @param imageView a view the thumbnails are shown in, to download them in its size
+     */
+    public void prefetchThumbnails(Context context, @Nullable View imageView, List<Media> mediaList) {
+        if (connectionType == ConnectionType.CELLULAR || !Fresco.hasBeenInitialized()) {
+            return;
+        }
+        for (Media media : mediaList) {
+            if (media != null && !StringUtils.isBlank(media.getThumbUrl())) {
+                String url = ThumbnailResolver.resolve(context, imageView, media.getThumbUrl());
+                Fresco.getImagePipeline().prefetchToDiskCache(ImageRequest.fromUri(url), null);
+            }
+        }
+    }
+
+    /**
+     * @return a few screens of images, more on faster networks, within the limit of the API
+     */
+    @VisibleForTesting
+    static int getPageSize(ConnectionType connectionType, int visibleItemCount) {
+        int screens;
+        switch (connectionType) {
+            case WIFI_NETWORK:
+                screens = 4;
+                break;
+            case CELLULAR_4G:
+                screens = 3;
+                break;
+            case CELLULAR_3G:
+                screens = 2;
+                break;
+            default:
+                screens = 1;
+                break;
+        }
+        int pageSize = Math.max(visibleItemCount, MIN_PAGE_SIZE / 2) * screens;
+        return Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE, pageSize));
+    }
+}
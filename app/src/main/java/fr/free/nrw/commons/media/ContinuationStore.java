@@ -0,0 +1,99 @@
+package fr.free.nrw.commons.media;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.free.nrw.commons.kvstore.KeyValueStore;
+import timber.log.Timber;
+
+/**
+ * Keeps where each media list stopped loading, e.g. the continuation of a category, so the next
+ * page can be loaded. Only the most recently used lists are kept. If a store is given, the
+ * continuations are persisted too, so a list can be resumed after the app is restarted.
+ *
+ * Thread safe, as pages are loaded on background threads.
+ */
+class ContinuationStore {
+
+    private static final String STORE_KEY = "media_list_continuations";
+    private static final Type STORE_TYPE =
+            new TypeToken<LinkedHashMap<String, Map<String, String>>>() {}.getType();
+
+    private final int capacity;
+    @Nullable private final KeyValueStore kvStore;
+    private final Gson gson;
+    /**
+     * Least recently used first. Read from the store on first use.
+     */
+    private LinkedHashMap<String, Map<String, String>> continuations;
+
+    ContinuationStore(int capacity, @Nullable KeyValueStore kvStore, Gson gson) {
+        this.capacity = capacity;
+        this.kvStore = kvStore;
+        this.gson = gson;
+    }
+
+    /**
+     * @return the continuation of the list, or null to load its first page
+     */
+    @Nullable
+    synchronized Map<String, String> get(String key) {
+        return getContinuations().get(key);
+    }
+
+    /**
+     * @param continuation null if the whole list was loaded
+     */
+    synchronized void put(String key, @Nullable Map<String, String> continuation) {
+        LinkedHashMap<String, Map<String, String>> continuations = getContinuations();
+        if (continuation == null) {
+            continuations.remove(key);
+        } else {
+            continuations.put(key, new HashMap<>(continuation));
+        }
+        persist();
+    }
+
+    synchronized void remove(String key) {
+        if (getContinuations().remove(key) != null) {
+            persist();
+        }
+    }
+
+    private void persist() {
+        if (kvStore != null) {
+            kvStore.putString(STORE_KEY, gson.toJson(continuations, STORE_TYPE));
+        }
+    }
+
+    private LinkedHashMap<String, Map<String, String>> getContinuations() {
+        if (continuations == null) {
+            continuations = new LinkedHashMap<String, Map<String, String>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Entry<String, Map<String, String>> eldest) {
+                    return size() > capacity;
+                }
+            };
+            if (kvStore != null) {
+                try {
+                    String json = kvStore.getString(STORE_KEY);
+                    Map<String, Map<String, String>> persisted =
+                            json == null ? null : gson.fromJson(json, STORE_TYPE);
+                    if (persisted != null) {
+                        continuations.putAll(persisted);
+                    }
+                } catch (RuntimeException e) {
+                    Timber.e(e, "Could not read the media list continuations");
+                }
+            }
+        }
+        return continuations;
+    }
+}
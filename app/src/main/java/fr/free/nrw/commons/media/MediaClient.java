@@ -4,6 +4,8 @@ package fr.free.nrw.commons.media;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.google.gson.Gson;
+
 import org.wikipedia.dataclient.mwapi.MwQueryPage;
 import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 import org.wikipedia.dataclient.mwapi.MwQueryResult;
@@ -13,17 +15,20 @@ import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
 import fr.free.nrw.commons.Media;
+import fr.free.nrw.commons.kvstore.KeyValueStore;
+import fr.free.nrw.commons.network.BackoffRetry;
 import fr.free.nrw.commons.utils.CommonsDateUtil;
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.HttpUrl;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -39,23 +44,61 @@ public class MediaClient {
 
     private final MediaInterface mediaInterface;
 
-    //OkHttpJsonApiClient used JsonKvStore for this. I don't know why.
-    private Map<String, Map<String, String>> continuationStore;
+    /**
+     * Number of media lists, i.e. categories and searches, whose continuation is kept
+     */
+    private static final int MAX_CONTINUATIONS = 50;
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private final ContinuationStore continuationStore;
+
+    private final TitleBatcher<Boolean> pageExistsBatcher;
+    private final TitleBatcher<Media> mediaBatcher;
 
+    /**
+     * @param kvStore where the continuations of the media lists are persisted, or null to keep
+     *                them in memory only
+     */
     @Inject
-    public MediaClient(MediaInterface mediaInterface) {
+    public MediaClient(MediaInterface mediaInterface,
+                       @Nullable @Named("media_lists") KeyValueStore kvStore, Gson gson) {
         this.mediaInterface = mediaInterface;
-        this.continuationStore = new HashMap<>();
+        this.continuationStore = new ContinuationStore(MAX_CONTINUATIONS, kvStore, gson);
+        pageExistsBatcher = new TitleBatcher<>(
+                titles -> mediaInterface.checkPageExistsUsingTitle(titles)
+                        .compose(BackoffRetry.observable()),
+                page -> page.pageId() > 0,
+                this::checkPageExistsUnbatched,
+                Schedulers.computation());
+        mediaBatcher = new TitleBatcher<>(
+                titles -> mediaInterface.getMedia(titles)
+                        .compose(BackoffRetry.observable()),
+                Media::from,
+                this::getMediaAlone,
+                Schedulers.computation());
     }
 
     /**
      * Checks if a page exists on Commons
-     * The same method can be used to check for file or talk page
+     * The same method can be used to check for file or talk page.
+     * Titles checked at the same time are checked with one request.
      *
      * @param title File:Test.jpg or Commons:Deletion_requests/File:Test1.jpeg
      */
     public Single<Boolean> checkPageExistsUsingTitle(String title) {
+        return pageExistsBatcher.get(title);
+    }
+
+    /**
+     * Checks if a page exists with a request of its own, without waiting for other titles to check
+     * with it. Used by callers which check titles one after the other, which would otherwise wait
+     * for the batching window on every check.
+     *
+     * @param title File:Test.jpg or Commons:Deletion_requests/File:Test1.jpeg
+     */
+    public Single<Boolean> checkPageExistsUnbatched(String title) {
         return mediaInterface.checkPageExistsUsingTitle(title)
+                .compose(BackoffRetry.observable())
                 .map(mwQueryResponse -> mwQueryResponse
                         .query().firstPage().pageId() > 0)
                 .singleOrError();
@@ -68,6 +111,7 @@ public class MediaClient {
      */
     public Single<Boolean> checkFileExistsUsingSha(String fileSha) {
         return mediaInterface.checkFileExistsUsingSha(fileSha)
+                .compose(BackoffRetry.observable())
                 .map(mwQueryResponse -> mwQueryResponse
                         .query().allImages().size() > 0)
                 .singleOrError();
@@ -81,11 +125,18 @@ public class MediaClient {
      * @return
      */
     public Single<List<Media>> getMediaListFromCategory(String category) {
+        return getMediaListFromCategory(category, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param category the search category. Must start with "Category:"
+     * @param pageSize the number of Media to load
+     */
+    public Single<List<Media>> getMediaListFromCategory(String category, int pageSize) {
+        String key = "category_" + category;
         return responseToMediaList(
-                continuationStore.containsKey("category_" + category) ?
-                        mediaInterface.getMediaListFromCategory(category, 10, continuationStore.get("category_" + category)) : //if true
-                        mediaInterface.getMediaListFromCategory(category, 10, Collections.emptyMap()),
-                "category_" + category); //if false
+                Observable.defer(() -> mediaInterface.getMediaListFromCategory(category, pageSize,
+                        getContinuation(key))), key);
 
     }
 
@@ -97,16 +148,49 @@ public class MediaClient {
      * @return
      */
     public Single<List<Media>> getMediaListFromSearch(String keyword) {
+        return getMediaListFromSearch(keyword, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param keyword  the search keyword
+     * @param pageSize the number of Media to load
+     */
+    public Single<List<Media>> getMediaListFromSearch(String keyword, int pageSize) {
+        String key = "search_" + keyword;
         return responseToMediaList(
-                continuationStore.containsKey("search_" + keyword) ?
-                        mediaInterface.getMediaListFromSearch(keyword, 10, continuationStore.get("search_" + keyword)) : //if true
-                        mediaInterface.getMediaListFromSearch(keyword, 10, Collections.emptyMap()), //if false
-                "search_" + keyword);
+                Observable.defer(() -> mediaInterface.getMediaListFromSearch(keyword, pageSize,
+                        getContinuation(key))), key);
+
+    }
+
+    /**
+     * Forgets where the category stopped loading, so it is loaded again from its first page
+     *
+     * @param category the search category. Must start with "Category:"
+     */
+    public void resetMediaListFromCategory(String category) {
+        continuationStore.remove("category_" + category);
+    }
 
+    /**
+     * Forgets where the search stopped loading, so it is loaded again from its first page
+     *
+     * @param keyword the search keyword
+     */
+    public void resetMediaListFromSearch(String keyword) {
+        continuationStore.remove("search_" + keyword);
+    }
+
+    /**
+     * @return the continuation of the list, or an empty one to load its first page
+     */
+    private Map<String, String> getContinuation(String key) {
+        Map<String, String> continuation = continuationStore.get(key);
+        return continuation == null ? Collections.emptyMap() : continuation;
     }
 
     private Single<List<Media>> responseToMediaList(Observable<MwQueryResponse> response, String key) {
-        return response.flatMap(mwQueryResponse -> {
+        return response.compose(BackoffRetry.observable()).flatMap(mwQueryResponse -> {
             if (null == mwQueryResponse
                     || null == mwQueryResponse.query()
                     || null == mwQueryResponse.query().pages()) {
@@ -120,13 +204,19 @@ public class MediaClient {
     }
   
      /**
-     * Fetches Media object from the imageInfo API
+     * Fetches Media object from the imageInfo API.
+     * Media fetched at the same time are fetched with one request.
      *
      * @param titles the tiles to be searched for. Can be filename or template name
      * @return
      */
     public Single<Media> getMedia(String titles) {
+        return mediaBatcher.get(titles);
+    }
+
+    private Single<Media> getMediaAlone(String titles) {
         return mediaInterface.getMedia(titles)
+                .compose(BackoffRetry.observable())
                 .flatMap(mwQueryResponse -> {
                     if (null == mwQueryResponse
                             || null == mwQueryResponse.query()
@@ -150,6 +240,7 @@ public class MediaClient {
         Timber.d("Current date is %s", date);
         String template = "Template:Potd/" + date;
         return mediaInterface.getMediaWithGenerator(template)
+                .compose(BackoffRetry.observable())
                 .flatMap(mwQueryResponse -> {
                     if (null == mwQueryResponse
                             || null == mwQueryResponse.query()
@@ -165,6 +256,7 @@ public class MediaClient {
     @NonNull
     public Single<String> getPageHtml(String title){
         return mediaInterface.getPageHtml(title)
+                .compose(BackoffRetry.observable())
                 .filter(MwParseResponse::success)
                 .map(MwParseResponse::parse)
                 .map(MwParseResult::text)
@@ -258,7 +258,8 @@ public class MediaDetailFragment extends CommonsDaggerSupportFragment {
      */
     private void setupImageView() {
         DraweeController controller = Fresco.newDraweeControllerBuilder()
-                .setLowResImageRequest(ImageRequest.fromUri(media.getThumbUrl()))
+                .setLowResImageRequest(ImageRequest.fromUri(
+                        ThumbnailResolver.resolve(getContext(), image, media.getThumbUrl())))
                 .setImageRequest(ImageRequest.fromUri(media.getImageUrl()))
                 .setOldController(image.getController())
                 .build();
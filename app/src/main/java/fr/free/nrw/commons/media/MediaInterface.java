@@ -5,8 +5,10 @@ import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 
 import java.util.Map;
 
+import fr.free.nrw.commons.network.CachePolicy;
 import io.reactivex.Observable;
 import retrofit2.http.GET;
+import retrofit2.http.Headers;
 import retrofit2.http.Query;
 import retrofit2.http.QueryMap;
 
@@ -14,7 +16,7 @@ import retrofit2.http.QueryMap;
  * Interface for interacting with Commons media related APIs
  */
 public interface MediaInterface {
-    String MEDIA_PARAMS="&prop=imageinfo&iiprop=url|extmetadata&iiurlwidth=640" +
+    String MEDIA_PARAMS="&prop=imageinfo&iiprop=url|extmetadata&iiurlwidth=" + ThumbnailResolver.MAX_THUMBNAIL_WIDTH +
             "&iiextmetadatafilter=DateTime|Categories|GPSLatitude|GPSLongitude|ImageDescription|DateTimeOriginal" +
             "|Artist|LicenseShortName|LicenseUrl";
     /**
@@ -67,6 +69,7 @@ public interface MediaInterface {
      * @param title       the tiles to be searched for. Can be filename or template name
      * @return
      */
+    @Headers(CachePolicy.MEDIA)
     @GET("w/api.php?action=query&format=json&formatversion=2" +
             MEDIA_PARAMS)
     Observable<MwQueryResponse> getMedia(@Query("titles") String title);
@@ -78,10 +81,12 @@ public interface MediaInterface {
      * @param title       the tiles to be searched for. Can be filename or template name
      * @return
      */
+    @Headers(CachePolicy.PICTURE_OF_THE_DAY)
     @GET("w/api.php?action=query&format=json&formatversion=2&generator=images" +
             MEDIA_PARAMS)
     Observable<MwQueryResponse> getMediaWithGenerator(@Query("titles") String title);
 
+    @Headers(CachePolicy.MEDIA)
     @GET("w/api.php?format=json&action=parse&prop=text")
     Observable<MwParseResponse> getPageHtml(@Query("page") String title);
 }
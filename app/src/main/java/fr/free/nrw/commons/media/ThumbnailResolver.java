@@ -0,0 +1,123 @@
+package fr.free.nrw.commons.media;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks the size of the thumbnails shown in a view, so small views do not download and decode
+ * many more pixels than they show.
+ *
+ * The sizes are among those Wikimedia renders for its own pages, which are likely to be cached
+ * by its servers, up to the width the API is asked for. The thumbnails returned by the API are
+ * resized to the size of the view. On devices with little memory the size below that of the view
+ * is used.
+ *
+ * The API returns the original instead of a thumbnail for images no wider than it is asked for,
+ * and an original cannot be resized without knowing its width. So the API is not asked for more
+ * than 640 px, or the originals of a few more images would be downloaded in full.
+ */
+public class ThumbnailResolver {
+
+    /**
+     * Width of the thumbnails returned by the API
+     */
+    public static final int MAX_THUMBNAIL_WIDTH = 640;
+    private static final int[] THUMBNAIL_WIDTHS = {120, 250, 330, 500, MAX_THUMBNAIL_WIDTH};
+    private static final int LOW_MEMORY_CLASS_MB = 64;
+
+    /**
+     * The width in the file name of a thumbnail, e.g. 640px-Example.jpg or page1-640px-Example.pdf.jpg
+     */
+    private static final Pattern THUMBNAIL_WIDTH = Pattern.compile("(/(?:[a-z0-9-]*-)?)(\\d+)(px-[^/]+)$");
+
+    private ThumbnailResolver() {
+    }
+
+    /**
+     * @param view the view the thumbnail is shown in, or null for a view as wide as the screen
+     * @param url  the URL of a thumbnail returned by the API
+     * @return the URL of the thumbnail of the size for the view
+     */
+    public static String resolve(Context context, @Nullable View view, @Nullable String url) {
+        return resolve(context, view == null ? 0 : getSize(view), url);
+    }
+
+    /**
+     * @param size the larger side of the image shown in pixels, or 0 for an image as wide as the
+     *             screen
+     * @param url  the URL of a thumbnail returned by the API
+     * @return the URL of the thumbnail of the size for the image
+     */
+    public static String resolve(Context context, int size, @Nullable String url) {
+        if (url == null) {
+            return null;
+        }
+        if (size <= 0) {
+            size = context.getResources().getDisplayMetrics().widthPixels;
+        }
+        ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClass = activityManager == null ? 0 : activityManager.getMemoryClass();
+        return resize(url, getThumbnailWidth(size, memoryClass));
+    }
+
+    /**
+     * @return the larger side of the view, as laid out or as in its layout parameters
+     */
+    private static int getSize(View view) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+        ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
+        if (width <= 0 && layoutParams != null) {
+            width = layoutParams.width;
+        }
+        if (height <= 0 && layoutParams != null) {
+            height = layoutParams.height;
+        }
+        return Math.max(width, height);
+    }
+
+    /**
+     * @param size        the larger side of the view, in pixels
+     * @param memoryClass the memory class of the device in MB, 0 if unknown
+     */
+    @VisibleForTesting
+    static int getThumbnailWidth(int size, int memoryClass) {
+        boolean lowMemory = memoryClass > 0 && memoryClass <= LOW_MEMORY_CLASS_MB;
+        for (int i = 0; i < THUMBNAIL_WIDTHS.length; i++) {
+            if (THUMBNAIL_WIDTHS[i] >= size) {
+                return lowMemory && THUMBNAIL_WIDTHS[i] > size && i > 0
+                        ? THUMBNAIL_WIDTHS[i - 1] : THUMBNAIL_WIDTHS[i];
+            }
+        }
+        return MAX_THUMBNAIL_WIDTH;
+    }
+
+    /**
+     * Thumbnails are only made smaller, as the original may not be large enough for a larger one.
+     * The URLs of originals, returned for images smaller than the thumbnails asked for, are kept.
+     */
+    @VisibleForTesting
+    static String resize(String url, int width) {
+        Matcher matcher = THUMBNAIL_WIDTH.matcher(url);
+        if (!url.contains("/thumb/") || !matcher.find()) {
+            return url;
+        }
+        try {
+            if (Integer.parseInt(matcher.group(2)) <= width) {
+                return url;
+            }
+        } catch (NumberFormatException e) {
+            return url;
+        }
+        return url.substring(0, matcher.start()) + matcher.group(1) + width + matcher.group(3);
+    }
+}
@@ -0,0 +1,215 @@
+package fr.free.nrw.commons.media;
+
+import org.wikipedia.dataclient.mwapi.MwQueryPage;
+import org.wikipedia.dataclient.mwapi.MwQueryResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import timber.log.Timber;
+
+/**
+ * Collects the titles requested within a short window, and queries them together, with
+ * titles=A|B|C, instead of one request per title. The pages of the response are matched back to
+ * the titles requested. A title which cannot be matched, e.g. because the API normalised it in an
+ * unexpected way, is queried on its own.
+ *
+ * @param <T> what is made of the page of each title
+ */
+class TitleBatcher<T> {
+
+    /**
+     * Maximum number of titles of a query for users without the apihighlimits right
+     */
+    static final int MAX_BATCH_SIZE = 50;
+    static final long WINDOW_MILLIS = 50;
+
+    private final Function<String, Observable<MwQueryResponse>> query;
+    private final Function<MwQueryPage, T> mapper;
+    private final Function<String, Single<T>> fallback;
+    private final Scheduler scheduler;
+
+    private Map<String, List<SingleEmitter<T>>> pending = new LinkedHashMap<>();
+    private Disposable scheduledFlush;
+
+    /**
+     * @param query    queries the pages of titles separated by |
+     * @param mapper   makes the result of a page
+     * @param fallback queries a single title
+     */
+    TitleBatcher(Function<String, Observable<MwQueryResponse>> query,
+                 Function<MwQueryPage, T> mapper,
+                 Function<String, Single<T>> fallback,
+                 Scheduler scheduler) {
+        this.query = query;
+        this.mapper = mapper;
+        this.fallback = fallback;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return the result of the title, once the batch it is part of is queried
+     */
+    Single<T> get(String title) {
+        return Single.create(emitter -> {
+            emitter.setCancellable(() -> remove(title, emitter));
+            add(title, emitter);
+        });
+    }
+
+    private synchronized void add(String title, SingleEmitter<T> emitter) {
+        if (emitter.isDisposed()) {
+            return;
+        }
+        List<SingleEmitter<T>> emitters = pending.get(title);
+        if (emitters == null) {
+            emitters = new ArrayList<>();
+            pending.put(title, emitters);
+        }
+        emitters.add(emitter);
+        if (pending.size() >= MAX_BATCH_SIZE) {
+            flush();
+        } else if (scheduledFlush == null) {
+            scheduledFlush = scheduler.scheduleDirect(this::flush, WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Drops a disposed request from the pending batch, and the title if nothing else requested it.
+     * Requests already being queried are left, their results are ignored.
+     */
+    private synchronized void remove(String title, SingleEmitter<T> emitter) {
+        List<SingleEmitter<T>> emitters = pending.get(title);
+        if (emitters == null || !emitters.remove(emitter) || !emitters.isEmpty()) {
+            return;
+        }
+        pending.remove(title);
+        if (pending.isEmpty() && scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+    }
+
+    private synchronized void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, List<SingleEmitter<T>>> batch = pending;
+        pending = new LinkedHashMap<>();
+
+        StringBuilder titles = new StringBuilder();
+        for (String title : batch.keySet()) {
+            if (titles.length() > 0) {
+                titles.append('|');
+            }
+            titles.append(title);
+        }
+        Timber.d("Querying %d titles together", batch.size());
+        Observable<MwQueryResponse> response;
+        try {
+            response = query.apply(titles.toString());
+        } catch (Exception e) {
+            fail(batch, e);
+            return;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        response.subscribeOn(Schedulers.io())
+                .subscribe(result -> dispatch(batch, result), error -> fail(batch, error));
+    }
+
+    private void dispatch(Map<String, List<SingleEmitter<T>>> batch, MwQueryResponse response) {
+        Map<String, MwQueryPage> pages = new HashMap<>();
+        if (response != null && response.query() != null && response.query().pages() != null) {
+            for (MwQueryPage page : response.query().pages()) {
+                if (page.title() != null) {
+                    pages.put(normalize(page.title()), page);
+                }
+            }
+        }
+        for (Map.Entry<String, List<SingleEmitter<T>>> entry : batch.entrySet()) {
+            MwQueryPage page = pages.get(normalize(entry.getKey()));
+            T result = null;
+            if (page != null) {
+                try {
+                    result = mapper.apply(page);
+                } catch (Exception e) {
+                    Timber.e(e, "Could not read the page of %s", entry.getKey());
+                }
+            }
+            if (result != null) {
+                for (SingleEmitter<T> emitter : entry.getValue()) {
+                    emitter.onSuccess(result);
+                }
+            } else {
+                queryAlone(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void queryAlone(String title, List<SingleEmitter<T>> emitters) {
+        Single<T> single;
+        try {
+            single = fallback.apply(title);
+        } catch (Exception e) {
+            fail(emitters, e);
+            return;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        single.subscribeOn(Schedulers.io())
+                .subscribe(result -> {
+                    for (SingleEmitter<T> emitter : emitters) {
+                        emitter.onSuccess(result);
+                    }
+                }, error -> fail(emitters, error));
+    }
+
+    private void fail(Map<String, List<SingleEmitter<T>>> batch, Throwable error) {
+        for (List<SingleEmitter<T>> emitters : batch.values()) {
+            fail(emitters, error);
+        }
+    }
+
+    private void fail(List<SingleEmitter<T>> emitters, Throwable error) {
+        for (SingleEmitter<T> emitter : emitters) {
+            emitter.tryOnError(error);
+        }
+    }
+
+    /**
+     * Normalises a title the way MediaWiki does for the common cases: underscores become spaces,
+     * and the first letters of the namespace and of the title are upper case
+     */
+    static String normalize(String title) {
+        String normalized = title.replace('_', ' ').trim();
+        int colon = normalized.indexOf(':');
+        if (colon > 0 && colon + 1 < normalized.length()) {
+            String name = normalized.substring(colon + 1).trim();
+            normalized = capitalize(normalized.substring(0, colon).trim()) + ":" + capitalize(name);
+        } else {
+            normalized = capitalize(normalized);
+        }
+        return normalized;
+    }
+
+    private static String capitalize(String text) {
+        if (text.isEmpty()) {
+            return text;
+        }
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
@@ -14,6 +14,7 @@ import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import fr.free.nrw.commons.network.BackoffRetry;
 import io.reactivex.Single;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
@@ -66,7 +67,7 @@ public class CategoryApi {
                 }
             }
             return new ArrayList<>(categories);
-        });
+        }).compose(BackoffRetry.single());
     }
 
     /**
@@ -11,9 +11,12 @@ import fr.free.nrw.commons.achievements.FeedbackResponse;
 import fr.free.nrw.commons.campaigns.CampaignResponseDTO;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.location.LatLng;
+import fr.free.nrw.commons.media.ThumbnailResolver;
 import fr.free.nrw.commons.nearby.Place;
 import fr.free.nrw.commons.nearby.model.NearbyResponse;
 import fr.free.nrw.commons.nearby.model.NearbyResultItem;
+import fr.free.nrw.commons.network.BackoffRetry;
+import fr.free.nrw.commons.network.CachePolicy;
 import fr.free.nrw.commons.upload.FileUtils;
 import fr.free.nrw.commons.utils.CommonsDateUtil;
 import fr.free.nrw.commons.utils.ConfigUtils;
@@ -21,6 +24,7 @@ import fr.free.nrw.commons.wikidata.model.GetWikidataEditCountResponse;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Date;
@@ -44,7 +48,7 @@ import timber.log.Timber;
  */
 @Singleton
 public class OkHttpJsonApiClient {
-    private static final String THUMB_SIZE = "640";
+    private static final String THUMB_SIZE = String.valueOf(ThumbnailResolver.MAX_THUMBNAIL_WIDTH);
 
     private final OkHttpClient okHttpClient;
     private final HttpUrl wikiMediaToolforgeUrl;
@@ -100,7 +104,7 @@ public class OkHttpJsonApiClient {
                 }
             }
             return 0;
-        });
+        }).compose(BackoffRetry.single());
     }
 
     @NonNull
@@ -132,7 +136,7 @@ public class OkHttpJsonApiClient {
                 }
             }
             return 0;
-        });
+        }).compose(BackoffRetry.single());
     }
 
     /**
@@ -172,7 +176,7 @@ public class OkHttpJsonApiClient {
 
             }
             return null;
-        });
+        }).compose(BackoffRetry.single());
     }
 
     public Observable<List<Place>> getNearbyPlaces(LatLng cur, String lang, double radius) throws IOException {
@@ -196,11 +200,13 @@ public class OkHttpJsonApiClient {
         return Observable.fromCallable(() -> {
             Response response = okHttpClient.newCall(request).execute();
             if (response != null && response.body() != null && response.isSuccessful()) {
-                String json = response.body().string();
-                if (json == null) {
+                NearbyResponse nearbyResponse;
+                try (Reader reader = response.body().charStream()) {
+                    nearbyResponse = gson.fromJson(reader, NearbyResponse.class);
+                }
+                if (nearbyResponse == null) {
                     return new ArrayList<>();
                 }
-                NearbyResponse nearbyResponse = gson.fromJson(json, NearbyResponse.class);
                 List<NearbyResultItem> bindings = nearbyResponse.getResults().getBindings();
                 List<Place> places = new ArrayList<>();
                 for (NearbyResultItem item : bindings) {
@@ -209,12 +215,13 @@ public class OkHttpJsonApiClient {
                 return places;
             }
             return new ArrayList<>();
-        });
+        }).compose(BackoffRetry.observable());
     }
 
     public Single<CampaignResponseDTO> getCampaigns() {
         return Single.fromCallable(() -> {
             Request request = new Request.Builder().url(campaignsUrl)
+                    .header(CachePolicy.HEADER, CachePolicy.CAMPAIGNS_VALUE)
                     .build();
             Response response = okHttpClient.newCall(request).execute();
             if (response != null && response.body() != null && response.isSuccessful()) {
@@ -225,7 +232,7 @@ public class OkHttpJsonApiClient {
                 return gson.fromJson(json, CampaignResponseDTO.class);
             }
             return null;
-        });
+        }).compose(BackoffRetry.single());
     }
 
     /**
@@ -1,8 +1,9 @@
 package fr.free.nrw.commons.mwapi;
 
-import java.util.Collections;
+import androidx.annotation.Nullable;
 
-import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Map;
 
 import io.reactivex.Observable;
 
@@ -49,15 +50,36 @@ public class UserClient {
                 }).single(false);
     }
 
-    public Observable<MwQueryLogEvent> logEvents(String user) {
-        try {
-            return userInterface.getUserLogEvents(user, Collections.emptyMap())
-                    .map(MwQueryResponse::query)
-                    .map(MwQueryResult::logevents)
-                    .flatMap(Observable::fromIterable);
-        } catch (Throwable throwable) {
-            return Observable.empty();
-        }
+    /**
+     * Lists the upload log events of the user, newest first. Further pages are only requested
+     * as the events are consumed, so a subscriber which stops early does not load the rest.
+     *
+     * @param start timestamp of the newest event to list, or null to start with the latest one
+     * @param end timestamp of the oldest event to list, or null to list the whole history
+     */
+    public Observable<MwQueryLogEvent> logEvents(String user, @Nullable Date start,
+                                                 @Nullable Date end) {
+        return logEvents(user, format(start), format(end), Collections.emptyMap());
+    }
+
+    private Observable<MwQueryLogEvent> logEvents(String user, String start, String end,
+                                                  Map<String, String> continuation) {
+        return userInterface.getUserLogEvents(user, start, end, continuation)
+                .concatMap(response -> {
+                    Observable<MwQueryLogEvent> events = response.query() == null
+                            ? Observable.empty()
+                            : Observable.fromIterable(response.query().logevents());
+                    Map<String, String> next = response.continuation();
+                    if (next == null || next.isEmpty()) {
+                        return events;
+                    }
+                    return events.concatWith(Observable.defer(() ->
+                            logEvents(user, start, end, next)));
+                });
+    }
 
+    @Nullable
+    private static String format(@Nullable Date date) {
+        return date == null ? null : DateUtil.iso8601DateFormat(date);
     }
 }
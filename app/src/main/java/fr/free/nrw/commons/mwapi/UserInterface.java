@@ -16,12 +16,17 @@ public interface UserInterface {
     /**
      * Gets the log events of user
      * @param user name of user without prefix
+     * @param start newest timestamp to list events from, or null to start with the latest event
+     * @param end oldest timestamp to list events up to, or null to list the whole history
      * @param continuation continuation params returned in previous query
      * @return query response
      */
 
     @GET(MW_API_PREFIX+"action=query&list=logevents&letype=upload&leprop=title|timestamp|ids&lelimit=500")
-    Observable<MwQueryResponse> getUserLogEvents(@Query("leuser") String user, @QueryMap Map<String, String> continuation);
+    Observable<MwQueryResponse> getUserLogEvents(@Query("leuser") String user,
+                                                 @Query("lestart") String start,
+                                                 @Query("leend") String end,
+                                                 @QueryMap Map<String, String> continuation);
 
     /**
      * Checks to see if a user is currently blocked from Commons
@@ -0,0 +1,197 @@
+package fr.free.nrw.commons.nearby.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming adapter of the SPARQL results of the nearby query, which can hold thousands of
+ * bindings. It reads the same fields as the reflective adapter without its reflection and
+ * intermediate objects, and skips the fields of the response which are not used.
+ */
+public class NearbyResponseTypeAdapter extends TypeAdapter<NearbyResponse> {
+
+    @Override
+    public void write(JsonWriter out, NearbyResponse response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        NearbyResults results = response.getResults();
+        if (results != null) {
+            out.name("results").beginObject();
+            if (results.getBindings() != null) {
+                out.name("bindings").beginArray();
+                for (NearbyResultItem item : results.getBindings()) {
+                    writeItem(out, item);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+        out.endObject();
+    }
+
+    private void writeItem(JsonWriter out, NearbyResultItem item) throws IOException {
+        if (item == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        writeTuple(out, "item", item.getItem());
+        writeTuple(out, "wikipediaArticle", item.getWikipediaArticle());
+        writeTuple(out, "commonsArticle", item.getCommonsArticle());
+        writeTuple(out, "location", item.getLocation());
+        writeTuple(out, "label", item.getLabel());
+        writeTuple(out, "icon", item.getIcon());
+        writeTuple(out, "class", item.getClassName());
+        writeTuple(out, "classLabel", item.getClassLabel());
+        writeTuple(out, "commonsCategory", item.getCommonsCategory());
+        out.endObject();
+    }
+
+    private void writeTuple(JsonWriter out, String name, ResultTuple tuple) throws IOException {
+        out.name(name).beginObject()
+                .name("type").value(tuple.getType())
+                .name("value").value(tuple.getValue())
+                .endObject();
+    }
+
+    @Override
+    public NearbyResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        NearbyResults results = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("results".equals(in.nextName())) {
+                results = readResults(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new NearbyResponse(results);
+    }
+
+    private NearbyResults readResults(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<NearbyResultItem> bindings = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("bindings".equals(in.nextName()) && in.peek() != JsonToken.NULL) {
+                bindings = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    bindings.add(readItem(in));
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new NearbyResults(bindings);
+    }
+
+    private NearbyResultItem readItem(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        ResultTuple item = null;
+        ResultTuple wikipediaArticle = null;
+        ResultTuple commonsArticle = null;
+        ResultTuple location = null;
+        ResultTuple label = null;
+        ResultTuple icon = null;
+        ResultTuple className = null;
+        ResultTuple classLabel = null;
+        ResultTuple commonsCategory = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "item":
+                    item = readTuple(in);
+                    break;
+                case "wikipediaArticle":
+                    wikipediaArticle = readTuple(in);
+                    break;
+                case "commonsArticle":
+                    commonsArticle = readTuple(in);
+                    break;
+                case "location":
+                    location = readTuple(in);
+                    break;
+                case "label":
+                    label = readTuple(in);
+                    break;
+                case "icon":
+                    icon = readTuple(in);
+                    break;
+                case "class":
+                    className = readTuple(in);
+                    break;
+                case "classLabel":
+                    classLabel = readTuple(in);
+                    break;
+                case "commonsCategory":
+                    commonsCategory = readTuple(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return new NearbyResultItem(item, wikipediaArticle, commonsArticle, location, label, icon,
+                className, classLabel, commonsCategory);
+    }
+
+    /**
+     * Fields missing from the tuple are empty, as with the constructor the reflective adapter uses
+     */
+    private ResultTuple readTuple(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String type = "";
+        String value = "";
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "type":
+                    type = nextString(in);
+                    break;
+                case "value":
+                    value = nextString(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return new ResultTuple(type, value);
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+}
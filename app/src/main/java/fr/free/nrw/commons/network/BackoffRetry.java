@@ -0,0 +1,94 @@
+package fr.free.nrw.commons.network;
+
+import androidx.annotation.VisibleForTesting;
+
+import org.wikipedia.dataclient.okhttp.HttpStatusException;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.UnknownHostException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Scheduler;
+import io.reactivex.SingleTransformer;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Rx transformers which retry idempotent requests after transient failures, waiting
+ * exponentially longer between attempts, with jitter so clients do not retry in step.
+ *
+ * Only timeouts, dropped connections and server errors are retried. Client errors, a missing
+ * network and suspended hosts ({@link CircuitOpenException}) fail straight away.
+ */
+public final class BackoffRetry {
+
+    public static final int DEFAULT_MAX_RETRIES = 2;
+    private static final long INITIAL_DELAY_MILLIS = 500;
+    private static final long MAX_DELAY_MILLIS = 8000;
+
+    private static final Random random = new Random();
+
+    private BackoffRetry() {
+    }
+
+    public static <T> ObservableTransformer<T, T> observable() {
+        return observable(DEFAULT_MAX_RETRIES, Schedulers.computation());
+    }
+
+    @VisibleForTesting
+    static <T> ObservableTransformer<T, T> observable(int maxRetries, Scheduler scheduler) {
+        return upstream -> upstream.retryWhen(errors -> {
+            int[] attempts = {0};
+            return errors.flatMap(error -> delay(error, ++attempts[0], maxRetries, scheduler));
+        });
+    }
+
+    public static <T> SingleTransformer<T, T> single() {
+        return single(DEFAULT_MAX_RETRIES, Schedulers.computation());
+    }
+
+    @VisibleForTesting
+    static <T> SingleTransformer<T, T> single(int maxRetries, Scheduler scheduler) {
+        return upstream -> upstream.retryWhen(errors -> {
+            int[] attempts = {0};
+            return errors.flatMap(error -> delay(error, ++attempts[0], maxRetries, scheduler)
+                    .toFlowable(BackpressureStrategy.LATEST));
+        });
+    }
+
+    /**
+     * @return a timer to retry after, or the error if it is not retried
+     */
+    private static Observable<Long> delay(Throwable error, int attempt, int maxRetries,
+                                          Scheduler scheduler) {
+        if (attempt > maxRetries || !isTransient(error)) {
+            return Observable.error(error);
+        }
+        return Observable.timer(delayMillis(attempt), TimeUnit.MILLISECONDS, scheduler);
+    }
+
+    /**
+     * @return between half and all of the exponential delay of the attempt
+     */
+    @VisibleForTesting
+    static long delayMillis(int attempt) {
+        long delay = Math.min(MAX_DELAY_MILLIS, INITIAL_DELAY_MILLIS << Math.min(attempt - 1, 16));
+        return delay / 2 + (long) (random.nextDouble() * delay / 2);
+    }
+
+    @VisibleForTesting
+    static boolean isTransient(Throwable error) {
+        if (error instanceof HttpStatusException) {
+            int code = ((HttpStatusException) error).code();
+            return code >= HttpURLConnection.HTTP_INTERNAL_ERROR || code == 429;
+        }
+        if (error instanceof CircuitOpenException || error instanceof UnknownHostException) {
+            return false;
+        }
+        return error instanceof IOException;
+    }
+}
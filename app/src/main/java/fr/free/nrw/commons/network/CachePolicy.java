@@ -0,0 +1,115 @@
+package fr.free.nrw.commons.network;
+
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+import timber.log.Timber;
+
+/**
+ * How long the response of a read-only request may be served from the HTTP cache, whatever the
+ * cache headers sent by the server.
+ *
+ * Requests opt in with the {@link #HEADER} header, e.g. with one of the constants below on a
+ * Retrofit method. The header is removed before the request is sent.
+ */
+public class CachePolicy {
+
+    public static final String HEADER = "X-Commons-Cache-Policy";
+
+    /**
+     * Metadata and content of files and pages, which are rarely edited
+     */
+    public static final String MEDIA = HEADER
+            + ": max-age=600, stale-while-revalidate=86400, stale-if-error=604800";
+    /**
+     * The members and parents of categories
+     */
+    public static final String CATEGORIES = HEADER
+            + ": max-age=3600, stale-while-revalidate=86400, stale-if-error=604800";
+    /**
+     * The picture of the day, which is looked up by date
+     */
+    public static final String PICTURE_OF_THE_DAY = HEADER
+            + ": max-age=3600, stale-while-revalidate=3600, stale-if-error=86400";
+    /**
+     * Data which never changes once it exists, like the first revision of a file
+     */
+    public static final String IMMUTABLE = HEADER
+            + ": max-age=604800, stale-while-revalidate=0, stale-if-error=2592000";
+    /**
+     * Value of the header for the campaigns, which are fetched without Retrofit
+     */
+    public static final String CAMPAIGNS_VALUE =
+            "max-age=3600, stale-while-revalidate=86400, stale-if-error=604800";
+
+    /**
+     * Seconds during which the response is fresh
+     */
+    public final int maxAgeSeconds;
+    /**
+     * Seconds after it became stale during which the response is still served, while it is
+     * refreshed in the background
+     */
+    public final int staleWhileRevalidateSeconds;
+    /**
+     * Seconds after it became stale during which the response is served if the network fails
+     */
+    public final int staleIfErrorSeconds;
+
+    CachePolicy(int maxAgeSeconds, int staleWhileRevalidateSeconds, int staleIfErrorSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+        this.staleIfErrorSeconds = staleIfErrorSeconds;
+    }
+
+    /**
+     * @param value value of the {@link #HEADER} header, directives separated by commas
+     * @return the policy, or null if the value has no max-age
+     */
+    @Nullable
+    static CachePolicy parse(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        int maxAge = -1;
+        int staleWhileRevalidate = 0;
+        int staleIfError = 0;
+        for (String directive : value.split(",")) {
+            String[] parts = directive.trim().split("=", 2);
+            if (parts.length != 2) {
+                continue;
+            }
+            int seconds;
+            try {
+                seconds = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException e) {
+                Timber.w("Invalid cache policy directive %s", directive);
+                continue;
+            }
+            switch (parts[0].toLowerCase(Locale.ENGLISH)) {
+                case "max-age":
+                    maxAge = seconds;
+                    break;
+                case "stale-while-revalidate":
+                    staleWhileRevalidate = seconds;
+                    break;
+                case "stale-if-error":
+                    staleIfError = seconds;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return maxAge < 0 ? null : new CachePolicy(maxAge, staleWhileRevalidate, staleIfError);
+    }
+
+    /**
+     * @return the Cache-Control header to store the response with
+     */
+    String toCacheControl() {
+        return String.format(Locale.ENGLISH,
+                "public, max-age=%d, stale-while-revalidate=%d, stale-if-error=%d",
+                maxAgeSeconds, staleWhileRevalidateSeconds, staleIfErrorSeconds);
+    }
+}
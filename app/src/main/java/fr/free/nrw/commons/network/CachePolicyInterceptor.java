@@ -0,0 +1,176 @@
+package fr.free.nrw.commons.network;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import org.wikipedia.dataclient.okhttp.HttpStatusException;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import fr.free.nrw.commons.utils.NetworkUtils;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import timber.log.Timber;
+
+/**
+ * Applies the {@link CachePolicy} of requests which have one:
+ * <ul>
+ * <li>offline, the response is served from the cache, however old it is</li>
+ * <li>a stale response is served from the cache during stale-while-revalidate, and the request is
+ * made again in the background to refresh it</li>
+ * <li>a stale response is served from the cache during stale-if-error if the request fails</li>
+ * </ul>
+ * It has to be the first application interceptor, and {@link ResponseHeaderInterceptor} has to be
+ * a network interceptor of the same client, so the responses are stored in the cache at all.
+ */
+public class CachePolicyInterceptor implements Interceptor {
+
+    private static final String STALE_WARNING = "110";
+
+    private final Context context;
+    /**
+     * URLs being refreshed in the background, which have to go to the network
+     */
+    private final Set<String> revalidatingUrls = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    public CachePolicyInterceptor(Context context) {
+        this.context = context;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        CachePolicy policy = CachePolicy.parse(request.header(CachePolicy.HEADER));
+        if (request.header(CachePolicy.HEADER) != null) {
+            request = request.newBuilder()
+                    .removeHeader(CachePolicy.HEADER)
+                    .tag(CachePolicy.class, policy)
+                    .build();
+        }
+        if (policy == null || !"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+
+        String url = request.url().toString();
+        if (revalidatingUrls.contains(url)) {
+            return chain.proceed(request.newBuilder()
+                    .cacheControl(CacheControl.FORCE_NETWORK)
+                    .build());
+        }
+
+        if (!NetworkUtils.isInternetConnectionEstablished(context)) {
+            return chain.proceed(request.newBuilder()
+                    .cacheControl(CacheControl.FORCE_CACHE)
+                    .build());
+        }
+
+        if (policy.staleWhileRevalidateSeconds > 0) {
+            Response cached = fromCache(chain, request, policy.staleWhileRevalidateSeconds);
+            if (cached != null) {
+                String warning = cached.header("Warning");
+                if (warning != null && warning.startsWith(STALE_WARNING)) {
+                    revalidate(chain.call(), url);
+                }
+                return cached;
+            }
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (HttpStatusException e) {
+            throw e;
+        } catch (IOException e) {
+            Response cached = fromCache(chain, request, policy.staleIfErrorSeconds);
+            if (cached == null) {
+                throw e;
+            }
+            Timber.d(e, "Serving %s from the cache", url);
+            return cached;
+        }
+        if (response.code() >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+            Response cached = fromCache(chain, request, policy.staleIfErrorSeconds);
+            if (cached != null) {
+                response.close();
+                return cached;
+            }
+        }
+        return response;
+    }
+
+    /**
+     * @return the cached response, if it is at most maxStaleSeconds stale, otherwise null
+     */
+    private Response fromCache(Chain chain, Request request, int maxStaleSeconds) {
+        Request cacheRequest = request.newBuilder()
+                .cacheControl(new CacheControl.Builder()
+                        .onlyIfCached()
+                        .maxStale(maxStaleSeconds, TimeUnit.SECONDS)
+                        .build())
+                .build();
+        try {
+            Response response = chain.proceed(cacheRequest);
+            if (response.isSuccessful()) {
+                return response;
+            }
+            response.close();
+        } catch (IOException e) {
+            // Not in the cache, which is an unsuccessful response for the inner interceptors
+        }
+        return null;
+    }
+
+    /**
+     * Makes the call again in the background, unless it already is, to refresh the cache
+     */
+    private void revalidate(Call call, String url) {
+        if (!revalidatingUrls.add(url)) {
+            return;
+        }
+        call.clone().enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                revalidatingUrls.remove(url);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+                revalidatingUrls.remove(url);
+            }
+        });
+    }
+
+    /**
+     * Replaces the cache headers of the responses to requests with a {@link CachePolicy}, which
+     * MediaWiki usually marks as private or not to be cached
+     */
+    public static class ResponseHeaderInterceptor implements Interceptor {
+        @NonNull
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+            Response response = chain.proceed(chain.request());
+            CachePolicy policy = chain.request().tag(CachePolicy.class);
+            if (policy == null || !(response.isSuccessful()
+                    || response.code() == HttpURLConnection.HTTP_NOT_MODIFIED)) {
+                return response;
+            }
+            return response.newBuilder()
+                    .removeHeader("Pragma")
+                    .removeHeader("Expires")
+                    .header("Cache-Control", policy.toCacheControl())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package fr.free.nrw.commons.network;
+
+import android.os.SystemClock;
+
+/**
+ * Stops requests to a host after a number of consecutive failures. After a while, one request is
+ * let through: its success resumes requests, its failure stops them again.
+ */
+class CircuitBreaker {
+
+    enum Outcome {
+        SUCCESS,
+        FAILURE,
+        /**
+         * The request was cancelled or failed for a reason which says nothing about the host
+         */
+        ABANDONED
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private int consecutiveFailures;
+    private long openUntilMillis;
+    private boolean isTrialRequestPending;
+
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @return whether a request can be made now
+     */
+    synchronized boolean allowRequest() {
+        if (consecutiveFailures < failureThreshold) {
+            return true;
+        }
+        if (isTrialRequestPending || now() < openUntilMillis) {
+            return false;
+        }
+        isTrialRequestPending = true;
+        return true;
+    }
+
+    /**
+     * Records the outcome of a request allowed by {@link #allowRequest()}
+     */
+    synchronized void onOutcome(Outcome outcome) {
+        isTrialRequestPending = false;
+        if (outcome == Outcome.SUCCESS) {
+            consecutiveFailures = 0;
+        } else if (outcome == Outcome.FAILURE) {
+            consecutiveFailures++;
+            if (consecutiveFailures >= failureThreshold) {
+                openUntilMillis = now() + openMillis;
+            }
+        }
+    }
+
+    long now() {
+        return SystemClock.elapsedRealtime();
+    }
+}
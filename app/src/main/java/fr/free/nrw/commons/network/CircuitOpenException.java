@@ -0,0 +1,12 @@
+package fr.free.nrw.commons.network;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of making a request to a host which failed repeatedly, until it is tried again
+ */
+public class CircuitOpenException extends IOException {
+    public CircuitOpenException(String host) {
+        super("Requests to " + host + " are suspended after repeated failures");
+    }
+}
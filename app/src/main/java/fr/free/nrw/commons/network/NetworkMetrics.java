@@ -0,0 +1,102 @@
+package fr.free.nrw.commons.network;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keeps the metrics of the latest requests in memory, overwriting the oldest ones, so they can be
+ * attached to bug reports without logging every request
+ */
+public class NetworkMetrics {
+
+    private final Record[] records;
+    private int next;
+    private int count;
+
+    public NetworkMetrics(int capacity) {
+        records = new Record[capacity];
+    }
+
+    synchronized void add(Record record) {
+        records[next] = record;
+        next = (next + 1) % records.length;
+        count = Math.min(count + 1, records.length);
+    }
+
+    /**
+     * @return the records kept, oldest first
+     */
+    @NonNull
+    public synchronized List<Record> getRecords() {
+        List<Record> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(records[(next - count + i + records.length) % records.length]);
+        }
+        return list;
+    }
+
+    /**
+     * @return one line per request kept, oldest first
+     */
+    @NonNull
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (Record record : getRecords()) {
+            builder.append(record).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Metrics of a request, with the path made into a template so requests to different pages
+     * of the same endpoint look the same
+     */
+    public static class Record {
+        public final String method;
+        public final String host;
+        public final String pathTemplate;
+        /**
+         * HTTP status, or 0 if the request failed without a response
+         */
+        public final int status;
+        /**
+         * Bytes sent in the request body, -1 if unknown
+         */
+        public final long bytesSent;
+        /**
+         * Bytes of the response body read, decompressed
+         */
+        public final long bytesReceived;
+        /**
+         * Time until the response headers were received
+         */
+        public final long timeToFirstByteMillis;
+        /**
+         * Time until the response body was read or closed
+         */
+        public final long durationMillis;
+
+        Record(String method, String host, String pathTemplate, int status, long bytesSent,
+               long bytesReceived, long timeToFirstByteMillis, long durationMillis) {
+            this.method = method;
+            this.host = host;
+            this.pathTemplate = pathTemplate;
+            this.status = status;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+            this.timeToFirstByteMillis = timeToFirstByteMillis;
+            this.durationMillis = durationMillis;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.ENGLISH, "%s %s%s %d sent=%d received=%d ttfb=%dms total=%dms",
+                    method, host, pathTemplate, status, bytesSent, bytesReceived,
+                    timeToFirstByteMillis, durationMillis);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package fr.free.nrw.commons.network;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Network interceptor which records the metrics of requests into {@link NetworkMetrics}, without
+ * buffering or logging the bodies. The response body is counted as it is read by the caller, and
+ * the request is recorded once it is read or closed.
+ */
+public class NetworkMetricsInterceptor implements Interceptor {
+
+    /**
+     * Query parameters which identify the module of a MediaWiki API request
+     */
+    private static final String[] API_MODULE_PARAMETERS = {"action", "list", "prop", "generator", "meta"};
+    /**
+     * Path segments longer than this are names, e.g. of files, rather than part of the endpoint
+     */
+    private static final int MAX_ENDPOINT_SEGMENT_LENGTH = 24;
+
+    private final NetworkMetrics metrics;
+    private final double sampleRate;
+    private final Random random = new Random();
+
+    /**
+     * @param sampleRate share of the requests to record, from 0 to 1
+     */
+    public NetworkMetricsInterceptor(NetworkMetrics metrics, double sampleRate) {
+        this.metrics = metrics;
+        this.sampleRate = sampleRate;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (sampleRate < 1 && random.nextDouble() >= sampleRate) {
+            return chain.proceed(request);
+        }
+
+        long bytesSent = request.body() == null ? 0 : request.body().contentLength();
+        long startMillis = SystemClock.elapsedRealtime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            long duration = SystemClock.elapsedRealtime() - startMillis;
+            record(request, 0, bytesSent, 0, duration, duration);
+            throw e;
+        }
+        long timeToFirstByte = SystemClock.elapsedRealtime() - startMillis;
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            record(request, response.code(), bytesSent, 0, timeToFirstByte, timeToFirstByte);
+            return response;
+        }
+        return response.newBuilder()
+                .body(new CountingResponseBody(body, (bytesReceived) -> record(request,
+                        response.code(), bytesSent, bytesReceived, timeToFirstByte,
+                        SystemClock.elapsedRealtime() - startMillis)))
+                .build();
+    }
+
+    private void record(Request request, int status, long bytesSent, long bytesReceived,
+                        long timeToFirstByte, long duration) {
+        metrics.add(new NetworkMetrics.Record(request.method(), request.url().host(),
+                pathTemplate(request.url()), status, bytesSent, bytesReceived, timeToFirstByte,
+                duration));
+    }
+
+    /**
+     * @return the path, with ids and names replaced by placeholders, followed by the module
+     * parameters of API requests
+     */
+    static String pathTemplate(HttpUrl url) {
+        StringBuilder builder = new StringBuilder();
+        List<String> segments = url.pathSegments();
+        for (String segment : segments) {
+            builder.append('/');
+            if (isNumber(segment)) {
+                builder.append("{id}");
+            } else if (segment.length() > MAX_ENDPOINT_SEGMENT_LENGTH
+                    || segment.indexOf(':') != -1 || segment.indexOf(' ') != -1) {
+                builder.append("{name}");
+            } else {
+                builder.append(segment);
+            }
+        }
+        char separator = '?';
+        for (String parameter : API_MODULE_PARAMETERS) {
+            String value = url.queryParameter(parameter);
+            if (value != null) {
+                builder.append(separator).append(parameter).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isNumber(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private interface OnBodyDone {
+        void onBodyDone(long bytesReceived);
+    }
+
+    /**
+     * Counts the bytes read from the body, and reports them once the body is exhausted or closed
+     */
+    private static class CountingResponseBody extends ResponseBody {
+        private final ResponseBody body;
+        private final BufferedSource source;
+
+        CountingResponseBody(ResponseBody body, OnBodyDone onBodyDone) {
+            this.body = body;
+            source = Okio.buffer(new ForwardingSource(body.source()) {
+                private long bytesReceived;
+                private boolean isDone;
+
+                @Override
+                public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read == -1) {
+                        done();
+                    } else {
+                        bytesReceived += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    done();
+                    super.close();
+                }
+
+                private void done() {
+                    if (!isDone) {
+                        isDone = true;
+                        onBodyDone.onBodyDone(bytesReceived);
+                    }
+                }
+            });
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return body.contentLength();
+        }
+
+        @NonNull
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
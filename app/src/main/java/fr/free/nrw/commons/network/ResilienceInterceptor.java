@@ -0,0 +1,120 @@
+package fr.free.nrw.commons.network;
+
+import androidx.annotation.NonNull;
+
+import org.wikipedia.dataclient.okhttp.HttpStatusException;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import fr.free.nrw.commons.network.CircuitBreaker.Outcome;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Applies the timeouts of each host, and fails fast on hosts with a circuit breaker while they
+ * are failing, instead of holding a thread until the request times out. Retries are left to
+ * {@link BackoffRetry}, which waits without holding a thread.
+ */
+public class ResilienceInterceptor implements Interceptor {
+
+    private final Map<String, Timeouts> timeouts;
+    private final Map<String, CircuitBreaker> circuitBreakers;
+
+    private ResilienceInterceptor(Builder builder) {
+        timeouts = builder.timeouts;
+        circuitBreakers = builder.circuitBreakers;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String host = request.url().host();
+
+        Timeouts hostTimeouts = timeouts.get(host);
+        if (hostTimeouts != null) {
+            chain = chain
+                    .withConnectTimeout(hostTimeouts.connectMillis, TimeUnit.MILLISECONDS)
+                    .withReadTimeout(hostTimeouts.readMillis, TimeUnit.MILLISECONDS)
+                    .withWriteTimeout(hostTimeouts.writeMillis, TimeUnit.MILLISECONDS);
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(host);
+        // Requests only for the cache, e.g. of the CachePolicyInterceptor, never reach the host
+        if (circuitBreaker == null || request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+        if (!circuitBreaker.allowRequest()) {
+            throw new CircuitOpenException(host);
+        }
+        Outcome outcome = Outcome.ABANDONED;
+        try {
+            Response response = chain.proceed(request);
+            // Responses served by the cache, including its 504 for misses, say nothing of the host
+            if (response.networkResponse() != null) {
+                outcome = isServerError(response.code()) ? Outcome.FAILURE : Outcome.SUCCESS;
+            }
+            return response;
+        } catch (HttpStatusException e) {
+            outcome = isServerError(e.code()) ? Outcome.FAILURE : Outcome.SUCCESS;
+            throw e;
+        } catch (IOException e) {
+            if (!chain.call().isCanceled()) {
+                outcome = Outcome.FAILURE;
+            }
+            throw e;
+        } finally {
+            circuitBreaker.onOutcome(outcome);
+        }
+    }
+
+    private static boolean isServerError(int code) {
+        return code >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+    }
+
+    private static class Timeouts {
+        private final int connectMillis;
+        private final int readMillis;
+        private final int writeMillis;
+
+        private Timeouts(int connectMillis, int readMillis, int writeMillis) {
+            this.connectMillis = connectMillis;
+            this.readMillis = readMillis;
+            this.writeMillis = writeMillis;
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, Timeouts> timeouts = new HashMap<>();
+        private final Map<String, CircuitBreaker> circuitBreakers = new HashMap<>();
+
+        /**
+         * Sets the timeouts of the requests to the host, instead of those of the client
+         */
+        public Builder setTimeouts(String host, int connectSeconds, int readSeconds, int writeSeconds) {
+            timeouts.put(host, new Timeouts((int) TimeUnit.SECONDS.toMillis(connectSeconds),
+                    (int) TimeUnit.SECONDS.toMillis(readSeconds),
+                    (int) TimeUnit.SECONDS.toMillis(writeSeconds)));
+            return this;
+        }
+
+        /**
+         * Suspends the requests to the host for openSeconds after failureThreshold consecutive
+         * failures
+         */
+        public Builder setCircuitBreaker(String host, int failureThreshold, int openSeconds) {
+            circuitBreakers.put(host, new CircuitBreaker(failureThreshold,
+                    TimeUnit.SECONDS.toMillis(openSeconds)));
+            return this;
+        }
+
+        public ResilienceInterceptor build() {
+            return new ResilienceInterceptor(this);
+        }
+    }
+}
@@ -131,8 +131,9 @@ public class QuizChecker {
      */
     private void calculateRevertParameter(Activity activity) {
         if ( revertCount < 0 || totalUploadCount < 0){
-            revertKvStore.putInt(REVERT_SHARED_PREFERENCE, 0);
-            revertKvStore.putInt(UPLOAD_SHARED_PREFERENCE, 0);
+            revertKvStore.edit(editor -> editor
+                    .putInt(REVERT_SHARED_PREFERENCE, 0)
+                    .putInt(UPLOAD_SHARED_PREFERENCE, 0));
             return;
         }
         if (isRevertCountFetched && isUploadCountFetched &&
@@ -157,9 +158,10 @@ public class QuizChecker {
 
     private void startQuizActivity(Activity activity) {
         int newRevetSharedPrefs = revertCount + revertKvStore.getInt(REVERT_SHARED_PREFERENCE, 0);
-        revertKvStore.putInt(REVERT_SHARED_PREFERENCE, newRevetSharedPrefs);
         int newUploadCount = totalUploadCount + revertKvStore.getInt(UPLOAD_SHARED_PREFERENCE, 0);
-        revertKvStore.putInt(UPLOAD_SHARED_PREFERENCE, newUploadCount);
+        revertKvStore.edit(editor -> editor
+                .putInt(REVERT_SHARED_PREFERENCE, newRevetSharedPrefs)
+                .putInt(UPLOAD_SHARED_PREFERENCE, newUploadCount));
         Intent i = new Intent(activity, WelcomeActivity.class);
         i.putExtra("isQuiz", true);
         activity.startActivity(i);
@@ -6,6 +6,7 @@ import android.content.Intent;
 import android.graphics.PorterDuff;
 import android.graphics.drawable.Drawable;
 import android.os.Bundle;
+import android.text.TextUtils;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
@@ -28,6 +29,7 @@ import butterknife.BindView;
 import butterknife.ButterKnife;
 import fr.free.nrw.commons.Media;
 import fr.free.nrw.commons.R;
+import fr.free.nrw.commons.media.ThumbnailResolver;
 import fr.free.nrw.commons.delete.DeleteHelper;
 import fr.free.nrw.commons.theme.NavigationBaseActivity;
 import fr.free.nrw.commons.utils.DialogUtil;
@@ -161,7 +163,12 @@ public class ReviewActivity extends NavigationBaseActivity {
             return;
         }
 
-        simpleDraweeView.setImageURI(media.getImageUrl());
+        // the original can be far larger than the screen, a thumbnail is enough to review the image
+        if (TextUtils.isEmpty(media.getThumbUrl())) {
+            simpleDraweeView.setImageURI(media.getImageUrl());
+        } else {
+            simpleDraweeView.setImageURI(ThumbnailResolver.resolve(this, simpleDraweeView, media.getThumbUrl()));
+        }
 
         reviewController.onImageRefreshed(media); //file name is updated
         compositeDisposable.add(reviewHelper.getFirstRevisionOfFile(fileName)
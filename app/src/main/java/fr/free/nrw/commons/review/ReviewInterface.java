@@ -2,8 +2,10 @@ package fr.free.nrw.commons.review;
 
 import org.wikipedia.dataclient.mwapi.MwQueryResponse;
 
+import fr.free.nrw.commons.network.CachePolicy;
 import io.reactivex.Observable;
 import retrofit2.http.GET;
+import retrofit2.http.Headers;
 import retrofit2.http.Query;
 
 /**
@@ -13,6 +15,7 @@ public interface ReviewInterface {
     @GET("w/api.php?action=query&format=json&formatversion=2&list=recentchanges&rcprop=title|ids&rctype=new|log&rctoponly=1&rcnamespace=6")
     Observable<MwQueryResponse> getRecentChanges(@Query("rcstart") String rcStart);
 
+    @Headers(CachePolicy.IMMUTABLE)
     @GET("w/api.php?action=query&format=json&formatversion=2&prop=revisions&rvprop=timestamp|ids|user&rvdir=newer&rvlimit=1")
     Observable<MwQueryResponse> getFirstRevisionOfFile(@Query("titles") String titles);
 }
@@ -9,6 +9,12 @@ public class Prefs {
     public static final String IS_CONTRIBUTION_COUNT_CHANGED = "ccontributionCountChanged";
     public static final String MANAGED_EXIF_TAGS = "managedExifTags";
     public static final String KEY_LANGUAGE_VALUE = "languageDescription";
+    public static final String UPLOAD_ONLY_ON_UNMETERED = "uploadOnlyOnUnmetered";
+    public static final String UPLOAD_ONLY_WHILE_CHARGING = "uploadOnlyWhileCharging";
+    public static final String MAX_CONCURRENT_UPLOADS = "maxConcurrentUploads";
+    public static final String TRANSCODE_UPLOADS = "transcodeUploads";
+    public static final String TRANSCODE_QUALITY = "transcodeQuality";
+    public static final String TRANSCODE_MAX_DIMENSION = "transcodeMaxDimension";
 
     public static class Licenses {
         public static final String CC_BY_SA_3 = "CC BY-SA 3.0";
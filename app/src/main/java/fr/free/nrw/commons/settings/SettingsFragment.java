@@ -106,8 +106,10 @@ public class SettingsFragment extends PreferenceFragment {
                     value = 100;
                 }
 
-                defaultKvStore.putInt(Prefs.UPLOADS_SHOWING, value);
-                defaultKvStore.putBoolean(Prefs.IS_CONTRIBUTION_COUNT_CHANGED, true);
+                int uploadsShowing = value;
+                defaultKvStore.edit(editor -> editor
+                        .putInt(Prefs.UPLOADS_SHOWING, uploadsShowing)
+                        .putBoolean(Prefs.IS_CONTRIBUTION_COUNT_CHANGED, true));
                 uploadLimit.setText(Integer.toString(value));
                 uploadLimit.setSummary(Integer.toString(value));
             }
@@ -0,0 +1,80 @@
+package fr.free.nrw.commons.startup;
+
+import android.os.Looper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Initialises the components which are not needed to show the first screen after it is shown.
+ *
+ * Steps on the main thread run when it is idle, which is once the first frame is drawn, one step
+ * per idle pass so they do not delay input or the next frames. Background steps start at the
+ * same time, in order, on the executor.
+ */
+public class DeferredInitializer {
+
+    private final StartupTrace trace;
+    private final Executor executor;
+    private final Queue<Step> mainThreadSteps = new ArrayDeque<>();
+    private final List<Step> backgroundSteps = new ArrayList<>();
+    private boolean areBackgroundStepsStarted;
+
+    public DeferredInitializer(StartupTrace trace, Executor executor) {
+        this.trace = trace;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a step which has to run on the main thread
+     */
+    public DeferredInitializer onMainThread(String name, Runnable step) {
+        mainThreadSteps.add(new Step(name, step));
+        return this;
+    }
+
+    /**
+     * Adds a step which can run on a background thread
+     */
+    public DeferredInitializer inBackground(String name, Runnable step) {
+        backgroundSteps.add(new Step(name, step));
+        return this;
+    }
+
+    /**
+     * Starts running the steps once the main thread is idle. Must be called on the main thread.
+     *
+     * @param onBackgroundStepsDone called on the background thread once the background steps ran
+     */
+    public void start(Runnable onBackgroundStepsDone) {
+        Looper.myQueue().addIdleHandler(() -> {
+            if (!areBackgroundStepsStarted) {
+                areBackgroundStepsStarted = true;
+                executor.execute(() -> {
+                    for (Step step : backgroundSteps) {
+                        trace.step(step.name, step.runnable);
+                    }
+                    onBackgroundStepsDone.run();
+                });
+            }
+            Step step = mainThreadSteps.poll();
+            if (step != null) {
+                trace.step(step.name, step.runnable);
+            }
+            return !mainThreadSteps.isEmpty();
+        });
+    }
+
+    private static class Step {
+        private final String name;
+        private final Runnable runnable;
+
+        private Step(String name, Runnable runnable) {
+            this.name = name;
+            this.runnable = runnable;
+        }
+    }
+}
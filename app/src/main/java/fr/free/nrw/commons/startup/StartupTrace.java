@@ -0,0 +1,60 @@
+package fr.free.nrw.commons.startup;
+
+import android.os.SystemClock;
+import android.os.Trace;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import timber.log.Timber;
+
+/**
+ * Records how long each step of the start of the app takes, and when it starts relative to the
+ * creation of the trace. Steps are also shown as sections in systrace.
+ */
+public class StartupTrace {
+
+    private final long startMillis = SystemClock.elapsedRealtime();
+    private final List<String> lines = new ArrayList<>();
+
+    /**
+     * Runs the step, recording its timing
+     */
+    public void step(String name, Runnable step) {
+        Trace.beginSection(name);
+        long stepStartMillis = SystemClock.elapsedRealtime();
+        try {
+            step.run();
+        } finally {
+            long endMillis = SystemClock.elapsedRealtime();
+            Trace.endSection();
+            record(name, stepStartMillis, endMillis);
+        }
+    }
+
+    private synchronized void record(String name, long stepStartMillis, long endMillis) {
+        lines.add(String.format(Locale.ENGLISH, "%6d ms %6d ms  %-24s %s",
+                stepStartMillis - startMillis, endMillis - stepStartMillis,
+                Thread.currentThread().getName(), name));
+    }
+
+    /**
+     * Writes the timings recorded so far to the file, replacing the trace of the previous start
+     */
+    public synchronized void write(File file) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println(" start   duration  thread                   step");
+            for (String line : lines) {
+                writer.println(line);
+            }
+        } catch (IOException e) {
+            Timber.e(e, "Could not write the startup trace");
+        }
+        Timber.d("Startup trace:\n%s", lines);
+    }
+}
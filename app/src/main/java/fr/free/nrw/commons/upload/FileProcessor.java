@@ -3,7 +3,6 @@ package fr.free.nrw.commons.upload;
 import android.annotation.SuppressLint;
 import android.content.ContentResolver;
 import android.content.Context;
-import android.net.Uri;
 import androidx.annotation.NonNull;
 
 import fr.free.nrw.commons.upload.SimilarImageDialogFragment.Callback;
@@ -28,9 +27,7 @@ import fr.free.nrw.commons.caching.CacheController;
 import fr.free.nrw.commons.kvstore.JsonKvStore;
 import fr.free.nrw.commons.mwapi.CategoryApi;
 import fr.free.nrw.commons.settings.Prefs;
-import io.reactivex.Observable;
 import io.reactivex.disposables.CompositeDisposable;
-import io.reactivex.disposables.Disposable;
 import io.reactivex.schedulers.Schedulers;
 import timber.log.Timber;
 
@@ -47,6 +44,8 @@ public class FileProcessor implements Callback {
     @Inject
     CategoryApi apiCall;
     @Inject
+    ImageTimeIndex imageTimeIndex;
+    @Inject
     @Named("default_preferences")
     JsonKvStore defaultKvStore;
     private String filePath;
@@ -81,7 +80,7 @@ public class FileProcessor implements Callback {
      */
     GPSExtractor processFileCoordinates(SimilarImageInterface similarImageInterface, Context context) {
         // Redact EXIF data as indicated in preferences.
-        redactExifTags(exifInterface, getExifTagsToRedact(context));
+        redactExifTags(filePath, exifInterface, getExifTagsToRedact(context));
 
         Timber.d("Calling GPSExtractor");
         imageObj = new GPSExtractor(exifInterface);
@@ -116,6 +115,28 @@ public class FileProcessor implements Callback {
         return redactTags;
     }
 
+    /**
+     * Redacts EXIF metadata as indicated in preferences. JPEG files only get their EXIF segment
+     * rewritten, other formats fall back to ExifInterface.saveAttributes().
+     *
+     * @param filePath       path of the image file
+     * @param exifInterface  ExifInterface object of the file, kept in sync with the redaction
+     * @param redactTags     tags to be redacted
+     */
+    static void redactExifTags(String filePath, ExifInterface exifInterface, Set<String> redactTags) {
+        if (redactTags.isEmpty()) return;
+
+        Set<String> exifTags = getExifTags(redactTags);
+        if (filePath != null && JpegExifRedactor.redact(new File(filePath), exifTags)) {
+            // The file is already redacted, only drop the values from memory
+            for (String tag : exifTags) {
+                exifInterface.setAttribute(tag, null);
+            }
+            return;
+        }
+        redactExifTags(exifInterface, redactTags);
+    }
+
     /**
      * Redacts EXIF metadata as indicated in preferences.
      *
@@ -125,62 +146,53 @@ public class FileProcessor implements Callback {
     public static void redactExifTags(ExifInterface exifInterface, Set<String> redactTags) {
         if(redactTags.isEmpty()) return;
 
-         Disposable disposable = Observable.fromIterable(redactTags)
-                 .flatMap(tag -> Observable.fromArray(FileMetadataUtils.getTagsFromPref(tag)))
-                 .forEach(tag -> {
-                     Timber.d("Checking for tag: %s", tag);
-                     String oldValue = exifInterface.getAttribute(tag);
-                     if (oldValue != null && !oldValue.isEmpty()) {
-                         Timber.d("Exif tag %s with value %s redacted.", tag, oldValue);
-                         exifInterface.setAttribute(tag, null);
-                     }
-                 });
-         CompositeDisposable disposables = new CompositeDisposable();
-         disposables.add(disposable);
-         disposables.clear();
-
-         try {
-             exifInterface.saveAttributes();
+        for (String tag : getExifTags(redactTags)) {
+            Timber.d("Checking for tag: %s", tag);
+            String oldValue = exifInterface.getAttribute(tag);
+            if (oldValue != null && !oldValue.isEmpty()) {
+                Timber.d("Exif tag %s with value %s redacted.", tag, oldValue);
+                exifInterface.setAttribute(tag, null);
+            }
+        }
+
+        try {
+            exifInterface.saveAttributes();
         } catch (IOException e) {
             Timber.w("EXIF redaction failed: %s", e.toString());
         }
     }
 
     /**
-     * Find other images around the same location that were taken within the last 20 sec
+     * Expands the EXIF preference labels into the EXIF tags they cover.
+     *
+     * @param redactTags EXIF sharedPreference labels
+     * @return EXIF tags
+     */
+    private static Set<String> getExifTags(Set<String> redactTags) {
+        Set<String> exifTags = new HashSet<>();
+        for (String redactTag : redactTags) {
+            exifTags.addAll(Arrays.asList(FileMetadataUtils.getTagsFromPref(redactTag)));
+        }
+        return exifTags;
+    }
+
+    /**
+     * Find other images around the same location that were taken within 120 seconds of this one
      * @param similarImageInterface
      */
     private void findOtherImages(SimilarImageInterface similarImageInterface) {
         Timber.d("filePath" + filePath);
 
-        long timeOfCreation = new File(filePath).lastModified();//Time when the original image was created
-        File folder = new File(filePath.substring(0, filePath.lastIndexOf('/')));
-        File[] files = folder.listFiles();
-        Timber.d("folderTime Number:" + files.length);
-
-
-        for (File file : files) {
-            if (file.lastModified() - timeOfCreation <= (120 * 1000) && file.lastModified() - timeOfCreation >= -(120 * 1000)) {
-                //Make sure the photos were taken within 20seconds
-                Timber.d("fild date:" + file.lastModified() + " time of creation" + timeOfCreation);
-                tempImageObj = null;//Temporary GPSExtractor to extract coords from these photos
-                try {
-                    tempImageObj = new GPSExtractor(contentResolver.openInputStream(Uri.fromFile(file)));
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-                if (tempImageObj != null) {
-                    tempImageObj = new GPSExtractor(file.getAbsolutePath());
-                }
-                if (tempImageObj != null) {
-                    Timber.d("not null fild EXIF" + tempImageObj.imageCoordsExists + " coords" + tempImageObj.getCoords());
-                    if (tempImageObj.getCoords() != null && tempImageObj.imageCoordsExists) {
-                        // Current image has gps coordinates and it's not current gps locaiton
-                        Timber.d("This filePath has image coords:" + file.getAbsolutePath());
-                        similarImageInterface.showSimilarImageFragment(filePath, file.getAbsolutePath());
-                        break;
-                    }
-                }
+        File file = new File(filePath);
+        for (File otherFile : imageTimeIndex.findFilesModifiedAround(file, 120 * 1000)) {
+            //Temporary GPSExtractor to extract coords from these photos
+            tempImageObj = imageTimeIndex.getGpsExtractor(otherFile);
+            Timber.d("not null fild EXIF" + tempImageObj.imageCoordsExists + " coords" + tempImageObj.getCoords());
+            if (tempImageObj.getCoords() != null && tempImageObj.imageCoordsExists) {
+                // Current image has gps coordinates and it's not current gps locaiton
+                Timber.d("This filePath has image coords:" + otherFile.getAbsolutePath());
+                similarImageInterface.showSimilarImageFragment(filePath, otherFile.getAbsolutePath());
+                break;
             }
         }
         haveCheckedForOtherImages = true; //Finished checking for other images
@@ -111,7 +111,7 @@ public class ImageProcessingService {
             return Single.just(EMPTY_TITLE);
         }
 
-        return mediaClient.checkPageExistsUsingTitle("File:" + uploadItem.getFileName())
+        return mediaClient.checkPageExistsUnbatched("File:" + uploadItem.getFileName())
                 .map(doesFileExist -> {
                     Timber.d("Result for valid title is %s", doesFileExist);
                     return doesFileExist ? FILE_NAME_EXISTS : IMAGE_OK;
@@ -0,0 +1,301 @@
+package fr.free.nrw.commons.upload;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.collection.LruCache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import timber.log.Timber;
+
+/**
+ * Index of the images in a folder sorted by their last modified time, used to find photos taken
+ * around the same time as the one being uploaded without listing and stat-ing the whole folder.
+ *
+ * Indices are kept in memory and persisted in the cache directory. An index is rebuilt whenever
+ * the folder's own modified time changes, which happens when files are added, removed or renamed.
+ * Files edited in place do not change the folder, so each entry keeps the modified time and size
+ * of its file, and the entries of the reference file and of the files found are checked against
+ * them and updated. EXIF coordinates of candidates are cached by path and modified time so each
+ * file is parsed at most once.
+ */
+@Singleton
+public class ImageTimeIndex {
+
+    private static final int FILE_FORMAT_VERSION = 2;
+    private static final String INDEX_DIRECTORY = "image_time_index";
+
+    private final File indexDirectory;
+    private final LruCache<String, FolderIndex> folderIndices = new LruCache<>(8);
+    private final LruCache<String, GPSExtractor> gpsCache = new LruCache<>(256);
+
+    @Inject
+    public ImageTimeIndex(Context context) {
+        this(new File(context.getCacheDir(), INDEX_DIRECTORY));
+    }
+
+    @VisibleForTesting
+    ImageTimeIndex(File indexDirectory) {
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * Finds the files in the same folder as the given file which were modified within the window
+     *
+     * @param file         reference file
+     * @param windowMillis maximum distance from the reference file's modified time
+     * @return the matching files, ordered by modified time, excluding the reference file
+     */
+    @NonNull
+    public synchronized List<File> findFilesModifiedAround(@NonNull File file, long windowMillis) {
+        List<File> result = new ArrayList<>();
+        File folder = file.getParentFile();
+        if (folder == null) {
+            return result;
+        }
+        FolderIndex index = getIndex(folder);
+        if (index == null) {
+            return result;
+        }
+
+        List<File> candidates = findCandidates(index, folder, file, windowMillis);
+        List<File> checked = new ArrayList<>(candidates);
+        checked.add(file);
+        if (index.update(checked)) {
+            writeIndex(folder.getAbsolutePath(), index);
+            candidates = findCandidates(index, folder, file, windowMillis);
+        }
+        result.addAll(candidates);
+        Timber.d("%d of %d files in %s within %d ms", result.size(), index.times.length,
+                folder, windowMillis);
+        return result;
+    }
+
+    private static List<File> findCandidates(FolderIndex index, File folder, File file,
+                                             long windowMillis) {
+        List<File> candidates = new ArrayList<>();
+        long time = file.lastModified();
+        int position = index.lowerBound(time - windowMillis);
+        for (int i = position; i < index.times.length && index.times[i] <= time + windowMillis; i++) {
+            if (!index.names[i].equals(file.getName())) {
+                candidates.add(new File(folder, index.names[i]));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the coordinates of the file, parsing its EXIF only if it changed since last time
+     */
+    @NonNull
+    public GPSExtractor getGpsExtractor(@NonNull File file) {
+        String key = file.getAbsolutePath() + ":" + file.lastModified();
+        GPSExtractor gpsExtractor = gpsCache.get(key);
+        if (gpsExtractor == null) {
+            gpsExtractor = new GPSExtractor(file.getAbsolutePath());
+            gpsCache.put(key, gpsExtractor);
+        }
+        return gpsExtractor;
+    }
+
+    @Nullable
+    private FolderIndex getIndex(File folder) {
+        String path = folder.getAbsolutePath();
+        long folderModified = folder.lastModified();
+
+        FolderIndex index = folderIndices.get(path);
+        if (index == null || index.folderModified != folderModified) {
+            index = readIndex(path);
+            if (index == null || index.folderModified != folderModified) {
+                index = buildIndex(folder, folderModified);
+                if (index == null) {
+                    return null;
+                }
+                writeIndex(path, index);
+            }
+            folderIndices.put(path, index);
+        }
+        return index;
+    }
+
+    @Nullable
+    private static FolderIndex buildIndex(File folder, long folderModified) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>(files.length);
+        for (File file : files) {
+            if (file.isFile()) {
+                entries.add(new Entry(file.lastModified(), file.length(), file.getName()));
+            }
+        }
+        Timber.d("Indexed %d files in %s", entries.size(), folder);
+        return new FolderIndex(folderModified, entries);
+    }
+
+    private File getIndexFile(String folderPath) {
+        return new File(indexDirectory, Integer.toHexString(folderPath.hashCode()) + ".idx");
+    }
+
+    @Nullable
+    private FolderIndex readIndex(String folderPath) {
+        File indexFile = getIndexFile(folderPath);
+        if (!indexFile.exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != FILE_FORMAT_VERSION || !folderPath.equals(in.readUTF())) {
+                return null;
+            }
+            long folderModified = in.readLong();
+            int count = in.readInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(in.readLong(), in.readLong(), in.readUTF()));
+            }
+            return new FolderIndex(folderModified, entries);
+        } catch (IOException e) {
+            Timber.w(e, "Could not read image time index for %s", folderPath);
+            return null;
+        }
+    }
+
+    private void writeIndex(String folderPath, FolderIndex index) {
+        if (!indexDirectory.isDirectory() && !indexDirectory.mkdirs()) {
+            return;
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(getIndexFile(folderPath))))) {
+            out.writeInt(FILE_FORMAT_VERSION);
+            out.writeUTF(folderPath);
+            out.writeLong(index.folderModified);
+            out.writeInt(index.times.length);
+            for (int i = 0; i < index.times.length; i++) {
+                out.writeLong(index.times[i]);
+                out.writeLong(index.sizes[i]);
+                out.writeUTF(index.names[i]);
+            }
+        } catch (IOException e) {
+            Timber.w(e, "Could not write image time index for %s", folderPath);
+        }
+    }
+
+    private static class Entry {
+        final long time;
+        final long size;
+        final String name;
+
+        Entry(long time, long size, String name) {
+            this.time = time;
+            this.size = size;
+            this.name = name;
+        }
+    }
+
+    private static class FolderIndex {
+        final long folderModified;
+        long[] times;
+        long[] sizes;
+        String[] names;
+        /**
+         * Name -> index in the arrays above
+         */
+        Map<String, Integer> positions;
+
+        FolderIndex(long folderModified, List<Entry> entries) {
+            this.folderModified = folderModified;
+            setEntries(entries);
+        }
+
+        private void setEntries(List<Entry> entries) {
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.sort(sorted, (a, b) -> Long.compare(a.time, b.time));
+            times = new long[sorted.length];
+            sizes = new long[sorted.length];
+            names = new String[sorted.length];
+            positions = new HashMap<>(sorted.length * 2);
+            for (int i = 0; i < sorted.length; i++) {
+                times[i] = sorted[i].time;
+                sizes[i] = sorted[i].size;
+                names[i] = sorted[i].name;
+                positions.put(names[i], i);
+            }
+        }
+
+        /**
+         * Brings the entries of the files in line with the files, e.g. after they were edited in
+         * place. The entries are sorted again once, whatever the number of changes.
+         *
+         * @return whether any entry changed
+         */
+        boolean update(List<File> files) {
+            // Name -> new entry, or null if the file is gone
+            Map<String, Entry> changes = new LinkedHashMap<>();
+            for (File file : files) {
+                String name = file.getName();
+                boolean exists = file.isFile();
+                long time = file.lastModified();
+                long size = file.length();
+                Integer position = positions.get(name);
+                if (position == null ? exists
+                        : !exists || times[position] != time || sizes[position] != size) {
+                    changes.put(name, exists ? new Entry(time, size, name) : null);
+                }
+            }
+            if (changes.isEmpty()) {
+                return false;
+            }
+            List<Entry> entries = new ArrayList<>(names.length + changes.size());
+            for (int i = 0; i < names.length; i++) {
+                if (!changes.containsKey(names[i])) {
+                    entries.add(new Entry(times[i], sizes[i], names[i]));
+                }
+            }
+            for (Entry entry : changes.values()) {
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+            setEntries(entries);
+            return true;
+        }
+
+        /**
+         * @return index of the first entry with a time not less than the given one
+         */
+        int lowerBound(long time) {
+            int low = 0;
+            int high = times.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package fr.free.nrw.commons.upload;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.exifinterface.media.ExifInterface;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import fr.free.nrw.commons.kvstore.JsonKvStore;
+import fr.free.nrw.commons.settings.Prefs;
+import timber.log.Timber;
+
+import static androidx.exifinterface.media.ExifInterface.*;
+
+/**
+ * Optionally re-encodes JPEG images before they are uploaded, trading fidelity for fewer bytes on
+ * the wire. The JPEG quality and maximum dimensions are set in the preferences.
+ *
+ * The EXIF tags of the source file are copied to the transcoded file. Tags the user chose to
+ * redact are already removed from the source by FileProcessor, so the redaction settings apply.
+ */
+@Singleton
+public class ImageTranscoder {
+
+    private static final String TRANSCODED_DIRECTORY = "transcoded";
+    private static final int DEFAULT_QUALITY = 85;
+    private static final int ESTIMATE_THUMBNAIL_SIZE = 256;
+    /**
+     * Transcoding is skipped unless it is expected to save at least this fraction of the file
+     */
+    private static final double MINIMUM_SAVING = 0.1;
+
+    private static final String[] EXIF_TAGS = {
+            TAG_ARTIST, TAG_COPYRIGHT, TAG_IMAGE_DESCRIPTION, TAG_USER_COMMENT, TAG_SOFTWARE,
+            TAG_MAKE, TAG_MODEL, TAG_LENS_MAKE, TAG_LENS_MODEL, TAG_BODY_SERIAL_NUMBER,
+            TAG_LENS_SERIAL_NUMBER, TAG_LENS_SPECIFICATION, TAG_CAMARA_OWNER_NAME, TAG_ORIENTATION,
+            TAG_DATETIME, TAG_DATETIME_ORIGINAL, TAG_DATETIME_DIGITIZED, TAG_SUBSEC_TIME,
+            TAG_SUBSEC_TIME_ORIGINAL, TAG_SUBSEC_TIME_DIGITIZED,
+            TAG_EXPOSURE_TIME, TAG_F_NUMBER, TAG_APERTURE_VALUE, TAG_PHOTOGRAPHIC_SENSITIVITY,
+            TAG_FOCAL_LENGTH, TAG_FOCAL_LENGTH_IN_35MM_FILM, TAG_FLASH, TAG_WHITE_BALANCE,
+            TAG_EXPOSURE_BIAS_VALUE, TAG_EXPOSURE_PROGRAM, TAG_METERING_MODE,
+            TAG_GPS_LATITUDE, TAG_GPS_LATITUDE_REF, TAG_GPS_LONGITUDE, TAG_GPS_LONGITUDE_REF,
+            TAG_GPS_ALTITUDE, TAG_GPS_ALTITUDE_REF, TAG_GPS_TIMESTAMP, TAG_GPS_DATESTAMP,
+            TAG_GPS_IMG_DIRECTION, TAG_GPS_IMG_DIRECTION_REF, TAG_GPS_PROCESSING_METHOD
+    };
+
+    private final File transcodedDirectory;
+    private final JsonKvStore defaultKvStore;
+
+    @Inject
+    public ImageTranscoder(Context context,
+                           @Named("default_preferences") JsonKvStore defaultKvStore) {
+        this(new File(context.getCacheDir(), TRANSCODED_DIRECTORY), defaultKvStore);
+    }
+
+    @VisibleForTesting
+    ImageTranscoder(File transcodedDirectory, JsonKvStore defaultKvStore) {
+        this.transcodedDirectory = transcodedDirectory;
+        this.defaultKvStore = defaultKvStore;
+    }
+
+    /**
+     * @return true if the user enabled transcoding and the file is a JPEG
+     */
+    public boolean shouldTranscode(@Nullable String mimeType) {
+        return defaultKvStore.getBoolean(Prefs.TRANSCODE_UPLOADS, false)
+                && "image/jpeg".equals(mimeType);
+    }
+
+    /**
+     * Estimates the size of the transcoded file from the EXIF thumbnail, or a heavily subsampled
+     * decode when there is none, so the full image is not decoded. Thumbnails have more detail
+     * per pixel than the full image, so the estimate errs on the large side.
+     *
+     * @return the estimate, or null if the image could not be read
+     */
+    @Nullable
+    public Estimate estimate(@NonNull File source) {
+        BitmapFactory.Options bounds = decodeBounds(source);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            return null;
+        }
+        Bitmap thumbnail = null;
+        try {
+            thumbnail = new ExifInterface(source.getAbsolutePath()).getThumbnailBitmap();
+        } catch (IOException e) {
+            Timber.d(e, "Could not read the EXIF thumbnail of %s", source);
+        }
+        if (thumbnail == null) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inSampleSize = calculateInSampleSize(bounds.outWidth, bounds.outHeight,
+                    ESTIMATE_THUMBNAIL_SIZE);
+            thumbnail = BitmapFactory.decodeFile(source.getAbsolutePath(), options);
+        }
+        if (thumbnail == null) {
+            return null;
+        }
+
+        int quality = getQuality();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        thumbnail.compress(Bitmap.CompressFormat.JPEG, quality, out);
+        double bytesPerPixel = (double) out.size() / (thumbnail.getWidth() * thumbnail.getHeight());
+        thumbnail.recycle();
+
+        int[] size = getTargetSize(bounds.outWidth, bounds.outHeight, getMaxDimension());
+        long estimatedBytes = (long) (bytesPerPixel * size[0] * size[1]);
+        Timber.d("Transcoding %s to %dx%d at quality %d: estimated %d of %d bytes", source,
+                size[0], size[1], quality, estimatedBytes, source.length());
+        return new Estimate(source.length(), estimatedBytes, size[0], size[1], quality);
+    }
+
+    /**
+     * Re-encodes the JPEG with the configured quality and maximum dimensions and copies its EXIF
+     * tags
+     *
+     * @return the transcoded file, or null if transcoding failed or would not make it smaller
+     */
+    @Nullable
+    public File transcode(@NonNull File source, @NonNull Estimate estimate) {
+        if (!transcodedDirectory.isDirectory() && !transcodedDirectory.mkdirs()) {
+            return null;
+        }
+        BitmapFactory.Options bounds = decodeBounds(source);
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateInSampleSize(bounds.outWidth, bounds.outHeight,
+                Math.max(estimate.getWidth(), estimate.getHeight()));
+
+        File target = new File(transcodedDirectory, getTranscodedName(source));
+        Bitmap bitmap = null;
+        try {
+            bitmap = BitmapFactory.decodeFile(source.getAbsolutePath(), options);
+            if (bitmap == null) {
+                return null;
+            }
+            if (bitmap.getWidth() != estimate.getWidth() || bitmap.getHeight() != estimate.getHeight()) {
+                Bitmap scaled = Bitmap.createScaledBitmap(bitmap, estimate.getWidth(),
+                        estimate.getHeight(), true);
+                bitmap.recycle();
+                bitmap = scaled;
+            }
+            try (OutputStream out = new FileOutputStream(target)) {
+                bitmap.compress(Bitmap.CompressFormat.JPEG, estimate.getQuality(), out);
+            }
+            copyExif(source, target, estimate.getWidth(), estimate.getHeight());
+        } catch (IOException | OutOfMemoryError e) {
+            Timber.w(e, "Could not transcode %s", source);
+            target.delete();
+            return null;
+        } finally {
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
+        }
+
+        if (target.length() >= source.length()) {
+            Timber.d("Transcoding did not make %s smaller, uploading the original", source);
+            target.delete();
+            return null;
+        }
+        Timber.d("Transcoded %s from %d to %d bytes", source, source.length(), target.length());
+        return target;
+    }
+
+    /**
+     * Deletes the file if it was created by the transcoder, e.g. once it has been uploaded
+     */
+    public static void deleteIfTranscoded(Context context, File file) {
+        File directory = new File(context.getCacheDir(), TRANSCODED_DIRECTORY);
+        if (directory.equals(file.getParentFile()) && !file.delete()) {
+            Timber.d("Could not delete transcoded file %s", file);
+        }
+    }
+
+    /**
+     * Images picked from different folders or apps may have the same name, so the name of the
+     * transcoded file is derived from the path, size and modification time of the source instead
+     */
+    @VisibleForTesting
+    static String getTranscodedName(File source) {
+        String key = source.getAbsolutePath() + ":" + source.length() + ":" + source.lastModified();
+        return UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".jpg";
+    }
+
+    private int getQuality() {
+        try {
+            return Integer.parseInt(defaultKvStore.getString(Prefs.TRANSCODE_QUALITY,
+                    String.valueOf(DEFAULT_QUALITY)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_QUALITY;
+        }
+    }
+
+    /**
+     * @return the maximum width or height in pixels, or 0 to keep the original size
+     */
+    private int getMaxDimension() {
+        try {
+            return Integer.parseInt(defaultKvStore.getString(Prefs.TRANSCODE_MAX_DIMENSION, "0"));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static BitmapFactory.Options decodeBounds(File source) {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(source.getAbsolutePath(), bounds);
+        return bounds;
+    }
+
+    /**
+     * Scales the size down to fit within the maximum dimension, keeping the aspect ratio
+     *
+     * @return {width, height}
+     */
+    @VisibleForTesting
+    static int[] getTargetSize(int width, int height, int maxDimension) {
+        int longest = Math.max(width, height);
+        if (maxDimension <= 0 || longest <= maxDimension) {
+            return new int[]{width, height};
+        }
+        double scale = (double) maxDimension / longest;
+        return new int[]{
+                Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale))
+        };
+    }
+
+    /**
+     * @return the largest power of two subsampling which keeps the longest side at least as large
+     * as the requested size, so the decoded bitmap only needs to be scaled down
+     */
+    @VisibleForTesting
+    static int calculateInSampleSize(int width, int height, int requestedSize) {
+        int longest = Math.max(width, height);
+        int inSampleSize = 1;
+        while (requestedSize > 0 && longest / (inSampleSize * 2) >= requestedSize) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private static void copyExif(File source, File target, int width, int height) throws IOException {
+        ExifInterface sourceExif = new ExifInterface(source.getAbsolutePath());
+        ExifInterface targetExif = new ExifInterface(target.getAbsolutePath());
+        for (String tag : EXIF_TAGS) {
+            String value = sourceExif.getAttribute(tag);
+            if (value != null) {
+                targetExif.setAttribute(tag, value);
+            }
+        }
+        targetExif.setAttribute(TAG_PIXEL_X_DIMENSION, String.valueOf(width));
+        targetExif.setAttribute(TAG_PIXEL_Y_DIMENSION, String.valueOf(height));
+        targetExif.saveAttributes();
+    }
+
+    /**
+     * Expected result of transcoding an image
+     */
+    public static class Estimate implements Serializable {
+        private final long originalBytes;
+        private final long estimatedBytes;
+        private final int width;
+        private final int height;
+        private final int quality;
+
+        Estimate(long originalBytes, long estimatedBytes, int width, int height, int quality) {
+            this.originalBytes = originalBytes;
+            this.estimatedBytes = estimatedBytes;
+            this.width = width;
+            this.height = height;
+            this.quality = quality;
+        }
+
+        public long getOriginalBytes() {
+            return originalBytes;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public int getQuality() {
+            return quality;
+        }
+
+        /**
+         * @return true if transcoding is expected to save enough bytes to be worth the fidelity
+         */
+        public boolean isWorthTranscoding() {
+            return estimatedBytes < originalBytes * (1 - MINIMUM_SAVING);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package fr.free.nrw.commons.upload;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import timber.log.Timber;
+
+import static androidx.exifinterface.media.ExifInterface.*;
+
+/**
+ * Redacts EXIF tags from a JPEG file by rewriting only its APP1/EXIF segment.
+ *
+ * Unlike ExifInterface.saveAttributes(), which re-encodes the EXIF block and copies the whole
+ * file twice, this walks the JPEG segment list, removes the requested IFD entries from the EXIF
+ * segment in memory and writes the segment back over itself. The segment keeps its length, so
+ * nothing else in the file, including the compressed image data, is read or written.
+ */
+public class JpegExifRedactor {
+
+    private static final int IFD_PRIMARY = 0;
+    private static final int IFD_EXIF = 1;
+    private static final int IFD_GPS = 2;
+
+    private static final int TAG_EXIF_IFD_POINTER = 0x8769;
+    private static final int TAG_GPS_IFD_POINTER = 0x8825;
+
+    private static final int MARKER_SOI = 0xD8;
+    private static final int MARKER_EOI = 0xD9;
+    private static final int MARKER_SOS = 0xDA;
+    private static final int MARKER_APP1 = 0xE1;
+
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    /**
+     * Byte size of each TIFF field type, indexed by type id
+     */
+    private static final int[] TYPE_SIZES = {0, 1, 1, 2, 4, 8, 1, 1, 2, 4, 8, 4, 8};
+
+    /**
+     * ExifInterface tag name -> {IFD, tag id} for every tag FileMetadataUtils can hand out
+     */
+    private static final Map<String, int[]> TAG_IDS = new HashMap<>();
+
+    static {
+        TAG_IDS.put(TAG_MAKE, new int[]{IFD_PRIMARY, 0x010F});
+        TAG_IDS.put(TAG_MODEL, new int[]{IFD_PRIMARY, 0x0110});
+        TAG_IDS.put(TAG_SOFTWARE, new int[]{IFD_PRIMARY, 0x0131});
+        TAG_IDS.put(TAG_ARTIST, new int[]{IFD_PRIMARY, 0x013B});
+        TAG_IDS.put(TAG_COPYRIGHT, new int[]{IFD_PRIMARY, 0x8298});
+        TAG_IDS.put(TAG_CAMARA_OWNER_NAME, new int[]{IFD_EXIF, 0xA430});
+        TAG_IDS.put(TAG_BODY_SERIAL_NUMBER, new int[]{IFD_EXIF, 0xA431});
+        TAG_IDS.put(TAG_LENS_SPECIFICATION, new int[]{IFD_EXIF, 0xA432});
+        TAG_IDS.put(TAG_LENS_MAKE, new int[]{IFD_EXIF, 0xA433});
+        TAG_IDS.put(TAG_LENS_MODEL, new int[]{IFD_EXIF, 0xA434});
+        TAG_IDS.put(TAG_LENS_SERIAL_NUMBER, new int[]{IFD_EXIF, 0xA435});
+        TAG_IDS.put(TAG_GPS_LATITUDE_REF, new int[]{IFD_GPS, 0x0001});
+        TAG_IDS.put(TAG_GPS_LATITUDE, new int[]{IFD_GPS, 0x0002});
+        TAG_IDS.put(TAG_GPS_LONGITUDE_REF, new int[]{IFD_GPS, 0x0003});
+        TAG_IDS.put(TAG_GPS_LONGITUDE, new int[]{IFD_GPS, 0x0004});
+        TAG_IDS.put(TAG_GPS_ALTITUDE_REF, new int[]{IFD_GPS, 0x0005});
+        TAG_IDS.put(TAG_GPS_ALTITUDE, new int[]{IFD_GPS, 0x0006});
+    }
+
+    private JpegExifRedactor() {
+    }
+
+    /**
+     * Returns true if every tag can be redacted by this class, i.e. redact() will not have to
+     * give up because of an unknown tag.
+     */
+    static boolean supportsTags(@NonNull Set<String> exifTags) {
+        return TAG_IDS.keySet().containsAll(exifTags);
+    }
+
+    /**
+     * Removes all the given tags from the file in a single pass.
+     *
+     * @param file     JPEG file to be redacted in place
+     * @param exifTags ExifInterface tag names to remove
+     * @return true if the file was redacted (or had nothing to redact), false if the file could
+     * not be handled and the caller should fall back to ExifInterface
+     */
+    public static boolean redact(@NonNull File file, @NonNull Set<String> exifTags) {
+        if (exifTags.isEmpty()) {
+            return true;
+        }
+        if (!supportsTags(exifTags)) {
+            Timber.d("Unsupported EXIF tags for segment redaction: %s", exifTags);
+            return false;
+        }
+
+        Set<Integer>[] tagsByIfd = groupByIfd(exifTags);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = randomAccessFile.getChannel();
+            long[] segment = findExifSegment(channel);
+            if (segment == null) {
+                Timber.d("No EXIF segment in %s, nothing to redact", file);
+                return true;
+            }
+            long start = segment[0];
+            int length = (int) segment[1];
+
+            ByteBuffer app1 = ByteBuffer.allocate(length);
+            readFully(channel, app1, start);
+            byte[] payload = app1.array();
+            if (!redactSegment(payload, EXIF_HEADER.length + 4, tagsByIfd)) {
+                Timber.d("None of the EXIF tags present in %s", file);
+                return true;
+            }
+
+            // Nothing is written before the redacted segment is complete
+            app1.rewind();
+            while (app1.hasRemaining()) {
+                channel.write(app1, start + app1.position());
+            }
+            randomAccessFile.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            Timber.w(e, "EXIF segment redaction failed for %s", file);
+            return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Integer>[] groupByIfd(Set<String> exifTags) {
+        Set<Integer>[] tagsByIfd = new Set[]{new HashSet<>(), new HashSet<>(), new HashSet<>()};
+        for (String tag : exifTags) {
+            int[] id = TAG_IDS.get(tag);
+            tagsByIfd[id[0]].add(id[1]);
+        }
+        return tagsByIfd;
+    }
+
+    /**
+     * Walks the JPEG markers up to the start of scan and locates the EXIF APP1 segment.
+     *
+     * @return {offset of the segment's marker, total segment length including marker} or null
+     */
+    private static long[] findExifSegment(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4 + EXIF_HEADER.length);
+        readFully(channel, header, 0, 2);
+        if ((header.get(0) & 0xFF) != 0xFF || (header.get(1) & 0xFF) != MARKER_SOI) {
+            throw new IOException("Not a JPEG file");
+        }
+
+        long position = 2;
+        long size = channel.size();
+        while (position + 4 <= size) {
+            header.clear();
+            int read = readFully(channel, header, position,
+                    (int) Math.min(header.capacity(), size - position));
+            if ((header.get(0) & 0xFF) != 0xFF) {
+                throw new IOException("Invalid JPEG marker at " + position);
+            }
+            int marker = header.get(1) & 0xFF;
+            if (marker == 0xFF) {
+                // Fill byte before the actual marker
+                position++;
+                continue;
+            }
+            if (marker == MARKER_SOS || marker == MARKER_EOI) {
+                return null;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                // Stand alone markers without a length field
+                position += 2;
+                continue;
+            }
+            int length = ((header.get(2) & 0xFF) << 8) | (header.get(3) & 0xFF);
+            if (length < 2) {
+                throw new IOException("Invalid JPEG segment length at " + position);
+            }
+            if (marker == MARKER_APP1 && read == header.capacity() && hasExifHeader(header)) {
+                return new long[]{position, length + 2};
+            }
+            position += length + 2;
+        }
+        return null;
+    }
+
+    private static boolean hasExifHeader(ByteBuffer header) {
+        for (int i = 0; i < EXIF_HEADER.length; i++) {
+            if (header.get(4 + i) != EXIF_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the tags from the TIFF structure inside an APP1 segment.
+     *
+     * @param segment    the whole APP1 segment, including marker and length
+     * @param tiffStart  offset of the TIFF header in segment
+     * @param tagsByIfd  tag ids to remove, per IFD
+     * @return true if anything was removed
+     */
+    private static boolean redactSegment(byte[] segment, int tiffStart, Set<Integer>[] tagsByIfd)
+            throws IOException {
+        ByteBuffer tiff = ByteBuffer.wrap(segment, tiffStart, segment.length - tiffStart).slice();
+        if (tiff.remaining() < 8) {
+            throw new IOException("Truncated TIFF header");
+        }
+        short byteOrder = tiff.getShort(0);
+        if (byteOrder == 0x4949) {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (byteOrder == 0x4D4D) {
+            tiff.order(ByteOrder.BIG_ENDIAN);
+        } else {
+            throw new IOException("Invalid TIFF byte order");
+        }
+        if ((tiff.getShort(2) & 0xFFFF) != 42) {
+            throw new IOException("Invalid TIFF magic number");
+        }
+
+        boolean removed = false;
+        Set<Integer> visited = new HashSet<>();
+        int[] links = new int[3];
+        int ifdOffset = tiff.getInt(4);
+        // IFD0 and the thumbnail IFD1 chained after it share the same tag set
+        while (ifdOffset != 0 && visited.add(ifdOffset)) {
+            Arrays.fill(links, 0);
+            removed |= redactIfd(tiff, ifdOffset, tagsByIfd[IFD_PRIMARY], links);
+            int next = links[IFD_PRIMARY];
+            int[] subIfds = {links[IFD_EXIF], links[IFD_GPS]};
+            for (int ifd = IFD_EXIF; ifd <= IFD_GPS; ifd++) {
+                int subIfdOffset = subIfds[ifd - IFD_EXIF];
+                if (subIfdOffset != 0 && visited.add(subIfdOffset)) {
+                    removed |= redactIfd(tiff, subIfdOffset, tagsByIfd[ifd], links);
+                }
+            }
+            ifdOffset = next;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes matching entries from one IFD by compacting its entry table in place, and zeroes
+     * out the values they pointed to.
+     *
+     * @param links receives the next IFD offset at IFD_PRIMARY and any EXIF and GPS sub-IFD
+     *              offsets at IFD_EXIF and IFD_GPS
+     * @return true if any entry was removed
+     */
+    private static boolean redactIfd(ByteBuffer tiff, int offset, Set<Integer> tags, int[] links)
+            throws IOException {
+        checkRange(tiff, offset, 2);
+        int count = tiff.getShort(offset) & 0xFFFF;
+        int entriesStart = offset + 2;
+        checkRange(tiff, entriesStart, count * 12 + 4);
+        int next = tiff.getInt(entriesStart + count * 12);
+        links[IFD_PRIMARY] = next;
+
+        byte[] kept = new byte[count * 12];
+        int keptCount = 0;
+        for (int i = 0; i < count; i++) {
+            int entry = entriesStart + i * 12;
+            int tag = tiff.getShort(entry) & 0xFFFF;
+            if (tag == TAG_EXIF_IFD_POINTER) {
+                links[IFD_EXIF] = tiff.getInt(entry + 8);
+            } else if (tag == TAG_GPS_IFD_POINTER) {
+                links[IFD_GPS] = tiff.getInt(entry + 8);
+            }
+
+            if (tags.contains(tag)) {
+                Timber.d("Exif tag 0x%04X redacted.", tag);
+                zeroValue(tiff, entry);
+            } else {
+                tiff.position(entry);
+                tiff.get(kept, keptCount * 12, 12);
+                keptCount++;
+            }
+        }
+        if (keptCount == count) {
+            return false;
+        }
+
+        tiff.putShort(offset, (short) keptCount);
+        tiff.position(entriesStart);
+        tiff.put(kept, 0, keptCount * 12);
+        tiff.putInt(next);
+        tiff.put(new byte[(count - keptCount) * 12]);
+        return true;
+    }
+
+    private static void zeroValue(ByteBuffer tiff, int entry) {
+        int type = tiff.getShort(entry + 2) & 0xFFFF;
+        long count = tiff.getInt(entry + 4) & 0xFFFFFFFFL;
+        if (type >= TYPE_SIZES.length) {
+            return;
+        }
+        long size = count * TYPE_SIZES[type];
+        if (size <= 4) {
+            // Value is stored inline and goes away with the entry
+            return;
+        }
+        int valueOffset = tiff.getInt(entry + 8);
+        if (valueOffset < 0 || valueOffset + size > tiff.limit()) {
+            return;
+        }
+        byte[] zeros = new byte[(int) size];
+        tiff.position(valueOffset);
+        tiff.put(zeros);
+    }
+
+    private static void checkRange(ByteBuffer tiff, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > tiff.limit()) {
+            throw new IOException("EXIF offset out of bounds: " + offset);
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        return readFully(channel, buffer, position, buffer.capacity());
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position, int length)
+            throws IOException {
+        buffer.clear();
+        buffer.limit(length);
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            total += read;
+        }
+        return total;
+    }
+}
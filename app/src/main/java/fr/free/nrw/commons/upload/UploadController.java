@@ -42,6 +42,7 @@ public class UploadController {
     private SessionManager sessionManager;
     private Context context;
     private JsonKvStore store;
+    private ImageTranscoder imageTranscoder;
 
     public interface ContributionUploadProgress {
         void onUploadStarted(Contribution contribution);
@@ -50,10 +51,12 @@ public class UploadController {
     @Inject
     public UploadController(SessionManager sessionManager,
                             Context context,
-                            JsonKvStore store) {
+                            JsonKvStore store,
+                            ImageTranscoder imageTranscoder) {
         this.sessionManager = sessionManager;
         this.context = context;
         this.store = store;
+        this.imageTranscoder = imageTranscoder;
     }
 
     private boolean isUploadServiceConnected;
@@ -156,6 +159,8 @@ public class UploadController {
      * @return
      */
     private Contribution makeUpload(Contribution contribution) {
+        transcodeIfEnabled(contribution);
+
         long length;
         ContentResolver contentResolver = context.getContentResolver();
         try {
@@ -211,6 +216,32 @@ public class UploadController {
         return contribution;
     }
 
+    /**
+     * Replaces the contribution's file with a smaller re-encoded copy if the user enabled
+     * transcoding and it is expected to save enough bytes
+     * @param contribution
+     */
+    private void transcodeIfEnabled(Contribution contribution) {
+        if (contribution.getLocalUri() == null
+                || !imageTranscoder.shouldTranscode((String) contribution.getTag("mimeType"))) {
+            return;
+        }
+        File source = new File(contribution.getLocalUri().getPath());
+        ImageTranscoder.Estimate estimate = (ImageTranscoder.Estimate) contribution.getTag("transcodeEstimate");
+        if (estimate == null) {
+            estimate = imageTranscoder.estimate(source);
+        }
+        if (estimate == null || !estimate.isWorthTranscoding()) {
+            Timber.d("Uploading %s without transcoding", source);
+            return;
+        }
+        File transcoded = imageTranscoder.transcode(source, estimate);
+        if (transcoded != null) {
+            contribution.setLocalUri(Uri.fromFile(transcoded));
+            contribution.setDataLength(transcoded.length());
+        }
+    }
+
     /**
      * When the contribution object is completely formed, the item is queued to the upload service
      * @param contribution
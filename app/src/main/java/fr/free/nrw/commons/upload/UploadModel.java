@@ -6,6 +6,7 @@ import android.net.Uri;
 
 import androidx.annotation.Nullable;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
@@ -56,6 +57,7 @@ public class UploadModel {
     private SessionManager sessionManager;
     private FileProcessor fileProcessor;
     private final ImageProcessingService imageProcessingService;
+    private final ImageTranscoder imageTranscoder;
     private List<String> selectedCategories;
 
     @Inject
@@ -65,7 +67,8 @@ public class UploadModel {
             Context context,
             SessionManager sessionManager,
             FileProcessor fileProcessor,
-            ImageProcessingService imageProcessingService) {
+            ImageProcessingService imageProcessingService,
+            ImageTranscoder imageTranscoder) {
         this.licenses = licenses;
         this.store = store;
         this.license = store.getString(Prefs.DEFAULT_LICENSE, Prefs.Licenses.CC_BY_SA_3);
@@ -74,6 +77,7 @@ public class UploadModel {
         this.sessionManager = sessionManager;
         this.fileProcessor = fileProcessor;
         this.imageProcessingService = imageProcessingService;
+        this.imageTranscoder = imageTranscoder;
     }
 
     /**
@@ -144,6 +148,11 @@ public class UploadModel {
                 Uri.parse(uploadableFile.getFilePath()),
                 uploadableFile.getMimeType(context), source, gpsExtractor, place, fileCreatedDate,
                 createdTimestampSource);
+        if (imageTranscoder.shouldTranscode(uploadItem.mimeType)) {
+            // Cheap preview from the thumbnail, the full image is only decoded at upload time
+            uploadItem.setTranscodeEstimate(
+                    imageTranscoder.estimate(new File(uploadableFile.getFilePath())));
+        }
         if (place != null) {
             uploadItem.title.setTitleText(place.name);
             if(uploadItem.descriptions.isEmpty()) {
@@ -203,6 +212,7 @@ public class UploadModel {
             }
             contribution.setCategories(selectedCategories);
             contribution.setTag("mimeType", item.mimeType);
+            contribution.setTag("transcodeEstimate", item.getTranscodeEstimate());
             contribution.setSource(item.source);
             contribution.setContentProviderUri(item.mediaUri);
 
@@ -260,6 +270,8 @@ public class UploadModel {
         private long createdTimestamp;
         private String createdTimestampSource;
         private BehaviorSubject<Integer> imageQuality;
+        @Nullable
+        private ImageTranscoder.Estimate transcodeEstimate;
 
         @SuppressLint("CheckResult")
         UploadItem(Uri originalContentUri,
@@ -284,6 +296,18 @@ public class UploadModel {
             return createdTimestampSource;
         }
 
+        /**
+         * @return the expected result of transcoding the image, null if it will not be transcoded
+         */
+        @Nullable
+        public ImageTranscoder.Estimate getTranscodeEstimate() {
+            return transcodeEstimate;
+        }
+
+        public void setTranscodeEstimate(@Nullable ImageTranscoder.Estimate transcodeEstimate) {
+            this.transcodeEstimate = transcodeEstimate;
+        }
+
         public String getMimeType() {
             return mimeType;
         }
@@ -0,0 +1,125 @@
+package fr.free.nrw.commons.upload;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.Uri;
+import android.os.BatteryManager;
+
+import androidx.annotation.Nullable;
+
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import fr.free.nrw.commons.contributions.Contribution;
+import fr.free.nrw.commons.contributions.ContributionDao;
+import fr.free.nrw.commons.kvstore.JsonKvStore;
+import fr.free.nrw.commons.settings.Prefs;
+import fr.free.nrw.commons.utils.NetworkUtils;
+import timber.log.Timber;
+
+/**
+ * Persistent upload queue backed by the contributions table.
+ *
+ * Queued contributions are ordered by priority and then by the order they were added. Whether
+ * the next upload may start is decided by the constraints set in the preferences: connectivity,
+ * unmetered network only, charging only and the maximum number of simultaneous uploads.
+ */
+@Singleton
+public class UploadQueue {
+
+    private static final int DEFAULT_MAX_CONCURRENT_UPLOADS = 2;
+
+    private final Context context;
+    private final JsonKvStore defaultKvStore;
+    private final ContributionDao contributionDao;
+
+    @Inject
+    public UploadQueue(Context context,
+                       @Named("default_preferences") JsonKvStore defaultKvStore,
+                       ContributionDao contributionDao) {
+        this.context = context;
+        this.defaultKvStore = defaultKvStore;
+        this.contributionDao = contributionDao;
+    }
+
+    /**
+     * Puts uploads that were interrupted back in the queue, e.g. after the OS killed the upload
+     * service
+     *
+     * @return the number of uploads waiting in the queue
+     */
+    public int restore() {
+        int requeued = contributionDao.requeueInterruptedUploads();
+        Timber.d("Requeued %d interrupted uploads", requeued);
+        return contributionDao.getPendingUploads().size();
+    }
+
+    /**
+     * Returns the queued contribution to upload next
+     *
+     * @param runningUploads content URIs of the uploads in progress, which are skipped
+     */
+    @Nullable
+    public Contribution next(Set<Uri> runningUploads) {
+        return contributionDao.getNextQueuedUpload(runningUploads);
+    }
+
+    /**
+     * @return the maximum number of uploads to run at the same time
+     */
+    public int getMaxConcurrentUploads() {
+        try {
+            return Math.max(1, Integer.parseInt(defaultKvStore.getString(Prefs.MAX_CONCURRENT_UPLOADS,
+                    String.valueOf(DEFAULT_MAX_CONCURRENT_UPLOADS))));
+        } catch (NumberFormatException e) {
+            return DEFAULT_MAX_CONCURRENT_UPLOADS;
+        }
+    }
+
+    /**
+     * Checks the network and power constraints for starting an upload
+     */
+    public boolean areConstraintsSatisfied() {
+        if (!NetworkUtils.isInternetConnectionEstablished(context)) {
+            Timber.d("Upload queue waiting for connectivity");
+            return false;
+        }
+        if (defaultKvStore.getBoolean(Prefs.UPLOAD_ONLY_ON_UNMETERED, false) && isNetworkMetered()) {
+            Timber.d("Upload queue waiting for an unmetered network");
+            return false;
+        }
+        if (defaultKvStore.getBoolean(Prefs.UPLOAD_ONLY_WHILE_CHARGING, false) && !isCharging()) {
+            Timber.d("Upload queue waiting for the device to charge");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the broadcasts after which the constraints should be checked again
+     */
+    public IntentFilter getConstraintsChangedFilter() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(ConnectivityManager.CONNECTIVITY_ACTION);
+        filter.addAction(Intent.ACTION_POWER_CONNECTED);
+        return filter;
+    }
+
+    private boolean isNetworkMetered() {
+        ConnectivityManager connectivityManager = (ConnectivityManager) context
+                .getSystemService(Context.CONNECTIVITY_SERVICE);
+        return connectivityManager == null || connectivityManager.isActiveNetworkMetered();
+    }
+
+    private boolean isCharging() {
+        Intent batteryStatus = context.registerReceiver(null,
+                new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        return batteryStatus != null
+                && batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+    }
+}
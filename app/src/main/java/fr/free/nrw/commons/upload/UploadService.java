@@ -2,8 +2,9 @@ package fr.free.nrw.commons.upload;
 
 import android.annotation.SuppressLint;
 import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
 import android.content.ContentResolver;
-import android.content.ContentValues;
+import android.content.Context;
 import android.content.Intent;
 import android.graphics.BitmapFactory;
 import android.net.Uri;
@@ -17,8 +18,8 @@ import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.auth.SessionManager;
 import fr.free.nrw.commons.contributions.Contribution;
 import fr.free.nrw.commons.contributions.ContributionDao;
-import fr.free.nrw.commons.contributions.ContributionsContentProvider;
 import fr.free.nrw.commons.contributions.MainActivity;
+import fr.free.nrw.commons.data.CoalescingWriter;
 import fr.free.nrw.commons.media.MediaClient;
 import fr.free.nrw.commons.utils.CommonsDateUtil;
 import fr.free.nrw.commons.wikidata.WikidataEditService;
@@ -26,8 +27,11 @@ import io.reactivex.Observable;
 import io.reactivex.schedulers.Schedulers;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
@@ -38,6 +42,8 @@ public class UploadService extends HandlerService<Contribution> {
     private static final String EXTRA_PREFIX = "fr.free.nrw.commons.upload";
 
     public static final int ACTION_UPLOAD_FILE = 1;
+    private static final int ACTION_DISPATCH_QUEUE = 2;
+    private static final long PROGRESS_SAVE_INTERVAL_MS = 500;
 
     public static final String ACTION_START_SERVICE = EXTRA_PREFIX + ".upload";
     public static final String EXTRA_SOURCE = EXTRA_PREFIX + ".source";
@@ -49,6 +55,7 @@ public class UploadService extends HandlerService<Contribution> {
     @Inject ContributionDao contributionDao;
     @Inject UploadClient uploadClient;
     @Inject MediaClient mediaClient;
+    @Inject UploadQueue uploadQueue;
 
     private NotificationManagerCompat notificationManager;
     private NotificationCompat.Builder curNotification;
@@ -59,6 +66,33 @@ public class UploadService extends HandlerService<Contribution> {
      */
     private Set<String> unfinishedUploads = new HashSet<>();
 
+    /**
+     * Contributions queued in this process by content URI. They carry state which is not
+     * persisted, so they are preferred over the copies loaded from the queue.
+     */
+    private final Map<Uri, Contribution> queuedContributions = new ConcurrentHashMap<>();
+
+    /**
+     * The content URIs of the uploads currently running
+     */
+    private final Set<Uri> runningUploads = Collections.synchronizedSet(new HashSet<>());
+
+    /**
+     * Progress is reported many times per second, so it is written to the database in batches
+     */
+    private final CoalescingWriter<Contribution> progressWriter = new CoalescingWriter<>(
+            contributions -> contributionDao.saveAll(contributions),
+            Schedulers.single(), PROGRESS_SAVE_INTERVAL_MS);
+
+    private boolean isWaitingForConstraints;
+    private final BroadcastReceiver constraintsChangedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Timber.d("Upload constraints may have changed: %s", intent.getAction());
+            dispatchQueue();
+        }
+    };
+
     // DO NOT HAVE NOTIFICATION ID OF 0 FOR ANYTHING
     // See http://stackoverflow.com/questions/8725909/startforeground-does-not-show-my-notification
     // Seriously, Android?
@@ -103,13 +137,18 @@ public class UploadService extends HandlerService<Contribution> {
             notificationManager.notify(notificationTag, NOTIFICATION_UPLOAD_IN_PROGRESS, curNotification.build());
 
             contribution.setTransferred(transferred);
-            contributionDao.save(contribution);
+            progressWriter.save(contribution);
         }
 
     }
 
     @Override
     public void onDestroy() {
+        progressWriter.flush();
+        if (isWaitingForConstraints) {
+            unregisterReceiver(constraintsChangedReceiver);
+            isWaitingForConstraints = false;
+        }
         super.onDestroy();
         Timber.d("UploadService.onDestroy; %s are yet to be uploaded", unfinishedUploads);
     }
@@ -128,6 +167,9 @@ public class UploadService extends HandlerService<Contribution> {
             case ACTION_UPLOAD_FILE:
                 uploadContribution(contribution);
                 break;
+            case ACTION_DISPATCH_QUEUE:
+                startQueuedUploads();
+                break;
             default:
                 throw new IllegalArgumentException("Unknown value for what");
         }
@@ -142,6 +184,7 @@ public class UploadService extends HandlerService<Contribution> {
                 contribution.setState(Contribution.STATE_QUEUED);
                 contribution.setTransferred(0);
                 contributionDao.save(contribution);
+                queuedContributions.put(contribution.getContentUri(), contribution);
                 toUpload++;
                 if (curNotification != null && toUpload != 1) {
                     curNotification.setContentText(getResources().getQuantityString(R.plurals.uploads_pending_notification_indicator, toUpload, toUpload));
@@ -149,29 +192,70 @@ public class UploadService extends HandlerService<Contribution> {
                     notificationManager.notify(contribution.getLocalUri().toString(), NOTIFICATION_UPLOAD_IN_PROGRESS, curNotification.build());
                 }
 
-                super.queue(what, contribution);
+                dispatchQueue();
                 break;
             default:
                 throw new IllegalArgumentException("Unknown value for what");
         }
     }
 
+    /**
+     * Asks the service thread to start as many queued uploads as the constraints allow
+     */
+    private void dispatchQueue() {
+        super.queue(ACTION_DISPATCH_QUEUE, null);
+    }
+
+    /**
+     * Starts queued uploads, highest priority first, while fewer than the maximum number of
+     * uploads are running. If the network or power constraints are not met, the queue is left
+     * as is and dispatched again when they change.
+     */
+    private void startQueuedUploads() {
+        while (runningUploads.size() < uploadQueue.getMaxConcurrentUploads()) {
+            if (!uploadQueue.areConstraintsSatisfied()) {
+                waitForConstraints();
+                return;
+            }
+            Contribution next = uploadQueue.next(runningUploads);
+            if (next == null) {
+                return;
+            }
+            Contribution queued = queuedContributions.remove(next.getContentUri());
+            Contribution contribution = queued != null ? queued : next;
+            runningUploads.add(contribution.getContentUri());
+            if (contribution.getPriority() != Contribution.PRIORITY_NORMAL) {
+                // A retry goes ahead of the queue once, later restarts keep their place
+                contribution.setPriority(Contribution.PRIORITY_NORMAL);
+                contributionDao.save(contribution);
+            }
+            if (!uploadContribution(contribution)) {
+                runningUploads.remove(contribution.getContentUri());
+                toUpload--;
+                contribution.setState(Contribution.STATE_FAILED);
+                contributionDao.save(contribution);
+            }
+        }
+    }
+
+    private void waitForConstraints() {
+        if (!isWaitingForConstraints) {
+            registerReceiver(constraintsChangedReceiver, uploadQueue.getConstraintsChangedFilter());
+            isWaitingForConstraints = true;
+        }
+    }
+
     private boolean freshStart = true;
 
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         if (ACTION_START_SERVICE.equals(intent.getAction()) && freshStart) {
-            ContentValues failedValues = new ContentValues();
-            failedValues.put(ContributionDao.Table.COLUMN_STATE, Contribution.STATE_FAILED);
-
-            int updated = getContentResolver().update(ContributionsContentProvider.BASE_URI,
-                    failedValues,
-                    ContributionDao.Table.COLUMN_STATE + " = ? OR " + ContributionDao.Table.COLUMN_STATE + " = ?",
-                    new String[]{ String.valueOf(Contribution.STATE_QUEUED), String.valueOf(Contribution.STATE_IN_PROGRESS) }
-            );
-            Timber.d("Set %d uploads to failed", updated);
+            // Uploads interrupted by the service being killed go back into the queue and resume
+            toUpload = uploadQueue.restore();
+            Timber.d("%d uploads waiting in the queue", toUpload);
             Timber.d("Flags is %d id is %d", flags, startId);
             freshStart = false;
+            dispatchQueue();
         }
         return START_REDELIVER_INTENT;
     }
@@ -188,12 +272,17 @@ public class UploadService extends HandlerService<Contribution> {
                 .setContentIntent(PendingIntent.getActivity(this, 0, new Intent(this, MainActivity.class), 0));
     }
 
+    /**
+     * Starts uploading a contribution
+     *
+     * @return false if the contribution has no local file to upload
+     */
     @SuppressLint("CheckResult")
-    private void uploadContribution(Contribution contribution) {
+    private boolean uploadContribution(Contribution contribution) {
         Uri localUri = contribution.getLocalUri();
         if (localUri == null || localUri.getPath() == null) {
             Timber.d("localUri/path is null");
-            return;
+            return false;
         }
         String notificationTag = localUri.toString();
         File localFile = new File(localUri.getPath());
@@ -239,7 +328,7 @@ public class UploadService extends HandlerService<Contribution> {
                     if (!resultStatus.equals("Success")) {
                         Timber.d("Contribution upload failed. Wikidata entity won't be edited");
                         showFailedNotification(contribution);
-                        return Observable.never();
+                        return Observable.empty();
                     } else {
                         Timber.d("making sure of uniqueness of name: %s", filename);
                         String uniqueFilename = findUniqueFilename(filename);
@@ -251,6 +340,11 @@ public class UploadService extends HandlerService<Contribution> {
                                 uploadStash.getFilekey());
                     }
                 })
+                .doFinally(() -> {
+                    // Free the slot for the next queued upload
+                    runningUploads.remove(contribution.getContentUri());
+                    dispatchQueue();
+                })
                 .subscribe(uploadResult -> {
                     Timber.d("Stash upload response 2 is %s", uploadResult.toString());
 
@@ -271,12 +365,14 @@ public class UploadService extends HandlerService<Contribution> {
                         contribution.setDateUploaded(CommonsDateUtil.getIso8601DateFormatShort()
                                 .parse(uploadResult.getImageinfo().getTimestamp()));
                         contributionDao.save(contribution);
+                        ImageTranscoder.deleteIfTranscoded(getApplicationContext(), localFile);
                     }
                 }, throwable -> {
                     Timber.w(throwable, "Exception during upload");
                     notificationManager.cancel(notificationTag, NOTIFICATION_UPLOAD_IN_PROGRESS);
                     showFailedNotification(contribution);
                 });
+        return true;
     }
 
     @SuppressLint("StringFormatInvalid")
@@ -308,7 +404,7 @@ public class UploadService extends HandlerService<Contribution> {
                     sequenceFileName = regexMatcher.replaceAll("$1 " + sequenceNumber + "$2");
                 }
             }
-            if (!mediaClient.checkPageExistsUsingTitle(String.format("File:%s",sequenceFileName)).blockingGet()
+            if (!mediaClient.checkPageExistsUnbatched(String.format("File:%s",sequenceFileName)).blockingGet()
                     && !unfinishedUploads.contains(sequenceFileName)) {
                 break;
             }
@@ -8,13 +8,15 @@ import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.category.CategoryItem;
 import fr.free.nrw.commons.repository.UploadRepository;
 import fr.free.nrw.commons.upload.UploadModel.UploadItem;
-import io.reactivex.Observable;
+import fr.free.nrw.commons.utils.TypeaheadSearch;
 import io.reactivex.Scheduler;
 import io.reactivex.disposables.CompositeDisposable;
-import io.reactivex.disposables.Disposable;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -38,6 +40,14 @@ public class CategoriesPresenter implements CategoriesContract.UserActionListene
     private UploadRepository repository;
 
     private CompositeDisposable compositeDisposable;
+    /**
+     * Keeps the names of the categories found, as the items shown are selected in place
+     */
+    private final TypeaheadSearch<List<String>> categorySearch;
+    /**
+     * The query last searched, which the results of the search in flight belong to
+     */
+    private String query;
 
     @Inject
     public CategoriesPresenter(UploadRepository repository, @Named(IO_THREAD) Scheduler ioScheduler,
@@ -46,11 +56,18 @@ public class CategoriesPresenter implements CategoriesContract.UserActionListene
         this.ioScheduler = ioScheduler;
         this.mainThreadScheduler = mainThreadScheduler;
         compositeDisposable = new CompositeDisposable();
+        categorySearch = new TypeaheadSearch<>(query -> repository
+                .searchAll(query, getImageTitleList())
+                .subscribeOn(ioScheduler)
+                .map(CategoryItem::getName)
+                .toList()
+                .observeOn(mainThreadScheduler));
     }
 
     @Override
     public void onAttachView(CategoriesContract.View view) {
         this.view = view;
+        compositeDisposable.add(categorySearch.subscribe(this::showCategories, Timber::e));
     }
 
     @Override
@@ -60,48 +77,44 @@ public class CategoriesPresenter implements CategoriesContract.UserActionListene
     }
 
     /**
-     * asks the repository to fetch categories for the query
+     * asks the repository to fetch categories for the query, cancelling the search in flight
      *  @param query
      *
      */
     @Override
     public void searchForCategories(String query) {
-        List<CategoryItem> categoryItems = new ArrayList<>();
-        List<String> imageTitleList = getImageTitleList();
-        Observable<CategoryItem> distinctCategoriesObservable = Observable
-                .fromIterable(repository.getSelectedCategories())
-                .subscribeOn(ioScheduler)
-                .observeOn(mainThreadScheduler)
-                .doOnSubscribe(disposable -> {
-                    view.showProgress(true);
-                    view.showError(null);
-                    view.setCategories(null);
-                })
-                .observeOn(ioScheduler)
-                .concatWith(
-                        repository.searchAll(query, imageTitleList)
-                )
-                .filter(categoryItem -> !repository.containsYear(categoryItem.getName()))
-                .distinct();
-                if(!TextUtils.isEmpty(query)) {
-                distinctCategoriesObservable=distinctCategoriesObservable.sorted(repository.sortBySimilarity(query));
-                }
-        Disposable searchCategoriesDisposable = distinctCategoriesObservable
-                .observeOn(mainThreadScheduler)
-                .subscribe(
-                        s -> categoryItems.add(s),
-                        Timber::e,
-                        () -> {
-                            view.setCategories(categoryItems);
-                            view.showProgress(false);
+        this.query = query == null ? "" : query;
+        view.showProgress(true);
+        view.showError(null);
+        view.setCategories(null);
+        categorySearch.search(this.query);
+    }
 
-                            if (categoryItems.isEmpty()) {
-                                view.showError(R.string.no_categories_found);
-                            }
-                        }
-                );
+    /**
+     * Shows the selected categories followed by the ones found, without years and duplicates
+     *
+     * @param searchResults the names of the categories found for the query
+     */
+    private void showCategories(List<String> searchResults) {
+        Set<CategoryItem> distinctCategories = new LinkedHashSet<>(repository.getSelectedCategories());
+        for (String name : searchResults) {
+            distinctCategories.add(new CategoryItem(name, false));
+        }
+        List<CategoryItem> categoryItems = new ArrayList<>();
+        for (CategoryItem categoryItem : distinctCategories) {
+            if (!repository.containsYear(categoryItem.getName())) {
+                categoryItems.add(categoryItem);
+            }
+        }
+        if (!TextUtils.isEmpty(query)) {
+            Collections.sort(categoryItems, repository.sortBySimilarity(query));
+        }
+        view.setCategories(categoryItems);
+        view.showProgress(false);
 
-        compositeDisposable.add(searchCategoriesDisposable);
+        if (categoryItems.isEmpty()) {
+            view.showError(R.string.no_categories_found);
+        }
     }
 
     /**
@@ -24,11 +24,11 @@ import fr.free.nrw.commons.category.CategoryItem;
 import fr.free.nrw.commons.upload.UploadBaseFragment;
 import fr.free.nrw.commons.upload.UploadCategoriesAdapterFactory;
 import fr.free.nrw.commons.utils.DialogUtil;
+import fr.free.nrw.commons.utils.TypeaheadSearch;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.Disposable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import timber.log.Timber;
 
@@ -98,9 +98,9 @@ public class UploadCategoriesFragment extends UploadBaseFragment implements Cate
         subscribe = RxTextView.textChanges(etSearch)
                 .doOnEach(v -> tilContainerEtSearch.setError(null))
                 .takeUntil(RxView.detaches(etSearch))
-                .debounce(500, TimeUnit.MILLISECONDS)
+                .compose(TypeaheadSearch.queries())
                 .observeOn(AndroidSchedulers.mainThread())
-                .subscribe(filter -> searchForCategory(filter.toString()), Timber::e);
+                .subscribe(this::searchForCategory, Timber::e);
     }
 
     private void searchForCategory(String query) {
@@ -3,6 +3,7 @@ package fr.free.nrw.commons.upload.mediaDetails;
 import android.content.Context;
 import android.os.Bundle;
 import android.text.TextUtils;
+import android.text.format.Formatter;
 import android.util.DisplayMetrics;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
@@ -43,6 +44,7 @@ import fr.free.nrw.commons.nearby.Place;
 import fr.free.nrw.commons.settings.Prefs;
 import fr.free.nrw.commons.upload.Description;
 import fr.free.nrw.commons.upload.DescriptionsAdapter;
+import fr.free.nrw.commons.upload.ImageTranscoder;
 import fr.free.nrw.commons.upload.SimilarImageDialogFragment;
 import fr.free.nrw.commons.upload.Title;
 import fr.free.nrw.commons.upload.UploadBaseFragment;
@@ -78,6 +80,8 @@ public class UploadMediaDetailFragment extends UploadBaseFragment implements
     @BindView(R.id.btn_previous)
     AppCompatButton btnPrevious;
     private DescriptionsAdapter descriptionsAdapter;
+    @BindView(R.id.tv_transcode_estimate)
+    TextView tvTranscodeEstimate;
     @BindView(R.id.btn_copy_prev_title_desc)
     AppCompatButton btnCopyPreviousTitleDesc;
 
@@ -291,6 +295,22 @@ public class UploadMediaDetailFragment extends UploadBaseFragment implements
         descriptions = uploadItem.getDescriptions();
         photoViewBackgroundImage.setImageURI(uploadItem.getMediaUri());
         setDescriptionsInAdapter(descriptions);
+        showTranscodeEstimate(uploadItem.getTranscodeEstimate());
+    }
+
+    /**
+     * Shows the expected size of the upload if the image will be transcoded
+     */
+    private void showTranscodeEstimate(@Nullable ImageTranscoder.Estimate estimate) {
+        if (estimate == null || !estimate.isWorthTranscoding()) {
+            tvTranscodeEstimate.setVisibility(View.GONE);
+            return;
+        }
+        tvTranscodeEstimate.setText(getString(R.string.upload_transcode_estimate,
+                Formatter.formatShortFileSize(getContext(), estimate.getEstimatedBytes()),
+                Formatter.formatShortFileSize(getContext(), estimate.getOriginalBytes()),
+                estimate.getWidth(), estimate.getHeight()));
+        tvTranscodeEstimate.setVisibility(View.VISIBLE);
     }
 
     @Override
@@ -0,0 +1,110 @@
+package fr.free.nrw.commons.utils;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Consumer;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+
+/**
+ * Searches as the user types.
+ *
+ * {@link #queries()} turns the text typed into queries once the user pauses. Each search cancels
+ * the one in flight, so the results of an older query never replace those of a newer one. The
+ * results of the queries searched recently are reused instead of being searched again.
+ *
+ * @param <T> the results of a query
+ */
+public class TypeaheadSearch<T> {
+
+    public static final long DEBOUNCE_MILLIS = 500;
+    public static final int MIN_QUERY_LENGTH = 2;
+    private static final int CACHE_SIZE = 20;
+
+    private final Function<String, Single<T>> search;
+    private final Subject<String> queries = PublishSubject.create();
+    private final Map<String, T> cache = new LinkedHashMap<String, T>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<String, T> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * @param search searches a query, delivering the results on the thread they are shown on
+     */
+    public TypeaheadSearch(Function<String, Single<T>> search) {
+        this.search = search;
+    }
+
+    /**
+     * @return the text typed, trimmed, once it has not changed for {@link #DEBOUNCE_MILLIS}. Text
+     * shorter than {@link #MIN_QUERY_LENGTH}, other than the empty text, and text equal to the
+     * previous query are dropped
+     */
+    public static ObservableTransformer<CharSequence, String> queries() {
+        return queries(DEBOUNCE_MILLIS, Schedulers.computation());
+    }
+
+    @VisibleForTesting
+    static ObservableTransformer<CharSequence, String> queries(long debounceMillis, Scheduler scheduler) {
+        return text -> text.debounce(debounceMillis, TimeUnit.MILLISECONDS, scheduler)
+                .map(query -> query.toString().trim())
+                .filter(query -> query.isEmpty() || query.length() >= MIN_QUERY_LENGTH)
+                .distinctUntilChanged();
+    }
+
+    /**
+     * Searches the query, cancelling the search in flight
+     */
+    public void search(String query) {
+        queries.onNext(query);
+    }
+
+    /**
+     * Replaces the results kept for the query, e.g. once more of them are loaded
+     */
+    public synchronized void updateCache(String query, T results) {
+        if (!query.isEmpty()) {
+            cache.put(query, results);
+        }
+    }
+
+    /**
+     * @param onResult receives the results of the latest query
+     * @param onError  receives the errors of searches, which do not stop the later ones
+     */
+    public Disposable subscribe(Consumer<? super T> onResult, Consumer<? super Throwable> onError) {
+        return queries.switchMap(query -> results(query)
+                .toObservable()
+                .doOnError(onError)
+                .onErrorResumeNext(Observable.empty()))
+                .subscribe(onResult, onError);
+    }
+
+    /**
+     * The empty query is not cached, as what it shows, e.g. suggestions, may change
+     */
+    private Single<T> results(String query) throws Exception {
+        T cached = getCached(query);
+        if (cached != null) {
+            return Single.just(cached);
+        }
+        return search.apply(query).doOnSuccess(results -> updateCache(query, results));
+    }
+
+    private synchronized T getCached(String query) {
+        return cache.get(query);
+    }
+}
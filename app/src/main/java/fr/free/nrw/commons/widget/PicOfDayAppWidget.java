@@ -9,6 +9,7 @@ import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.net.Uri;
+import android.os.Bundle;
 import android.widget.RemoteViews;
 
 import com.facebook.common.executors.CallerThreadExecutor;
@@ -28,6 +29,7 @@ import fr.free.nrw.commons.R;
 import fr.free.nrw.commons.contributions.MainActivity;
 import fr.free.nrw.commons.di.ApplicationlessInjection;
 import fr.free.nrw.commons.media.MediaClient;
+import fr.free.nrw.commons.media.ThumbnailResolver;
 import fr.free.nrw.commons.mwapi.OkHttpJsonApiClient;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
@@ -83,13 +85,25 @@ public class PicOfDayAppWidget extends AppWidgetProvider {
                                 PendingIntent pendingIntent = PendingIntent.getActivity(context, 0, viewIntent, 0);
                                 views.setOnClickPendingIntent(R.id.appwidget_image, pendingIntent);
 
-                                loadImageFromUrl(response.getThumbUrl(), context, views, appWidgetManager, appWidgetId);
+                                String imageUrl = ThumbnailResolver.resolve(context,
+                                        getWidgetSize(context, appWidgetManager, appWidgetId), response.getThumbUrl());
+                                loadImageFromUrl(imageUrl, context, views, appWidgetManager, appWidgetId);
                             }
                         },
                         t -> Timber.e(t, "Fetching picture of the day failed")
                 ));
     }
 
+    /**
+     * @return the larger side of the widget at its largest in pixels, or 0 if unknown
+     */
+    private int getWidgetSize(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
+        Bundle options = appWidgetManager.getAppWidgetOptions(appWidgetId);
+        int sizeDp = Math.max(options.getInt(AppWidgetManager.OPTION_APPWIDGET_MAX_WIDTH),
+                options.getInt(AppWidgetManager.OPTION_APPWIDGET_MAX_HEIGHT));
+        return Math.round(sizeDp * context.getResources().getDisplayMetrics().density);
+    }
+
     /**
      * Uses Fresco to load an image from Url
      * @param imageUrl
@@ -0,0 +1,45 @@
+package fr.free.nrw.commons.wikidata.model;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming adapter of the Wikidata edit count of a user, which is the only field read from the
+ * response
+ */
+public class GetWikidataEditCountResponseTypeAdapter extends TypeAdapter<GetWikidataEditCountResponse> {
+
+    @Override
+    public void write(JsonWriter out, GetWikidataEditCountResponse response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject()
+                .name("edits").value(response.getWikidataEditCount())
+                .endObject();
+    }
+
+    @Override
+    public GetWikidataEditCountResponse read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int edits = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("edits".equals(in.nextName()) && in.peek() != JsonToken.NULL) {
+                edits = in.nextInt();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return new GetWikidataEditCountResponse(edits);
+    }
+}
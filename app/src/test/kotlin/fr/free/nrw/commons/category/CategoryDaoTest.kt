@@ -100,6 +100,20 @@ class CategoryDaoTest {
         verifyZeroInteractions(database)
     }
 
+    @Test
+    fun migrateTableVersionFrom_v8_to_v11() {
+        onUpdate(database, 8, 11)
+        // Table didnt change up to version 11
+        verifyZeroInteractions(database)
+    }
+
+    @Test
+    fun migrateTableVersionFrom_v11_to_v12() {
+        onUpdate(database, 11, 12)
+        // Index on the name added in version 12
+        verify(database).execSQL(CREATE_NAME_INDEX_STATEMENT)
+    }
+
     @Test
     fun createFromCursor() {
         createCursor(1).let { cursor ->
@@ -245,7 +259,7 @@ class CategoryDaoTest {
 
         verify(client).query(
                 eq(BASE_URI),
-                eq(ALL_FIELDS),
+                eq(arrayOf(COLUMN_NAME)),
                 isNull(),
                 queryCaptor.capture(),
                 eq("$COLUMN_LAST_USED DESC")
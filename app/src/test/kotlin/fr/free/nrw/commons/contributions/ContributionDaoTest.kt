@@ -1,7 +1,10 @@
 package fr.free.nrw.commons.contributions
 
 import android.content.ContentProviderClient
+import android.content.ContentProviderOperation
+import android.content.ContentProviderResult
 import android.content.ContentValues
+import android.database.Cursor
 import android.database.MatrixCursor
 import android.database.sqlite.SQLiteDatabase
 import android.net.Uri
@@ -135,6 +138,37 @@ class ContributionDaoTest {
         }
     }
 
+    @Test
+    fun migrateTableVersionFrom_v6_to_v9() {
+        Table.onUpdate(database, 6, 9)
+        // Upload queue fields are only added in version 11
+        verify(database, never()).execSQL(Table.ADD_PRIORITY_FIELD)
+        verify(database, never()).execSQL(Table.ADD_SORT_KEY_FIELD)
+    }
+
+    @Test
+    fun migrateTableVersionFrom_v10_to_v11() {
+        Table.onUpdate(database, 10, 11)
+        // Table changed in version 11
+        inOrder(database) {
+            verify<SQLiteDatabase>(database).execSQL(Table.ADD_PRIORITY_FIELD)
+            verify<SQLiteDatabase>(database).execSQL(Table.ADD_CATEGORIES_FIELD)
+            verify<SQLiteDatabase>(database).execSQL(Table.ADD_DECIMAL_COORDS_FIELD)
+        }
+    }
+
+    @Test
+    fun migrateTableVersionFrom_v11_to_v12() {
+        Table.onUpdate(database, 11, 12)
+        // Sort key and indices added in version 12
+        inOrder(database) {
+            verify<SQLiteDatabase>(database).execSQL(Table.ADD_SORT_KEY_FIELD)
+            verify<SQLiteDatabase>(database).execSQL(Table.SET_DEFAULT_SORT_KEY)
+            verify<SQLiteDatabase>(database).execSQL(Table.CREATE_FILENAME_INDEX_STATEMENT)
+            verify<SQLiteDatabase>(database).execSQL(Table.CREATE_SORT_INDEX_STATEMENT)
+        }
+    }
+
     @Test
     fun saveNewContribution_nonNullFields() {
         whenever(client.insert(isA(), isA())).thenReturn(contentUri)
@@ -237,6 +271,103 @@ class ContributionDaoTest {
         verify(client).update(eq(contentUri), isA(), isNull(), isNull())
     }
 
+    @Test
+    fun saveAllAppliesOneBatch() {
+        val existing = createContribution(false, null, null, null, null)
+        existing.contentUri = contentUri
+        val new = createContribution(false, null, null, null, null)
+        val insertedUri = uriForId(112)
+        whenever(client.applyBatch(any())).thenReturn(arrayOf(
+                ContentProviderResult(1), ContentProviderResult(insertedUri)))
+
+        testObject.saveAll(listOf(existing, new))
+
+        val operations = argumentCaptor<ArrayList<ContentProviderOperation>>()
+        verify(client).applyBatch(operations.capture())
+        assertEquals(2, operations.firstValue.size)
+        assertEquals(contentUri, operations.firstValue[0].uri)
+        assertEquals(BASE_URI, operations.firstValue[1].uri)
+        assertEquals(insertedUri, new.contentUri)
+        verify(client, never()).insert(any(), any())
+        verify(client, never()).update(any(), any(), anyOrNull(), anyOrNull())
+    }
+
+    @Test
+    fun loadCompletedPagesWalksHistoryInListOrder() {
+        val db = SQLiteDatabase.create(null)
+        Table.onCreate(db)
+        for (i in 0 until 25) {
+            db.insert(Table.TABLE_NAME, null, ContentValues().apply {
+                put(Table.COLUMN_FILENAME, "File:$i.jpg")
+                put(Table.COLUMN_STATE, if (i % 10 == 0) STATE_QUEUED else STATE_COMPLETED)
+                // Ties and missing upload dates need the rest of the key to page correctly
+                put(Table.COLUMN_TIMESTAMP, 1000L + i % 4)
+                if (i % 7 != 0) {
+                    put(Table.COLUMN_UPLOADED, 2000L + i % 3)
+                }
+            })
+        }
+        whenever(client.query(any(), anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull())).thenAnswer {
+            db.query(Table.TABLE_NAME, it.getArgument(1), it.getArgument(2), it.getArgument(3),
+                    null, null, it.getArgument(4))
+        }
+        val expected = filenames(testObject.loadCompletedPage(null, null, 0))
+
+        val paged = ArrayList<String>()
+        var after: ContributionDao.PageKey? = null
+        do {
+            val page = testObject.loadCompletedPage(after, null, 4)
+            paged.addAll(filenames(page))
+            after = if (page.moveToLast()) ContributionDao.PageKey.fromCursor(page) else null
+        } while (page.count == 4)
+
+        assertEquals(22, expected.size)
+        assertEquals(expected, paged)
+        assertEquals(expected.subList(0, 4),
+                filenames(testObject.loadCompletedPage(null, keyOf(4), 0)))
+        assertEquals(listOf("File:0.jpg", "File:10.jpg", "File:20.jpg"),
+                filenames(testObject.loadUnfinishedContributions()).sorted())
+    }
+
+    @Test
+    fun getNextQueuedUploadLoadsHeadOfQueue() {
+        val db = SQLiteDatabase.create(null)
+        Table.onCreate(db)
+        val states = listOf(STATE_COMPLETED, STATE_QUEUED, STATE_IN_PROGRESS, STATE_QUEUED, STATE_QUEUED)
+        val priorities = listOf(1, 0, 1, 1, 1)
+        for (i in states.indices) {
+            db.insert(Table.TABLE_NAME, null, ContentValues().apply {
+                put(Table.COLUMN_FILENAME, "File:$i.jpg")
+                put(Table.COLUMN_STATE, states[i])
+                put(Table.COLUMN_PRIORITY, priorities[i])
+            })
+        }
+        whenever(client.query(any(), anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull())).thenAnswer {
+            db.query(Table.TABLE_NAME, it.getArgument(1), it.getArgument(2), it.getArgument(3),
+                    null, null, it.getArgument(4))
+        }
+
+        assertEquals("File:3.jpg", testObject.getNextQueuedUpload(emptySet())!!.filename)
+        assertEquals("File:4.jpg", testObject.getNextQueuedUpload(setOf(uriForId(4)))!!.filename)
+        assertEquals("File:1.jpg", testObject.getNextQueuedUpload(setOf(uriForId(4), uriForId(5)))!!.filename)
+        assertNull(testObject.getNextQueuedUpload(setOf(uriForId(2), uriForId(4), uriForId(5))))
+    }
+
+    private fun keyOf(count: Int): ContributionDao.PageKey {
+        val page = testObject.loadCompletedPage(null, null, count)
+        page.moveToLast()
+        return ContributionDao.PageKey.fromCursor(page)
+    }
+
+    private fun filenames(cursor: Cursor): List<String> {
+        val filenames = ArrayList<String>()
+        cursor.moveToPosition(-1)
+        while (cursor.moveToNext()) {
+            filenames.add(cursor.getString(cursor.getColumnIndex(Table.COLUMN_FILENAME)))
+        }
+        return filenames
+    }
+
     @Test(expected = RuntimeException::class)
     fun saveTranslatesExceptions() {
         whenever(client.insert(isA(), isA())).thenThrow(RemoteException(""))
@@ -289,6 +420,9 @@ class ContributionDaoTest {
                 assertEquals(640, it.width)
                 assertEquals(480, it.height)
                 assertEquals("007", it.license)
+                assertEquals(PRIORITY_HIGH, it.priority)
+                assertEquals(listOf("Foo", "Bar"), it.categories)
+                assertEquals("1.0|2.0", it.decimalCoords)
             }
         }
     }
@@ -327,7 +461,8 @@ class ContributionDaoTest {
             MatrixCursor(Table.ALL_FIELDS, 1).apply {
                 addRow(listOf("111", "filePath", localUri, "image",
                         created, STATE_QUEUED, 222L, uploaded, 88L, SOURCE_GALLERY, "desc",
-                        "create", if (multiple) 1 else 0, 640, 480, "007", "Q1"))
+                        "create", if (multiple) 1 else 0, 640, 480, "007", "Q1", 1, "Foo|Bar",
+                        "1.0|2.0"))
                 moveToFirst()
             }
 
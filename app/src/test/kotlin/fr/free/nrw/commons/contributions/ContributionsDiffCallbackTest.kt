@@ -0,0 +1,77 @@
+package fr.free.nrw.commons.contributions
+
+import android.net.Uri
+import com.nhaarman.mockito_kotlin.mock
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Test cases for ContributionsDiffCallback
+ */
+class ContributionsDiffCallbackTest {
+
+    private val contentUri: Uri = mock()
+
+    /**
+     * Test method to verify a change of the progress alone only updates the progress
+     */
+    @Test
+    fun progressChangeHasProgressPayload() {
+        val callback = ContributionsDiffCallback(
+                listOf(contribution(Contribution.STATE_IN_PROGRESS, 10)),
+                listOf(contribution(Contribution.STATE_IN_PROGRESS, 20)))
+
+        assertTrue(callback.areItemsTheSame(0, 0))
+        assertFalse(callback.areContentsTheSame(0, 0))
+        assertSame(ContributionsListAdapter.PAYLOAD_PROGRESS, callback.getChangePayload(0, 0))
+    }
+
+    /**
+     * Test method to verify a change of the state binds the whole row
+     */
+    @Test
+    fun stateChangeHasNoPayload() {
+        val callback = ContributionsDiffCallback(
+                listOf(contribution(Contribution.STATE_IN_PROGRESS, 100)),
+                listOf(contribution(Contribution.STATE_COMPLETED, 100)))
+
+        assertFalse(callback.areContentsTheSame(0, 0))
+        assertNull(callback.getChangePayload(0, 0))
+    }
+
+    /**
+     * Test method to verify a row whose page was dropped keeps what it shows
+     */
+    @Test
+    fun droppedRowIsNotBound() {
+        val callback = ContributionsDiffCallback(
+                listOf(contribution(Contribution.STATE_COMPLETED, 100)), listOf(null))
+
+        assertTrue(callback.areItemsTheSame(0, 0))
+        assertTrue(callback.areContentsTheSame(0, 0))
+    }
+
+    /**
+     * Test method to verify a row whose page was loaded again is bound
+     */
+    @Test
+    fun reloadedRowIsBound() {
+        val callback = ContributionsDiffCallback(
+                listOf(null), listOf(contribution(Contribution.STATE_COMPLETED, 100)))
+
+        assertTrue(callback.areItemsTheSame(0, 0))
+        assertFalse(callback.areContentsTheSame(0, 0))
+        assertNull(callback.getChangePayload(0, 0))
+    }
+
+    private fun contribution(state: Int, transferred: Long) = Contribution().apply {
+        this.contentUri = this@ContributionsDiffCallbackTest.contentUri
+        this.filename = "File:Test.jpg"
+        this.state = state
+        this.transferred = transferred
+        this.dataLength = 100
+    }
+}
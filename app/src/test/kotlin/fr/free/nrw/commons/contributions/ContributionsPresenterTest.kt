@@ -3,7 +3,10 @@ package fr.free.nrw.commons.contributions
 import android.database.Cursor
 import androidx.loader.content.CursorLoader
 import androidx.loader.content.Loader
+import com.nhaarman.mockito_kotlin.any
 import com.nhaarman.mockito_kotlin.verify
+import io.reactivex.schedulers.Schedulers
+import org.junit.Assert.assertSame
 import org.junit.Before
 import org.junit.Test
 import org.mockito.Mock
@@ -36,7 +39,7 @@ class ContributionsPresenterTest {
         MockitoAnnotations.initMocks(this)
         cursor = Mockito.mock(Cursor::class.java)
         contribution = Mockito.mock(Contribution::class.java)
-        contributionsPresenter = ContributionsPresenter(repository)
+        contributionsPresenter = ContributionsPresenter(repository, Schedulers.trampoline(), Schedulers.trampoline())
         loader = Mockito.mock(CursorLoader::class.java)
         contributionsPresenter?.onAttachView(view)
     }
@@ -65,12 +68,16 @@ class ContributionsPresenterTest {
      */
     @Test
     fun testOnLoaderFinishedNonZeroContributions() {
-        Mockito.`when`(cursor.count).thenReturn(1)
-        contributionsPresenter?.onLoadFinished(loader, cursor)
+        val pagedCursor = Mockito.mock(PagedCursor::class.java)
+        Mockito.`when`(pagedCursor.count).thenReturn(1)
+        Mockito.`when`(pagedCursor.contributions).thenReturn(listOf(contribution))
+        contributionsPresenter?.onLoadFinished(loader, pagedCursor)
         verify(view)?.showProgress(false)
         verify(view)?.showWelcomeTip(false)
         verify(view)?.showNoContributionsUI(false)
-        verify(view)?.setUploadCount(cursor.count)
+        verify(view)?.setUploadCount(1)
+        verify(view)?.onContributionsChanged(any())
+        assertSame(contribution, contributionsPresenter?.getItemAtPosition(0))
     }
 
     /**
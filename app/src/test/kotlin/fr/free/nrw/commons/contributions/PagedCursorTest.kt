@@ -0,0 +1,91 @@
+package fr.free.nrw.commons.contributions
+
+import android.database.MatrixCursor
+import fr.free.nrw.commons.TestCommonsApplication
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Test cases for PagedCursor
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class PagedCursorTest {
+
+    /**
+     * Test method to verify the rows of all pages are read in order, skipping empty pages
+     */
+    @Test
+    fun readsPagesInOrder() {
+        val cursor = PagedCursor(listOf(page(0, 2), page(2, 0), page(2, 3), page(5, 0)),
+                intArrayOf(2, 0, 3, 0), emptyList(), true)
+
+        assertEquals(5, cursor.count)
+        assertTrue(cursor.hasMore())
+        val rows = ArrayList<Int>()
+        while (cursor.moveToNext()) {
+            rows.add(cursor.getInt(0))
+        }
+        assertEquals(listOf(0, 1, 2, 3, 4), rows)
+        assertTrue(cursor.moveToPosition(2))
+        assertEquals("row 2", cursor.getString(1))
+    }
+
+    /**
+     * Test method to verify closing the view does not close the shared pages
+     */
+    @Test
+    fun closeKeepsPagesOpen() {
+        val page = page(0, 1)
+        PagedCursor(listOf(page), intArrayOf(1), listOf(emptyList()), false).close()
+
+        assertFalse(page.isClosed)
+    }
+
+    /**
+     * Test method to verify the rows of closed pages are counted but cannot be moved to
+     */
+    @Test
+    fun skipsClosedPages() {
+        val closed = page(2, 2).apply { close() }
+        val cursor = PagedCursor(listOf(page(0, 2), closed, page(4, 1)), intArrayOf(2, 2, 1),
+                emptyList(), false)
+
+        assertEquals(5, cursor.count)
+        assertFalse(cursor.moveToPosition(2))
+        assertTrue(cursor.moveToPosition(4))
+        assertEquals(4, cursor.getInt(0))
+    }
+
+    /**
+     * Test method to verify the contributions of dropped pages are null, and the others are in order
+     */
+    @Test
+    fun droppedPagesHaveNoContributions() {
+        val first = Contribution()
+        val last = Contribution()
+        val cursor = PagedCursor(listOf(page(0, 1), page(1, 0), page(1, 2).apply { close() },
+                page(3, 1)), intArrayOf(1, 0, 2, 1), listOf(listOf(first), emptyList(), null,
+                listOf(last)), false)
+
+        val contributions = cursor.contributions
+        assertEquals(4, contributions.size)
+        assertSame(first, contributions[0])
+        assertNull(contributions[1])
+        assertNull(contributions[2])
+        assertSame(last, contributions[3])
+    }
+
+    private fun page(first: Int, count: Int) = MatrixCursor(arrayOf("_id", "filename")).apply {
+        for (i in first until first + count) {
+            addRow(arrayOf(i, "row $i"))
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package fr.free.nrw.commons.data
+
+import io.reactivex.schedulers.TestScheduler
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+/**
+ * Test cases for CoalescingWriter
+ */
+class CoalescingWriterTest {
+
+    private val scheduler = TestScheduler()
+    private val written = mutableListOf<List<String>>()
+
+    /**
+     * Test method to verify the objects saved during the delay are written once, in one batch
+     */
+    @Test
+    fun writesSavesInOneBatch() {
+        val writer = CoalescingWriter<String>({ written.add(it) }, scheduler, 100)
+        writer.save("a")
+        writer.save("b")
+        writer.save("a")
+
+        scheduler.advanceTimeBy(99, TimeUnit.MILLISECONDS)
+        assertEquals(emptyList<List<String>>(), written)
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+        assertEquals(listOf(listOf("a", "b")), written)
+    }
+
+    /**
+     * Test method to verify the objects of a batch which fails are written one by one
+     */
+    @Test
+    fun writesFailedBatchOneByOne() {
+        val writer = CoalescingWriter<String>({ items ->
+            if (items.size > 1 || items.contains("bad")) {
+                throw RuntimeException("Could not write $items")
+            }
+            written.add(items)
+        }, scheduler, 100)
+        writer.save("a")
+        writer.save("bad")
+        writer.save("b")
+
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+
+        assertEquals(listOf(listOf("a"), listOf("b")), written)
+    }
+}
@@ -0,0 +1,159 @@
+package fr.free.nrw.commons.data
+
+import android.content.ContentValues
+import android.database.sqlite.SQLiteDatabase
+import fr.free.nrw.commons.TestCommonsApplication
+import org.junit.After
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import java.util.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmark of the commons.db lookups and the contributions list query, with and without the
+ * indices added in database version 12. Prints the query plan and timing of each query.
+ *
+ * Skipped unless enabled, e.g.
+ * ./gradlew testProdDebugUnitTest --tests '*DatabaseBenchmark*' -Dbenchmark.dbRows=10000
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class DatabaseBenchmark {
+
+    private val rows = Integer.getInteger("benchmark.dbRows", 0)
+    private val lookups = Integer.getInteger("benchmark.dbLookups", 1000)
+    private val random = Random(java.lang.Long.getLong("benchmark.seed", 42))
+
+    private lateinit var dbOpenHelper: DBOpenHelper
+    private lateinit var db: SQLiteDatabase
+
+    @Before
+    fun setUp() {
+        assumeTrue("Set -Dbenchmark.dbRows=N to run the database benchmark", rows > 0)
+
+        dbOpenHelper = DBOpenHelper(RuntimeEnvironment.application)
+        db = dbOpenHelper.writableDatabase
+        db.beginTransaction()
+        try {
+            for (i in 0 until rows) {
+                db.insert("contributions", null, ContentValues().apply {
+                    val state = if (i % 50 == 0) 2 else -1
+                    val timestamp = 1500000000000L + random.nextInt(Int.MAX_VALUE)
+                    put("filename", "File:Benchmark $i.jpg")
+                    put("timestamp", timestamp)
+                    put("state", state)
+                    put("sort_key", timestamp * state)
+                    if (state == -1) {
+                        put("uploaded", timestamp + 1000)
+                    }
+                })
+                db.insert("categories", null, ContentValues().apply {
+                    put("name", "Category $i")
+                    put("last_used", i)
+                    put("times_used", 1)
+                })
+                db.insert("recent_searches", null, ContentValues().apply {
+                    put("name", "search $i")
+                    put("last_used", i)
+                })
+            }
+            db.setTransactionSuccessful()
+        } finally {
+            db.endTransaction()
+        }
+    }
+
+    @After
+    fun tearDown() {
+        if (rows > 0) {
+            dbOpenHelper.close()
+            RuntimeEnvironment.application.deleteDatabase("commons.db")
+        }
+    }
+
+    @Test
+    fun queryPlansAndTimings() {
+        println(String.format(Locale.ROOT, "Database benchmark: %d rows per table, %d lookups, journal mode %s",
+                rows, lookups, pragma("journal_mode")))
+
+        println("With indices (version 12):")
+        runQueries(SORT_KEY_ORDER)
+
+        db.execSQL("DROP INDEX contributions_filename")
+        db.execSQL("DROP INDEX contributions_sort")
+        db.execSQL("DROP INDEX categories_name")
+        db.execSQL("DROP INDEX recent_searches_name")
+        println("Without indices (version 11):")
+        runQueries(EXPRESSION_ORDER)
+    }
+
+    private fun runQueries(listOrder: String) {
+        lookup("contributions by filename",
+                "SELECT filename FROM contributions WHERE filename = ?") { "File:Benchmark $it.jpg" }
+        lookup("categories by name",
+                "SELECT * FROM categories WHERE name = ?") { "Category $it" }
+        lookup("recent searches by name",
+                "SELECT * FROM recent_searches WHERE name = ?") { "search $it" }
+        measure("contributions list", "SELECT * FROM contributions ORDER BY $listOrder LIMIT 100",
+                emptyArray(), 20)
+    }
+
+    private fun lookup(label: String, sql: String, arg: (Int) -> String) {
+        printPlan(label, sql, arrayOf(arg(0)))
+        val start = System.nanoTime()
+        for (i in 0 until lookups) {
+            db.rawQuery(sql, arrayOf(arg(random.nextInt(rows)))).use { cursor ->
+                while (cursor.moveToNext()) {
+                    cursor.getString(0)
+                }
+            }
+        }
+        printTime(start, lookups)
+    }
+
+    private fun measure(label: String, sql: String, args: Array<String>, repeat: Int) {
+        printPlan(label, sql, args)
+        val start = System.nanoTime()
+        for (i in 0 until repeat) {
+            db.rawQuery(sql, args).use { cursor ->
+                while (cursor.moveToNext()) {
+                    cursor.getString(0)
+                }
+            }
+        }
+        printTime(start, repeat)
+    }
+
+    private fun printPlan(label: String, sql: String, args: Array<String>) {
+        val plan = ArrayList<String>()
+        db.rawQuery("EXPLAIN QUERY PLAN $sql", args).use { cursor ->
+            val detail = cursor.getColumnIndex("detail")
+            while (cursor.moveToNext()) {
+                plan.add(cursor.getString(detail))
+            }
+        }
+        println("  $label: ${plan.joinToString("; ")}")
+    }
+
+    private fun printTime(start: Long, count: Int) {
+        val micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)
+        println(String.format(Locale.ROOT, "    %d queries in %d ms, %.1f us per query", count,
+                micros / 1000, micros.toDouble() / count))
+    }
+
+    private fun pragma(name: String): String {
+        db.rawQuery("PRAGMA $name", null).use { cursor ->
+            return if (cursor.moveToFirst()) cursor.getString(0) else "unknown"
+        }
+    }
+
+    companion object {
+        private const val SORT_KEY_ORDER = "state DESC, uploaded DESC, sort_key"
+        private const val EXPRESSION_ORDER = "state DESC, uploaded DESC, (timestamp * state)"
+    }
+}
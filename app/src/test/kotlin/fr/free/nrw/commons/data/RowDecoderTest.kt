@@ -0,0 +1,50 @@
+package fr.free.nrw.commons.data
+
+import android.database.Cursor
+import android.database.MatrixCursor
+import fr.free.nrw.commons.TestCommonsApplication
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+/**
+ * Test cases for RowDecoder
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class RowDecoderTest {
+
+    private val decoder = object : RowDecoder<String>("name", "missing", "_id") {
+        override fun decode(cursor: Cursor, indices: IntArray) =
+                "${cursor.getString(indices[0])}:${indices[1]}:${cursor.getInt(indices[2])}"
+    }
+
+    /**
+     * Test method to verify the columns are found by name, whatever their position in the cursor
+     */
+    @Test
+    fun decodesColumnsByName() {
+        val result = decoder.decodeAll(cursor(3))
+
+        assertEquals(listOf("row 0:-1:0", "row 1:-1:1", "row 2:-1:2"), result)
+    }
+
+    /**
+     * Test method to verify decoding starts from the first row and stops at the limit
+     */
+    @Test
+    fun decodeAllHonorsLimit() {
+        val cursor = cursor(5)
+        cursor.moveToPosition(3)
+
+        assertEquals(listOf("row 0:-1:0", "row 1:-1:1"), decoder.decodeAll(cursor, 2))
+    }
+
+    private fun cursor(count: Int) = MatrixCursor(arrayOf("_id", "other", "name")).apply {
+        for (i in 0 until count) {
+            addRow(arrayOf(i, "other $i", "row $i"))
+        }
+    }
+}
@@ -127,6 +127,26 @@ class RecentSearchesDaoTest {
         verifyZeroInteractions(database)
     }
 
+    /**
+     * Unit Test for migrating from database version 8 to 11 for recent Searches Table
+     */
+    @Test
+    fun migrateTableVersionFrom_v8_to_v11() {
+        onUpdate(database, 8, 11)
+        // Table didnt change up to version 11
+        verifyZeroInteractions(database)
+    }
+
+    /**
+     * Unit Test for migrating from database version 11 to 12 for recent Searches Table
+     */
+    @Test
+    fun migrateTableVersionFrom_v11_to_v12() {
+        onUpdate(database, 11, 12)
+        // Index on the name added in version 12
+        verify(database).execSQL(CREATE_NAME_INDEX_STATEMENT)
+    }
+
     /**
      * Unit Test for migrating from creating a row without using ID in recent Searches Table
      */
@@ -274,7 +294,7 @@ class RecentSearchesDaoTest {
 
         verify(client).query(
                 eq(BASE_URI),
-                eq(ALL_FIELDS),
+                eq(arrayOf(COLUMN_NAME)),
                 isNull(),
                 queryCaptor.capture(),
                 eq("$COLUMN_LAST_USED DESC")
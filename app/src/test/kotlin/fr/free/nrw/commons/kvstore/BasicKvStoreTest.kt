@@ -0,0 +1,109 @@
+package fr.free.nrw.commons.kvstore
+
+import android.content.Context
+import android.preference.PreferenceManager
+import fr.free.nrw.commons.TestCommonsApplication
+import io.reactivex.schedulers.TestScheduler
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import java.util.UUID
+import java.util.concurrent.TimeUnit
+
+/**
+ * Test cases for BasicKvStore
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class BasicKvStoreTest {
+
+    /**
+     * Pending writes are shared by the stores of a file, so each test uses its own file
+     */
+    private val storeName = "test_store_" + UUID.randomUUID()
+    private val preferences = RuntimeEnvironment.application
+            .getSharedPreferences(storeName, Context.MODE_PRIVATE)
+    private val scheduler = TestScheduler()
+
+    private lateinit var store: BasicKvStore
+
+    @Before
+    fun setUp() {
+        store = BasicKvStore(RuntimeEnvironment.application, storeName, 1, false, scheduler)
+        store.flush()
+    }
+
+    /**
+     * Test method to verify a batch is read back before it is committed, then committed together
+     * after the delay
+     */
+    @Test
+    fun batchIsReadBeforeCommit() {
+        store.edit { it.putInt("count", 2).putBoolean("changed", true) }
+
+        assertEquals(2, store.getInt("count"))
+        assertTrue(store.getBoolean("changed"))
+        scheduler.advanceTimeBy(99, TimeUnit.MILLISECONDS)
+        assertFalse(preferences.contains("count"))
+
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS)
+
+        assertEquals(2, preferences.getInt("count", 0))
+        assertTrue(preferences.getBoolean("changed", false))
+    }
+
+    /**
+     * Test method to verify the writes of all stores are applied without waiting for the delay
+     */
+    @Test
+    fun flushAllAppliesPendingWrites() {
+        store.putString("name", "value")
+
+        BasicKvStore.flushAll()
+
+        assertEquals("value", preferences.getString("name", null))
+    }
+
+    /**
+     * Test method to verify the writes to the default preferences, which are also read directly,
+     * are applied at once
+     */
+    @Test
+    fun defaultPreferencesWritesAreNotDelayed() {
+        val application = RuntimeEnvironment.application
+        val defaultStore = BasicKvStore(application, application.packageName + "_preferences",
+                scheduler)
+
+        defaultStore.putString("name", "value")
+
+        assertEquals("value", PreferenceManager.getDefaultSharedPreferences(application)
+                .getString("name", null))
+    }
+
+    /**
+     * Test method to verify removals and clears hide the committed values until they are committed
+     */
+    @Test
+    fun pendingRemovalsHideCommittedValues() {
+        store.putString("name", "value")
+        store.putLong("time", 10)
+        store.flush()
+
+        store.remove("name")
+        assertFalse(store.contains("name"))
+        store.clearAll()
+        assertEquals(0, store.getLong("time"))
+        assertEquals(1, store.getInt("__version__"))
+
+        store.flush()
+
+        assertFalse(preferences.contains("time"))
+        assertEquals(1, preferences.getInt("__version__", 0))
+    }
+}
@@ -0,0 +1,71 @@
+package fr.free.nrw.commons.kvstore
+
+import com.google.gson.Gson
+import com.google.gson.reflect.TypeToken
+import fr.free.nrw.commons.TestCommonsApplication
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+
+/**
+ * Test cases for JsonKvStore
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class JsonKvStoreTest {
+
+    private val setType = object : TypeToken<Set<String>>() {}.type
+
+    private lateinit var store: JsonKvStore
+
+    @Before
+    fun setUp() {
+        store = JsonKvStore(RuntimeEnvironment.application, "test_store", Gson())
+        store.clearAll()
+    }
+
+    /**
+     * Test method to verify an unchanged value is read without parsing it again
+     */
+    @Test
+    fun unchangedValueIsCached() {
+        store.putJson("tags", setOf("a", "b"))
+
+        val first: Set<String>? = store.getJson("tags", setType)
+        val second: Set<String>? = store.getJson("tags", setType)
+
+        assertEquals(setOf("a", "b"), first)
+        assertSame(first, second)
+    }
+
+    /**
+     * Test method to verify a value written through another store of the same name is read again
+     */
+    @Test
+    fun changedValueIsParsedAgain() {
+        store.putJson("tags", setOf("a"))
+        val first: Set<String>? = store.getJson("tags", setType)
+
+        JsonKvStore(RuntimeEnvironment.application, "test_store", Gson()).putJson("tags", setOf("b"))
+        val second: Set<String>? = store.getJson("tags", setType)
+
+        assertNotSame(first, second)
+        assertEquals(setOf("b"), second)
+    }
+
+    /**
+     * Test method to verify cached collections can not be modified by readers
+     */
+    @Test(expected = UnsupportedOperationException::class)
+    fun cachedCollectionsAreUnmodifiable() {
+        store.putJson("tags", setOf("a"))
+
+        store.getJson<MutableSet<String>>("tags", setType)!!.add("b")
+    }
+}
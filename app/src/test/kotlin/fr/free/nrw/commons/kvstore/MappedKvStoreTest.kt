@@ -0,0 +1,142 @@
+package fr.free.nrw.commons.kvstore
+
+import android.content.Context
+import fr.free.nrw.commons.TestCommonsApplication
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import java.io.File
+import java.io.RandomAccessFile
+
+/**
+ * Test cases for MappedKvStore
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class MappedKvStoreTest {
+
+    @get:Rule
+    val folder = TemporaryFolder()
+
+    /**
+     * Test method to verify the values written are read back when the store is opened again
+     */
+    @Test
+    fun valuesSurviveReopening() {
+        val file = File(folder.root, "store")
+        MappedKvStore(file, null, null).apply {
+            putString("string", "value")
+            putBoolean("boolean", true)
+            putLong("long", Long.MAX_VALUE)
+            putInt("int", 42)
+            putString("removed", "value")
+            remove("removed")
+        }
+
+        val store = MappedKvStore(file, null, null)
+
+        assertEquals("value", store.getString("string"))
+        assertTrue(store.getBoolean("boolean"))
+        assertEquals(Long.MAX_VALUE, store.getLong("long"))
+        assertEquals(42, store.getInt("int"))
+        assertFalse(store.contains("removed"))
+    }
+
+    /**
+     * Test method to verify compaction keeps the latest values and shrinks the log
+     */
+    @Test
+    fun compactionKeepsLatestValues() {
+        val file = File(folder.root, "store")
+        val store = MappedKvStore(file, null, null)
+        val value = "x".repeat(1000)
+        for (i in 0 until 1000) {
+            store.putString("key${i % 10}", value + i)
+        }
+
+        assertTrue(file.length() < 1000 * value.length)
+        val reopened = MappedKvStore(file, null, null)
+        for (i in 990 until 1000) {
+            assertEquals(value + i, reopened.getString("key${i % 10}"))
+        }
+    }
+
+    /**
+     * Test method to verify a torn record at the end of the log is ignored
+     */
+    @Test
+    fun tornRecordIsIgnored() {
+        val file = File(folder.root, "store")
+        MappedKvStore(file, null, null).apply {
+            putString("kept", "value")
+            putString("torn", "value")
+        }
+        // Corrupt the last byte of the last record, after the header and two records of the
+        // length, checksum, type, key length, key and value
+        val recordSize = 8 + 1 + 4 + "torn".length + "value".length
+        val lastByte = 4 + 2L * recordSize - 1
+        RandomAccessFile(file, "rw").use {
+            it.seek(lastByte)
+            it.write(0x7f)
+        }
+
+        val store = MappedKvStore(file, null, null)
+
+        assertEquals("value", store.getString("kept"))
+        assertFalse(store.contains("torn"))
+    }
+
+    /**
+     * Test method to verify the values of the SharedPreferences store are migrated once
+     */
+    @Test
+    fun migratesSharedPreferences() {
+        val preferences = RuntimeEnvironment.application
+                .getSharedPreferences("legacy", Context.MODE_PRIVATE)
+        preferences.edit().putString("string", "value").putInt("int", 1).commit()
+        val file = File(folder.root, "legacy")
+
+        assertEquals("value", MappedKvStore(file, preferences, null).getString("string"))
+
+        preferences.edit().putInt("int", 2).commit()
+        assertEquals(1, MappedKvStore(file, preferences, null).getInt("int"))
+    }
+
+    /**
+     * Test method to verify only the given keys are moved from the SharedPreferences store
+     */
+    @Test
+    fun movesLegacyKeys() {
+        val preferences = RuntimeEnvironment.application
+                .getSharedPreferences("legacy", Context.MODE_PRIVATE)
+        preferences.edit().putString("moved", "value").putString("kept", "value").commit()
+
+        val store = MappedKvStore(File(folder.root, "moved"), preferences, setOf("moved"))
+
+        assertEquals("value", store.getString("moved"))
+        assertFalse(store.contains("kept"))
+        assertFalse(preferences.contains("moved"))
+        assertTrue(preferences.contains("kept"))
+    }
+
+    /**
+     * Test method to verify all the users of a store share the instance mapping its file
+     */
+    @Test
+    fun sharesInstanceOfStore() {
+        val context = RuntimeEnvironment.application
+        val store = MappedKvStore.getInstance(context, "shared")
+
+        assertNotNull(store)
+        assertSame(store, MappedKvStore.getInstance(context, "shared"))
+    }
+}
@@ -0,0 +1,45 @@
+package fr.free.nrw.commons.media
+
+import fr.free.nrw.commons.utils.model.ConnectionType
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Test cases for AdaptivePaging
+ */
+class AdaptivePagingTest {
+
+    /**
+     * Test method to verify pages are larger on faster networks, within the limits
+     */
+    @Test
+    fun pageSizeFollowsNetwork() {
+        assertEquals(10, AdaptivePaging.getPageSize(ConnectionType.CELLULAR, 6))
+        assertEquals(12, AdaptivePaging.getPageSize(ConnectionType.CELLULAR_3G, 6))
+        assertEquals(18, AdaptivePaging.getPageSize(ConnectionType.CELLULAR_4G, 6))
+        assertEquals(24, AdaptivePaging.getPageSize(ConnectionType.WIFI_NETWORK, 6))
+        assertEquals(AdaptivePaging.MAX_PAGE_SIZE, AdaptivePaging.getPageSize(ConnectionType.WIFI_NETWORK, 20))
+    }
+
+    /**
+     * Test method to verify the first page is sized before any image is on screen
+     */
+    @Test
+    fun firstPageSize() {
+        assertEquals(20, AdaptivePaging.getPageSize(ConnectionType.WIFI_NETWORK, 0))
+        assertEquals(AdaptivePaging.MIN_PAGE_SIZE, AdaptivePaging.getPageSize(ConnectionType.NO_INTERNET, 0))
+    }
+
+    /**
+     * Test method to verify the next page is requested once less than a page is left below the screen
+     */
+    @Test
+    fun loadsMoreWithinAPage() {
+        val paging = AdaptivePaging()
+        assertFalse(paging.shouldLoadMore(0, 6, 20))
+        assertTrue(paging.shouldLoadMore(5, 6, 20))
+        assertFalse(paging.shouldLoadMore(0, 0, 0))
+    }
+}
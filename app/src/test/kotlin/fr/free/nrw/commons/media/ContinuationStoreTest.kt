@@ -0,0 +1,63 @@
+package fr.free.nrw.commons.media
+
+import com.google.gson.Gson
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import fr.free.nrw.commons.kvstore.KeyValueStore
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+/**
+ * Test cases for ContinuationStore
+ */
+class ContinuationStoreTest {
+
+    private val gson = Gson()
+
+    /**
+     * Test method to verify the least recently used list is evicted once the store is full
+     */
+    @Test
+    fun evictsLeastRecentlyUsed() {
+        val store = ContinuationStore(2, null, gson)
+        store.put("category_A", mapOf("gcmcontinue" to "a"))
+        store.put("category_B", mapOf("gcmcontinue" to "b"))
+        store.get("category_A")
+        store.put("category_C", mapOf("gcmcontinue" to "c"))
+
+        assertEquals(mapOf("gcmcontinue" to "a"), store.get("category_A"))
+        assertNull(store.get("category_B"))
+        assertEquals(mapOf("gcmcontinue" to "c"), store.get("category_C"))
+    }
+
+    /**
+     * Test method to verify a list loaded to the end starts again from its first page
+     */
+    @Test
+    fun forgetsFinishedLists() {
+        val store = ContinuationStore(2, null, gson)
+        store.put("search_A", mapOf("gsroffset" to "10"))
+        store.put("search_A", null)
+
+        assertNull(store.get("search_A"))
+    }
+
+    /**
+     * Test method to verify continuations are read from and written to the persistent store
+     */
+    @Test
+    fun persistsContinuations() {
+        val kvStore = mock<KeyValueStore>()
+        whenever(kvStore.getString("media_list_continuations"))
+                .thenReturn("{\"category_A\":{\"gcmcontinue\":\"a\"}}")
+        val store = ContinuationStore(2, kvStore, gson)
+
+        assertEquals(mapOf("gcmcontinue" to "a"), store.get("category_A"))
+        store.put("category_B", mapOf("gcmcontinue" to "b"))
+
+        verify(kvStore).putString("media_list_continuations",
+                "{\"category_A\":{\"gcmcontinue\":\"a\"},\"category_B\":{\"gcmcontinue\":\"b\"}}")
+    }
+}
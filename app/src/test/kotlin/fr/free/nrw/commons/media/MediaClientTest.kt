@@ -197,6 +197,31 @@ class MediaClientTest {
         assertEquals(media2.filename, "Test")
     }
 
+    @Test
+    fun getMediaListFromCategoryAfterReset() {
+        val imageInfo = ImageInfo()
+
+        val mwQueryPage = mock(MwQueryPage::class.java)
+        `when`(mwQueryPage.title()).thenReturn("Test")
+        `when`(mwQueryPage.imageInfo()).thenReturn(imageInfo)
+
+        val mwQueryResult = mock(MwQueryResult::class.java)
+        `when`(mwQueryResult.pages()).thenReturn(listOf(mwQueryPage))
+
+        val mockResponse = mock(MwQueryResponse::class.java)
+        `when`(mockResponse.query()).thenReturn(mwQueryResult)
+        `when`(mockResponse.continuation()).thenReturn(mapOf(Pair("gcmcontinue", "test")))
+
+        `when`(mediaInterface!!.getMediaListFromCategory(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(),
+                continuationCaptor!!.capture()))
+                .thenReturn(Observable.just(mockResponse))
+        mediaClient!!.getMediaListFromCategory("abcde").blockingGet()
+        mediaClient!!.resetMediaListFromCategory("abcde")
+        mediaClient!!.getMediaListFromCategory("abcde").blockingGet()
+
+        assertEquals(continuationCaptor.allValues[1], emptyMap<String, String>())
+    }
+
     @Test
     fun getPageHtmlTest() {
         val mwParseResult = mock(MwParseResult::class.java)
@@ -0,0 +1,51 @@
+package fr.free.nrw.commons.media
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Test cases for ThumbnailResolver
+ */
+class ThumbnailResolverTest {
+
+    private val thumbnails = "https://upload.wikimedia.org/wikipedia/commons/thumb/a/ab/"
+
+    /**
+     * Test method to verify the smallest width covering the view is picked, or the one below it on
+     * devices with little memory
+     */
+    @Test
+    fun thumbnailWidth() {
+        assertEquals(120, ThumbnailResolver.getThumbnailWidth(100, 256))
+        assertEquals(500, ThumbnailResolver.getThumbnailWidth(360, 256))
+        assertEquals(640, ThumbnailResolver.getThumbnailWidth(600, 256))
+        assertEquals(640, ThumbnailResolver.getThumbnailWidth(1440, 256))
+        assertEquals(330, ThumbnailResolver.getThumbnailWidth(360, 48))
+        assertEquals(500, ThumbnailResolver.getThumbnailWidth(500, 48))
+        assertEquals(120, ThumbnailResolver.getThumbnailWidth(100, 48))
+    }
+
+    /**
+     * Test method to verify the width in the URL of a thumbnail is replaced
+     */
+    @Test
+    fun resizesThumbnails() {
+        assertEquals(thumbnails + "Example_2019.jpg/330px-Example_2019.jpg",
+                ThumbnailResolver.resize(thumbnails + "Example_2019.jpg/640px-Example_2019.jpg", 330))
+        assertEquals(thumbnails + "Example.pdf/page1-500px-Example.pdf.jpg",
+                ThumbnailResolver.resize(thumbnails + "Example.pdf/page1-640px-Example.pdf.jpg", 500))
+        assertEquals(thumbnails + "Example.webm/250px--Example.webm.jpg",
+                ThumbnailResolver.resize(thumbnails + "Example.webm/640px--Example.webm.jpg", 250))
+    }
+
+    /**
+     * Test method to verify thumbnails are not made larger, and originals are kept
+     */
+    @Test
+    fun keepsOtherUrls() {
+        val thumbnail = thumbnails + "Example.jpg/330px-Example.jpg"
+        assertEquals(thumbnail, ThumbnailResolver.resize(thumbnail, 500))
+        val original = "https://upload.wikimedia.org/wikipedia/commons/a/ab/Example.jpg"
+        assertEquals(original, ThumbnailResolver.resize(original, 250))
+    }
+}
@@ -0,0 +1,105 @@
+package fr.free.nrw.commons.media
+
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import io.reactivex.Observable
+import io.reactivex.Single
+import io.reactivex.schedulers.TestScheduler
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.wikipedia.dataclient.mwapi.MwQueryPage
+import org.wikipedia.dataclient.mwapi.MwQueryResponse
+import org.wikipedia.dataclient.mwapi.MwQueryResult
+import java.util.concurrent.TimeUnit
+
+/**
+ * Test cases for TitleBatcher
+ */
+class TitleBatcherTest {
+
+    private val scheduler = TestScheduler()
+    private val queries = mutableListOf<String>()
+    private val fallbacks = mutableListOf<String>()
+
+    private val batcher = TitleBatcher<String>(
+            { titles ->
+                queries.add(titles)
+                Observable.just(response("File:A b.jpg", "File:C.jpg"))
+            },
+            { page -> "page ${page.title()}" },
+            { title ->
+                fallbacks.add(title)
+                Single.just("alone $title")
+            },
+            scheduler)
+
+    /**
+     * Test method to verify titles requested within the window are queried together, and the
+     * title which is not in the response is queried alone
+     */
+    @Test
+    fun queriesTitlesTogether() {
+        val first = batcher.get("File:A_b.jpg").test()
+        val second = batcher.get("File:C.jpg").test()
+        val missing = batcher.get("File:Missing.jpg").test()
+        val duplicate = batcher.get("File:C.jpg").test()
+
+        scheduler.advanceTimeBy(TitleBatcher.WINDOW_MILLIS, TimeUnit.MILLISECONDS)
+
+        assertEquals("page File:A b.jpg", first.await().values()[0])
+        assertEquals("page File:C.jpg", second.await().values()[0])
+        assertEquals("page File:C.jpg", duplicate.await().values()[0])
+        assertEquals("alone File:Missing.jpg", missing.await().values()[0])
+        assertEquals(listOf("File:A_b.jpg|File:C.jpg|File:Missing.jpg"), queries)
+        assertEquals(listOf("File:Missing.jpg"), fallbacks)
+    }
+
+    /**
+     * Test method to verify the titles of disposed requests are dropped from the batch
+     */
+    @Test
+    fun dropsDisposedRequests() {
+        batcher.get("File:Missing.jpg").test().dispose()
+        val kept = batcher.get("File:C.jpg").test()
+        batcher.get("File:Other.jpg").test().dispose()
+
+        scheduler.advanceTimeBy(TitleBatcher.WINDOW_MILLIS, TimeUnit.MILLISECONDS)
+
+        assertEquals("page File:C.jpg", kept.await().values()[0])
+        assertEquals(listOf("File:C.jpg"), queries)
+        assertEquals(emptyList<String>(), fallbacks)
+    }
+
+    /**
+     * Test method to verify no query is made once every request of the batch is disposed
+     */
+    @Test
+    fun skipsBatchesWithoutRequests() {
+        batcher.get("File:C.jpg").test().dispose()
+
+        scheduler.advanceTimeBy(TitleBatcher.WINDOW_MILLIS, TimeUnit.MILLISECONDS)
+
+        assertEquals(emptyList<String>(), queries)
+    }
+
+    /**
+     * Test method to verify titles are normalised like MediaWiki does
+     */
+    @Test
+    fun normalizesTitles() {
+        assertEquals("File:Example image.jpg", TitleBatcher.normalize("file:example_image.jpg"))
+        assertEquals("Commons:Deletion requests/File:A.jpg",
+                TitleBatcher.normalize("Commons:Deletion_requests/File:A.jpg"))
+    }
+
+    private fun response(vararg titles: String): MwQueryResponse {
+        val pages = titles.map { title ->
+            mock<MwQueryPage>().also { whenever(it.title()).thenReturn(title) }
+        }
+        val result = mock<MwQueryResult>()
+        whenever(result.pages()).thenReturn(pages)
+        val response = mock<MwQueryResponse>()
+        whenever(response.query()).thenReturn(result)
+        return response
+    }
+}
@@ -0,0 +1,78 @@
+package fr.free.nrw.commons.mwapi
+
+import com.google.gson.Gson
+import com.google.gson.JsonArray
+import com.google.gson.JsonParser
+import fr.free.nrw.commons.nearby.model.NearbyResponse
+import fr.free.nrw.commons.nearby.model.NearbyResponseTypeAdapter
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import org.wikipedia.json.GsonUtil
+import java.io.File
+import java.lang.management.ManagementFactory
+import java.util.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmark of the parsing of nearby responses with the reflective Gson adapters and with the
+ * streaming adapter, including the first parse, which sets the reflective adapters up. Prints
+ * the time and allocations of each parse.
+ *
+ * The bindings of the recorded response are repeated to the given count. Skipped unless
+ * enabled, e.g.
+ * ./gradlew testProdDebugUnitTest --tests '*GsonBenchmark*' -Dbenchmark.nearbyBindings=2000
+ */
+class GsonBenchmark {
+
+    private val bindings = Integer.getInteger("benchmark.nearbyBindings", 0)
+    private val iterations = Integer.getInteger("benchmark.gsonIterations", 50)
+
+    @Test
+    fun parseNearbyResponse() {
+        assumeTrue("Set -Dbenchmark.nearbyBindings=N to run the Gson benchmark", bindings > 0)
+        val json = nearbyResponse(bindings)
+        println(String.format(Locale.ROOT, "Gson benchmark: %d bindings, %d KB, %d iterations",
+                bindings, json.length / 1024, iterations))
+
+        measure("reflective", GsonUtil.getDefaultGson(), json)
+        measure("streaming", GsonUtil.getDefaultGson().newBuilder()
+                .registerTypeAdapter(NearbyResponse::class.java, NearbyResponseTypeAdapter().nullSafe())
+                .create(), json)
+    }
+
+    private fun measure(label: String, gson: Gson, json: String) {
+        val firstStart = System.nanoTime()
+        gson.fromJson(json, NearbyResponse::class.java)
+        val firstMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - firstStart)
+
+        val allocatedBefore = allocatedBytes()
+        val start = System.nanoTime()
+        for (i in 0 until iterations) {
+            gson.fromJson(json, NearbyResponse::class.java)
+        }
+        val micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)
+        val allocated = allocatedBytes() - allocatedBefore
+
+        println(String.format(Locale.ROOT,
+                "  %s: first parse %d us, then %.1f us and %d KB allocated per parse, %.1f MB/s",
+                label, firstMicros, micros.toDouble() / iterations,
+                allocated / iterations / 1024, json.length * iterations / micros.toDouble()))
+    }
+
+    private fun nearbyResponse(count: Int): String {
+        val response = JsonParser().parse(File(ResponseTypeAdaptersTest.NEARBY_RESPONSE_PATH).readText())
+                .asJsonObject
+        val recorded = response.getAsJsonObject("results").getAsJsonArray("bindings")
+        val repeated = JsonArray()
+        for (i in 0 until count) {
+            repeated.add(recorded[i % recorded.size()].deepCopy())
+        }
+        response.getAsJsonObject("results").add("bindings", repeated)
+        return response.toString()
+    }
+
+    private fun allocatedBytes(): Long {
+        val bean = ManagementFactory.getThreadMXBean() as? com.sun.management.ThreadMXBean
+        return bean?.getThreadAllocatedBytes(Thread.currentThread().id) ?: 0
+    }
+}
@@ -0,0 +1,84 @@
+package fr.free.nrw.commons.mwapi
+
+import fr.free.nrw.commons.achievements.FeedbackResponse
+import fr.free.nrw.commons.achievements.FeedbackResponseTypeAdapter
+import fr.free.nrw.commons.campaigns.CampaignResponseDTO
+import fr.free.nrw.commons.campaigns.CampaignResponseTypeAdapter
+import fr.free.nrw.commons.nearby.model.NearbyResponse
+import fr.free.nrw.commons.nearby.model.NearbyResponseTypeAdapter
+import fr.free.nrw.commons.wikidata.model.GetWikidataEditCountResponseTypeAdapter
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import org.wikipedia.json.GsonUtil
+import java.io.File
+
+/**
+ * Test cases verifying the streaming adapters read responses like the reflective ones
+ */
+class ResponseTypeAdaptersTest {
+
+    private val reflective = GsonUtil.getDefaultGson()
+
+    /**
+     * Test method to verify every binding of a nearby response is read the same way
+     */
+    @Test
+    fun readsNearbyResponse() {
+        val json = File(NEARBY_RESPONSE_PATH).readText()
+
+        val expected = reflective.fromJson(json, NearbyResponse::class.java)
+        val actual = NearbyResponseTypeAdapter().fromJson(json)
+
+        assertEquals(flatten(expected), flatten(actual))
+    }
+
+    /**
+     * Test method to verify achievements are read, missing fields being 0
+     */
+    @Test
+    fun readsFeedbackResponse() {
+        val json = """{"status":"ok","uniqueUsedImages":5,"articlesUsingImages":"7",""" +
+                """"featuredImages":{"Quality_images":2,"Featured_pictures_on_Wikimedia_Commons":1},""" +
+                """"thanksReceived":3,"user":"Example","unknown":[1,2]}"""
+
+        val expected = reflective.fromJson(json, FeedbackResponse::class.java)
+        val actual = FeedbackResponseTypeAdapter().fromJson(json)
+
+        assertEquals(flatten(expected), flatten(actual))
+    }
+
+    /**
+     * Test method to verify campaigns and the edit count are read
+     */
+    @Test
+    fun readsCampaignsAndEditCount() {
+        val json = """{"config":{"showOnlyLiveCampaigns":true,"sortBy":"startDate"},""" +
+                """"campaigns":[{"title":"Wiki Loves Monuments","link":"https://example.org",""" +
+                """"startDate":"2019-09-01","endDate":null}]}"""
+
+        val campaigns = CampaignResponseTypeAdapter().fromJson(json).campaigns
+
+        assertEquals(1, campaigns.size)
+        assertEquals("Wiki Loves Monuments", campaigns[0].title)
+        assertEquals("2019-09-01", campaigns[0].startDate)
+        assertNull(campaigns[0].endDate)
+        assertEquals(42, GetWikidataEditCountResponseTypeAdapter()
+                .fromJson("""{"edits":42,"user":"Example"}""").wikidataEditCount)
+    }
+
+    private fun flatten(response: NearbyResponse) = response.results.bindings.map {
+        listOf(it.item, it.wikipediaArticle, it.commonsArticle, it.location, it.label, it.icon,
+                it.className, it.classLabel, it.commonsCategory).map { tuple -> "${tuple.type}:${tuple.value}" }
+    }
+
+    private fun flatten(response: FeedbackResponse) = listOf(response.status,
+            response.uniqueUsedImages, response.articlesUsingImages, response.deletedUploads,
+            response.featuredImages.qualityImages,
+            response.featuredImages.featuredPicturesOnWikimediaCommons, response.thanksReceived,
+            response.user, response.imagesEditedBySomeoneElse)
+
+    companion object {
+        const val NEARBY_RESPONSE_PATH = "src/test/data/nearby_response.json"
+    }
+}
@@ -1,11 +1,13 @@
 package fr.free.nrw.commons.mwapi
 
 import io.reactivex.Observable
+import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
 import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.mockito.*
+import org.wikipedia.dataclient.mwapi.MwQueryLogEvent
 import org.wikipedia.dataclient.mwapi.MwQueryPage
 import org.wikipedia.dataclient.mwapi.MwQueryResponse
 import org.wikipedia.dataclient.mwapi.MwQueryResult
@@ -74,4 +76,39 @@ class UserClientTest{
         assertFalse(isBanned)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun logEventsFollowsContinuation() {
+        val since = Date()
+        val end = DateUtil.iso8601DateFormat(since)
+        val firstEvent = Mockito.mock(MwQueryLogEvent::class.java)
+        val secondEvent = Mockito.mock(MwQueryLogEvent::class.java)
+        val continuation = mapOf("lecontinue" to "20190101000000|1", "continue" to "-||")
+        Mockito.`when`(userInterface!!.getUserLogEvents("user", null, end, emptyMap()))
+                .thenReturn(Observable.just(logEventsResponse(firstEvent, continuation)))
+        Mockito.`when`(userInterface!!.getUserLogEvents("user", null, end, continuation))
+                .thenReturn(Observable.just(logEventsResponse(secondEvent, null)))
+
+        val events = userClient!!.logEvents("user", null, since).toList().blockingGet()
+        assertEquals(listOf(firstEvent, secondEvent), events)
+    }
+
+    @Test
+    fun logEventsStopsPagingWhenConsumerStops() {
+        val firstEvent = Mockito.mock(MwQueryLogEvent::class.java)
+        val continuation = mapOf("lecontinue" to "20190101000000|1")
+        Mockito.`when`(userInterface!!.getUserLogEvents("user", null, null, emptyMap()))
+                .thenReturn(Observable.just(logEventsResponse(firstEvent, continuation)))
+
+        userClient!!.logEvents("user", null, null).take(1).blockingFirst()
+        Mockito.verify(userInterface, Mockito.never())!!.getUserLogEvents("user", null, null, continuation)
+    }
+
+    private fun logEventsResponse(event: MwQueryLogEvent, continuation: Map<String, String>?): MwQueryResponse {
+        val mwQueryResult = Mockito.mock(MwQueryResult::class.java)
+        Mockito.`when`(mwQueryResult.logevents()).thenReturn(listOf(event))
+        val mockResponse = Mockito.mock(MwQueryResponse::class.java)
+        Mockito.`when`(mockResponse.query()).thenReturn(mwQueryResult)
+        Mockito.`when`(mockResponse.continuation()).thenReturn(continuation)
+        return mockResponse
+    }
+}
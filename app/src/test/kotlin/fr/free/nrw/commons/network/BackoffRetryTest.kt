@@ -0,0 +1,77 @@
+package fr.free.nrw.commons.network
+
+import io.reactivex.Single
+import io.reactivex.schedulers.TestScheduler
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.IOException
+import java.net.SocketTimeoutException
+import java.net.UnknownHostException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Test cases for BackoffRetry
+ */
+class BackoffRetryTest {
+
+    private val scheduler = TestScheduler()
+
+    /**
+     * Test method to verify transient failures are retried after a delay, until one succeeds
+     */
+    @Test
+    fun retriesTransientFailures() {
+        var attempts = 0
+        val observer = Single.fromCallable {
+            if (++attempts < 3) throw SocketTimeoutException()
+            "result"
+        }.compose(BackoffRetry.single(2, scheduler)).test()
+
+        assertEquals(1, attempts)
+        scheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+
+        assertEquals(3, attempts)
+        observer.assertValue("result")
+    }
+
+    /**
+     * Test method to verify the error is passed on once the retries are used up
+     */
+    @Test
+    fun givesUpAfterMaxRetries() {
+        var attempts = 0
+        val observer = Single.fromCallable<String> {
+            attempts++
+            throw IOException()
+        }.compose(BackoffRetry.single(2, scheduler)).test()
+
+        scheduler.advanceTimeBy(1, TimeUnit.MINUTES)
+
+        assertEquals(3, attempts)
+        observer.assertError(IOException::class.java)
+    }
+
+    /**
+     * Test method to verify failures which would fail again are not retried
+     */
+    @Test
+    fun doesNotRetryPermanentFailures() {
+        assertTrue(!BackoffRetry.isTransient(UnknownHostException()))
+        assertTrue(!BackoffRetry.isTransient(CircuitOpenException("query.wikidata.org")))
+        assertTrue(!BackoffRetry.isTransient(IllegalStateException()))
+        assertTrue(BackoffRetry.isTransient(SocketTimeoutException()))
+    }
+
+    /**
+     * Test method to verify the delays grow exponentially, with jitter, up to a maximum
+     */
+    @Test
+    fun delaysGrowWithJitter() {
+        for (i in 0 until 100) {
+            assertTrue(BackoffRetry.delayMillis(1) in 250..500)
+            assertTrue(BackoffRetry.delayMillis(3) in 1000..2000)
+            assertTrue(BackoffRetry.delayMillis(20) in 4000..8000)
+        }
+    }
+}
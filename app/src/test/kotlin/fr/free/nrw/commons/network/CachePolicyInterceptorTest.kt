@@ -0,0 +1,126 @@
+package fr.free.nrw.commons.network
+
+import fr.free.nrw.commons.TestCommonsApplication
+import okhttp3.Cache
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+import java.nio.file.Files
+
+/**
+ * Test cases for CachePolicyInterceptor and its ResponseHeaderInterceptor, against a MockWebServer
+ * which marks its responses as not to be cached, like MediaWiki
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class CachePolicyInterceptorTest {
+
+    private val server = MockWebServer()
+    private val cacheDirectory = Files.createTempDirectory("http-cache").toFile()
+    private lateinit var client: OkHttpClient
+
+    @Before
+    fun setUp() {
+        server.start()
+        client = OkHttpClient.Builder()
+                .cache(Cache(cacheDirectory, 1024 * 1024))
+                .addInterceptor(CachePolicyInterceptor(RuntimeEnvironment.application))
+                .addNetworkInterceptor(CachePolicyInterceptor.ResponseHeaderInterceptor())
+                .build()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        cacheDirectory.deleteRecursively()
+    }
+
+    /**
+     * Test method to verify the cache headers of the response are replaced by the policy, and the
+     * policy header is not sent
+     */
+    @Test
+    fun rewritesResponseHeaders() {
+        server.enqueue(uncacheableResponse("fresh"))
+
+        val response = client.newCall(request(POLICY)).execute()
+
+        assertEquals(CachePolicy.parse(POLICY)!!.toCacheControl(), response.header("Cache-Control"))
+        assertNull(response.header("Pragma"))
+        assertNull(response.header("Expires"))
+        response.close()
+        assertNull(server.takeRequest().getHeader(CachePolicy.HEADER))
+    }
+
+    /**
+     * Test method to verify a fresh response is served from the cache without a request
+     */
+    @Test
+    fun servesCacheHits() {
+        server.enqueue(uncacheableResponse("fresh"))
+        client.newCall(request(POLICY)).execute().close()
+
+        val response = client.newCall(request(POLICY)).execute()
+
+        assertEquals("fresh", response.body!!.string())
+        assertNotNull(response.cacheResponse)
+        assertNull(response.networkResponse)
+        assertEquals(1, server.requestCount)
+    }
+
+    /**
+     * Test method to verify a stale response is served when the server fails, within stale-if-error
+     */
+    @Test
+    fun servesStaleResponsesOnError() {
+        val policy = "max-age=0, stale-while-revalidate=0, stale-if-error=3600"
+        server.enqueue(uncacheableResponse("stale"))
+        server.enqueue(MockResponse().setResponseCode(503))
+        client.newCall(request(policy)).execute().close()
+
+        val response = client.newCall(request(policy)).execute()
+
+        assertEquals(200, response.code)
+        assertEquals("stale", response.body!!.string())
+        assertEquals(2, server.requestCount)
+    }
+
+    /**
+     * Test method to verify server errors are returned when there is nothing cached to serve
+     */
+    @Test
+    fun returnsErrorsWithoutCachedResponse() {
+        server.enqueue(MockResponse().setResponseCode(503))
+
+        val response = client.newCall(request(POLICY)).execute()
+
+        assertEquals(503, response.code)
+        response.close()
+    }
+
+    private fun request(policy: String) = Request.Builder()
+            .url(server.url("/w/api.php?action=query"))
+            .header(CachePolicy.HEADER, policy)
+            .build()
+
+    private fun uncacheableResponse(body: String) = MockResponse()
+            .setBody(body)
+            .addHeader("Cache-Control", "private, must-revalidate, max-age=0")
+            .addHeader("Pragma", "no-cache")
+            .addHeader("Expires", "Thu, 01 Jan 1970 00:00:00 GMT")
+
+    companion object {
+        private const val POLICY = "max-age=600, stale-while-revalidate=86400, stale-if-error=604800"
+    }
+}
@@ -0,0 +1,34 @@
+package fr.free.nrw.commons.network
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+/**
+ * Test cases for CachePolicy
+ */
+class CachePolicyTest {
+
+    /**
+     * Test method to verify the directives of the header constants are parsed
+     */
+    @Test
+    fun parsesDirectives() {
+        val policy = CachePolicy.parse(CachePolicy.MEDIA.substringAfter(": "))!!
+
+        assertEquals(600, policy.maxAgeSeconds)
+        assertEquals(86400, policy.staleWhileRevalidateSeconds)
+        assertEquals(604800, policy.staleIfErrorSeconds)
+        assertEquals("public, max-age=600, stale-while-revalidate=86400, stale-if-error=604800",
+                policy.toCacheControl())
+    }
+
+    /**
+     * Test method to verify a value without max-age is not a policy
+     */
+    @Test
+    fun requiresMaxAge() {
+        assertNull(CachePolicy.parse("stale-if-error=60, no-cache"))
+        assertNull(CachePolicy.parse(null))
+    }
+}
@@ -0,0 +1,53 @@
+package fr.free.nrw.commons.network
+
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+/**
+ * Test cases for CircuitBreaker
+ */
+class CircuitBreakerTest {
+
+    private var now = 0L
+    private val circuitBreaker = object : CircuitBreaker(2, 1000) {
+        override fun now() = this@CircuitBreakerTest.now
+    }
+
+    /**
+     * Test method to verify requests stop after consecutive failures and one is let through later
+     */
+    @Test
+    fun opensAfterFailuresAndTriesAgainLater() {
+        fail()
+        fail()
+        assertFalse(circuitBreaker.allowRequest())
+
+        now = 1000
+        assertTrue(circuitBreaker.allowRequest())
+        assertFalse(circuitBreaker.allowRequest())
+        circuitBreaker.onOutcome(CircuitBreaker.Outcome.SUCCESS)
+
+        assertTrue(circuitBreaker.allowRequest())
+    }
+
+    /**
+     * Test method to verify a failed trial request stops requests again
+     */
+    @Test
+    fun failedTrialOpensAgain() {
+        fail()
+        fail()
+        now = 1000
+        fail()
+
+        assertFalse(circuitBreaker.allowRequest())
+        now = 2000
+        assertTrue(circuitBreaker.allowRequest())
+    }
+
+    private fun fail() {
+        assertTrue(circuitBreaker.allowRequest())
+        circuitBreaker.onOutcome(CircuitBreaker.Outcome.FAILURE)
+    }
+}
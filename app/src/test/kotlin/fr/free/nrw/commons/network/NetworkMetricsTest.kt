@@ -0,0 +1,39 @@
+package fr.free.nrw.commons.network
+
+import okhttp3.HttpUrl.Companion.toHttpUrl
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+/**
+ * Test cases for NetworkMetrics and the path templates of NetworkMetricsInterceptor
+ */
+class NetworkMetricsTest {
+
+    /**
+     * Test method to verify the oldest records are overwritten once the buffer is full
+     */
+    @Test
+    fun keepsLatestRecordsOldestFirst() {
+        val metrics = NetworkMetrics(2)
+        metrics.add(record("/a"))
+        metrics.add(record("/b"))
+        metrics.add(record("/c"))
+
+        assertEquals(listOf("/b", "/c"), metrics.records.map { it.pathTemplate })
+    }
+
+    /**
+     * Test method to verify ids and names are replaced and API modules are kept
+     */
+    @Test
+    fun pathTemplateHidesIdsAndNames() {
+        val url = ("https://commons.wikimedia.org/w/api.php/123/File:Example.jpg"
+                + "?action=query&prop=imageinfo&titles=File:Example.jpg").toHttpUrl()
+
+        assertEquals("/w/api.php/{id}/{name}?action=query&prop=imageinfo",
+                NetworkMetricsInterceptor.pathTemplate(url))
+    }
+
+    private fun record(path: String) =
+            NetworkMetrics.Record("GET", "example.org", path, 200, 0, 0, 0, 0)
+}
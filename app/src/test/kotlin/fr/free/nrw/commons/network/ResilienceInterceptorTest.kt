@@ -0,0 +1,76 @@
+package fr.free.nrw.commons.network
+
+import fr.free.nrw.commons.TestCommonsApplication
+import okhttp3.Cache
+import okhttp3.CacheControl
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.nio.file.Files
+
+/**
+ * Test cases for ResilienceInterceptor
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class ResilienceInterceptorTest {
+
+    private val server = MockWebServer()
+    private val cacheDirectory = Files.createTempDirectory("http-cache").toFile()
+    private lateinit var client: OkHttpClient
+
+    @Before
+    fun setUp() {
+        server.start()
+        client = OkHttpClient.Builder()
+                .cache(Cache(cacheDirectory, 1024 * 1024))
+                .addInterceptor(ResilienceInterceptor.Builder()
+                        .setCircuitBreaker(server.hostName, 1, 60)
+                        .build())
+                .build()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        cacheDirectory.deleteRecursively()
+    }
+
+    /**
+     * Test method to verify cache misses of requests only for the cache do not open the circuit
+     */
+    @Test
+    fun cacheMissesAreNotFailures() {
+        val cacheOnly = Request.Builder()
+                .url(server.url("/"))
+                .cacheControl(CacheControl.FORCE_CACHE)
+                .build()
+        client.newCall(cacheOnly).execute().use { assertEquals(504, it.code) }
+        client.newCall(cacheOnly).execute().use { assertEquals(504, it.code) }
+
+        server.enqueue(MockResponse().setBody("ok"))
+        client.newCall(Request.Builder().url(server.url("/")).build()).execute().use {
+            assertEquals("ok", it.body!!.string())
+        }
+    }
+
+    /**
+     * Test method to verify server errors open the circuit
+     */
+    @Test(expected = CircuitOpenException::class)
+    fun serverErrorsAreFailures() {
+        server.enqueue(MockResponse().setResponseCode(503))
+        val request = Request.Builder().url(server.url("/")).build()
+        client.newCall(request).execute().close()
+
+        client.newCall(request).execute()
+    }
+}
@@ -1,5 +1,7 @@
 package fr.free.nrw.commons.upload
 
+import com.nhaarman.mockito_kotlin.argumentCaptor
+import com.nhaarman.mockito_kotlin.times
 import com.nhaarman.mockito_kotlin.verify
 import fr.free.nrw.commons.category.CategoryItem
 import fr.free.nrw.commons.repository.UploadRepository
@@ -7,6 +9,7 @@ import fr.free.nrw.commons.upload.categories.CategoriesContract
 import fr.free.nrw.commons.upload.categories.CategoriesPresenter
 import io.reactivex.Observable
 import io.reactivex.schedulers.TestScheduler
+import org.junit.Assert.assertFalse
 import org.junit.Before
 import org.junit.Test
 import org.mockito.ArgumentMatchers
@@ -67,6 +70,30 @@ class CategoriesPresenterTest {
         verify(view)?.showProgress(false)
     }
 
+    /**
+     * unit test case to verify the categories found again for a query are not those selected
+     * in the results shown before
+     */
+    @Test
+    fun searchForCategoriesAgainTest() {
+        Mockito.`when`(repository?.sortBySimilarity(ArgumentMatchers.anyString())).thenReturn(Comparator<CategoryItem> { _, _ -> 1 })
+        Mockito.`when`(repository?.selectedCategories).thenReturn(ArrayList())
+        Mockito.`when`(repository?.searchAll(ArgumentMatchers.anyString(), ArgumentMatchers.anyList()))
+                .thenReturn(Observable.just(CategoryItem("Test", false)))
+        val shown = argumentCaptor<List<CategoryItem>>()
+
+        categoriesPresenter?.searchForCategories("test")
+        testScheduler?.triggerActions()
+        verify(view, times(2))?.setCategories(shown.capture())
+        shown.lastValue[0].isSelected = true
+        categoriesPresenter?.searchForCategories("test")
+        testScheduler?.triggerActions()
+
+        verify(view, times(4))?.setCategories(shown.capture())
+        assertFalse(shown.lastValue[0].isSelected)
+        verify(repository, times(1))?.searchAll(ArgumentMatchers.anyString(), ArgumentMatchers.anyList())
+    }
+
     /**
      * unit test for method CategoriesPresenter.verifyCategories
      */
@@ -77,7 +77,7 @@ class u {
                 .thenReturn("fileSha")
         `when`(mediaClient!!.checkFileExistsUsingSha(ArgumentMatchers.anyString()))
                 .thenReturn(Single.just(false))
-        `when`(mediaClient?.checkPageExistsUsingTitle(ArgumentMatchers.anyString()))
+        `when`(mediaClient?.checkPageExistsUnbatched(ArgumentMatchers.anyString()))
                 .thenReturn(Single.just(false))
         `when`(readFBMD?.processMetadata(ArgumentMatchers.any()))
                 .thenReturn(Single.just(ImageUtils.IMAGE_OK))
@@ -124,7 +124,7 @@ class u {
 
     @Test
     fun validateImageForFileNameExistsWithCheckTitleOff() {
-        `when`(mediaClient?.checkPageExistsUsingTitle(ArgumentMatchers.anyString()))
+        `when`(mediaClient?.checkPageExistsUnbatched(ArgumentMatchers.anyString()))
                 .thenReturn(Single.just(true))
         val validateImage = imageProcessingService!!.validateImage(uploadItem, false)
         assertEquals(ImageUtils.IMAGE_OK, validateImage.blockingGet())
@@ -132,7 +132,7 @@ class u {
 
     @Test
     fun validateImageForFileNameExistsWithCheckTitleOn() {
-        `when`(mediaClient?.checkPageExistsUsingTitle(ArgumentMatchers.anyString()))
+        `when`(mediaClient?.checkPageExistsUnbatched(ArgumentMatchers.anyString()))
                 .thenReturn(Single.just(true))
         val validateImage = imageProcessingService!!.validateImage(uploadItem, true)
         assertEquals(ImageUtils.FILE_NAME_EXISTS, validateImage.blockingGet())
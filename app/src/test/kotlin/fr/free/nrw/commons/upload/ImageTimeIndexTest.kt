@@ -0,0 +1,93 @@
+package fr.free.nrw.commons.upload
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.nio.file.Files
+
+/**
+ * Test cases for ImageTimeIndex
+ */
+class ImageTimeIndexTest {
+
+    private lateinit var folder: File
+    private lateinit var indexDirectory: File
+
+    @Before
+    fun setUp() {
+        folder = Files.createTempDirectory("images").toFile()
+        indexDirectory = Files.createTempDirectory("index").toFile()
+    }
+
+    @After
+    fun tearDown() {
+        folder.deleteRecursively()
+        indexDirectory.deleteRecursively()
+    }
+
+    /**
+     * Test method to verify only files within the window are returned, in time order
+     */
+    @Test
+    fun findFilesModifiedAround() {
+        val base = 1_500_000_000_000L
+        val image = createFile("image.jpg", base)
+        createFile("later.jpg", base + 100_000)
+        createFile("earlier.jpg", base - 60_000)
+        createFile("old.jpg", base - 121_000)
+        createFile("new.jpg", base + 200_000)
+
+        val files = ImageTimeIndex(indexDirectory).findFilesModifiedAround(image, 120_000)
+
+        assertEquals(listOf("earlier.jpg", "later.jpg"), files.map { it.name })
+    }
+
+    /**
+     * Test method to verify the persisted index is used until the folder changes
+     */
+    @Test
+    fun indexIsPersistedAndInvalidated() {
+        val base = 1_500_000_000_000L
+        val image = createFile("image.jpg", base)
+        createFile("other.jpg", base + 1_000)
+        folder.setLastModified(base)
+        ImageTimeIndex(indexDirectory).findFilesModifiedAround(image, 120_000)
+        assertEquals(1, indexDirectory.listFiles()!!.size)
+
+        createFile("added.jpg", base + 2_000)
+        folder.setLastModified(base + 10_000)
+        val files = ImageTimeIndex(indexDirectory).findFilesModifiedAround(image, 120_000)
+
+        assertEquals(listOf("other.jpg", "added.jpg"), files.map { it.name })
+    }
+
+    /**
+     * Test method to verify files edited in place are checked against their entries, although the
+     * folder did not change
+     */
+    @Test
+    fun filesEditedInPlaceAreUpdated() {
+        val base = 1_500_000_000_000L
+        val image = createFile("image.jpg", base)
+        val other = createFile("other.jpg", base + 1_000)
+        createFile("later.jpg", base + 2_000)
+        folder.setLastModified(base)
+        ImageTimeIndex(indexDirectory).findFilesModifiedAround(image, 120_000)
+
+        other.writeText("edited")
+        other.setLastModified(base + 500_000)
+        folder.setLastModified(base)
+        val files = ImageTimeIndex(indexDirectory).findFilesModifiedAround(image, 120_000)
+
+        assertEquals(listOf("later.jpg"), files.map { it.name })
+    }
+
+    private fun createFile(name: String, lastModified: Long): File {
+        val file = File(folder, name)
+        file.writeText(name)
+        file.setLastModified(lastModified)
+        return file
+    }
+}
@@ -0,0 +1,142 @@
+package fr.free.nrw.commons.upload
+
+import android.graphics.Bitmap
+import androidx.exifinterface.media.ExifInterface
+import com.nhaarman.mockito_kotlin.mock
+import fr.free.nrw.commons.TestCommonsApplication
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import org.robolectric.annotation.Implementation
+import org.robolectric.annotation.Implements
+import org.robolectric.annotation.RealObject
+import org.robolectric.shadows.ShadowBitmap
+import org.robolectric.shadows.ShadowBitmapFactory
+import java.awt.image.BufferedImage
+import java.io.File
+import java.io.OutputStream
+import java.nio.file.Files
+import java.util.Random
+import javax.imageio.ImageIO
+
+/**
+ * Test cases for ImageTranscoder
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class,
+        shadows = [ImageTranscoderTest.JpegShadowBitmap::class])
+class ImageTranscoderTest {
+
+    private val tempDirectory = Files.createTempDirectory("transcode").toFile()
+    private val transcodedDirectory = File(tempDirectory, "transcoded")
+    private val transcoder = ImageTranscoder(transcodedDirectory, mock())
+
+    @After
+    fun tearDown() {
+        tempDirectory.deleteRecursively()
+    }
+
+    /**
+     * Test method to verify images are scaled down to the maximum dimension keeping the aspect ratio
+     */
+    @Test
+    fun getTargetSize() {
+        assertArrayEquals(intArrayOf(2048, 1536), ImageTranscoder.getTargetSize(4000, 3000, 2048))
+        assertArrayEquals(intArrayOf(1536, 2048), ImageTranscoder.getTargetSize(3000, 4000, 2048))
+        assertArrayEquals(intArrayOf(1000, 800), ImageTranscoder.getTargetSize(1000, 800, 2048))
+        assertArrayEquals(intArrayOf(4000, 3000), ImageTranscoder.getTargetSize(4000, 3000, 0))
+    }
+
+    /**
+     * Test method to verify the subsampling never decodes smaller than the requested size
+     */
+    @Test
+    fun calculateInSampleSize() {
+        assertEquals(1, ImageTranscoder.calculateInSampleSize(4000, 3000, 3072))
+        assertEquals(1, ImageTranscoder.calculateInSampleSize(4000, 3000, 2048))
+        assertEquals(2, ImageTranscoder.calculateInSampleSize(4096, 3072, 2048))
+        assertEquals(8, ImageTranscoder.calculateInSampleSize(4000, 3000, 256))
+        assertEquals(1, ImageTranscoder.calculateInSampleSize(4000, 3000, 0))
+    }
+
+    /**
+     * Test method to verify a JPEG is written smaller, at the estimated size, with its EXIF tags
+     */
+    @Test
+    fun transcodesJpeg() {
+        val source = createJpeg(File(tempDirectory, "Example.jpg"))
+
+        val transcoded = transcoder.transcode(source, estimate(source))
+
+        assertNotNull(transcoded)
+        assertEquals(transcodedDirectory, transcoded!!.parentFile)
+        assertTrue(transcoded.length() < source.length())
+        val exif = ExifInterface(transcoded.absolutePath)
+        assertEquals("Tester", exif.getAttribute(ExifInterface.TAG_ARTIST))
+        assertEquals("200", exif.getAttribute(ExifInterface.TAG_PIXEL_X_DIMENSION))
+        assertEquals("150", exif.getAttribute(ExifInterface.TAG_PIXEL_Y_DIMENSION))
+    }
+
+    /**
+     * Test method to verify images with the same name from different folders do not overwrite
+     * each other
+     */
+    @Test
+    fun sameNamesDoNotCollide() {
+        val first = createJpeg(File(tempDirectory, "Example.jpg"))
+        val second = createJpeg(File(File(tempDirectory, "other").apply { mkdirs() }, "Example.jpg"))
+
+        val firstTranscoded = transcoder.transcode(first, estimate(first))
+        val secondTranscoded = transcoder.transcode(second, estimate(second))
+
+        assertNotEquals(firstTranscoded, secondTranscoded)
+        assertTrue(firstTranscoded!!.exists())
+        assertTrue(secondTranscoded!!.exists())
+    }
+
+    private fun estimate(source: File) = ImageTranscoder.Estimate(source.length(), 0, 200, 150, 85)
+
+    /**
+     * Writes a 400x300 JPEG of noise, which compresses poorly, so it is much larger than a
+     * transcoded copy, and tags it with an artist
+     */
+    private fun createJpeg(file: File): File {
+        val random = Random(1)
+        val image = BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB)
+        for (x in 0 until image.width) {
+            for (y in 0 until image.height) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF))
+            }
+        }
+        ImageIO.write(image, "jpg", file)
+        ExifInterface(file.absolutePath).apply {
+            setAttribute(ExifInterface.TAG_ARTIST, "Tester")
+            saveAttributes()
+        }
+        ShadowBitmapFactory.provideWidthAndHeightHints(file.absolutePath, 400, 300)
+        return file
+    }
+
+    /**
+     * Robolectric's bitmaps have no pixels, so they are compressed to a plain JPEG of their size
+     */
+    @Implements(Bitmap::class)
+    class JpegShadowBitmap : ShadowBitmap() {
+
+        @RealObject
+        private lateinit var bitmap: Bitmap
+
+        @Implementation
+        override fun compress(format: Bitmap.CompressFormat, quality: Int, stream: OutputStream): Boolean {
+            val image = BufferedImage(bitmap.width, bitmap.height, BufferedImage.TYPE_INT_RGB)
+            return ImageIO.write(image, "jpg", stream)
+        }
+    }
+}
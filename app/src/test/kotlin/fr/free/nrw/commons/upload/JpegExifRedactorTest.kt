@@ -0,0 +1,116 @@
+package fr.free.nrw.commons.upload
+
+import androidx.exifinterface.media.ExifInterface.*
+import org.junit.Assert.*
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.nio.ByteBuffer
+
+/**
+ * Test cases for JpegExifRedactor
+ */
+class JpegExifRedactorTest {
+
+    private val imageData = byteArrayOf(0xFF.toByte(), 0xDA.toByte(), 0, 4, 1, 2, 3, 4, 5,
+            0xFF.toByte(), 0xD9.toByte())
+
+    /**
+     * Test method to verify only the requested tags are removed and the image data is kept
+     */
+    @Test
+    fun redactRemovesTagsAndKeepsImageData() {
+        val file = File.createTempFile("redact", ".jpg")
+        val original = buildJpeg()
+        file.writeBytes(original)
+
+        assertTrue(JpegExifRedactor.redact(file, setOf(TAG_MAKE, TAG_ARTIST)))
+
+        val redacted = file.readBytes()
+        assertEquals(original.size, redacted.size)
+        assertFalse(String(redacted, Charsets.ISO_8859_1).contains("Canon"))
+        assertFalse(String(redacted, Charsets.ISO_8859_1).contains("Bob"))
+
+        val tiff = ByteBuffer.wrap(redacted, TIFF_START, redacted.size - TIFF_START).slice()
+        // Only the GPS pointer is left in IFD0, followed by the unchanged next IFD offset
+        assertEquals(1, tiff.getShort(8).toInt())
+        assertEquals(0x8825, tiff.getShort(10).toInt() and 0xFFFF)
+        assertEquals(0, tiff.getInt(22))
+        assertArrayEquals(imageData, redacted.copyOfRange(redacted.size - imageData.size, redacted.size))
+        file.delete()
+    }
+
+    /**
+     * Test method to verify GPS tags are looked up in the GPS IFD
+     */
+    @Test
+    fun redactGpsTags() {
+        val file = File.createTempFile("redact", ".jpg")
+        file.writeBytes(buildJpeg())
+
+        assertTrue(JpegExifRedactor.redact(file, setOf(TAG_GPS_LATITUDE_REF)))
+
+        val tiff = file.readBytes().let { ByteBuffer.wrap(it, TIFF_START, it.size - TIFF_START).slice() }
+        assertEquals(3, tiff.getShort(8).toInt())
+        assertEquals(0, tiff.getShort(56).toInt())
+        file.delete()
+    }
+
+    /**
+     * Test method to verify a file whose EXIF segment cannot be redacted is left unchanged
+     */
+    @Test
+    fun redactKeepsFileOnFailure() {
+        val file = File.createTempFile("redact", ".jpg")
+        val original = buildJpeg()
+        // Points IFD0 past the end of the segment
+        ByteBuffer.wrap(original, TIFF_START + 4, 4).putInt(0x7FFF)
+        file.writeBytes(original)
+
+        assertFalse(JpegExifRedactor.redact(file, setOf(TAG_ARTIST)))
+        assertArrayEquals(original, file.readBytes())
+        file.delete()
+    }
+
+    /**
+     * Test method to verify files which are not JPEGs are left to ExifInterface
+     */
+    @Test
+    fun redactFallsBackForNonJpeg() {
+        val file = File.createTempFile("redact", ".png")
+        file.writeBytes(byteArrayOf(0x89.toByte(), 'P'.toByte(), 'N'.toByte(), 'G'.toByte()))
+
+        assertFalse(JpegExifRedactor.redact(file, setOf(TAG_ARTIST)))
+        file.delete()
+    }
+
+    /**
+     * Builds a JPEG with IFD0 = {Make, Artist, GPS pointer} and a GPS IFD = {GPSLatitudeRef}
+     */
+    private fun buildJpeg(): ByteArray {
+        val tiff = ByteBuffer.allocate(74)
+        tiff.put("MM".toByteArray()).putShort(42).putInt(8)
+        tiff.putShort(3)
+        tiff.putShort(0x010F).putShort(2).putInt(6).putInt(50)
+        tiff.putShort(0x013B).putShort(2).putInt(4).put("Bob".toByteArray()).put(0)
+        tiff.putShort(0x8825.toShort()).putShort(4).putInt(1).putInt(56)
+        tiff.putInt(0)
+        tiff.put("Canon".toByteArray()).put(0)
+        tiff.putShort(1)
+        tiff.putShort(1).putShort(2).putInt(2).put("N".toByteArray()).put(0).putShort(0)
+        tiff.putInt(0)
+
+        val out = ByteArrayOutputStream()
+        out.write(byteArrayOf(0xFF.toByte(), 0xD8.toByte()))
+        val length = 2 + 6 + tiff.capacity()
+        out.write(byteArrayOf(0xFF.toByte(), 0xE1.toByte(), (length shr 8).toByte(), length.toByte()))
+        out.write(byteArrayOf('E'.toByte(), 'x'.toByte(), 'i'.toByte(), 'f'.toByte(), 0, 0))
+        out.write(tiff.array())
+        out.write(imageData)
+        return out.toByteArray()
+    }
+
+    companion object {
+        private const val TIFF_START = 2 + 4 + 6
+    }
+}
@@ -0,0 +1,315 @@
+package fr.free.nrw.commons.upload
+
+import android.accounts.Account
+import android.net.Uri
+import android.webkit.MimeTypeMap
+import com.google.gson.Gson
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import fr.free.nrw.commons.TestCommonsApplication
+import fr.free.nrw.commons.auth.SessionManager
+import fr.free.nrw.commons.contributions.Contribution
+import fr.free.nrw.commons.contributions.ContributionDao
+import fr.free.nrw.commons.kvstore.JsonKvStore
+import fr.free.nrw.commons.media.MediaClient
+import fr.free.nrw.commons.media.MediaInterface
+import fr.free.nrw.commons.settings.Prefs
+import fr.free.nrw.commons.wikidata.WikidataClient
+import fr.free.nrw.commons.wikidata.WikidataEditListener
+import fr.free.nrw.commons.wikidata.WikidataEditService
+import fr.free.nrw.commons.wikidata.WikidataInterface
+import io.reactivex.android.plugins.RxAndroidPlugins
+import io.reactivex.plugins.RxJavaPlugins
+import io.reactivex.schedulers.Schedulers
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import okhttp3.mockwebserver.SocketPolicy
+import okio.Buffer
+import org.junit.After
+import org.junit.Assume.assumeTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.mockingDetails
+import org.robolectric.Robolectric
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.Shadows.shadowOf
+import org.robolectric.annotation.Config
+import org.wikipedia.csrf.CsrfTokenClient
+import org.wikipedia.json.GsonUtil
+import retrofit2.Retrofit
+import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory
+import retrofit2.converter.gson.GsonConverterFactory
+import java.io.File
+import java.util.*
+import java.util.concurrent.TimeUnit
+
+/**
+ * End to end benchmark of the upload pipeline: UploadClient -> UploadService.uploadContribution
+ * -> WikidataEditService, run against MockWebServers standing in for Commons and Wikidata.
+ *
+ * Skipped unless enabled, e.g.
+ * ./gradlew testProdDebugUnitTest --tests '*UploadBenchmark*' -Dbenchmark.uploads=20 \
+ *     -Dbenchmark.fileKb=4096 -Dbenchmark.bandwidthKbps=2048 -Dbenchmark.latencyMs=150 \
+ *     -Dbenchmark.failureRate=0.05
+ *
+ * Reports per stage timings (token, stash, unique-name, publish, claim), bytes retransmitted and
+ * contribution DB writes per file on stdout.
+ */
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [21], application = TestCommonsApplication::class)
+class UploadBenchmark {
+
+    private val uploads = Integer.getInteger("benchmark.uploads", 0)
+    private val fileKb = Integer.getInteger("benchmark.fileKb", 1024)
+    private val bandwidthKbps = Integer.getInteger("benchmark.bandwidthKbps", 0)
+    private val latencyMs = Integer.getInteger("benchmark.latencyMs", 0).toLong()
+    private val failureRate = System.getProperty("benchmark.failureRate", "0").toDouble()
+    private val random = Random(java.lang.Long.getLong("benchmark.seed", 42))
+
+    private val commonsServer = MockWebServer()
+    private val wikidataServer = MockWebServer()
+    private val stats = StageStats()
+    private val contributionDao: ContributionDao = mock()
+
+    private lateinit var uploadService: UploadService
+
+    @Before
+    fun setUp() {
+        assumeTrue("Set -Dbenchmark.uploads=N to run the upload benchmark", uploads > 0)
+
+        RxJavaPlugins.setIoSchedulerHandler { Schedulers.trampoline() }
+        RxAndroidPlugins.setMainThreadSchedulerHandler { Schedulers.trampoline() }
+        shadowOf(MimeTypeMap.getSingleton()).addExtensionMimeTypMapping("jpg", "image/jpeg")
+
+        commonsServer.setDispatcher(CommonsDispatcher())
+        wikidataServer.setDispatcher(WikidataDispatcher())
+        commonsServer.start()
+        wikidataServer.start()
+
+        val okHttpClient = OkHttpClient.Builder()
+                .addInterceptor(stats.callInterceptor)
+                .addNetworkInterceptor(stats.attemptInterceptor)
+                .build()
+        val commonsRetrofit = retrofit(okHttpClient, commonsServer)
+        val wikidataInterface = retrofit(okHttpClient, wikidataServer).create(WikidataInterface::class.java)
+
+        val csrfTokenClient: CsrfTokenClient = mock()
+        whenever(csrfTokenClient.tokenBlocking).thenAnswer {
+            commonsRetrofit.create(WikidataInterface::class.java).csrfToken
+                    .blockingFirst().query()!!.csrfToken()
+        }
+
+        val kvStore: JsonKvStore = mock()
+        whenever(kvStore.getBoolean("Picture_Has_Correct_Location", true)).thenReturn(true)
+        val sessionManager: SessionManager = mock()
+        whenever(sessionManager.currentAccount).thenReturn(Account("Benchmark", "fr.free.nrw.commons"))
+
+        uploadService = Robolectric.setupService(UploadService::class.java)
+        uploadService.uploadClient = UploadClient(commonsRetrofit.create(UploadInterface::class.java), csrfTokenClient)
+        uploadService.mediaClient = MediaClient(commonsRetrofit.create(MediaInterface::class.java), null, Gson())
+        uploadService.contributionDao = contributionDao
+        uploadService.uploadQueue = mock()
+        uploadService.sessionManager = sessionManager
+        uploadService.wikidataEditService = newWikidataEditService(kvStore, WikidataClient(wikidataInterface))
+    }
+
+    @After
+    fun tearDown() {
+        if (uploads > 0) {
+            commonsServer.shutdown()
+            wikidataServer.shutdown()
+            RxJavaPlugins.reset()
+            RxAndroidPlugins.reset()
+        }
+    }
+
+    @Test
+    fun uploadContributions() {
+        val file = File.createTempFile("benchmark", ".jpg")
+        file.writeBytes(ByteArray(fileKb * 1024).also { random.nextBytes(it) })
+
+        var completed = 0
+        val start = System.nanoTime()
+        for (i in 0 until uploads) {
+            val contribution = Contribution(Uri.fromFile(file), null, "Benchmark $i.jpg",
+                    "Benchmark upload", file.length(), Date(), null, "Benchmark",
+                    "Benchmark", null)
+            contribution.license = Prefs.Licenses.CC_BY_SA_3
+            contribution.wikiDataEntityId = "Q42"
+            uploadService.handle(UploadService.ACTION_UPLOAD_FILE, contribution)
+            if (contribution.state == Contribution.STATE_COMPLETED) {
+                completed++
+            }
+        }
+        val totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        file.delete()
+
+        val dbWrites = mockingDetails(contributionDao).invocations.count { it.method.name.startsWith("save") }
+        println(String.format(Locale.ROOT,
+                "Upload benchmark: %d files of %d KB, bandwidth %s, latency %d ms, failure rate %.2f",
+                uploads, fileKb, if (bandwidthKbps > 0) "$bandwidthKbps KB/s" else "unlimited",
+                latencyMs, failureRate))
+        println(String.format(Locale.ROOT, "completed %d/%d in %d ms (%.1f KB/s)", completed,
+                uploads, totalMs, uploads * fileKb * 1000.0 / Math.max(totalMs, 1)))
+        print(stats.report())
+        println(String.format(Locale.ROOT, "bytes retransmitted: %d, DB writes per file: %.1f",
+                stats.retransmittedBytes, dbWrites.toDouble() / uploads))
+    }
+
+    private fun retrofit(okHttpClient: OkHttpClient, server: MockWebServer): Retrofit {
+        return Retrofit.Builder()
+                .baseUrl(server.url("/").toString())
+                .client(okHttpClient)
+                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+                .addConverterFactory(GsonConverterFactory.create(GsonUtil.getDefaultGson()))
+                .build()
+    }
+
+    private fun newWikidataEditService(kvStore: JsonKvStore, client: WikidataClient): WikidataEditService {
+        val constructor = WikidataEditService::class.java.getDeclaredConstructor(
+                android.content.Context::class.java, WikidataEditListener::class.java,
+                JsonKvStore::class.java, WikidataClient::class.java)
+        constructor.isAccessible = true
+        return constructor.newInstance(RuntimeEnvironment.application, null, kvStore, client)
+    }
+
+    /**
+     * Applies the configured network conditions to a response
+     */
+    private fun respond(body: String, failable: Boolean): MockResponse {
+        if (failable && random.nextDouble() < failureRate) {
+            return MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST)
+        }
+        val response = MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(body)
+                .setHeadersDelay(latencyMs, TimeUnit.MILLISECONDS)
+        if (bandwidthKbps > 0) {
+            // Throttles both reading the request body and writing the response
+            response.throttleBody(bandwidthKbps * 1024L / 10, 100, TimeUnit.MILLISECONDS)
+        }
+        return response
+    }
+
+    private inner class CommonsDispatcher : Dispatcher() {
+        override fun dispatch(request: RecordedRequest): MockResponse {
+            val path = request.path ?: ""
+            return when {
+                path.contains("meta=tokens") -> respond(TOKEN_RESPONSE, false)
+                path.contains("stash=1") -> respond(STASH_RESPONSE, true)
+                path.contains("action=upload") -> respond(String.format(PUBLISH_RESPONSE,
+                        "Benchmark " + request.sequenceNumber + ".jpg"), true)
+                path.contains("titles=") -> respond(MISSING_PAGE_RESPONSE, false)
+                else -> MockResponse().setResponseCode(404)
+            }
+        }
+    }
+
+    private inner class WikidataDispatcher : Dispatcher() {
+        override fun dispatch(request: RecordedRequest): MockResponse {
+            val path = request.path ?: ""
+            return when {
+                path.contains("meta=tokens") -> respond(TOKEN_RESPONSE, false)
+                path.contains("wbcreateclaim") -> respond(CLAIM_RESPONSE, true)
+                path.contains("action=tag") -> respond(TAG_RESPONSE, false)
+                else -> MockResponse().setResponseCode(404)
+            }
+        }
+    }
+
+    /**
+     * Collects per stage timings from an application interceptor, and request body bytes sent
+     * more than once for the same call from a network interceptor.
+     */
+    private inner class StageStats {
+        private val durations = LinkedHashMap<String, MutableList<Long>>()
+        private val attempts = ThreadLocal<IntArray>()
+        var retransmittedBytes = 0L
+
+        init {
+            for (stage in STAGES) {
+                durations[stage] = ArrayList()
+            }
+        }
+
+        val callInterceptor = Interceptor { chain ->
+            val request = chain.request()
+            val stage = stageOf(request.url.port, request.url.toString())
+            attempts.set(IntArray(1))
+            val start = System.nanoTime()
+            try {
+                chain.proceed(request)
+            } finally {
+                synchronized(this) {
+                    durations[stage]?.add(System.nanoTime() - start)
+                }
+            }
+        }
+
+        val attemptInterceptor = Interceptor { chain ->
+            val counter = attempts.get()
+            if (counter != null && ++counter[0] > 1) {
+                val buffer = Buffer()
+                chain.request().body?.writeTo(buffer)
+                synchronized(this) {
+                    retransmittedBytes += buffer.size
+                }
+            }
+            chain.proceed(chain.request())
+        }
+
+        private fun stageOf(port: Int, url: String): String {
+            return when {
+                port == wikidataServer.port -> "claim"
+                url.contains("meta=tokens") -> "token"
+                url.contains("stash=1") -> "stash"
+                url.contains("action=upload") -> "publish"
+                else -> "unique-name"
+            }
+        }
+
+        @Synchronized
+        fun report(): String {
+            val report = StringBuilder()
+            for ((stage, values) in durations) {
+                if (values.isEmpty()) {
+                    continue
+                }
+                val millis = values.map { it / 1_000_000.0 }.sorted()
+                report.append(String.format(Locale.ROOT,
+                        "%-12s calls %4d  mean %8.1f ms  p50 %8.1f ms  p95 %8.1f ms\n",
+                        stage, millis.size, millis.average(), percentile(millis, 0.5),
+                        percentile(millis, 0.95)))
+            }
+            return report.toString()
+        }
+
+        private fun percentile(sorted: List<Double>, p: Double): Double {
+            return sorted[Math.min(sorted.size - 1, (p * sorted.size).toInt())]
+        }
+    }
+
+    companion object {
+        private val STAGES = arrayOf("token", "stash", "unique-name", "publish", "claim")
+
+        private const val TOKEN_RESPONSE =
+                "{\"batchcomplete\":true,\"query\":{\"tokens\":{\"csrftoken\":\"benchmark+\\\\\"}}}"
+        private const val STASH_RESPONSE =
+                "{\"upload\":{\"result\":\"Success\",\"filekey\":\"benchmark.jpg\"}}"
+        private const val PUBLISH_RESPONSE =
+                "{\"upload\":{\"result\":\"Success\",\"filename\":\"%s\",\"imageinfo\":" +
+                        "{\"timestamp\":\"2019-01-01T00:00:00Z\"," +
+                        "\"url\":\"https://upload.wikimedia.org/benchmark.jpg\"}}}"
+        private const val MISSING_PAGE_RESPONSE =
+                "{\"batchcomplete\":true,\"query\":{\"pages\":[{\"ns\":6," +
+                        "\"title\":\"File:Benchmark.jpg\",\"missing\":true}]}}"
+        private const val CLAIM_RESPONSE = "{\"pageinfo\":{\"lastrevid\":1},\"success\":1}"
+        private const val TAG_RESPONSE = "{\"tag\":[{\"status\":\"success\"}]}"
+    }
+}
@@ -23,6 +23,8 @@ class UploadControllerTest {
     internal var context: Context? = null
     @Mock
     internal var prefs: JsonKvStore? = null
+    @Mock
+    internal var imageTranscoder: ImageTranscoder? = null
 
     @InjectMocks
     var uploadController: UploadController? = null
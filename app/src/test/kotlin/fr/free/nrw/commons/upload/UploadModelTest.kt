@@ -46,6 +46,8 @@ class UploadModelTest {
     internal var fileProcessor: FileProcessor? = null
     @Mock
     internal var imageProcessingService: ImageProcessingService? = null
+    @Mock
+    internal var imageTranscoder: ImageTranscoder? = null
 
     @InjectMocks
     var uploadModel: UploadModel? = null
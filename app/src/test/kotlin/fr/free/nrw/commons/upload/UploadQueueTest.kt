@@ -0,0 +1,68 @@
+package fr.free.nrw.commons.upload
+
+import android.content.Context
+import android.net.Uri
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import fr.free.nrw.commons.contributions.Contribution
+import fr.free.nrw.commons.contributions.ContributionDao
+import fr.free.nrw.commons.kvstore.JsonKvStore
+import fr.free.nrw.commons.settings.Prefs
+import org.junit.Assert.*
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Test cases for UploadQueue
+ */
+class UploadQueueTest {
+
+    private val context: Context = mock()
+    private val defaultKvStore: JsonKvStore = mock()
+    private val contributionDao: ContributionDao = mock()
+
+    private lateinit var uploadQueue: UploadQueue
+
+    @Before
+    fun setUp() {
+        uploadQueue = UploadQueue(context, defaultKvStore, contributionDao)
+    }
+
+    /**
+     * Test method to verify only the head of the queue is loaded, skipping running uploads
+     */
+    @Test
+    fun nextLoadsHeadOfQueue() {
+        val runningUploads = setOf(mock<Uri>())
+        val queued: Contribution = mock()
+        whenever(contributionDao.getNextQueuedUpload(runningUploads)).thenReturn(queued)
+
+        assertEquals(queued, uploadQueue.next(runningUploads))
+        verify(contributionDao, never()).pendingUploads
+    }
+
+    /**
+     * Test method to verify restore requeues interrupted uploads and counts the pending ones
+     */
+    @Test
+    fun restore() {
+        whenever(contributionDao.requeueInterruptedUploads()).thenReturn(1)
+        whenever(contributionDao.pendingUploads).thenReturn(listOf(mock(), mock()))
+
+        assertEquals(2, uploadQueue.restore())
+    }
+
+    /**
+     * Test method to verify the maximum number of concurrent uploads is read from the preferences
+     */
+    @Test
+    fun getMaxConcurrentUploads() {
+        whenever(defaultKvStore.getString(Prefs.MAX_CONCURRENT_UPLOADS, "2")).thenReturn("3")
+        assertEquals(3, uploadQueue.maxConcurrentUploads)
+
+        whenever(defaultKvStore.getString(Prefs.MAX_CONCURRENT_UPLOADS, "2")).thenReturn("invalid")
+        assertEquals(2, uploadQueue.maxConcurrentUploads)
+    }
+}
@@ -0,0 +1,81 @@
+package fr.free.nrw.commons.utils
+
+import io.reactivex.Single
+import io.reactivex.schedulers.TestScheduler
+import io.reactivex.subjects.PublishSubject
+import io.reactivex.subjects.SingleSubject
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Test cases for TypeaheadSearch
+ */
+class TypeaheadSearchTest {
+
+    /**
+     * Test method to verify only the text typed before a pause is queried, once, if long enough
+     */
+    @Test
+    fun debouncesQueries() {
+        val scheduler = TestScheduler()
+        val text = PublishSubject.create<CharSequence>()
+        val observer = text.compose(TypeaheadSearch.queries(500, scheduler)).test()
+
+        text.onNext("c")
+        text.onNext("ca")
+        text.onNext("cat")
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS)
+        text.onNext("cat ")
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS)
+        text.onNext("c")
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS)
+        text.onNext("")
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS)
+
+        observer.assertValues("cat", "")
+    }
+
+    /**
+     * Test method to verify a new query cancels the search in flight
+     */
+    @Test
+    fun cancelsStaleSearches() {
+        val searches = mutableMapOf<String, SingleSubject<String>>()
+        val search = TypeaheadSearch<String> { query -> SingleSubject.create<String>().also { searches[query] = it } }
+        val results = mutableListOf<String>()
+        search.subscribe({ results.add(it) }, { })
+
+        search.search("cat")
+        search.search("cats")
+        assertFalse(searches.getValue("cat").hasObservers())
+        searches.getValue("cats").onSuccess("cats results")
+
+        assertEquals(listOf("cats results"), results)
+    }
+
+    /**
+     * Test method to verify the results of a query are reused, and errors do not stop later searches
+     */
+    @Test
+    fun reusesResults() {
+        var searchCount = 0
+        val search = TypeaheadSearch<String> { query ->
+            searchCount++
+            if (query == "error") Single.error(IOException()) else Single.just("$query results")
+        }
+        val results = mutableListOf<String>()
+        val errors = mutableListOf<Throwable>()
+        search.subscribe({ results.add(it) }, { errors.add(it) })
+
+        search.search("cat")
+        search.search("error")
+        search.search("cat")
+
+        assertEquals(listOf("cat results", "cat results"), results)
+        assertEquals(1, errors.size)
+        assertEquals(2, searchCount)
+    }
+}